@@ -28,6 +28,7 @@ import com.sun.squawk.builder.ccompiler.*;
 import com.sun.squawk.builder.ccompiler.CCompiler.Options;
 import com.sun.squawk.builder.commands.*;
 import com.sun.squawk.builder.gen.Generator;
+import com.sun.squawk.builder.gen.Superinstructions;
 import com.sun.cldc.jna.JNAGen;
 import com.sun.cldc.jna.JNAGenDirect;
 import com.sun.cldc.jna.SourceProcessor;
@@ -1359,6 +1360,8 @@ public class Build {
         addGen("Mnemonics",          "translator/src");
         addGen("Verifier",           "translator/src");
         addGen("SwitchDotC",         "vmcore/src");
+        addGen("CompactDotC",        "vmcore/src");
+        addGen("FusionTable",        "translator/src");
         
         // Add the "clean" command
         addCommand(new Command(this, "clean") {
@@ -1505,6 +1508,28 @@ public class Build {
         addJavaCommand("profileviewer", "hosted-support/classes:mapper/classes:cldc/classes:translator/classes", false, "", "com.sun.squawk.traces.ProfileViewer", "mapper").
             setDescription("the Squawk VM execution profile GUI viewer");
 
+        // Add the "samples" command
+        addJavaCommand("samples", "hosted-support/classes:mapper/classes:cldc/classes:translator/classes", false, "", "com.sun.squawk.traces.SampleConverter", "mapper").
+            setDescription("converts the samples recorded by a VM run with -Xsample to folded stacks and a per-method profile");
+
+        // Add the "opcodecounter" command
+        addJavaCommand("opcodecounter", "hosted-support/classes:mapper/classes", false, "", "com.sun.squawk.traces.OpCodeCounter", "mapper").
+            setDescription("counts the opcodes, or sequences of opcodes, in the profile traces of a Squawk VM trace file");
+
+        // Add the "superinstructions" command
+        addCommand(new Command(this, "superinstructions") {
+            public String getDescription() {
+                return "chooses superinstructions from the opcode profiles of a VM built with -DOPCODE_PROFILER=1";
+            }
+            public void run(String[] args) {
+                try {
+                    Superinstructions.main(args);
+                } catch (IOException e) {
+                    throw new BuildException("error reading profile", e);
+                }
+            }
+        });
+
         // Add the "gctf" command
         addJavaCommand("gctf", "hosted-support/classes:mapper/classes:cldc/classes", false, "", "com.sun.squawk.traces.GCTraceFilter", "mapper").
             setDescription("filter that converts method addresses in a garbage collector trace to signatures");
@@ -1514,7 +1539,7 @@ public class Build {
             setDescription("converts a heap trace to a set of HTML files");
 
         // Add the "rom" command
-        addCommand(new RomCommand(this)).dependsOn("SwitchDotC");
+        addCommand(new RomCommand(this)).dependsOn("SwitchDotC CompactDotC");
 
         // Add the "spp" command
         addCommand(new SppFilePreprocessCommand(this));
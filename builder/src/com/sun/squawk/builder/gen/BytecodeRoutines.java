@@ -58,7 +58,7 @@ public class BytecodeRoutines extends Verifier {
 
     void printCases(PrintWriter out, List<Instruction> list) {
         for (Instruction instruction: list) {
-            if (instruction.compact == null) {
+            if (instruction.compact == null && instruction.getFused() == null) {
                 String functionDef = getFunction(instruction, false);
                 if (!functionDefs.contains(functionDef)) {
                     functionDefs.add(functionDef);
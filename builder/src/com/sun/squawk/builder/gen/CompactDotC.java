@@ -0,0 +1,71 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ * 
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ * 
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+
+package com.sun.squawk.builder.gen;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generator for the file compact.c.inc, the part of the Squawk VM interpreter loop (switch.c.inc)
+ * with the cases for the instructions that have an implicit parameter in their opcode and for
+ * the superinstructions. These are the instructions that change when the superinstructions are
+ * chosen again.
+ *
+ */
+public class CompactDotC extends Generator {
+
+    /**
+     * {@inheritDoc}
+     */
+    void generate(PrintWriter out) {
+        printCopyright(this.getClass(), out);
+        for (Instruction instruction : Instruction.getInstructions()) {
+            if (instruction.opcode < 256 && (isCompact(instruction) || instruction.getFused() != null)) {
+                out.println(pad("            CASE(OPC_" + instruction.mnemonic.toUpperCase() + ", {", 50) +
+                            instruction.getIParmCall() + " " + pad(SwitchDotC.getFunction(instruction), 20) + " BREAK; })");
+            }
+        }
+    }
+
+    /**
+     * Determines if an instruction is a member of one of the families in {@link Instruction#COMPACT_FAMILIES}.
+     */
+    private static boolean isCompact(Instruction instruction) {
+        for (String family : Instruction.COMPACT_FAMILIES) {
+            if (instruction.mnemonic.matches(family + "_\\d+")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getGeneratedFile(File baseDir) {
+        return new File(baseDir, "vm/compact.c.inc");
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ * 
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ * 
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+
+package com.sun.squawk.builder.gen;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generator for the class com.sun.squawk.vm.FusionTable, which tells the translator how large the
+ * compact instruction families are and which pairs of opcodes it can emit as a superinstruction.
+ *
+ */
+public class FusionTable extends Generator {
+
+    /**
+     * {@inheritDoc}
+     */
+    void generate(PrintWriter out) {
+        List<Instruction> instructions = Instruction.getInstructions();
+
+        printCopyright(this.getClass(), out);
+        out.println("package com.sun.squawk.vm;");
+        out.println();
+        out.println("/**");
+        out.println(" * This class defines the superinstructions of the Squawk VM instruction set, and the number of");
+        out.println(" * opcodes left for each family of instructions that has an implicit parameter in its opcode.");
+        out.println(" *");
+        out.println(" */");
+        out.println("public final class FusionTable {");
+        out.println();
+
+        // Generate the family sizes
+        for (int i = 0; i != Instruction.COMPACT_FAMILIES.length; ++i) {
+            String family = Instruction.COMPACT_FAMILIES[i];
+            int count = 0;
+            for (Instruction instruction : instructions) {
+                if (instruction.mnemonic.equals(family + '_' + count)) {
+                    count++;
+                }
+            }
+            out.println("    /**");
+            out.println("     * The number of " + family + "_n instructions.");
+            out.println("     */");
+            out.println("    public final static int " + family.toUpperCase() + "_COUNT = " + count + ";");
+            out.println();
+        }
+
+        // Group the superinstructions by their first part
+        Map<String, List<Instruction>> byFirst = new LinkedHashMap<String, List<Instruction>>();
+        for (Instruction instruction : instructions) {
+            Instruction[] fused = instruction.getFused();
+            if (fused != null) {
+                if (fused.length != 2) {
+                    throw new RuntimeException("only pairs of instructions can be fused: " + instruction.mnemonic);
+                }
+                List<Instruction> list = byFirst.get(fused[0].mnemonic);
+                if (list == null) {
+                    list = new ArrayList<Instruction>();
+                    byFirst.put(fused[0].mnemonic, list);
+                }
+                list.add(instruction);
+            }
+        }
+
+        // Generate fuse()
+        out.println("    /**");
+        out.println("     * Gets the superinstruction that replaces a given pair of instructions.");
+        out.println("     *");
+        out.println("     * @param  first   the opcode of the first instruction");
+        out.println("     * @param  second  the opcode of the instruction following it");
+        out.println("     * @return the opcode of the superinstruction or -1 if there is none");
+        out.println("     */");
+        out.println("    public static int fuse(int first, int second) {");
+        if (!byFirst.isEmpty()) {
+            out.println("        switch (first) {");
+            for (Map.Entry<String, List<Instruction>> entry : byFirst.entrySet()) {
+                out.println("            case OPC." + entry.getKey().toUpperCase() + ": {");
+                out.println("                switch (second) {");
+                for (Instruction instruction : entry.getValue()) {
+                    out.println(pad("                    case OPC." + instruction.getFused()[1].mnemonic.toUpperCase() + ":", 50) +
+                                "return OPC." + instruction.mnemonic.toUpperCase() + ";");
+                }
+                out.println("                }");
+                out.println("                break;");
+                out.println("            }");
+            }
+            out.println("        }");
+        }
+        out.println("        return -1;");
+        out.println("    }");
+        out.println();
+
+        // Generate isFused()
+        out.println("    /**");
+        out.println("     * Determines if a given opcode is a superinstruction.");
+        out.println("     *");
+        out.println("     * @param  opcode  an instruction opcode");
+        out.println("     * @return true if <code>opcode</code> replaces a pair of instructions");
+        out.println("     */");
+        out.println("    public static boolean isFused(int opcode) {");
+        if (!byFirst.isEmpty()) {
+            out.println("        switch (opcode) {");
+            for (List<Instruction> list : byFirst.values()) {
+                for (Instruction instruction : list) {
+                    out.println("            case OPC." + instruction.mnemonic.toUpperCase() + ":");
+                }
+            }
+            out.println("                return true;");
+            out.println("        }");
+        }
+        out.println("        return false;");
+        out.println("    }");
+        out.println("}");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getGeneratedFile(File baseDir) {
+        return new File(baseDir, "com/sun/squawk/vm/FusionTable.java");
+    }
+}
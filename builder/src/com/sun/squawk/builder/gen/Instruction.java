@@ -76,7 +76,76 @@ public final class Instruction {
         this.wide = wide;
     }
 
+    /**
+     * Gets the instructions fused by this superinstruction. The mnemonic of a superinstruction
+     * is the mnemonics of the instructions it replaces joined by "__".
+     *
+     * @return the fused instructions or null if this is not a superinstruction
+     */
+    public Instruction[] getFused() {
+        if (mnemonic.indexOf("__") == -1) {
+            return null;
+        }
+        String[] names = mnemonic.split("__");
+        Instruction[] fused = new Instruction[names.length];
+        for (int i = 0; i != names.length; ++i) {
+            for (Instruction instruction : getAllInstructions()) {
+                if (instruction.mnemonic.equals(names[i])) {
+                    fused[i] = instruction;
+                    break;
+                }
+            }
+            if (fused[i] == null) {
+                throw new RuntimeException("unknown instruction in superinstruction " + mnemonic + ": " + names[i]);
+            }
+        }
+        return fused;
+    }
+
+    /**
+     * Gets the call that reads the immediate parameter of this instruction in the generated
+     * switch statements. Only a widenable instruction has its parameter read before the code
+     * of the instruction, as the wide prefixes change how it is read. A superinstruction reads
+     * the parameter of the part that is widenable.
+     *
+     * @return "iparmNone();", "iparmByte();" or "iparmUByte();"
+     */
+    public String getIParmCall() {
+        Instruction widenable = wide != null ? this : null;
+        Instruction[] fused = getFused();
+        if (fused != null) {
+            for (Instruction part : fused) {
+                if (part.wide() != null) {
+                    widenable = part;
+                }
+            }
+        }
+        if (widenable == null) {
+            return "iparmNone();";
+        } else if (widenable.iparm == IParm.B) {
+            return "iparmByte();";
+        } else if (widenable.iparm == IParm.A) {
+            return "iparmUByte();";
+        }
+        throw new RuntimeException("a widenable instruction can only have a byte or ubyte immediate parameter");
+    }
+
+    /**
+     * The families of instructions that have an implicit parameter in their opcode, in opcode order.
+     */
+    static final String[] COMPACT_FAMILIES = { "const", "object", "load", "store", "loadparm" };
+
+    /**
+     * The most members each family in {@link #COMPACT_FAMILIES} can have. Together they fill all
+     * 256 single byte opcodes, and each superinstruction takes the place of the last member of one
+     * of the families (see {@link SuperinstructionSet}).
+     */
+    static final int[] MAX_COMPACT_SIZES = { 16, 16, 16, 16, 8 };
+
+    private static final String[] COMPACT_EFFECTS = { ":I", ":O", ":W", "W:", ":W" };
+
     private static List<Instruction> instructions;
+    private static List<Instruction> baseInstructions;
     private static List<Instruction> floatInstructions;
     private static List<Instruction> allInstructions;
 
@@ -85,232 +154,263 @@ public final class Instruction {
      */
     public static List<Instruction> getInstructions() {
         if (instructions == null) {
-
-            Factory f = new Factory(0);
-
-            f.define(16, "const",           IParm.N, ":I",        Flow.NEXT);
-            f.define(16, "object",          IParm.N, ":O",        Flow.NEXT);
-            f.define(16, "load",            IParm.N, ":W",        Flow.NEXT);
-            f.define(16, "store",           IParm.N, "W:",        Flow.NEXT);
-            f.define(8, "loadparm",         IParm.N, ":W",        Flow.NEXT);
-
-            f.define("wide_m1",             IParm.P, ":",         Flow.CHANGE, false);
-            f.define("wide_0",              IParm.P, ":",         Flow.CHANGE, false);
-            f.define("wide_1",              IParm.P, ":",         Flow.CHANGE, false);
-            f.define("wide_short",          IParm.P, ":",         Flow.CHANGE, false);
-            f.define("wide_int",            IParm.P, ":",         Flow.CHANGE, false);
-
-            f.define("escape",              IParm.P, null,        Flow.CHANGE, false);
-            f.define("escape_wide_m1",      IParm.P, null,        Flow.CHANGE, false);
-            f.define("escape_wide_0",       IParm.P, null,        Flow.CHANGE, false);
-            f.define("escape_wide_1",       IParm.P, null,        Flow.CHANGE, false);
-            f.define("escape_wide_short",   IParm.P, null,        Flow.CHANGE, false);
-            f.define("escape_wide_int",     IParm.P, null,        Flow.CHANGE, false);
-
-            f.define("catch",               IParm.N, ":O",        Flow.NEXT, false);
-            f.define("const_null",          IParm.N, ":O",        Flow.NEXT, false);
-            f.define("const_m1",            IParm.N, ":I",        Flow.NEXT, false);
-            f.define("const_byte",          IParm.B, ":I",        Flow.NEXT, false);
-            f.define("const_short",         IParm.S, ":I",        Flow.NEXT, false);
-            f.define("const_char",          IParm.C, ":I",        Flow.NEXT, false);
-            f.define("const_int",           IParm.I, ":I",        Flow.NEXT, false);
-            f.define("const_long",          IParm.L, ":L",        Flow.NEXT, false);
-
-            f.define("object",              IParm.A, ":O",        Flow.NEXT, true);
-            f.define("load",                IParm.A, ":W",        Flow.NEXT, true);
-            f.define("load_i2",             IParm.A, ":L",        Flow.NEXT, true);
-            f.define("store",               IParm.A, "W:",        Flow.NEXT, true);
-            f.define("store_i2",            IParm.A, "L:",        Flow.NEXT, true);
-            f.define("loadparm",            IParm.A, ":W",        Flow.NEXT, true);
-            f.define("loadparm_i2",         IParm.A, ":L",        Flow.NEXT, true);
-            f.define("storeparm",           IParm.A, "W:",        Flow.NEXT, true);
-            f.define("storeparm_i2",        IParm.A, "L:",        Flow.NEXT, true);
-            f.define("inc",                 IParm.A, ":",         Flow.NEXT, true);
-            f.define("dec",                 IParm.A, ":",         Flow.NEXT, true);
-            f.define("incparm",             IParm.A, ":",         Flow.NEXT, true);
-            f.define("decparm",             IParm.A, ":",         Flow.NEXT, true);
-
-            f.define("goto",                IParm.B, ":",         Flow.CHANGE, true);
-            f.define("if_eq_o",             IParm.B, "O:",        Flow.CHANGE, true);
-            f.define("if_ne_o",             IParm.B, "O:",        Flow.CHANGE, true);
-            f.define("if_cmpeq_o",          IParm.B, "OO:",       Flow.CHANGE, true);
-            f.define("if_cmpne_o",          IParm.B, "OO:",       Flow.CHANGE, true);
-            f.define("if_eq_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_ne_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_lt_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_le_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_gt_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_ge_i",             IParm.B, "I:",        Flow.CHANGE, true);
-            f.define("if_cmpeq_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_cmpne_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_cmplt_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_cmple_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_cmpgt_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_cmpge_i",          IParm.B, "II:",       Flow.CHANGE, true);
-            f.define("if_eq_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_ne_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_lt_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_le_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_gt_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_ge_l",             IParm.B, "L:",        Flow.CHANGE, true);
-            f.define("if_cmpeq_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-            f.define("if_cmpne_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-            f.define("if_cmplt_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-            f.define("if_cmple_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-            f.define("if_cmpgt_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-            f.define("if_cmpge_l",          IParm.B, "LL:",       Flow.CHANGE, true);
-
-            f.define("getstatic_i",         IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getstatic_o",         IParm.A, "O:O",       Flow.CALL, true);
-            f.define("getstatic_l",         IParm.A, "O:L",       Flow.CALL, true);
-
-            f.define("class_getstatic_i",   IParm.A, ":I",        Flow.CALL, true);
-            f.define("class_getstatic_o",   IParm.A, ":O",        Flow.CALL, true);
-            f.define("class_getstatic_l",   IParm.A, ":L",        Flow.CALL, true);
-
-            f.define("putstatic_i",         IParm.A, "OI:",       Flow.CALL, true);
-            f.define("putstatic_o",         IParm.A, "OO:",       Flow.CALL, true);
-            f.define("putstatic_l",         IParm.A, "OL:",       Flow.CALL, true);
-
-            f.define("class_putstatic_i",   IParm.A, "I:",        Flow.CALL, true);
-            f.define("class_putstatic_o",   IParm.A, "O:",        Flow.CALL, true);
-            f.define("class_putstatic_l",   IParm.A, "L:",        Flow.CALL, true);
-
-            f.define("getfield_i",          IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getfield_b",          IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getfield_s",          IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getfield_c",          IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getfield_o",          IParm.A, "O:I",       Flow.CALL, true);
-            f.define("getfield_l",          IParm.A, "O:L",       Flow.CALL, true);
-
-            f.define("getfield0_i",         IParm.A, ":I",        Flow.NEXT, true);
-            f.define("getfield0_b",         IParm.A, ":I",        Flow.NEXT, true);
-            f.define("getfield0_s",         IParm.A, ":I",        Flow.NEXT, true);
-            f.define("getfield0_c",         IParm.A, ":I",        Flow.NEXT, true);
-            f.define("getfield0_o",         IParm.A, ":I",        Flow.NEXT, true);
-            f.define("getfield0_l",         IParm.A, ":L",        Flow.NEXT, true);
-
-            f.define("putfield_i",          IParm.A, "OI:",       Flow.CALL, true);
-            f.define("putfield_b",          IParm.A, "OI:",       Flow.CALL, true);
-            f.define("putfield_s",          IParm.A, "OI:",       Flow.CALL, true);
-            f.define("putfield_o",          IParm.A, "OI:",       Flow.CALL, true);
-            f.define("putfield_l",          IParm.A, "OL:",       Flow.CALL, true);
-
-            f.define("putfield0_i",         IParm.A, "I:",        Flow.NEXT, true);
-            f.define("putfield0_b",         IParm.A, "I:",        Flow.NEXT, true);
-            f.define("putfield0_s",         IParm.A, "I:",        Flow.NEXT, true);
-            f.define("putfield0_o",         IParm.A, "I:",        Flow.NEXT, true);
-            f.define("putfield0_l",         IParm.A, "L:",        Flow.NEXT, true);
-
-            f.define("invokevirtual_i",     IParm.A, "O*:I",      Flow.CALL, true);
-            f.define("invokevirtual_v",     IParm.A, "O*:",       Flow.CALL, true);
-            f.define("invokevirtual_l",     IParm.A, "O*:L",      Flow.CALL, true);
-            f.define("invokevirtual_o",     IParm.A, "O*:O",      Flow.CALL, true);
-
-            f.define("invokestatic_i",      IParm.A, "O*:I",      Flow.CALL, true);
-            f.define("invokestatic_v",      IParm.A, "O*:",       Flow.CALL, true);
-            f.define("invokestatic_l",      IParm.A, "O*:L",      Flow.CALL, true);
-            f.define("invokestatic_o",      IParm.A, "O*:O",      Flow.CALL, true);
-
-            f.define("invokesuper_i",       IParm.A, "O*:I",      Flow.CALL, true);
-            f.define("invokesuper_v",       IParm.A, "O*:",       Flow.CALL, true);
-            f.define("invokesuper_l",       IParm.A, "O*:L",      Flow.CALL, true);
-            f.define("invokesuper_o",       IParm.A, "O*:O",      Flow.CALL, true);
-
-            f.define("invokenative_i",      IParm.A, "*:I",       Flow.CALL, true);
-            f.define("invokenative_v",      IParm.A, "*:",        Flow.CALL, true);
-            f.define("invokenative_l",      IParm.A, "*:L",       Flow.CALL, true);
-            f.define("invokenative_o",      IParm.A, "*:O",       Flow.CALL, true);
-
-            f.define("findslot",            IParm.A, "OO:I",      Flow.CALL, true);
-            f.define("extend",              IParm.A, ":",         Flow.NEXT, true);
-
-            f.define("invokeslot_i",        IParm.N, "IO*:I",     Flow.CALL, false);
-            f.define("invokeslot_v",        IParm.N, "IO*:",      Flow.CALL, false);
-            f.define("invokeslot_l",        IParm.N, "IO*:L",     Flow.CALL, false);
-            f.define("invokeslot_o",        IParm.N, "IO*:I",     Flow.CALL, false);
-
-            f.define("return_v",            IParm.N, ":",         Flow.CHANGE, false);
-            f.define("return_i",            IParm.N, "I:",        Flow.CHANGE, false);
-            f.define("return_l",            IParm.N, "L:",        Flow.CHANGE, false);
-            f.define("return_o",            IParm.N, "O:",        Flow.CHANGE, false);
-
-            f.define("tableswitch_i",       IParm.T, "I:",        Flow.CHANGE, false);
-            f.define("tableswitch_s",       IParm.T, "I:",        Flow.CHANGE, false);
-
-            f.define("extend0",             IParm.N, ":",         Flow.NEXT, false);
-
-            f.define("add_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("sub_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("and_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("or_i",                IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("xor_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("shl_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("shr_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("ushr_i",              IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("mul_i",               IParm.N, "II:I",      Flow.NEXT, false);
-            f.define("div_i",               IParm.N, "II:I",      Flow.CALL, false);
-            f.define("rem_i",               IParm.N, "II:I",      Flow.CALL, false);
-            f.define("neg_i",               IParm.N, "I:I",       Flow.NEXT, false);
-            f.define("i2b",                 IParm.N, "I:I",       Flow.NEXT, false);
-            f.define("i2s",                 IParm.N, "I:I",       Flow.NEXT, false);
-            f.define("i2c",                 IParm.N, "I:I",       Flow.NEXT, false);
-            f.define("add_l",               IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("sub_l",               IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("mul_l",               IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("div_l",               IParm.N, "LL:L",      Flow.CALL, false);
-            f.define("rem_l",               IParm.N, "LL:L",      Flow.CALL, false);
-            f.define("and_l",               IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("or_l",                IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("xor_l",               IParm.N, "LL:L",      Flow.NEXT, false);
-            f.define("neg_l",               IParm.N, "L:L",       Flow.NEXT, false);
-            f.define("shl_l",               IParm.N, "IL:L",      Flow.NEXT, false);
-            f.define("shr_l",               IParm.N, "IL:L",      Flow.NEXT, false);
-            f.define("ushr_l",              IParm.N, "IL:L",      Flow.NEXT, false);
-            f.define("l2i",                 IParm.N, "L:I",       Flow.NEXT, false);
-            f.define("i2l",                 IParm.N, "I:L",       Flow.NEXT, false);
-            f.define("throw",               IParm.N, "O:",        Flow.CALL, false);
-            f.define("pop_1",               IParm.N, "W:",        Flow.NEXT, false);
-            f.define("pop_2",               IParm.N, "WW:",       Flow.NEXT, false);
-            f.define("monitorenter",        IParm.N, "O:",        Flow.CALL, false);
-            f.define("monitorexit",         IParm.N, "O:",        Flow.CALL, false);
-            f.define("class_monitorenter",  IParm.N, ":",         Flow.CALL, false);
-            f.define("class_monitorexit",   IParm.N, ":",         Flow.CALL, false);
-            f.define("arraylength",         IParm.N, "O:I:",      Flow.CALL, false);
-            f.define("new",                 IParm.N, "O:O",       Flow.CALL, false);
-            f.define("newarray",            IParm.N, "OI:O",      Flow.CALL, false);
-            f.define("newdimension",        IParm.N, "OI:O",      Flow.CALL, false);
-            f.define("class_clinit",        IParm.N, ":",         Flow.CALL, false);
-            f.define("bbtarget_sys",        IParm.N, ":",         Flow.NEXT, false);
-            f.define("bbtarget_app",        IParm.N, ":",         Flow.CALL, false);
-            f.define("instanceof",          IParm.N, "OO:I",      Flow.CALL, false);
-            f.define("checkcast",           IParm.N, "OO:O",      Flow.CALL, false);
-
-            f.define("aload_i",             IParm.N, "OI:I",      Flow.CALL, false);
-            f.define("aload_b",             IParm.N, "OI:I",      Flow.CALL, false);
-            f.define("aload_s",             IParm.N, "OI:I",      Flow.CALL, false);
-            f.define("aload_c",             IParm.N, "OI:I",      Flow.CALL, false);
-            f.define("aload_o",             IParm.N, "OI:O",      Flow.CALL, false);
-            f.define("aload_l",             IParm.N, "OI:L",      Flow.CALL, false);
-
-            f.define("astore_i",            IParm.N, "OII:",      Flow.CALL, false);
-            f.define("astore_b",            IParm.N, "OII:",      Flow.CALL, false);
-            f.define("astore_s",            IParm.N, "OII:",      Flow.CALL, false);
-            f.define("astore_o",            IParm.N, "OIO:",      Flow.CALL, false);
-            f.define("astore_l",            IParm.N, "OIL:",      Flow.CALL, false);
-
-            f.define("lookup_i",            IParm.N, "IO:I",      Flow.CALL, false);
-            f.define("lookup_b",            IParm.N, "IO:I",      Flow.CALL, false);
-            f.define("lookup_s",            IParm.N, "IO:I",      Flow.CALL, false);
-            f.define("pause",               IParm.N, ":",         Flow.NEXT, false);
-            
-//            f.define("threadpoll",          IParm.N, ":",         Flow.CALL, false);
-
-            instructions = f.getDefinitions();
+            instructions = define(SuperinstructionSet.COMPACT_SIZES, SuperinstructionSet.FUSED);
         }
         return instructions;
     }
 
+    /**
+     * Gets the non-floating point instructions as they are without any superinstructions, with
+     * each compact family at its largest size. This is the instruction set superinstructions are
+     * chosen for.
+     */
+    static List<Instruction> getBaseInstructions() {
+        if (baseInstructions == null) {
+            baseInstructions = define(MAX_COMPACT_SIZES, new String[0]);
+        }
+        return baseInstructions;
+    }
+
+    /**
+     * Defines the non-floating point instructions.
+     *
+     * @param compactSizes  the number of members of each family in {@link #COMPACT_FAMILIES}
+     * @param fused         the mnemonics of the superinstructions
+     * @return the instructions
+     */
+    private static List<Instruction> define(int[] compactSizes, String[] fused) {
+        Factory f = new Factory(0);
+
+        for (int i = 0; i != COMPACT_FAMILIES.length; ++i) {
+            if (compactSizes[i] < 1 || compactSizes[i] > MAX_COMPACT_SIZES[i]) {
+                throw new RuntimeException("invalid size for the " + COMPACT_FAMILIES[i] + " family: " + compactSizes[i]);
+            }
+            f.define(compactSizes[i], COMPACT_FAMILIES[i], IParm.N, COMPACT_EFFECTS[i], Flow.NEXT);
+        }
+
+        f.define("wide_m1",             IParm.P, ":",         Flow.CHANGE, false);
+        f.define("wide_0",              IParm.P, ":",         Flow.CHANGE, false);
+        f.define("wide_1",              IParm.P, ":",         Flow.CHANGE, false);
+        f.define("wide_short",          IParm.P, ":",         Flow.CHANGE, false);
+        f.define("wide_int",            IParm.P, ":",         Flow.CHANGE, false);
+
+        f.define("escape",              IParm.P, null,        Flow.CHANGE, false);
+        f.define("escape_wide_m1",      IParm.P, null,        Flow.CHANGE, false);
+        f.define("escape_wide_0",       IParm.P, null,        Flow.CHANGE, false);
+        f.define("escape_wide_1",       IParm.P, null,        Flow.CHANGE, false);
+        f.define("escape_wide_short",   IParm.P, null,        Flow.CHANGE, false);
+        f.define("escape_wide_int",     IParm.P, null,        Flow.CHANGE, false);
+
+        f.define("catch",               IParm.N, ":O",        Flow.NEXT, false);
+        f.define("const_null",          IParm.N, ":O",        Flow.NEXT, false);
+        f.define("const_m1",            IParm.N, ":I",        Flow.NEXT, false);
+        f.define("const_byte",          IParm.B, ":I",        Flow.NEXT, false);
+        f.define("const_short",         IParm.S, ":I",        Flow.NEXT, false);
+        f.define("const_char",          IParm.C, ":I",        Flow.NEXT, false);
+        f.define("const_int",           IParm.I, ":I",        Flow.NEXT, false);
+        f.define("const_long",          IParm.L, ":L",        Flow.NEXT, false);
+
+        f.define("object",              IParm.A, ":O",        Flow.NEXT, true);
+        f.define("load",                IParm.A, ":W",        Flow.NEXT, true);
+        f.define("load_i2",             IParm.A, ":L",        Flow.NEXT, true);
+        f.define("store",               IParm.A, "W:",        Flow.NEXT, true);
+        f.define("store_i2",            IParm.A, "L:",        Flow.NEXT, true);
+        f.define("loadparm",            IParm.A, ":W",        Flow.NEXT, true);
+        f.define("loadparm_i2",         IParm.A, ":L",        Flow.NEXT, true);
+        f.define("storeparm",           IParm.A, "W:",        Flow.NEXT, true);
+        f.define("storeparm_i2",        IParm.A, "L:",        Flow.NEXT, true);
+        f.define("inc",                 IParm.A, ":",         Flow.NEXT, true);
+        f.define("dec",                 IParm.A, ":",         Flow.NEXT, true);
+        f.define("incparm",             IParm.A, ":",         Flow.NEXT, true);
+        f.define("decparm",             IParm.A, ":",         Flow.NEXT, true);
+
+        f.define("goto",                IParm.B, ":",         Flow.CHANGE, true);
+        f.define("if_eq_o",             IParm.B, "O:",        Flow.CHANGE, true);
+        f.define("if_ne_o",             IParm.B, "O:",        Flow.CHANGE, true);
+        f.define("if_cmpeq_o",          IParm.B, "OO:",       Flow.CHANGE, true);
+        f.define("if_cmpne_o",          IParm.B, "OO:",       Flow.CHANGE, true);
+        f.define("if_eq_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_ne_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_lt_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_le_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_gt_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_ge_i",             IParm.B, "I:",        Flow.CHANGE, true);
+        f.define("if_cmpeq_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_cmpne_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_cmplt_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_cmple_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_cmpgt_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_cmpge_i",          IParm.B, "II:",       Flow.CHANGE, true);
+        f.define("if_eq_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_ne_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_lt_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_le_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_gt_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_ge_l",             IParm.B, "L:",        Flow.CHANGE, true);
+        f.define("if_cmpeq_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+        f.define("if_cmpne_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+        f.define("if_cmplt_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+        f.define("if_cmple_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+        f.define("if_cmpgt_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+        f.define("if_cmpge_l",          IParm.B, "LL:",       Flow.CHANGE, true);
+
+        f.define("getstatic_i",         IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getstatic_o",         IParm.A, "O:O",       Flow.CALL, true);
+        f.define("getstatic_l",         IParm.A, "O:L",       Flow.CALL, true);
+
+        f.define("class_getstatic_i",   IParm.A, ":I",        Flow.CALL, true);
+        f.define("class_getstatic_o",   IParm.A, ":O",        Flow.CALL, true);
+        f.define("class_getstatic_l",   IParm.A, ":L",        Flow.CALL, true);
+
+        f.define("putstatic_i",         IParm.A, "OI:",       Flow.CALL, true);
+        f.define("putstatic_o",         IParm.A, "OO:",       Flow.CALL, true);
+        f.define("putstatic_l",         IParm.A, "OL:",       Flow.CALL, true);
+
+        f.define("class_putstatic_i",   IParm.A, "I:",        Flow.CALL, true);
+        f.define("class_putstatic_o",   IParm.A, "O:",        Flow.CALL, true);
+        f.define("class_putstatic_l",   IParm.A, "L:",        Flow.CALL, true);
+
+        f.define("getfield_i",          IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getfield_b",          IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getfield_s",          IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getfield_c",          IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getfield_o",          IParm.A, "O:I",       Flow.CALL, true);
+        f.define("getfield_l",          IParm.A, "O:L",       Flow.CALL, true);
+
+        f.define("getfield0_i",         IParm.A, ":I",        Flow.NEXT, true);
+        f.define("getfield0_b",         IParm.A, ":I",        Flow.NEXT, true);
+        f.define("getfield0_s",         IParm.A, ":I",        Flow.NEXT, true);
+        f.define("getfield0_c",         IParm.A, ":I",        Flow.NEXT, true);
+        f.define("getfield0_o",         IParm.A, ":I",        Flow.NEXT, true);
+        f.define("getfield0_l",         IParm.A, ":L",        Flow.NEXT, true);
+
+        f.define("putfield_i",          IParm.A, "OI:",       Flow.CALL, true);
+        f.define("putfield_b",          IParm.A, "OI:",       Flow.CALL, true);
+        f.define("putfield_s",          IParm.A, "OI:",       Flow.CALL, true);
+        f.define("putfield_o",          IParm.A, "OI:",       Flow.CALL, true);
+        f.define("putfield_l",          IParm.A, "OL:",       Flow.CALL, true);
+
+        f.define("putfield0_i",         IParm.A, "I:",        Flow.NEXT, true);
+        f.define("putfield0_b",         IParm.A, "I:",        Flow.NEXT, true);
+        f.define("putfield0_s",         IParm.A, "I:",        Flow.NEXT, true);
+        f.define("putfield0_o",         IParm.A, "I:",        Flow.NEXT, true);
+        f.define("putfield0_l",         IParm.A, "L:",        Flow.NEXT, true);
+
+        f.define("invokevirtual_i",     IParm.A, "O*:I",      Flow.CALL, true);
+        f.define("invokevirtual_v",     IParm.A, "O*:",       Flow.CALL, true);
+        f.define("invokevirtual_l",     IParm.A, "O*:L",      Flow.CALL, true);
+        f.define("invokevirtual_o",     IParm.A, "O*:O",      Flow.CALL, true);
+
+        f.define("invokestatic_i",      IParm.A, "O*:I",      Flow.CALL, true);
+        f.define("invokestatic_v",      IParm.A, "O*:",       Flow.CALL, true);
+        f.define("invokestatic_l",      IParm.A, "O*:L",      Flow.CALL, true);
+        f.define("invokestatic_o",      IParm.A, "O*:O",      Flow.CALL, true);
+
+        f.define("invokesuper_i",       IParm.A, "O*:I",      Flow.CALL, true);
+        f.define("invokesuper_v",       IParm.A, "O*:",       Flow.CALL, true);
+        f.define("invokesuper_l",       IParm.A, "O*:L",      Flow.CALL, true);
+        f.define("invokesuper_o",       IParm.A, "O*:O",      Flow.CALL, true);
+
+        f.define("invokenative_i",      IParm.A, "*:I",       Flow.CALL, true);
+        f.define("invokenative_v",      IParm.A, "*:",        Flow.CALL, true);
+        f.define("invokenative_l",      IParm.A, "*:L",       Flow.CALL, true);
+        f.define("invokenative_o",      IParm.A, "*:O",       Flow.CALL, true);
+
+        f.define("findslot",            IParm.A, "OO:I",      Flow.CALL, true);
+        f.define("extend",              IParm.A, ":",         Flow.NEXT, true);
+
+        f.define("invokeslot_i",        IParm.N, "IO*:I",     Flow.CALL, false);
+        f.define("invokeslot_v",        IParm.N, "IO*:",      Flow.CALL, false);
+        f.define("invokeslot_l",        IParm.N, "IO*:L",     Flow.CALL, false);
+        f.define("invokeslot_o",        IParm.N, "IO*:I",     Flow.CALL, false);
+
+        f.define("return_v",            IParm.N, ":",         Flow.CHANGE, false);
+        f.define("return_i",            IParm.N, "I:",        Flow.CHANGE, false);
+        f.define("return_l",            IParm.N, "L:",        Flow.CHANGE, false);
+        f.define("return_o",            IParm.N, "O:",        Flow.CHANGE, false);
+
+        f.define("tableswitch_i",       IParm.T, "I:",        Flow.CHANGE, false);
+        f.define("tableswitch_s",       IParm.T, "I:",        Flow.CHANGE, false);
+
+        f.define("extend0",             IParm.N, ":",         Flow.NEXT, false);
+
+        f.define("add_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("sub_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("and_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("or_i",                IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("xor_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("shl_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("shr_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("ushr_i",              IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("mul_i",               IParm.N, "II:I",      Flow.NEXT, false);
+        f.define("div_i",               IParm.N, "II:I",      Flow.CALL, false);
+        f.define("rem_i",               IParm.N, "II:I",      Flow.CALL, false);
+        f.define("neg_i",               IParm.N, "I:I",       Flow.NEXT, false);
+        f.define("i2b",                 IParm.N, "I:I",       Flow.NEXT, false);
+        f.define("i2s",                 IParm.N, "I:I",       Flow.NEXT, false);
+        f.define("i2c",                 IParm.N, "I:I",       Flow.NEXT, false);
+        f.define("add_l",               IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("sub_l",               IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("mul_l",               IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("div_l",               IParm.N, "LL:L",      Flow.CALL, false);
+        f.define("rem_l",               IParm.N, "LL:L",      Flow.CALL, false);
+        f.define("and_l",               IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("or_l",                IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("xor_l",               IParm.N, "LL:L",      Flow.NEXT, false);
+        f.define("neg_l",               IParm.N, "L:L",       Flow.NEXT, false);
+        f.define("shl_l",               IParm.N, "IL:L",      Flow.NEXT, false);
+        f.define("shr_l",               IParm.N, "IL:L",      Flow.NEXT, false);
+        f.define("ushr_l",              IParm.N, "IL:L",      Flow.NEXT, false);
+        f.define("l2i",                 IParm.N, "L:I",       Flow.NEXT, false);
+        f.define("i2l",                 IParm.N, "I:L",       Flow.NEXT, false);
+        f.define("throw",               IParm.N, "O:",        Flow.CALL, false);
+        f.define("pop_1",               IParm.N, "W:",        Flow.NEXT, false);
+        f.define("pop_2",               IParm.N, "WW:",       Flow.NEXT, false);
+        f.define("monitorenter",        IParm.N, "O:",        Flow.CALL, false);
+        f.define("monitorexit",         IParm.N, "O:",        Flow.CALL, false);
+        f.define("class_monitorenter",  IParm.N, ":",         Flow.CALL, false);
+        f.define("class_monitorexit",   IParm.N, ":",         Flow.CALL, false);
+        f.define("arraylength",         IParm.N, "O:I:",      Flow.CALL, false);
+        f.define("new",                 IParm.N, "O:O",       Flow.CALL, false);
+        f.define("newarray",            IParm.N, "OI:O",      Flow.CALL, false);
+        f.define("newdimension",        IParm.N, "OI:O",      Flow.CALL, false);
+        f.define("class_clinit",        IParm.N, ":",         Flow.CALL, false);
+        f.define("bbtarget_sys",        IParm.N, ":",         Flow.NEXT, false);
+        f.define("bbtarget_app",        IParm.N, ":",         Flow.CALL, false);
+        f.define("instanceof",          IParm.N, "OO:I",      Flow.CALL, false);
+        f.define("checkcast",           IParm.N, "OO:O",      Flow.CALL, false);
+
+        f.define("aload_i",             IParm.N, "OI:I",      Flow.CALL, false);
+        f.define("aload_b",             IParm.N, "OI:I",      Flow.CALL, false);
+        f.define("aload_s",             IParm.N, "OI:I",      Flow.CALL, false);
+        f.define("aload_c",             IParm.N, "OI:I",      Flow.CALL, false);
+        f.define("aload_o",             IParm.N, "OI:O",      Flow.CALL, false);
+        f.define("aload_l",             IParm.N, "OI:L",      Flow.CALL, false);
+
+        f.define("astore_i",            IParm.N, "OII:",      Flow.CALL, false);
+        f.define("astore_b",            IParm.N, "OII:",      Flow.CALL, false);
+        f.define("astore_s",            IParm.N, "OII:",      Flow.CALL, false);
+        f.define("astore_o",            IParm.N, "OIO:",      Flow.CALL, false);
+        f.define("astore_l",            IParm.N, "OIL:",      Flow.CALL, false);
+
+        f.define("lookup_i",            IParm.N, "IO:I",      Flow.CALL, false);
+        f.define("lookup_b",            IParm.N, "IO:I",      Flow.CALL, false);
+        f.define("lookup_s",            IParm.N, "IO:I",      Flow.CALL, false);
+        f.define("pause",               IParm.N, ":",         Flow.NEXT, false);
+        
+//        f.define("threadpoll",          IParm.N, ":",         Flow.CALL, false);
+
+        for (String mnemonic : fused) {
+            f.defineFused(mnemonic);
+        }
+
+        if (f.nextOpcode != 256) {
+            throw new RuntimeException("there are " + f.nextOpcode + " single byte opcodes instead of 256: " +
+                                       "each superinstruction must take the place of one compact family member");
+        }
+        return f.getDefinitions();
+    }
+
     public static List<Instruction> getFloatInstructions() {
         if (floatInstructions == null) {
 
@@ -549,6 +649,52 @@ public final class Instruction {
             }
         }
 
+        /**
+         * Defines a superinstruction from instructions that have already been defined. It takes
+         * the immediate parameter of the one part that has one, the control flow effect of its
+         * last part and the combined effect of its parts on the operand stack.
+         *
+         * @param mnemonic  the mnemonics of the instructions it replaces joined by "__"
+         */
+        void defineFused(String mnemonic) {
+            IParm iparm = IParm.N;
+            Flow flow = null;
+            String popped = "";
+            String pushed = "";
+            for (String name : mnemonic.split("__")) {
+                Instruction part = null;
+                for (Instruction instruction : defs) {
+                    if (instruction.mnemonic.equals(name)) {
+                        part = instruction;
+                    }
+                }
+                if (part == null) {
+                    throw new RuntimeException("unknown instruction in superinstruction " + mnemonic + ": " + name);
+                }
+                if (part.iparm != IParm.N) {
+                    if (iparm != IParm.N) {
+                        throw new RuntimeException("superinstruction has more than one immediate parameter: " + mnemonic);
+                    }
+                    iparm = part.iparm;
+                }
+                flow = part.flow;
+
+                // The part takes what it pops from what the parts before it pushed, and then from below
+                String effect = part.operandStackEffect;
+                String pops = effect.substring(0, effect.indexOf(':'));
+                String pushes = effect.substring(effect.indexOf(':') + 1).replace(":", "");
+                if (pops.indexOf('*') != -1) {
+                    popped = "*";
+                } else if (pops.length() <= pushed.length()) {
+                    pushes = pushed.substring(0, pushed.length() - pops.length()) + pushes;
+                } else if (!popped.equals("*")) {
+                    popped = pops.substring(0, pops.length() - pushed.length()) + popped;
+                }
+                pushed = pushes;
+            }
+            define(mnemonic, iparm, popped + ":" + pushed, flow, false);
+        }
+
         /**
          * Gets the list of instructions that have been defined.
          *
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ * 
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ * 
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+/* **** GENERATED FILE -- DO NOT EDIT ****
+ *      generated by com.sun.squawk.builder.gen.Superinstructions
+ */
+
+package com.sun.squawk.builder.gen;
+
+/**
+ * The superinstructions of the Squawk instruction set and the sizes of the compact
+ * instruction families, which make room for them in the single byte opcodes.
+ * They were chosen from the profiles:
+ *     interpreter_workload.opcodes
+ */
+final class SuperinstructionSet {
+
+    /**
+     * The number of members of each family in {@link Instruction#COMPACT_FAMILIES}.
+     */
+    static final int[] COMPACT_SIZES = { 11, 6, 9, 9, 5 };
+
+    /**
+     * The mnemonics of the superinstructions, each with the average percentage of the
+     * dispatches it saved in the profiles.
+     */
+    static final String[] FUSED = {
+        "loadparm_0__load_2",                     // 2.032
+        "loadparm_1__getfield0_i",                // 1.922
+        "loadparm_0__load_3",                     // 1.808
+        "load_3__aload_i",                        // 1.410
+        "load_2__aload_i",                        // 1.377
+        "store_1__load_1",                        // 1.280
+        "load_1__if_cmpge_i",                     // 1.084
+        "getfield0_o__store_1",                   // 1.035
+        "load_1__if_cmple_i",                     // 1.028
+        "loadparm_0__invokevirtual_i",            // 0.979
+        "load_2__load_3",                         // 0.930
+        "load_3__if_cmpgt_i",                     // 0.930
+        "load_1__arraylength",                    // 0.884
+        "loadparm_0__if_eq_o",                    // 0.819
+        "load_1__storeparm",                      // 0.759
+        "load_1__load_4",                         // 0.722
+        "getfield0_i__return_i",                  // 0.682
+        "load_4__load_1",                         // 0.652
+        "loadparm_0__object_1",                   // 0.638
+        "load_3__invokevirtual_i",                // 0.563
+        "object_1__invokestatic_i",               // 0.549
+        "const_short__and_i",                     // 0.508
+        "load_2__load_1",                         // 0.479
+        "const_8__ushr_i",                        // 0.472
+        "store_1__goto",                          // 0.467
+        "loadparm_1__loadparm_2",                 // 0.454
+        "store_1__loadparm_1",                    // 0.442
+        "load_2__loadparm_0",                     // 0.435
+        "mul_i__return_i",                        // 0.434
+        "loadparm_1__loadparm_0",                 // 0.414
+        "load_1__load_2",                         // 0.406
+        "load_3__load_4",                         // 0.406
+    };
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.builder.gen;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Chooses the superinstructions of the Squawk instruction set from dynamic profiles of the
+ * opcodes and opcode pairs executed by the interpreter. A profile is written by a VM built
+ * with <code>-DOPCODE_PROFILER=1</code> when it stops (see vm/opcodeprofiler.c.inc). Each
+ * line of a profile is the percentage of all dispatches followed by the mnemonic
+ * of an opcode or the mnemonics of a pair. Several profiles, one per workload, are averaged
+ * so that each workload has the same weight. A superinstruction in a profile is counted as
+ * the instructions it replaces, so a profile can be taken with any instruction set, but the
+ * profile of a compact family member only exists if the VM had that member.<p>
+ *
+ * A pair can only be fused if the first instruction continues to the second without calling
+ * anything ({@link Instruction.Flow#NEXT}), as a call, a GC or an exception needs the ip of
+ * the instruction that caused it. Both must be single byte instructions that are not prefixes
+ * or tables, and at most one may have an immediate parameter, which follows the superinstruction
+ * (a branch offset is relative to the end of the instruction, so a branch can be the second).<p>
+ *
+ * All 256 single byte opcodes are in use, so each superinstruction takes the place of the last
+ * member of one of the compact families (such as load_15). Its users then take the form with an
+ * operand byte (such as load 15): that costs a byte fetch but no dispatch. The pairs are taken
+ * in order of the dispatches they save, each in exchange for the least executed last family
+ * member, for as long as the saving is worth more than the operand fetches it adds.<p>
+ *
+ * With <code>-update</code>, the choice is written to {@link SuperinstructionSet}, from which
+ * {@link Instruction} defines the instruction set. The builder then has to be rebuilt before the
+ * OPC, Mnemonics, OperandStackEffect, Verifier, FusionTable and CompactDotC generators are run.
+ */
+public class Superinstructions {
+
+    /**
+     * A candidate superinstruction.
+     */
+    static final class Candidate {
+        final Instruction first;
+        final Instruction second;
+        final double percent;
+
+        Candidate(Instruction first, Instruction second, double percent) {
+            this.first = first;
+            this.second = second;
+            this.percent = percent;
+        }
+
+        String getMnemonic() {
+            return first.mnemonic + "__" + second.mnemonic;
+        }
+    }
+
+    /**
+     * The instructions of the instruction set without superinstructions, by mnemonic.
+     */
+    private final Map<String, Instruction> instructions = new HashMap<String, Instruction>();
+
+    /**
+     * The average percentage of the dispatches made by each instruction.
+     */
+    private final Map<String, Double> opcodes = new HashMap<String, Double>();
+
+    /**
+     * The average percentage of the dispatches made by each pair of instructions, keyed by their mnemonics separated by a space.
+     */
+    private final Map<String, Double> pairs = new HashMap<String, Double>();
+
+    /**
+     * The names of the profiles read.
+     */
+    private final List<String> profileNames = new ArrayList<String>();
+
+    Superinstructions() {
+        for (Instruction instruction: Instruction.getBaseInstructions()) {
+            instructions.put(instruction.mnemonic, instruction);
+        }
+    }
+
+    /**
+     * Instructions the translator emits before the first instruction of a method, which are never fused.
+     */
+    private static final List<String> PROLOGUE = Arrays.asList(new String[] { "extend", "extend0", "class_clinit" });
+
+    /**
+     * Instructions the translator only emits at a branch target or the start of an exception handler,
+     * which never follow an instruction they could be fused with.
+     */
+    private static final List<String> TARGETS = Arrays.asList(new String[] { "catch", "bbtarget_sys", "bbtarget_app" });
+
+    /**
+     * Determines if a given pair of instructions can be fused.
+     */
+    static boolean canFuse(Instruction first, Instruction second) {
+        for (Instruction instruction : new Instruction[] { first, second }) {
+            if (instruction.opcode >= 256 || PROLOGUE.contains(instruction.mnemonic) ||
+                instruction.iparm == Instruction.IParm.P || instruction.iparm == Instruction.IParm.T) {
+                return false;
+            }
+        }
+        if (first.flow != Instruction.Flow.NEXT) {
+            return false;
+        }
+        if (TARGETS.contains(second.mnemonic)) {
+            return false;
+        }
+        return first.iparm == Instruction.IParm.N || second.iparm == Instruction.IParm.N;
+    }
+
+    private static void add(Map<String, Double> map, String key, double percent) {
+        Double value = map.get(key);
+        map.put(key, value == null ? percent : value + percent);
+    }
+
+    /**
+     * Reads a profile and adds its counts, scaled by a given weight, to the counts read so far.
+     *
+     * @param file    the profile
+     * @param weight  the weight of the profile
+     */
+    void readProfile(File file, double weight) throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                StringTokenizer st = new StringTokenizer(line);
+                if (line.startsWith("#") || st.countTokens() < 2) {
+                    continue;
+                }
+                double percent = Double.parseDouble(st.nextToken()) * weight;
+                String first = st.nextToken();
+                if (!st.hasMoreTokens()) {
+                    // A superinstruction is each instruction it replaces and the pair they make
+                    String[] parts = first.split("__");
+                    for (int i = 0; i != parts.length; ++i) {
+                        add(opcodes, parts[i], percent);
+                        if (i != 0) {
+                            add(pairs, parts[i - 1] + ' ' + parts[i], percent);
+                        }
+                    }
+                } else {
+                    String second = st.nextToken();
+                    if (!st.hasMoreTokens()) {
+                        // A pair of superinstructions is the pair made by the last part of one and the first part of the other
+                        String[] firstParts = first.split("__");
+                        add(pairs, firstParts[firstParts.length - 1] + ' ' + second.split("__")[0], percent);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        profileNames.add(file.getName());
+    }
+
+    /**
+     * Gets the percentage of the dispatches made by an instruction.
+     */
+    private double getPercent(String mnemonic) {
+        Double percent = opcodes.get(mnemonic);
+        return percent == null ? 0 : percent;
+    }
+
+    /**
+     * Gets the pairs that can be fused, most executed first.
+     */
+    List<Candidate> getCandidates() {
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        for (Map.Entry<String, Double> entry: pairs.entrySet()) {
+            String key = entry.getKey();
+            int space = key.indexOf(' ');
+            Instruction first = instructions.get(key.substring(0, space));
+            Instruction second = instructions.get(key.substring(space + 1));
+            if (first != null && second != null && canFuse(first, second)) {
+                candidates.add(new Candidate(first, second, entry.getValue()));
+            }
+        }
+        Collections.sort(candidates, new Comparator<Candidate>() {
+            public int compare(Candidate c1, Candidate c2) {
+                int result = Double.compare(c2.percent, c1.percent);
+                return result != 0 ? result : c1.getMnemonic().compareTo(c2.getMnemonic());
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * The chosen superinstructions.
+     */
+    final List<Candidate> chosen = new ArrayList<Candidate>();
+
+    /**
+     * The compact family members that make room for the chosen superinstructions.
+     */
+    final List<String> evicted = new ArrayList<String>();
+
+    /**
+     * The number of members left in each compact family.
+     */
+    final int[] compactSizes = Instruction.MAX_COMPACT_SIZES.clone();
+
+    /**
+     * Determines if an instruction has been evicted, or is a compact family member that would be evicted with the last member of its family.
+     */
+    private boolean isUnavailable(Instruction instruction) {
+        for (int family = 0; family != compactSizes.length; ++family) {
+            String prefix = Instruction.COMPACT_FAMILIES[family] + '_';
+            if (instruction.mnemonic.matches(prefix + "\\d+")) {
+                return Integer.parseInt(instruction.mnemonic.substring(prefix.length())) >= compactSizes[family];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if a compact family member is part of a chosen superinstruction or a given candidate.
+     */
+    private boolean isUsed(String mnemonic, Candidate candidate) {
+        if (candidate.first.mnemonic.equals(mnemonic) || candidate.second.mnemonic.equals(mnemonic)) {
+            return true;
+        }
+        for (Candidate c : chosen) {
+            if (c.first.mnemonic.equals(mnemonic) || c.second.mnemonic.equals(mnemonic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chooses the superinstructions.
+     *
+     * @param max          the most superinstructions to choose
+     * @param minSaving    the least percentage of the dispatches a superinstruction must save
+     * @param operandCost  the cost of fetching an operand byte, as a fraction of the cost of a dispatch
+     */
+    void choose(int max, double minSaving, double operandCost) {
+        List<Candidate> candidates = getCandidates();
+        while (chosen.size() != max) {
+            Candidate best = null;
+            for (Candidate candidate : candidates) {
+                if (!isUnavailable(candidate.first) && !isUnavailable(candidate.second)) {
+                    best = candidate;
+                    break;
+                }
+            }
+            if (best == null || best.percent < minSaving) {
+                break;
+            }
+
+            // Find the least executed last member of a family that is not used by a superinstruction
+            int family = -1;
+            String victim = null;
+            for (int i = 0; i != compactSizes.length; ++i) {
+                String mnemonic = Instruction.COMPACT_FAMILIES[i] + '_' + (compactSizes[i] - 1);
+                if (compactSizes[i] > 1 && !isUsed(mnemonic, best) && (victim == null || getPercent(mnemonic) < getPercent(victim))) {
+                    family = i;
+                    victim = mnemonic;
+                }
+            }
+            if (victim == null || best.percent <= getPercent(victim) * operandCost) {
+                break;
+            }
+            compactSizes[family]--;
+            evicted.add(victim);
+            chosen.add(best);
+            candidates.remove(best);
+        }
+    }
+
+    /**
+     * Generator for {@link SuperinstructionSet}.
+     */
+    final class SetWriter extends Generator {
+
+        /**
+         * {@inheritDoc}
+         */
+        void generate(PrintWriter out) {
+            printCopyright(Superinstructions.class, out);
+            out.println("package com.sun.squawk.builder.gen;");
+            out.println();
+            out.println("/**");
+            out.println(" * The superinstructions of the Squawk instruction set and the sizes of the compact");
+            out.println(" * instruction families, which make room for them in the single byte opcodes.");
+            if (profileNames.isEmpty()) {
+                out.println(" * This is the instruction set without superinstructions.");
+            } else {
+                out.println(" * They were chosen from the profiles:");
+                for (String name : profileNames) {
+                    out.println(" *     " + name);
+                }
+            }
+            out.println(" */");
+            out.println("final class SuperinstructionSet {");
+            out.println();
+            out.println("    /**");
+            out.println("     * The number of members of each family in {@link Instruction#COMPACT_FAMILIES}.");
+            out.println("     */");
+            out.print("    static final int[] COMPACT_SIZES = {");
+            for (int i = 0; i != compactSizes.length; ++i) {
+                out.print((i == 0 ? " " : ", ") + compactSizes[i]);
+            }
+            out.println(" };");
+            out.println();
+            out.println("    /**");
+            out.println("     * The mnemonics of the superinstructions, each with the average percentage of the");
+            out.println("     * dispatches it saved in the profiles.");
+            out.println("     */");
+            out.println("    static final String[] FUSED = {");
+            for (Candidate candidate : chosen) {
+                out.println(pad("        \"" + candidate.getMnemonic() + "\",", 50) + "// " + format(candidate.percent));
+            }
+            out.println("    };");
+            out.println("}");
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public File getGeneratedFile(File baseDir) {
+            return new File(baseDir, "com/sun/squawk/builder/gen/SuperinstructionSet.java");
+        }
+    }
+
+    private static String format(double percent) {
+        return String.format("%.3f", percent);
+    }
+
+    private static void usage(String errMsg) {
+        PrintStream out = System.err;
+        if (errMsg != null) {
+            out.println(errMsg);
+        }
+        out.println("Usage: superinstructions [-options] profile...");
+        out.println("where options include:");
+        out.println("    -max:<n>           the most superinstructions to choose (default 32)");
+        out.println("    -min:<percent>     the least percentage of dispatches a superinstruction must save (default 0.1)");
+        out.println("    -operandcost:<f>   the cost of an operand byte fetch relative to a dispatch (default 0.25)");
+        out.println("    -update            write the chosen set to builder/src/com/sun/squawk/builder/gen/SuperinstructionSet.java");
+        out.println("    -reset             write the set without superinstructions, for taking profiles");
+        out.println("and each profile is the opcode file written by a VM built with -DOPCODE_PROFILER=1");
+    }
+
+    /**
+     * Prints the superinstructions that would save the most dispatches, and updates the instruction set with them.
+     *
+     * @param args  see {@link #usage}
+     */
+    public static void main(String[] args) throws IOException {
+        int max = 32;
+        double minSaving = 0.1;
+        double operandCost = 0.25;
+        boolean update = false;
+        boolean reset = false;
+        int argc = 0;
+        while (argc != args.length && args[argc].startsWith("-")) {
+            String arg = args[argc++];
+            if (arg.startsWith("-max:")) {
+                max = Integer.parseInt(arg.substring("-max:".length()));
+            } else if (arg.startsWith("-min:")) {
+                minSaving = Double.parseDouble(arg.substring("-min:".length()));
+            } else if (arg.startsWith("-operandcost:")) {
+                operandCost = Double.parseDouble(arg.substring("-operandcost:".length()));
+            } else if (arg.equals("-update")) {
+                update = true;
+            } else if (arg.equals("-reset")) {
+                reset = true;
+            } else {
+                usage("Unknown option: " + arg);
+                return;
+            }
+        }
+
+        Superinstructions superinstructions = new Superinstructions();
+        if (reset) {
+            superinstructions.new SetWriter().run(new File("builder/src"));
+            return;
+        }
+        if (argc == args.length) {
+            usage("missing profile");
+            return;
+        }
+        int profiles = args.length - argc;
+        while (argc != args.length) {
+            superinstructions.readProfile(new File(args[argc++]), 1.0 / profiles);
+        }
+        superinstructions.choose(max, minSaving, operandCost);
+
+        PrintStream out = System.out;
+        double saved = 0;
+        double cost = 0;
+        out.println("Superinstructions (% of dispatches saved, mnemonic, compact family member it replaces, % of dispatches of that member):");
+        for (int i = 0; i != superinstructions.chosen.size(); ++i) {
+            Candidate candidate = superinstructions.chosen.get(i);
+            String victim = superinstructions.evicted.get(i);
+            out.println("    " + Generator.pad(format(candidate.percent), 10) + Generator.pad(candidate.getMnemonic(), 40) +
+                        Generator.pad(victim, 15) + format(superinstructions.getPercent(victim)));
+            saved += candidate.percent;
+            cost += superinstructions.getPercent(victim);
+        }
+        out.println("Total: " + format(saved) + "% of dispatches saved by " + superinstructions.chosen.size() +
+                    " superinstructions, " + format(cost) + "% of dispatches given an operand byte");
+
+        if (update) {
+            superinstructions.new SetWriter().run(new File("builder/src"));
+        }
+    }
+}
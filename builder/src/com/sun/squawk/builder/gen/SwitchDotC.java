@@ -61,9 +61,18 @@ public class SwitchDotC extends Generator {
 
     private static final Pattern NUMERIC_SUFFIX = Pattern.compile("(.*)_([\\d]+)");
 
-    private static String getFunction(Instruction instruction) {
+    static String getFunction(Instruction instruction) {
         String mnemonic = instruction.mnemonic;
 
+        Instruction[] fused = instruction.getFused();
+        if (fused != null) {
+            String function = "";
+            for (Instruction f : fused) {
+                function += (function.length() == 0 ? "" : " ") + getFunction(f);
+            }
+            return function;
+        }
+
         if (mnemonic.endsWith("_m1")) {
             return "do_" + mnemonic.substring(0, mnemonic.length() - 3) + "_n(-1);";
         }
@@ -142,19 +151,10 @@ public class SwitchDotC extends Generator {
             if (instruction.compact == null) {
                 out.print(pad("            case OPC_" + instruction.mnemonic.toUpperCase() + ": ", 50));
                 Instruction wide = instruction.wide();
+                out.println(instruction.getIParmCall());
                 if (wide == null) {
-                    out.println("iparmNone();");
                     out.println(pad("", 50) + pad(getFunction(instruction), 35) + "break;");
                 } else {
-                    Instruction.IParm iparm = instruction.iparm;
-                    if (iparm == Instruction.IParm.B) {
-                        out.println("iparmByte();");
-                    } else {
-                        if (iparm != Instruction.IParm.A) {
-                            throw new RuntimeException("a widenable instruction can only have a byte or ubyte immediate parameter");
-                        }
-                        out.println("iparmUByte();");
-                    }
                     out.println(pad("            case OPC_" + wide.mnemonic.toUpperCase() + ": ", 50) +
                                 pad(getFunction(instruction), 35) + "break;");
                 }
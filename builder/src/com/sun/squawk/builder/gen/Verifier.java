@@ -70,6 +70,16 @@ public class Verifier extends AbstractSwitch {
     String getFunction(Instruction instruction, boolean call) {
         String mnemonic = instruction.mnemonic;
 
+        // A superinstruction does the work of each instruction it replaces
+        Instruction[] fused = instruction.getFused();
+        if (fused != null && call) {
+            String function = "";
+            for (Instruction f : fused) {
+                function += (function.length() == 0 ? "" : " ") + getFunction(f, true);
+            }
+            return function;
+        }
+
         if (mnemonic.endsWith("_m1")) {
             String parms = call ? "(-1)" : "(int n)";
             return "do_" + mnemonic.substring(0, mnemonic.length() - 3) + parms + ";";
@@ -140,21 +150,12 @@ public class Verifier extends AbstractSwitch {
             if (instruction.compact == null) {
                 out.print(pad("            " + startCase(instruction), 50));
                 Instruction wide = instruction.wide();
+                out.println(instruction.getIParmCall());
                 if (wide == null) {
-                    out.println("iparmNone();");
                     out.println(pad("", 50) +
                                 pad(getFunction(instruction, true), 35)
                                 + endCase());
                 } else {
-                    Instruction.IParm iparm = instruction.iparm;
-                    if (iparm == Instruction.IParm.B) {
-                        out.println("iparmByte();");
-                    } else {
-                        if (iparm != Instruction.IParm.A) {
-                            throw new RuntimeException("a widenable instruction can only have a byte or ubyte immediate parameter");
-                        }
-                        out.println("iparmUByte();");
-                    }
                     out.println(pad("            " + startCase(wide), 50) +
                                 pad(getFunction(instruction, true), 35) +
                                endCase());
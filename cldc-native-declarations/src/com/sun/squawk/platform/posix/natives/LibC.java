@@ -31,7 +31,7 @@ import com.sun.cldc.jna.*;
  *
  * Import common functions variables and constants from libc.
  */
-@Includes({"<errno.h>", "<fcntl.h>", "<sys/stat.h>"})
+@Includes({"<errno.h>", "<fcntl.h>", "<sys/stat.h>", "<sys/uio.h>"})
 public interface LibC extends Library {
 
     LibC INSTANCE = (LibC)
@@ -355,6 +355,29 @@ public interface LibC extends Library {
      */
     int write(int fd, byte[] buf, int nbyte);
     
+    /**
+     * scatter read
+     * 
+     * @param fd file descriptor
+     * @param iov array of iovcnt "struct iovec"s, each the base address and length of a buffer to read into
+     * @param iovcnt number of buffers
+     * @return the number of bytes actually read is returned.  Upon reading end-of-file, zero
+     *         is returned.  If error, a -1 is returned and the global variable errno is set to indicate
+     *         the error
+     */
+    int readv(int fd, Pointer iov, int iovcnt);
+    
+    /**
+     * gather write
+     * 
+     * @param fd file descriptor
+     * @param iov array of iovcnt "struct iovec"s, each the base address and length of a buffer to write
+     * @param iovcnt number of buffers
+     * @return the number of bytes which were written is returned.  If error,
+     *         -1 is returned and the global variable errno is set to indicate the error.
+     */
+    int writev(int fd, Pointer iov, int iovcnt);
+    
     /**
      * C struct stat
      * //    struct stat {
@@ -96,7 +96,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -110,7 +110,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, 0, 0, 0, 0, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -124,7 +124,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, 0, 0, 0, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -138,7 +138,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, 0, 0, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -152,7 +152,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, 0, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -166,7 +166,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, 0, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -180,7 +180,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, i6, 0, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -194,7 +194,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, i6, i7, 0, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -208,7 +208,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, i6, i7, i8, 0, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -222,7 +222,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, i6, i7, i8, i9, 0);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
@@ -236,7 +236,7 @@ public class BlockingFunction extends Function {
         }
         TaskExecutor te = getTE();
         Address ntask = te.runBlockingFunction(funcAddr, i1, i2, i3, i4, i5, i6, i7, i8, i9, i10);
-        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        int result = te.waitForBlockingFunction(ntask);
         if (DEBUG) {
             postscript(result);
         }
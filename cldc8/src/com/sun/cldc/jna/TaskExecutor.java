@@ -43,6 +43,11 @@ public class TaskExecutor {
     
     private static int cachedTECount;
 
+    private static int cachedTEHits;
+    private static int blockingCallCount;
+    private static long totalWaitTime;
+    private static long maxWaitTime;
+
     protected Address te;
 
 
@@ -75,7 +80,7 @@ public class TaskExecutor {
             Stack cache = VM.getTaskCache();
             boolean kill = false;
             synchronized (cache) {
-                if (cache.size() > MAX_NUM_CACHABLE_TASK_EXECUTORS) {
+                if (cache.size() >= MAX_NUM_CACHABLE_TASK_EXECUTORS) {
                     kill = true;
                 } else {
                     cache.push(this);
@@ -128,6 +133,7 @@ public class TaskExecutor {
         synchronized (cache) {
             if (!cache.isEmpty()) {
                 te = (TaskExecutor) cache.pop();
+                cachedTEHits++;
             }
         }
         if (te == null) {
@@ -184,6 +190,101 @@ public class TaskExecutor {
                                                   arg6, arg7, arg8, arg9, arg10);
     }
 
+    /**
+     * Wait for a native function started by {@link #runBlockingFunction} to complete and
+     * record how long the caller waited.
+     *
+     * @return the result of the native function
+     */
+    int waitForBlockingFunction(Address ntask) {
+        long start = VM.getTimeMicros();
+        int result = NativeUnsafe.waitForBlockingFunction(ntask);
+        long wait = VM.getTimeMicros() - start;
+        blockingCallCount++;
+        totalWaitTime += wait;
+        if (wait > maxWaitTime) {
+            maxWaitTime = wait;
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of native functions waiting on the run queue of this TaskExecutor.
+     *
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        checkTaskExecutor();
+        return NativeUnsafe.getAsInt(te, NativeUnsafe.TASK_EXECUTOR_QUEUE_LENGTH_OFFSET);
+    }
+
+    /**
+     * Get the largest number of native functions that were ever waiting on the run queue of this TaskExecutor.
+     *
+     * @return the maximum queue depth
+     */
+    public int getMaxQueueDepth() {
+        checkTaskExecutor();
+        return NativeUnsafe.getAsInt(te, NativeUnsafe.TASK_EXECUTOR_MAX_QUEUE_LENGTH_OFFSET);
+    }
+
+    /**
+     * Get the number of native functions this TaskExecutor has run.
+     *
+     * @return the number of functions run
+     */
+    public int getTaskCount() {
+        checkTaskExecutor();
+        return NativeUnsafe.getAsInt(te, NativeUnsafe.TASK_EXECUTOR_TASKS_RUN_OFFSET);
+    }
+
+    /**
+     * Get the number of TaskExecutors created for BlockingFunctions that have no TaskExecutor of their own.
+     * At most {@link #MAX_NUM_CACHABLE_TASK_EXECUTORS} of these are kept for reuse when idle.
+     *
+     * @return the number of cached TaskExecutors created
+     */
+    public static int getCachedTaskExecutorCount() {
+        return cachedTECount;
+    }
+
+    /**
+     * Get the number of times an idle cached TaskExecutor was reused instead of creating a new one.
+     *
+     * @return the number of cache hits
+     */
+    public static int getCachedTaskExecutorHits() {
+        return cachedTEHits;
+    }
+
+    /**
+     * Get the number of BlockingFunction calls that have completed.
+     *
+     * @return the number of calls
+     */
+    public static int getBlockingCallCount() {
+        return blockingCallCount;
+    }
+
+    /**
+     * Get the total time Java threads have waited for BlockingFunction calls to complete,
+     * including the time spent on run queues.
+     *
+     * @return the total wait time in microseconds
+     */
+    public static long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    /**
+     * Get the longest time a Java thread has waited for a BlockingFunction call to complete.
+     *
+     * @return the maximum wait time in microseconds
+     */
+    public static long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
     /**
      * Cancel the TaskExecutor and delete when TaskExecutor done.
      */
@@ -96,6 +96,23 @@ public class GC implements GlobalStaticFields {
      */
     private static int monitorReleaseCount;
 
+/*if[SMARTMONITORS]*/
+    /**
+     * The most released monitors that are kept for reuse.
+     */
+    private final static int MAX_FREE_MONITORS = 16;
+
+    /**
+     * The list of released monitors that can be reused, linked through {@link Monitor#nextFree}.
+     */
+    private static Monitor freeMonitors;
+
+    /**
+     * The number of monitors in {@link #freeMonitors}.
+     */
+    private static int freeMonitorCount;
+/*end[SMARTMONITORS]*/
+
 /*if[ENABLE_EXCESSIVE_GC]*/
     /**
      * Sets the state of the excessive GC flag.
@@ -268,6 +285,13 @@ public class GC implements GlobalStaticFields {
      * an ObjectMemory instance is never part of a copied object graph.
      */
     private static ObjectMemory[] readOnlyObjectMemories;
+
+    /**
+     * The number of times an object memory was removed from {@link #readOnlyObjectMemories}.
+     * The interpreter compares it with the value it last saw to know when to flush the caches
+     * that hold addresses of methods and classes in read-only memory.
+     */
+    private static int readOnlyObjectMemoryUnloads;
     
     /**
      * Searches for an ObjectMemory in read-only memory that corresponds to a given URI.
@@ -363,6 +387,7 @@ public class GC implements GlobalStaticFields {
         System.arraycopy(current, 0, arr, 0, index);
         System.arraycopy(current, index + 1, arr, index, current.length - index - 1);
         readOnlyObjectMemories = arr;
+        readOnlyObjectMemoryUnloads++;
 
 /*if[ENABLE_VERBOSE]*/
         if (VM.isVeryVerbose()) {
@@ -372,6 +397,16 @@ public class GC implements GlobalStaticFields {
 	
     }
     
+    /**
+     * Gets the number of times an object memory was un-registered. Caches that hold the
+     * addresses of objects in read-only memory must be flushed when this changes.
+     *
+     * @return the number of calls to {@link #unRegisterReadOnlyObjectMemory}
+     */
+    static int getReadOnlyObjectMemoryUnloads() {
+        return readOnlyObjectMemoryUnloads;
+    }
+    
     /**
      * Look through the registered read-only memories and collect all of the Suites.
      * 
@@ -599,6 +634,11 @@ public class GC implements GlobalStaticFields {
         // Enable GC.
         GC.collector = newcollector;
         gcEnabled = true;
+
+        // Remember the bootstrap suite and allocate the string hash code cache in the collected heap.
+        GC.bootstrapSuite = bootstrapSuite;
+        stringHashCacheStrings = new String[STRING_HASH_CACHE_SIZE];
+        stringHashCacheCodes = new int[STRING_HASH_CACHE_SIZE];
     }
 
     /**
@@ -949,6 +989,9 @@ public class GC implements GlobalStaticFields {
         // Clear the class state cache.
         VM.invalidateClassStateCache();
 
+        // Clear the string hash code cache.
+        clearStringHashCache();
+
         // Set the collector re-entry guard.
         Assert.always(!collecting);
         collecting = true;
@@ -1712,6 +1755,109 @@ public class GC implements GlobalStaticFields {
         }
     }
 
+    /**
+     * The length below which the hash code of a string is not cached. A lookup in the cache,
+     * and the store after a miss, each cost a call. For a shorter string in ROM, which is
+     * only in the cache if the romizer precomputed its hash code, those calls cost more than
+     * computing the hash code.
+     */
+    public final static int MIN_CACHED_STRING_HASH_LENGTH = 16;
+
+    /**
+     * The number of entries in the cache of the hash codes of strings in RAM. This must be a power of 2.
+     */
+    private final static int STRING_HASH_CACHE_SIZE = 64;
+
+    /**
+     * The strings in RAM whose hash codes are in {@link #stringHashCacheCodes}. A string is at
+     * the entry selected by the low bits of its address above the word alignment bits. Every
+     * collection clears them, so the cache never keeps a string alive or refers to a string
+     * that has moved.
+     */
+    private static String[] stringHashCacheStrings;
+
+    /**
+     * The hash codes of the strings in {@link #stringHashCacheStrings}.
+     */
+    private static int[] stringHashCacheCodes;
+
+    /**
+     * The bootstrap suite. {@link #getStringHashCode} finds the hash codes precomputed for its
+     * strings without searching {@link #readOnlyObjectMemories}, which bare metal platforms do not keep.
+     */
+    private static Suite bootstrapSuite;
+
+    /**
+     * Clears the string hash code cache.
+     */
+    private static void clearStringHashCache() {
+        String[] strings = stringHashCacheStrings;
+        if (strings != null) {
+            for (int i = 0; i != STRING_HASH_CACHE_SIZE; i++) {
+                strings[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Get the hash code cached for a string by {@link #setStringHashCode}, or precomputed
+     * by the romizer for a string in ROM or NVM.
+     *
+     * @param string the string
+     * @return the cached hash code or zero if there is none
+     */
+    public static int getStringHashCode(String string) {
+        Address address = Address.fromObject(string);
+        String[] strings = stringHashCacheStrings;
+        if (strings != null) {
+            int index = (address.toUWord().toInt() >>> HDR.LOG2_BYTES_PER_WORD) & (STRING_HASH_CACHE_SIZE - 1);
+            if (strings[index] == string) {
+                return stringHashCacheCodes[index];
+            }
+        }
+        if (address.hi(ramStart) && address.loeq(ramEnd)) {
+            return 0;
+        }
+        Address bootstrapStart = VM.getBootstrapStart();
+        if (address.hieq(bootstrapStart) && address.lo(VM.getBootstrapEnd())) {
+            Suite suite = bootstrapSuite;
+            return suite == null ? 0 : suite.getStringHashCode(address.diff(bootstrapStart).toInt());
+        }
+        ObjectMemory[] memories = readOnlyObjectMemories;
+        if (memories != null) {
+            for (int i = 0; i != memories.length; i++) {
+                ObjectMemory om = memories[i];
+                if (om.containsAddress(address)) {
+                    Object root = om.getRoot();
+                    if (root instanceof Suite) {
+                        return ((Suite)root).getStringHashCode(address.diff(om.getStart()).toInt());
+                    }
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Cache the hash code of a string in RAM, replacing the hash code of any other string
+     * that uses the same cache entry. This does nothing if the string is not in RAM or a
+     * collection is under way. The thread that calls this is never preempted between
+     * updating the string and the hash code of the entry, because this is system code.
+     *
+     * @param string the string
+     * @param hash   the hash code of the characters of <code>string</code>
+     */
+    public static void setStringHashCode(String string, int hash) {
+        Address address = Address.fromObject(string);
+        String[] strings = stringHashCacheStrings;
+        if (strings != null && allocationEnabled && address.hi(ramStart) && address.loeq(ramEnd)) {
+            int index = (address.toUWord().toInt() >>> HDR.LOG2_BYTES_PER_WORD) & (STRING_HASH_CACHE_SIZE - 1);
+            strings[index] = string;
+            stringHashCacheCodes[index] = hash;
+        }
+    }
+
     /**
      * Get or allocate the Monitor for an object.
      *
@@ -1727,7 +1873,7 @@ public class GC implements GlobalStaticFields {
             ObjectAssociation assn = getObjectAssociation(object);
             Monitor monitor = assn.getMonitor();
             if (monitor == null) {
-                monitor = new Monitor(object);
+                monitor = newMonitor(object);
                 assn.setMonitor(monitor);
             }
             return monitor;
@@ -1739,32 +1885,64 @@ public class GC implements GlobalStaticFields {
             SquawkHashtable monitorTable = VM.getCurrentIsolate().getMonitorHashtable();
             Monitor monitor = (Monitor)monitorTable.get(object);
             if (monitor == null) {
-                monitor = new Monitor(object);
+                monitor = newMonitor(object);
                 monitorTable.put(object, monitor);
             }
             return monitor;
         }
     }
 
+    /**
+     * Gets a monitor for an object, reusing a released one if possible.
+     *
+     * @param object the object
+     * @return the monitor
+     */
+    private static Monitor newMonitor(Object object) {
+/*if[SMARTMONITORS]*/
+        Monitor monitor = freeMonitors;
+        if (monitor != null) {
+            freeMonitors = monitor.nextFree;
+            freeMonitorCount--;
+            monitor.reset(object);
+            return monitor;
+        }
+/*end[SMARTMONITORS]*/
+        return new Monitor(object);
+    }
+
 /*if[SMARTMONITORS]*/
     /**
-     * Remove the monitor (and ObjectAssociation) if possible.
+     * Remove the monitor (and ObjectAssociation) if possible. The monitor is kept for reuse.
      *
      * @param object the object
      */
     static void removeMonitor(Object object, boolean cond) {
         monitorExitCount++;
         if (cond) {
+            Monitor monitor;
             if (GC.inRam(object)) {
                 ObjectAssociation assn = lookupObjectAssociation(object);
+                monitor = assn.getMonitor();
                 if (!assn.hashCodeInUse()) {
                     NativeUnsafe.setObject(object, HDR.klass, getKlass(object));
-                    monitorReleaseCount++;
+                } else {
+                    /*
+                     * The association has to stay for the hash code, but without a monitor
+                     * the interpreter can lock the object on the pending monitor stack again.
+                     */
+                    assn.setMonitor(null);
                 }
             } else {
                 SquawkHashtable monitorTable = VM.getCurrentIsolate().getMonitorHashtable();
-                monitorTable.remove(object);
-                monitorReleaseCount++;
+                monitor = (Monitor)monitorTable.remove(object);
+            }
+            monitorReleaseCount++;
+            if (monitor != null && freeMonitorCount < MAX_FREE_MONITORS) {
+                monitor.reset(null);
+                monitor.nextFree = freeMonitors;
+                freeMonitors = monitor;
+                freeMonitorCount++;
             }
         }
     }
@@ -37,7 +37,11 @@ public abstract class GarbageCollector implements GlobalStaticFields {
     public final static boolean NATIVE_GC_ONLY = /*VAL*/false/*NATIVE_GC_ONLY*/;
     public final static boolean INTERP_GC_ONLY = !/*VAL*/false/*GC2C*/;
     
-    /* package-private**/ GarbageCollector() {}
+    /* package-private**/ GarbageCollector() {
+/*if[ENABLE_VM_STATISTICS]*/
+        pauseCounts = new int[PAUSE_BUCKETS];
+/*end[ENABLE_VM_STATISTICS]*/
+    }
 
     /**
      * Creates and initializes the garbage collector. The exact type of the
@@ -66,6 +70,9 @@ public abstract class GarbageCollector implements GlobalStaticFields {
         long freeBeforeGC = GC.freeMemory();
         long bytesAllocated = GC.getBytesAllocatedSinceLastGC();
         long start = VM.getTimeMillis();
+/*if[ENABLE_VM_STATISTICS]*/
+        long startPause = now();
+/*end[ENABLE_VM_STATISTICS]*/
         if (INTERP_GC_ONLY) {
             didFull = collectGarbageInJava(allocTop, forceFullGC);
         } else if (NATIVE_GC_ONLY) {
@@ -77,6 +84,7 @@ public abstract class GarbageCollector implements GlobalStaticFields {
         }
 /*if[ENABLE_VM_STATISTICS]*/            
         lastCollectionTime = VM.getTimeMillis() - start;
+        recordPause(now() - startPause);
         if (didFull) {
             totalFullCollectionTime += lastCollectionTime;
             if (maxFullCollectionTime < lastCollectionTime) {
@@ -142,6 +150,106 @@ public abstract class GarbageCollector implements GlobalStaticFields {
      */
     private long totalBytesAllocatedCheckPoint;
 
+    /**
+     * The number of buckets per power of two in the histogram of pause times. With 4 buckets,
+     * a percentile computed from the histogram is at most 25% above the actual value.
+     */
+    private static final int PAUSE_SUB_BUCKETS = 4;
+
+    /**
+     * The number of buckets in the histogram of pause times, which covers pauses of up to 2^32 timer units.
+     */
+    private static final int PAUSE_BUCKETS = 32 * PAUSE_SUB_BUCKETS;
+
+    /**
+     * The histogram of the pause times of all collections, or null if VM statistics are disabled.
+     */
+    private int[] pauseCounts;
+
+    /**
+     * The number of pauses in the histogram.
+     */
+    private int pauseCount;
+
+    /**
+     * The longest pause as measured by {@link #now}.
+     */
+    private long maxPauseTime;
+
+    /**
+     * Gets the histogram bucket for a pause time. Each power of two is split into {@link #PAUSE_SUB_BUCKETS} buckets.
+     */
+    private static int getPauseBucket(long pause) {
+        if (pause < PAUSE_SUB_BUCKETS) {
+            return pause < 0 ? 0 : (int)pause;
+        }
+        int exponent = 0;
+        while (pause >= PAUSE_SUB_BUCKETS * 2) {
+            pause >>= 1;
+            exponent++;
+        }
+        int bucket = (exponent + 1) * PAUSE_SUB_BUCKETS + (int)pause - PAUSE_SUB_BUCKETS;
+        return bucket < PAUSE_BUCKETS ? bucket : PAUSE_BUCKETS - 1;
+    }
+
+    /**
+     * Gets the longest pause time that falls into a given histogram bucket.
+     */
+    private static long getPauseBucketLimit(int bucket) {
+        if (bucket < PAUSE_SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / PAUSE_SUB_BUCKETS - 1;
+        long mantissa = PAUSE_SUB_BUCKETS + bucket % PAUSE_SUB_BUCKETS;
+        return ((mantissa + 1) << exponent) - 1;
+    }
+
+    /**
+     * Adds the time taken by a collection to the histogram of pause times.
+     */
+    private void recordPause(long pause) {
+        pauseCounts[getPauseBucket(pause)]++;
+        pauseCount++;
+        if (maxPauseTime < pause) {
+            maxPauseTime = pause;
+        }
+    }
+
+    /**
+     * Gets a percentile of the pause times of all collections. For example, if <code>percentile</code>
+     * is 99 then 99% of all collections took no longer than the returned value.
+     * The value is rounded up to the next histogram bucket limit but never exceeds {@link #getMaxPauseTime}.
+     *
+     * @param percentile  a value between 0 and 100
+     * @return usec if the collector was built with GC_USEC_TIMER, ms otherwise. 0 if there were
+     *         no collections or VM statistics are disabled
+     */
+    public final long getPauseTimePercentile(int percentile) {
+        if (pauseCount == 0) {
+            return 0;
+        }
+        long rank = ((long)pauseCount * percentile + 99) / 100;
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i != PAUSE_BUCKETS; ++i) {
+            seen += pauseCounts[i];
+            if (seen >= rank) {
+                return Math.min(getPauseBucketLimit(i), maxPauseTime);
+            }
+        }
+        return maxPauseTime;
+    }
+
+    /**
+     * Gets the time of the longest collection.
+     * @return usec if the collector was built with GC_USEC_TIMER, ms otherwise
+     */
+    public final long getMaxPauseTime() {
+        return maxPauseTime;
+    }
+
     /**
      * Gets the time taken by the last collection.
      * @return ms
@@ -323,6 +431,22 @@ public abstract class GarbageCollector implements GlobalStaticFields {
      * @param out  where to dump the timing info
      */
     abstract void dumpTimings(java.io.PrintStream out);
+
+    /**
+     * Dumps the distribution of the pause times of all collections to the console.
+     *
+     * @param out  where to dump the pause times
+     */
+    final void dumpPauseTimes(java.io.PrintStream out) {
+        if (pauseCount != 0) {
+            String unit = timerUnitSuffix();
+            out.println("GC pauses: [count = " + pauseCount +
+                        ", p50 = " + getPauseTimePercentile(50) + unit +
+                        ", p90 = " + getPauseTimePercentile(90) + unit +
+                        ", p99 = " + getPauseTimePercentile(99) + unit +
+                        ", max = " + maxPauseTime + unit + "]");
+        }
+    }
 /*end[ENABLE_VM_STATISTICS]*/
     
     /**
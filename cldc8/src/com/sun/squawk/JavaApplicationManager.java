@@ -205,6 +205,7 @@ public class JavaApplicationManager {
             System.out.println("=============================");
             System.out.println("Squawk VM exiting with code " + exitCode);
             GC.getCollector().dumpTimings(System.out);
+            GC.getCollector().dumpPauseTimes(System.out);
             System.out.println("Execution time " + (endTime - startTime) + " ms");
             System.out.println("=============================");
             System.out.println();
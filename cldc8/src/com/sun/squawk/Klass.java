@@ -191,6 +191,38 @@ public class Klass<T> {
     private short dataMapLength;
 /*end[PLATFORM_TYPE_BARE_METAL]*/    
 
+    /**
+     * The primary supertype display of this class. This is the super type chain of
+     * this class in the verification type hierarchy, ordered from {@link #TOP} down
+     * to this class. A class at depth <i>d</i> in the hierarchy is at index <i>d</i>
+     * in the display of each of its subtypes, so a subtype check is an indexed load
+     * and a compare. This is null until the class is linked.
+     *
+     * @see #linkSupertypes
+     */
+    private Klass[] primarySupertypes;
+
+    /**
+     * The secondary supertypes of this class. This is the closure of all the interfaces
+     * implemented by this class, including those implemented by its super classes and
+     * those extended by its interfaces. This is null until the class is linked.
+     *
+     * @see #linkSupertypes
+     */
+    private Klass[] secondarySupertypes;
+
+    /**
+     * The interface table of this class. The entry at index <i>i</i> maps the methods of the
+     * interface at index <i>i</i> in {@link #secondarySupertypes} to the virtual methods that
+     * implement them, in the same encoding as {@link #interfaceVTableMaps}. The entries are the
+     * maps of this class and its super classes, shared rather than copied, so that
+     * {@link #findSlot} is one scan instead of a walk up the hierarchy. This is null for
+     * interfaces and abstract classes, and until the class is linked.
+     *
+     * @see #linkSupertypes
+     */
+    private short[][] secondaryVTableMaps;
+
     /**
      * A mask of the constants defined in {@link Modifier}.
      */
@@ -396,7 +428,7 @@ public class Klass<T> {
         throw new ClassNotFoundException(className);
     }
 
-    void initForObjectGraphLoader(MethodBody[] virtualMethods, MethodBody[] staticMethods, Klass superType, Klass[] interfaces, Object[] objects, UWord[] oopMap, UWord oopMapWord, UWord[] dataMap, UWord dataMapWord, short dataMapLength, int modifiers, byte state, short instanceSizeBytes, short staticFieldsSize, short refStaticFieldsSize, byte initModifiers) {
+    void initForObjectGraphLoader(MethodBody[] virtualMethods, MethodBody[] staticMethods, Klass superType, Klass[] interfaces, Object[] objects, UWord[] oopMap, UWord oopMapWord, UWord[] dataMap, UWord dataMapWord, short dataMapLength, int modifiers, byte state, short instanceSizeBytes, short staticFieldsSize, short refStaticFieldsSize, byte initModifiers, Klass[] primarySupertypes, Klass[] secondarySupertypes) {
     	this.virtualMethods = virtualMethods;
     	this.staticMethods = staticMethods;
         this.superType = superType;
@@ -415,6 +447,8 @@ public class Klass<T> {
         this.staticFieldsSize = staticFieldsSize;
         this.refStaticFieldsSize = refStaticFieldsSize;
         this.initModifiers = initModifiers;
+        this.primarySupertypes = primarySupertypes;
+        this.secondarySupertypes = secondarySupertypes;
     }
     
     /**
@@ -886,6 +920,7 @@ T
             this.modifiers     = (Modifier.PUBLIC | Modifier.ARRAY | Modifier.SQUAWKARRAY | Modifier.SYNTHETIC);
             this.superType     = Klass.OBJECT;
             this.interfaces    = Klass.NO_CLASSES;
+            linkSupertypes();
 
             // Encode the data size of the component type in a data map of length 1
             int log2ComponentDataSize;
@@ -1328,7 +1363,13 @@ T
      * @param    klass  the class to check
      * @return   true if this class is a subtype of <code>klass</code>.
      */
-    final boolean isSubtypeOf(Klass klass) throws ForceInlinedPragma {
+    final boolean isSubtypeOf(Klass klass) {
+        Klass[] display = primarySupertypes;
+        Klass[] klassDisplay = klass.primarySupertypes;
+        if (display != null && klassDisplay != null) {
+            int depth = klassDisplay.length - 1;
+            return depth < display.length && display[depth] == klass;
+        }
         return isSubtypeOf(this, klass);
     }
 
@@ -1340,6 +1381,16 @@ T
      */
     public final boolean isImplementorOf(Klass anInterface) {
         Assert.that(anInterface.isInterface());
+        Klass[] secondary = secondarySupertypes;
+        if (secondary != null) {
+            for (int i = 0 ; i < secondary.length ; i++) {
+                if (secondary[i] == anInterface) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         for (int i = 0 ; i < interfaces.length ; i++) {
             Klass iface = interfaces[i];
             if (iface == anInterface || iface.isImplementorOf(anInterface)) {
@@ -1469,6 +1520,16 @@ T
      * @return the virtual slot of this class, or -1 if not found
      */
     final int findSlot(Klass iklass, int islot) {
+        short[][] maps = secondaryVTableMaps;
+        if (maps != null) {
+            Klass[] secondary = secondarySupertypes;
+            for (int i = 0; i < maps.length; i++) {
+                if (secondary[i] == iklass) {
+                    return maps[i][islot];
+                }
+            }
+            return -1;
+        }
         if (!isAbstract()) {
             int icount = interfaces.length;
             for (int i = 0; i < icount; i++) {
@@ -1940,6 +2001,8 @@ T
          * Compute and set the interface table and interface index table.
          */
         setInterfaces(interfaces);
+
+        linkSupertypes();
     }
 
     /*---------------------------------------------------------------------------*\
@@ -2718,6 +2781,84 @@ T
         }
     }
 
+    /**
+     * Computes the {@link #primarySupertypes primary} and {@link #secondarySupertypes secondary}
+     * supertypes of this class from its super type chain and interfaces, and the
+     * {@link #secondaryVTableMaps interface table} of a concrete class. The display is
+     * left null if the super type chain does not yet reach {@link #TOP}, and the secondary
+     * supertypes and interface table are left null if the interfaces of a class on the
+     * chain are not yet known. The subtype checks and {@link #findSlot} walk the hierarchy
+     * for such a class instead.
+     */
+    private void linkSupertypes() {
+        int depth = 0;
+        Klass root = this;
+        while (root.superType != null) {
+            root = root.superType;
+            depth++;
+        }
+        if (root.id != CID.TOP) {
+            return;
+        }
+
+        Klass[] display = new Klass[depth + 1];
+        SquawkVector closure = new SquawkVector();
+        boolean complete = true;
+        for (Klass klass = this; klass != null; klass = klass.superType) {
+            display[depth--] = klass;
+            if (klass.interfaces == null) {
+                complete = false;
+            } else if (complete) {
+                addToInterfaceClosure(closure, klass.interfaces);
+            }
+        }
+        primarySupertypes = display;
+
+        if (!complete) {
+            secondarySupertypes = null;
+        } else if (closure.isEmpty()) {
+            secondarySupertypes = Klass.NO_CLASSES;
+        } else {
+            secondarySupertypes = new Klass[closure.size()];
+            closure.copyInto(secondarySupertypes);
+        }
+
+        secondaryVTableMaps = null;
+        if (secondarySupertypes != null && !isInterface() && !isAbstract()) {
+            short[][] maps = new short[secondarySupertypes.length][];
+            for (int i = 0 ; i < maps.length ; i++) {
+                maps[i] = getInterfaceVTableMap(secondarySupertypes[i]);
+                if (maps[i] == null) {
+                    return;
+                }
+            }
+            secondaryVTableMaps = maps;
+        }
+    }
+
+    /**
+     * Gets the map from the methods of an interface to the virtual methods of this class
+     * that implement them. This is the map that the walk in {@link #findSlot} would use.
+     *
+     * @param iklass  an interface implemented by this class
+     * @return the map or null if no map for <code>iklass</code> has been computed
+     */
+    private short[] getInterfaceVTableMap(Klass iklass) {
+        for (Klass klass = this; klass != null; klass = klass.superType) {
+            if (!klass.isAbstract()) {
+                if (klass.interfaces == null || klass.interfaceVTableMaps == null) {
+                    return null;
+                }
+                for (int i = 0 ; i < klass.interfaces.length ; i++) {
+                    if (klass.interfaces[i] == iklass) {
+                        return klass.interfaceVTableMaps[i];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Computes the closure of interfaces that are implemented by this class
      * excluding those that are implemented by the super class(es). The
@@ -3946,6 +4087,7 @@ T
         Assert.that(bootstrapSuite.getKlass(systemID) == klass);
         klass.setSuperType(superType);
         klass.updateModifiers(modifiers | klass.getModifiers());
+        klass.linkSupertypes();
         return klass;
     }
 
@@ -60,6 +60,11 @@ final class Monitor {
      * Flag to show if a wait occured.
      */
     boolean hasHadWaiter;
+
+    /**
+     * The next monitor in the list of monitors that are free to be reused.
+     */
+    Monitor nextFree;
 /*else[SMARTMONITORS]*/
 //  int depth;
 /*end[SMARTMONITORS]*/
@@ -67,7 +72,7 @@ final class Monitor {
     /**
      * The object that this is a monitor for. Used for debugging/assertions.
      */
-    final Object object;
+    Object object;
 
     /*
      * Constructor
@@ -79,6 +84,20 @@ final class Monitor {
 /*end[ENABLE_VM_STATISTICS]*/	
     }
 
+/*if[SMARTMONITORS]*/
+    /**
+     * Resets a monitor that has been released so that it can be reused.
+     *
+     * @param object the object that this is now a monitor for, or null if it is being freed
+     */
+    void reset(Object object) {
+        Assert.that(owner == null && monitorQueue == null && condvarQueue == null && depth == 0);
+        this.object = object;
+        hasHadWaiter = false;
+        nextFree = null;
+    }
+/*end[SMARTMONITORS]*/
+
     /**
      * Add a thread to the monitor wait queue.
      *
@@ -601,6 +601,10 @@ public final class NativeUnsafe {
     public final static int NATIVE_TASK_NT_ERRNO_RESULT_OFFSET = NATIVE_TASK_LOW_RESULT_OFFSET + 1;
     public final static int NATIVE_TASK_ARGS_OFFSET = NATIVE_TASK_NT_ERRNO_RESULT_OFFSET + 1;
 
+    public final static int TASK_EXECUTOR_QUEUE_LENGTH_OFFSET = 0;
+    public final static int TASK_EXECUTOR_MAX_QUEUE_LENGTH_OFFSET = 1;
+    public final static int TASK_EXECUTOR_TASKS_RUN_OFFSET = 2;
+
     /*  ----- Natives: define unconditionally to avoid renumbering native methods ------------*/
     public static int cancelTaskExecutor(Address taskExecutor) throws NativePragma {
         throw Assert.shouldNotReachHere("unimplemented when hosted");
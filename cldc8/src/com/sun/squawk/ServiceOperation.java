@@ -139,6 +139,7 @@ public final class ServiceOperation implements GlobalStaticFields {
                 }
                 case GARBAGE_COLLECT: {
                     GC.collectGarbage(i1 != 0);
+                    VMThread.trimStacks();
                     break;
                 }
 /*if[!ENABLE_ISOLATE_MIGRATION]*/
@@ -36,9 +36,11 @@ import java.util.Vector;
 import com.sun.squawk.pragma.HostedPragma;
 import com.sun.squawk.util.Arrays;
 import com.sun.squawk.util.Assert;
+import com.sun.squawk.util.Comparer;
 import com.sun.squawk.util.LineReader;
 import com.sun.squawk.util.SquawkHashtable;
 import com.sun.squawk.vm.CID;
+import com.sun.squawk.vm.HDR;
 
 /**
  * A suite is the unit of deployment/compilation in the Squawk system.
@@ -68,6 +70,14 @@ public final class Suite {
 
     private final int type;
 
+    /**
+     * The hash codes of the strings in this suite, precomputed by the romizer. This is an open
+     * addressing hash table of pairs of ints, the offset of a string from the start of the
+     * object memory holding the suite and the hash code of the string. It is null if the suite
+     * was not saved by the romizer.
+     */
+    private int[] stringHashCodes;
+
     /**
      * The suite that this suite is bound against. That is, the classes of this
      * suite reference classes in the parent suite and its parents.
@@ -108,6 +118,12 @@ public final class Suite {
      */
     private Klass[] stripClassesLater;
 
+    /**
+     * The classes in the suite sorted by name so that {@link #lookup} can do a binary
+     * search instead of comparing the name of every class. This is null while the suite is open.
+     */
+    private Klass[] classesByName;
+
 /*if[STATIC_MAIN_CLASS]*/
     Klass mainKlass;
     Klass classKlass;    
@@ -875,6 +891,24 @@ public final class Suite {
             }
         }
 
+        if (classesByName != null) {
+            int low = 0;
+            int high = classesByName.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                Klass klass = classesByName[mid];
+                int cmp = klass.getInternalName().compareTo(name);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return klass;
+                }
+            }
+            return null;
+        }
+
         for (int i = 0 ; i < classes.length ; i++) {
             Klass klass = classes[i];
             if (klass != null) {
@@ -886,6 +920,50 @@ public final class Suite {
         return null;
     }
 
+    /**
+     * Orders classes by their names.
+     */
+    static final class KlassNameComparer implements Comparer {
+        public int compare(Object o1, Object o2) {
+            return ((Klass)o1).getInternalName().compareTo(((Klass)o2).getInternalName());
+        }
+    }
+
+    /**
+     * Builds the index of the classes in this suite sorted by name that is used by {@link #lookup}.
+     *
+     * @param omittedPrefixes  the prefixes of the names of the classes to leave out of the index or null.
+     *                         The romizer uses this for classes whose names are not saved with the suite.
+     */
+    void indexClassNames(String[] omittedPrefixes) {
+        Klass[] sorted = new Klass[classes.length];
+        int count = 0;
+        for (int i = 0; i < classes.length; i++) {
+            Klass klass = classes[i];
+            if (klass != null && !hasPrefix(klass.getInternalName(), omittedPrefixes)) {
+                sorted[count++] = klass;
+            }
+        }
+        if (count != sorted.length) {
+            Klass[] old = sorted;
+            sorted = new Klass[count];
+            System.arraycopy(old, 0, sorted, 0, count);
+        }
+        Arrays.sort(sorted, new KlassNameComparer());
+        classesByName = sorted;
+    }
+
+    private static boolean hasPrefix(String name, String[] prefixes) {
+        if (prefixes != null) {
+            for (int i = 0; i < prefixes.length; i++) {
+                if (name.startsWith(prefixes[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns true if this suite contains the given klass.
      *
@@ -1041,6 +1119,58 @@ public final class Suite {
         return configuration;
     }
 
+    /**
+     * Gets the hash code of a string in this suite precomputed by the romizer.
+     *
+     * @param offset  the offset of the string from the start of the object memory holding this suite
+     * @return the hash code of the string or zero if it was not precomputed
+     */
+    int getStringHashCode(int offset) {
+        int[] table = stringHashCodes;
+        if (table != null) {
+            int mask = (table.length >> 1) - 1;
+            int index = (((offset >>> HDR.LOG2_BYTES_PER_WORD) * 0x9E3779B9) >>> 16) & mask;
+            while (true) {
+                int key = table[index << 1];
+                if (key == offset) {
+                    return table[(index << 1) + 1];
+                } else if (key == 0) {
+                    return 0;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Creates the table of the precomputed string hash codes searched by {@link #getStringHashCode}.
+     * The table is at most three quarters full. The search for a string starts at an entry selected
+     * by scrambling its offset, because the strings of a suite are often next to each other.
+     *
+     * @param offsets    the offsets of the strings from the start of the object memory, none of which is zero
+     * @param hashCodes  the hash codes of the strings
+     * @return the table
+     */
+    static int[] createStringHashCodeTable(int[] offsets, int[] hashCodes) throws HostedPragma {
+        int capacity = 1;
+        while (capacity * 3 < offsets.length * 4) {
+            capacity <<= 1;
+        }
+        int mask = capacity - 1;
+        int[] table = new int[capacity * 2];
+        for (int i = 0; i != offsets.length; i++) {
+            Assert.that(offsets[i] != 0);
+            int index = (((offsets[i] >>> HDR.LOG2_BYTES_PER_WORD) * 0x9E3779B9) >>> 16) & mask;
+            while (table[index << 1] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index << 1] = offsets[i];
+            table[(index << 1) + 1] = hashCodes[i];
+        }
+        return table;
+    }
+
     /**
      * Serializes the object graph rooted by this suite and writes it to a given stream.
      *
@@ -1199,6 +1329,7 @@ public final class Suite {
      */
     public void close() {
         closed = true;
+        indexClassNames(null);
     }
 
     /**
@@ -153,6 +153,39 @@ public class VM implements GlobalStaticFields {
      */
     private static VMBufferDecoder vmbufferDecoder;
 
+    /**
+     * The number of methods whose decoded exception handlers are kept by the do_throw code. Must be a power of 2.
+     */
+    private final static int HANDLER_CACHE_SIZE = 32;
+
+    /**
+     * The maximum number of exception handlers of a method that can be cached.
+     */
+    private final static int HANDLER_CACHE_MAX_HANDLERS = 4;
+
+    /**
+     * The size of an entry in {@link #handlerCache}: the number of handlers followed by the
+     * start, end and handler bytecode indexes and the class index of each handler.
+     */
+    private final static int HANDLER_CACHE_ENTRY_SIZE = 1 + HANDLER_CACHE_MAX_HANDLERS * 4;
+
+    /**
+     * The methods whose exception handlers are in {@link #handlerCache}, indexed by their address.
+     */
+    private static Object[] handlerCacheMethods;
+
+    /**
+     * The decoded exception handlers of the methods in {@link #handlerCacheMethods}. The values are
+     * all unsigned shorts.
+     */
+    private static char[] handlerCache;
+
+    /**
+     * The value of {@link GC#getReadOnlyObjectMemoryUnloads} when {@link #handlerCache} was last
+     * flushed. A method in an unloaded suite may share an address with a method loaded later.
+     */
+    private static int handlerCacheUnloads;
+
     /*
      * Create the isolate of the currently executing thread.
      */
@@ -294,6 +327,8 @@ public class VM implements GlobalStaticFields {
         GC.initialize(bootstrapSuite);
 
         vmbufferDecoder  = new VMBufferDecoder();
+        handlerCacheMethods = new Object[HANDLER_CACHE_SIZE];
+        handlerCache     = new char[HANDLER_CACHE_SIZE * HANDLER_CACHE_ENTRY_SIZE];
         outOfMemoryError = new OutOfMemoryError();
 
         /*
@@ -1151,6 +1186,112 @@ public class VM implements GlobalStaticFields {
         return trace;
     }
     
+    /**
+     * Records the method and bytecode index of each frame in the current call stack, starting from the frame
+     * of the method that called this one, without creating an object per frame. The result can be decoded
+     * with {@link #getCapturedFrameCount} and {@link #getCapturedFrame} when the frames are needed.<p>
+     *
+     * The frames are recorded as raw words, which the collector does not update. If any of the methods on
+     * the stack is in RAM, and so may be moved by the collector, the stack is reified straight away instead.
+     * The methods in read-only memory may be unloaded, so a recorded stack stops decoding once a read-only
+     * object memory is un-registered.
+     *
+     * THIS IS PRIVATE TO THE BOOTSTRAP SUITE
+     *
+     * @return the recorded call stack or null if there are no frames
+     */
+    public static Object captureCurrentStack() {
+        if (!VMThread.currentThread().isAlive()) {
+            return null;
+        }
+        return captureStack0(VMThread.currentThread(), VM.getFP());
+    }
+
+    /**
+     * Records the call stack of a thread as a UWord array holding the address of the method and the
+     * bytecode index of each frame, followed by the value of {@link GC#getReadOnlyObjectMemoryUnloads}.
+     *
+     * @see #captureCurrentStack
+     */
+    private static Object captureStack0(VMThread thread, Address fpBase) {
+        Object stack = thread.getStack();
+
+        if (fpBase.isZero() || insaneFP(stack, fpBase)) {
+            return null;
+        }
+
+        Offset fpBaseOffset = fpBase.diff(Address.fromObject(stack));
+        int frames = 0;
+
+        // Skip frame for this method
+        Address fp = VM.getPreviousFP(fpBase);
+        while (!fp.isZero()) {
+            frames++;
+            fp = VM.getPreviousFP(fp);
+        }
+        if (frames == 0) {
+            return null;
+        }
+
+        // WARNING: Allocation may cause GC, which will invalidate all Addresses.
+        fpBase = Address.zero();
+        UWord[] trace = new UWord[frames * 2 + 1];
+        trace[frames * 2] = UWord.fromPrimitive(GC.getReadOnlyObjectMemoryUnloads());
+
+        fp = Address.fromObject(stack).addOffset(fpBaseOffset); // recompute Address
+        for (int i = 0; i != frames; ++i) {
+            Address ip = VM.getPreviousIP(fp);
+            fp = VM.getPreviousFP(fp);
+            if (insaneFP(stack, fp)) {
+                break; // the remaining frames decode as null
+            }
+            Object mp = VM.getMP(fp);
+            if (GC.inRam(mp)) {
+                fp = Address.zero();
+                return reifyStack0(thread, Address.fromObject(stack).addOffset(fpBaseOffset), -1);
+            }
+            trace[i * 2] = Address.fromObject(mp).toUWord();
+            trace[i * 2 + 1] = ip.diff(Address.fromObject(mp)).toUWord();
+        }
+        return trace;
+    }
+
+    /**
+     * Gets the number of frames in a call stack recorded by {@link #captureCurrentStack}.
+     *
+     * @param trace  the recorded call stack, which may be null
+     * @return the number of frames
+     */
+    public static int getCapturedFrameCount(Object trace) {
+        if (trace == null) {
+            return 0;
+        } else if (trace instanceof ExecutionPoint[]) {
+            return ((ExecutionPoint[])trace).length;
+        } else {
+            return ((UWord[])trace).length / 2;
+        }
+    }
+
+    /**
+     * Gets a frame of a call stack recorded by {@link #captureCurrentStack}. The zeroth frame
+     * represents the top of the stack.
+     *
+     * @param trace  the recorded call stack
+     * @param index  the index of the frame
+     * @return the frame or null if it could not be decoded or its method may have been unloaded
+     */
+    public static ExecutionPoint getCapturedFrame(Object trace, int index) {
+        if (trace instanceof ExecutionPoint[]) {
+            return ((ExecutionPoint[])trace)[index];
+        }
+        UWord[] words = (UWord[])trace;
+        UWord mp = words[index * 2];
+        if (mp.isZero() || words[words.length - 1].toInt() != GC.getReadOnlyObjectMemoryUnloads()) {
+            return null;
+        }
+        return new ExecutionPoint(Offset.zero(), words[index * 2 + 1].toOffset(), Address.fromPrimitive(mp.toPrimitive()).toObject());
+    }
+
     /**
      * Returns an array of stack trace elements, each representing one stack frame in the call stack of the 
      * specified thread.
@@ -1186,6 +1327,56 @@ public class VM implements GlobalStaticFields {
         return reifyStack0(thread, fp, count);
     }
 
+    /**
+     * Gets the decoded exception handlers of a method from the handler cache, decoding them into
+     * the cache first if they are not there. The cache is direct mapped, so a method replaces
+     * any other method with the same index. Methods in RAM are not cached as the collector may
+     * move them, nor are methods with more than {@link #HANDLER_CACHE_MAX_HANDLERS} handlers.
+     * The cache is flushed when a read-only object memory is unloaded.<p>
+     *
+     * This method does not allocate.
+     *
+     * @param mp  the method
+     * @return the offset of the method's entry in {@link #handlerCache} or -1 if it cannot be cached
+     */
+    private static int getCachedHandlers(Object mp) {
+        if (GC.inRam(mp)) {
+            return -1;
+        }
+        if (handlerCacheUnloads != GC.getReadOnlyObjectMemoryUnloads()) {
+            for (int i = 0; i != HANDLER_CACHE_SIZE; i++) {
+                handlerCacheMethods[i] = null;
+                handlerCache[i * HANDLER_CACHE_ENTRY_SIZE] = 0;
+            }
+            handlerCacheUnloads = GC.getReadOnlyObjectMemoryUnloads();
+        }
+        int index = ((int)Address.fromObject(mp).toUWord().toPrimitive() >>> HDR.LOG2_BYTES_PER_WORD) & (HANDLER_CACHE_SIZE - 1);
+        int entry = index * HANDLER_CACHE_ENTRY_SIZE;
+        if (handlerCacheMethods[index] == mp) {
+            return entry;
+        }
+
+        handlerCacheMethods[index] = null;
+        int offset = MethodHeader.decodeExceptionTableOffset(mp);
+        int end = offset + MethodHeader.decodeExceptionTableSize(mp);
+        vmbufferDecoder.reset(mp, offset);
+        int count = 0;
+        while (vmbufferDecoder.getOffset() < end) {
+            if (count == HANDLER_CACHE_MAX_HANDLERS) {
+                return -1;
+            }
+            int p = entry + 1 + count * 4;
+            handlerCache[p]     = (char)vmbufferDecoder.readUnsignedShort(); // start bci
+            handlerCache[p + 1] = (char)vmbufferDecoder.readUnsignedShort(); // end bci
+            handlerCache[p + 2] = (char)vmbufferDecoder.readUnsignedShort(); // handler bci
+            handlerCache[p + 3] = (char)vmbufferDecoder.readUnsignedShort(); // class index
+            count++;
+        }
+        handlerCache[entry] = (char)count;
+        handlerCacheMethods[index] = mp;
+        return entry;
+    }
+
     /**
      * Throws an exception. This routine will search for a handler of the
      * exception being thrown, reset the return ip and fp of the activation record that
@@ -1275,25 +1466,42 @@ hbp.dumpState();
         while(true) {
 
             /*
-             * Setup the preallocated VMBufferDecoder to decode the header
-             * of the method for the frame being tested.
+             * Get the handlers of the method for the frame being tested from the
+             * handler cache or, if they cannot be cached, setup the preallocated
+             * VMBufferDecoder to decode them from the header of the method.
              */
-            int offset = MethodHeader.decodeExceptionTableOffset(mp);
-            vmbufferDecoder.reset(mp, offset);
-            int end = offset + MethodHeader.decodeExceptionTableSize(mp);
+            int entry = getCachedHandlers(mp);
+            int count = 0;
+            int end = 0;
+            if (entry >= 0) {
+                count = handlerCache[entry];
+            } else {
+                int offset = MethodHeader.decodeExceptionTableOffset(mp);
+                vmbufferDecoder.reset(mp, offset);
+                end = offset + MethodHeader.decodeExceptionTableSize(mp);
+            }
 
             UWord start_bci; // allocate outside loop to avoid mixing UWord and Address slots...
             UWord end_bci;
             UWord handler_bci;
+            int handler;
 
             /*
              * Iterate through the handlers for this method.
              */
-            while (vmbufferDecoder.getOffset() < end) {
-                start_bci     = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
-                end_bci       = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
-                handler_bci   = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
-                int handler  = vmbufferDecoder.readUnsignedShort();
+            for (int i = 0; entry >= 0 ? i != count : vmbufferDecoder.getOffset() < end; i++) {
+                if (entry >= 0) {
+                    int p = entry + 1 + i * 4;
+                    start_bci     = UWord.fromPrimitive(handlerCache[p]);
+                    end_bci       = UWord.fromPrimitive(handlerCache[p + 1]);
+                    handler_bci   = UWord.fromPrimitive(handlerCache[p + 2]);
+                    handler       = handlerCache[p + 3];
+                } else {
+                    start_bci     = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
+                    end_bci       = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
+                    handler_bci   = UWord.fromPrimitive(vmbufferDecoder.readUnsignedShort());
+                    handler       = vmbufferDecoder.readUnsignedShort();
+                }
 
                 /*
                  * If the ip and exception matches then setup the activation
@@ -3421,12 +3629,14 @@ hbp.dumpState();
             VM.print(": ");
             VM.println(message);
         }
-        ExecutionPoint[] trace = (ExecutionPoint[])NativeUnsafe.getObject(exc, (int)FieldOffsets.java_lang_Throwable$trace);
+        Object trace = NativeUnsafe.getObject(exc, (int)FieldOffsets.java_lang_Throwable$trace);
         if (exc != VM.getOutOfMemoryError() && trace != null) {
-            for (int i = 0; i != trace.length; ++i) {
+            int frames = getCapturedFrameCount(trace);
+            for (int i = 0; i != frames; ++i) {
                 VM.print("    ");
-                if (trace[i] != null) {
-                    trace[i].printToVM();
+                ExecutionPoint frame = getCapturedFrame(trace, i);
+                if (frame != null) {
+                    frame.printToVM();
                 } else {
                     VM.print("undecipherable");
                 }
@@ -4233,7 +4443,8 @@ hbp.dumpState();
          *
          * Stacks are allocated for each thread, and as more frames are needed, new stacks
          * are created to replace the original stacks (typically at 2x the size of the original stack).
-         * The default stack size is about 160 words.
+         * The default stack size is about 160 words. The smaller stacks that replace the stacks of
+         * idle threads after a collection are counted too.
          *
          *  @return total stacks allocated
          */
@@ -4249,6 +4460,25 @@ hbp.dumpState();
         public static int getMaxStackSize() {
             return VMThread.getMaxStackSize();
         }
+
+        /**
+         * Return the number of times the stack of an idle thread was replaced by a smaller one
+         * after a collection.
+         *
+         *  @return total stacks trimmed
+         */
+        public static int getStacksTrimmedCount() {
+            return VMThread.getStacksTrimmedCount();
+        }
+
+        /**
+         * Return the amount of stack freed by trimming the stacks of idle threads.
+         *
+         *  @return total stack trimmed, in words
+         */
+        public static int getStackWordsTrimmed() {
+            return VMThread.getStackWordsTrimmed();
+        }
         
         /**
          * Return number of exceptions thrown.
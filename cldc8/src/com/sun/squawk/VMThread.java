@@ -60,6 +60,12 @@ public final class VMThread implements GlobalStaticFields {
      */
     private final static int MAX_STACK_GROWTH_FRACTION = 8;
 
+    /**
+     * The stack of an idle thread is trimmed after a collection if it is at least this many
+     * times larger than it needs to be (see {@link #trimStacks()}).
+     */
+    private final static int STACK_TRIM_FACTOR = 2;
+
     /**
      * The minimum size (in words) of a thread's stack. This constant accounts for the
      * number of slots required for the meta-info slots at the beginning of the chunk
@@ -147,6 +153,22 @@ public final class VMThread implements GlobalStaticFields {
     static int waitTimeHi32;
     static int waitTimeLo32;
     
+    /**
+     * The default length of a time slice, in microseconds.
+     */
+    public final static int DEFAULT_TIME_SLICE = 10000;
+
+    /**
+     * The length of the time slice, in microseconds, for each priority level. Index 0 is unused.
+     */
+    private static int[] timeSlices;
+
+    /**
+     * The length of the time slice, in microseconds, given to the thread being switched to.
+     * This is read by the VM when it switches threads.
+     */
+    static int timeSlice;
+
     /**
      * Handler for OS events...
      */
@@ -237,6 +259,37 @@ public final class VMThread implements GlobalStaticFields {
     }
 /*end[ENABLE_VM_STATISTICS]*/        
 
+    /**
+     * Sets the length of the time slice for threads of a given priority. A running thread
+     * is preempted once it has run for its time slice, if another thread of the same
+     * priority is runnable. The new length applies from the next time a thread of that
+     * priority is switched to.
+     *
+     * @param priority    the priority, from <code>MIN_PRIORITY</code> to <code>REAL_MAX_SYS_PRIORITY</code>
+     * @param micros      the length of the time slice in microseconds
+     * @exception  IllegalArgumentException  If the priority is out of range or <code>micros</code> is not positive.
+     */
+    public static void setTimeSlice(int priority, int micros) {
+        if (priority > REAL_MAX_SYS_PRIORITY || priority < MIN_PRIORITY || micros <= 0) {
+            throw new IllegalArgumentException();
+        }
+        timeSlices[priority] = micros;
+    }
+
+    /**
+     * Gets the length of the time slice for threads of a given priority.
+     *
+     * @param priority    the priority, from <code>MIN_PRIORITY</code> to <code>REAL_MAX_SYS_PRIORITY</code>
+     * @return the length of the time slice in microseconds
+     * @exception  IllegalArgumentException  If the priority is out of range.
+     */
+    public static int getTimeSlice(int priority) {
+        if (priority > REAL_MAX_SYS_PRIORITY || priority < MIN_PRIORITY) {
+            throw new IllegalArgumentException();
+        }
+        return timeSlices[priority];
+    }
+
     /**
      * Set the maximum time that system will wait for IO, interrupts, etc.
      * WARNING: This can break system sleeping, and should only be used in emergencies.
@@ -565,6 +618,27 @@ public final class VMThread implements GlobalStaticFields {
         return priority;
     }
 
+    /**
+     * Returns the time this thread has spent running. This covers the time from when the thread
+     * was switched to until it was switched out, including any garbage collection and I/O done
+     * by the VM on its behalf, and is updated each time the thread is switched out.
+     *
+     * @return the time this thread has run, in microseconds
+     */
+    public final long getCpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * Returns the number of times this thread has been switched out, either because it blocked,
+     * yielded, or used up its time slice.
+     *
+     * @return the number of times this thread has been switched out
+     */
+    public final int getSwitchCount() {
+        return switchCount;
+    }
+
     /**
      * Returns the current number of active threads in the VM.
      *
@@ -897,6 +971,11 @@ public final class VMThread implements GlobalStaticFields {
      */
     VMThread nextTimerThread;
 
+    /**
+     * Back reference used for removing a thread from its timer queue bucket in constant time.
+     */
+    VMThread prevTimerThread;
+
     /**
      * Threads waiting for this thread to die.
      */
@@ -907,6 +986,16 @@ public final class VMThread implements GlobalStaticFields {
      */
     long time;
 
+    /**
+     * The time this thread has run, in microseconds. Updated by the VM when the thread is switched out.
+     */
+    private long cpuTime;
+
+    /**
+     * The number of times this thread has been switched out. Updated by the VM.
+     */
+    private int switchCount;
+
     /**
      * The numeric identifier of the thread. This is only unique within this thread's isolate.
      */
@@ -1293,6 +1382,11 @@ VM.println();
         currentThread       = asVMThread(new Thread()); // Startup using a dummy thread
         serviceThread       = currentThread;
         max_wait            = -1; // encode value of Long.MAX_VALUE
+        timeSlices          = new int[REAL_MAX_SYS_PRIORITY + 1];
+        for (int i = MIN_PRIORITY; i <= REAL_MAX_SYS_PRIORITY; i++) {
+            timeSlices[i] = DEFAULT_TIME_SLICE;
+        }
+        timeSlice           = DEFAULT_TIME_SLICE;
 
         /*
          * Convert the block of memory allocated for the service thread's stack into a
@@ -1555,7 +1649,8 @@ VM.println();
      *
      * Stacks are allocated for each thread, and as more frames are needed, new stacks 
      * are created to replace the original stacks (typically at 2x the size of the original stack).
-     * The default stack size is about 160 words.
+     * The default stack size is about 160 words. The smaller stacks that replace the stacks of
+     * idle threads after a collection are counted too.
      *
      * @return total number of stacks ever allocated
      */
@@ -1570,6 +1665,39 @@ VM.println();
     public static int getMaxStackSize() {
         return maxStackSize;
     }
+
+    private static int stacksTrimmedCount;
+    private static int stackWordsTrimmed;
+
+    /**
+     * Return the number of times the stack of an idle thread was replaced by a smaller one.
+     *
+     * @return total number of stacks trimmed
+     */
+    public static int getStacksTrimmedCount() {
+        return stacksTrimmedCount;
+    }
+
+    /**
+     * Return the number of words of stack freed by trimming the stacks of idle threads.
+     *
+     * @return total stack words trimmed
+     */
+    public static int getStackWordsTrimmed() {
+        return stackWordsTrimmed;
+    }
+
+    /**
+     * Records the allocation of a stack in the statistics.
+     *
+     * @param size the size of the stack in words
+     */
+    private static void countStack(int size) {
+        stacksAllocatedCount++;
+        if (size > maxStackSize) {
+            maxStackSize = size;
+        }
+    }
 /*end[ENABLE_VM_STATISTICS]*/    
     
     
@@ -1604,10 +1732,7 @@ VM.println();
             }
         }
 /*if[ENABLE_VM_STATISTICS]*/    
-        stacksAllocatedCount++;
-        if (size > maxStackSize) {
-            maxStackSize = size;
-        }
+        countStack(size);
 /*end[ENABLE_VM_STATISTICS]*/
         return stack;
     }
@@ -1670,6 +1795,85 @@ VM.println();
         }
     }
 
+    /**
+     * Trims the stacks of the idle threads in all isolates. A thread that recursed deeply
+     * once keeps the stack it was extended to, so the stack of each thread other than the one the
+     * collection was done for is replaced by a smaller one if it is at least
+     * {@link #STACK_TRIM_FACTOR} times larger than needed. The new stack holds twice the frames in
+     * use plus the room the inner most frame needs to resume, and is never smaller than the
+     * initial stack of the thread or {@link #MIN_STACK_SIZE}.
+     * <p>
+     * This code is called on the service thread after a collection. The new stacks are taken from
+     * the free memory without collecting, and a thread whose new stack does not fit keeps its old
+     * one. The old stacks are reclaimed by the next collection.
+     */
+    static void trimStacks() {
+        Assert.that(currentThread == VMThread.serviceThread);
+        if (VM.getCurrentIsolate() == null) {
+            return;
+        }
+        Isolate[] isolates = Isolate.getIsolates();
+        for (int i = 0; i != isolates.length; i++) {
+            for (Enumeration e = isolates[i].getChildThreads(); e.hasMoreElements(); ) {
+                VMThread thread = (VMThread)e.nextElement();
+                if (thread != otherThread && !thread.isServiceThread() && thread.state == ALIVE && thread.stack != null) {
+                    thread.trimStack();
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the stack of this idle thread by a smaller one if it is worth it.
+     *
+     * @see #trimStacks()
+     */
+    private void trimStack() {
+        final int oldSize = GC.getArrayLength(stack);
+        Address lastFP = NativeUnsafe.getAddress(stack, SC.lastFP);
+        if (lastFP.isZero()) {
+            return;
+        }
+        int used = Address.fromObject(stack).add(oldSize * HDR.BYTES_PER_WORD).diff(lastFP).toInt() / HDR.BYTES_PER_WORD;
+
+        /*
+         * The inner most frame (reschedule() or abandonThread()) already passed its stack
+         * overflow check, so when the thread resumes its locals and operand stack are used
+         * without another check. They must fit below lastFP, leaving the FP.FIXED_FRAME_SIZE
+         * words above the stack limit that the EXTEND check of the next call expects.
+         */
+        Object mp = NativeUnsafe.getAddress(lastFP, FP.method).toObject();
+        int slack = MethodHeader.decodeLocalCount(mp) + MethodHeader.decodeStackCount(mp) + FP.FIXED_FRAME_SIZE;
+        int minSize = SC.limit + used + slack;
+
+        int newSize = minSize + used;
+        if (newSize < stackSize) {
+            newSize = stackSize;
+        }
+        if (newSize < MIN_STACK_SIZE) {
+            newSize = MIN_STACK_SIZE;
+        }
+        Assert.that(newSize >= minSize);
+        if (oldSize < newSize * STACK_TRIM_FACTOR) {
+            return;
+        }
+
+        /*
+         * Allocate a new stack without collecting and copy the frames in use.
+         */
+        lastFP = Address.zero();
+        Object newStack = GC.newStack(newSize, this);
+        if (newStack != null) {
+            GC.stackCopy(stack, newStack);
+            stack = newStack;
+/*if[ENABLE_VM_STATISTICS]*/
+            countStack(newSize);
+            stacksTrimmedCount++;
+            stackWordsTrimmed += oldSize - newSize;
+/*end[ENABLE_VM_STATISTICS]*/
+        }
+    }
+
     /**
      * Call the run() method of a thread. This is called by the VM when a new thread is started.
      * The call sequence is that Thread.start() calls Thread.reschedule() which calls VM.switchToThread()
@@ -2018,6 +2222,7 @@ VM.println();
 /*end[DEBUG_CODE_ENABLED]*/
 
         rescheduleNext();        // Select the next thread
+        timeSlice = timeSlices[otherThread.priority];
         VM.threadSwitch();       // and switch
 
 /*if[ASSERTIONS_ENABLED]*/
@@ -2053,6 +2258,7 @@ VM.println();
         NativeUnsafe.setAddress(stack, SC.lastFP, Address.zero());
         stack = null;
         GC.setAllocationEnabled(oldState);
+        timeSlice = timeSlices[otherThread.priority];
         VM.threadSwitch();       // and switch
     }
 
@@ -2804,12 +3010,7 @@ VM.println();
 
 	public static Thread[] getRunnableThreads() {
 		Thread[] result = new Thread[runnableThreads.size()];
-		VMThread t = runnableThreads.first;
-		int i = 0;
-		while (t != null) {
-			result[i++] = t.getAPIThread();
-			t = t.nextThread;
-		}
+		runnableThreads.copyAPIThreadsInto(result);
 		return result;
 	}
     
@@ -2894,9 +3095,24 @@ VM.println();
 final class ThreadQueue {
 
     /**
-     * The first thread in the queue.
+     * The number of priority levels. Index 0 is unused.
+     */
+    private final static int LEVELS = VMThread.REAL_MAX_SYS_PRIORITY + 1;
+
+    /**
+     * The first thread of the FIFO queue for each priority.
+     */
+    private final VMThread[] heads = new VMThread[LEVELS];
+
+    /**
+     * The last thread of the FIFO queue for each priority.
      */
-    VMThread first;
+    private final VMThread[] tails = new VMThread[LEVELS];
+
+    /**
+     * Bit <i>n</i> is set if the queue for priority <i>n</i> is not empty.
+     */
+    private int occupied;
 
     /**
      * The count of threads in the queue.
@@ -2904,30 +3120,25 @@ final class ThreadQueue {
     int count;
 
     /**
-     * Add a thread to the queue.
+     * Add a thread to the queue. The thread is queued behind all other threads
+     * of the same priority.
      *
      * @param thread the thread to add
      */
     void add(VMThread thread) {
         Assert.that(thread.isAlive());
+        Assert.that(thread.nextThread == null);
         thread.setInQueue(VMThread.Q_RUN);
         count++;
-        if (first == null) {
-            first = thread;
+        int level = thread.priority;
+        VMThread last = tails[level];
+        if (last == null) {
+            heads[level] = thread;
+            occupied |= 1 << level;
         } else {
-            int thisPriority = thread.priority;
-            if (first.priority < thisPriority) {
-                thread.nextThread = first;
-                first = thread;
-            } else {
-                VMThread last = first;
-                while (last.nextThread != null && last.nextThread.priority >= thisPriority) {
-                    last = last.nextThread;
-                }
-                thread.nextThread = last.nextThread;
-                last.nextThread = thread;
-            }
+            last.nextThread = thread;
         }
+        tails[level] = thread;
     }
 
     /**
@@ -2939,6 +3150,31 @@ final class ThreadQueue {
         return count;
     }
 
+    /**
+     * Remove a thread from the queue for a given priority.
+     *
+     * @param level    the priority of the queue
+     * @param thread   the thread to remove
+     * @param previous the thread before <code>thread</code> in the queue, or null if it is the first
+     */
+    private void unlink(int level, VMThread thread, VMThread previous) {
+        VMThread next = thread.nextThread;
+        if (previous == null) {
+            heads[level] = next;
+        } else {
+            previous.nextThread = next;
+        }
+        if (next == null) {
+            tails[level] = previous;
+            if (previous == null) {
+                occupied &= ~(1 << level);
+            }
+        }
+        thread.nextThread = null;
+        thread.setNotInQueue(VMThread.Q_RUN);
+        count--;
+    }
+
     /**
      * Get the next thread in the queue.
      *
@@ -2950,35 +3186,47 @@ final class ThreadQueue {
      * @return a thread or null if there is none
      */
     VMThread next() {
-        VMThread thread = first;
-
+        int levels = occupied;
+        while (levels != 0) {
+            int level = 31 - Integer.numberOfLeadingZeros(levels);
+            if (VMThread.systemThreadsOnly && level <= VMThread.MAX_PRIORITY) {
+                return null;
+            }
+            VMThread thread = heads[level];
 /*if[ENABLE_SDA_DEBUGGER]*/
-        VMThread skipped = null;
-        
-        // Skip over threads suspended by the debugger
-        while (thread != null && thread.getDebuggerSuspendCount() != 0) {
-            skipped = thread;
-            thread = thread.nextThread;
-        }
+            VMThread skipped = null;
+
+            // Skip over threads suspended by the debugger
+            while (thread != null && thread.getDebuggerSuspendCount() != 0) {
+                skipped = thread;
+                thread = thread.nextThread;
+            }
 /*else[ENABLE_SDA_DEBUGGER]*/
-//      final VMThread skipped = null;
+//          final VMThread skipped = null;
 /*end[ENABLE_SDA_DEBUGGER]*/
-        
-        if (VMThread.systemThreadsOnly && thread.priority <= VMThread.MAX_PRIORITY) {
-            return null;
+            if (thread != null) {
+                unlink(level, thread, skipped);
+                return thread;
+            }
+            levels &= ~(1 << level);
         }
+        return null;
+    }
 
-        if (thread != null) {
-            thread.setNotInQueue(VMThread.Q_RUN);
-            if (skipped == null) {
-                first = thread.nextThread;
-            } else {
-                skipped.nextThread = thread.nextThread;
+    /**
+     * Copy the API threads of the runnable threads into an array, in scheduling order.
+     *
+     * @param result the array, which must have at least {@link #size} elements
+     */
+    void copyAPIThreadsInto(Thread[] result) {
+        int i = 0;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            VMThread t = heads[level];
+            while (t != null) {
+                result[i++] = t.getAPIThread();
+                t = t.nextThread;
             }
-            thread.nextThread = null;
-            count--;
         }
-        return thread;
     }
 
     /**
@@ -2988,19 +3236,19 @@ final class ThreadQueue {
      * @param isolate  the isolate whose runnable threads are to be removed
      */
     void prune(Isolate isolate) {
-        VMThread oldQueue = first;
-        count = 0;
-        first = null;
-        while(oldQueue != null) {
-            VMThread thread = oldQueue;
-            oldQueue = oldQueue.nextThread;
-            thread.nextThread = null;
-            thread.setNotInQueue(VMThread.Q_RUN);
-            if (thread.getIsolate() != isolate) {
-                add(thread);
-            } else {
-                thread.setInQueue(VMThread.Q_HIBERNATEDRUN);
-                isolate.addToHibernatedRunThread(thread);
+        for (int level = LEVELS - 1; level > 0; level--) {
+            VMThread previous = null;
+            VMThread thread = heads[level];
+            while (thread != null) {
+                VMThread next = thread.nextThread;
+                if (thread.getIsolate() == isolate) {
+                    unlink(level, thread, previous);
+                    thread.setInQueue(VMThread.Q_HIBERNATEDRUN);
+                    isolate.addToHibernatedRunThread(thread);
+                } else {
+                    previous = thread;
+                }
+                thread = next;
             }
         }
     }
@@ -3014,9 +3262,113 @@ final class ThreadQueue {
 final class TimerQueue {
 
     /**
-     * The first thread in the queue.
+     * The number of buckets in the timer wheel. Must be a power of two.
+     */
+    private final static int WHEEL_SIZE = 64;
+
+    /**
+     * Mask used to map a tick onto a bucket of the wheel.
+     */
+    private final static int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * The log2 of the number of milliseconds covered by one tick of the wheel.
+     */
+    private final static int TICK_SHIFT = 4;
+
+    /**
+     * The buckets of the wheel. Each bucket is an unordered list of threads, doubly linked through
+     * <code>nextTimerThread</code> and <code>prevTimerThread</code>, whose wake up time falls into a tick
+     * that hashes to the bucket. A bucket can therefore hold threads from several revolutions of the wheel.
+     */
+    private final VMThread[] wheel = new VMThread[WHEEL_SIZE];
+
+    /**
+     * The threads that wait "forever" (i.e. with a wake up time of Long.MAX_VALUE).
+     */
+    private VMThread forever;
+
+    /**
+     * The count of threads in the queue.
+     */
+    private int count;
+
+    /**
+     * All ticks before this one have been examined and hold no thread that is due.
+     */
+    private long cursor;
+
+    /**
+     * A lower bound of the earliest wake up time of any thread in the queue, or Long.MAX_VALUE if
+     * there is none. It is exact after every full expiry scan, but may be too early once a thread
+     * has been removed, which only costs an early wake up.
+     */
+    private long earliest = Long.MAX_VALUE;
+
+    /**
+     * Get the bucket for a given wake up time.
+     *
+     * @param time the wake up time
+     * @return the index of the bucket
+     */
+    private static int bucketFor(long time) {
+        return (int)(time >>> TICK_SHIFT) & WHEEL_MASK;
+    }
+
+    /**
+     * Link a thread whose time has been set into the bucket corresponding to its wake up time.
+     *
+     * @param thread the thread
      */
-    VMThread first;
+    private void link(VMThread thread) {
+        long time = thread.time;
+        VMThread head;
+        if (time == Long.MAX_VALUE) {
+            head = forever;
+            forever = thread;
+        } else {
+            int index = bucketFor(time);
+            head = wheel[index];
+            wheel[index] = thread;
+            if (time < earliest) {
+                earliest = time;
+            }
+        }
+        thread.prevTimerThread = null;
+        thread.nextTimerThread = head;
+        if (head != null) {
+            head.prevTimerThread = thread;
+        }
+        count++;
+    }
+
+    /**
+     * Unlink a thread from its bucket. The time of the thread is left unchanged.
+     *
+     * @param thread the thread
+     */
+    private void unlink(VMThread thread) {
+        VMThread prev = thread.prevTimerThread;
+        VMThread next = thread.nextTimerThread;
+        if (prev != null) {
+            prev.nextTimerThread = next;
+        } else if (thread.time == Long.MAX_VALUE) {
+            Assert.that(forever == thread);
+            forever = next;
+        } else {
+            int index = bucketFor(thread.time);
+            Assert.that(wheel[index] == thread);
+            wheel[index] = next;
+        }
+        if (next != null) {
+            next.prevTimerThread = prev;
+        }
+        thread.prevTimerThread = null;
+        thread.nextTimerThread = null;
+        if (--count == 0) {
+            earliest = Long.MAX_VALUE;
+        }
+    }
 
     /**
      * Add a thread to the queue.
@@ -3025,8 +3377,19 @@ final class TimerQueue {
      * @param delta the time period
      */
     void add(VMThread thread, long delta) {
+        add(thread, delta, VM.getTimeMillis());
+    }
+
+    /**
+     * Add a thread to the queue.
+     *
+     * @param thread the thread to add
+     * @param delta the time period
+     * @param now the current time
+     */
+    void add(VMThread thread, long delta, long now) {
         Assert.that(thread.nextTimerThread == null);
-        long time = VM.getTimeMillis() + delta;
+        long time = now + delta;
         if (time < 0) {
 
            /*
@@ -3036,22 +3399,11 @@ final class TimerQueue {
             */
             time = Long.MAX_VALUE;
         }
-        thread.time = time;
-        if (first == null) {
-            first = thread;
-        } else {
-            if (first.time > time) {
-                thread.nextTimerThread = first;
-                first = thread;
-            } else {
-                VMThread last = first;
-                while (last.nextTimerThread != null && last.nextTimerThread.time < time) {
-                    last = last.nextTimerThread;
-                }
-                thread.nextTimerThread = last.nextTimerThread;
-                last.nextTimerThread = thread;
-            }
+        if (count == 0) {
+            cursor = now >>> TICK_SHIFT;
         }
+        thread.time = time;
+        link(thread);
     }
 
     /**
@@ -3060,15 +3412,90 @@ final class TimerQueue {
      * @return a thread or null if there is none
      */
     VMThread next() {
-        VMThread thread = first;
-        if (thread == null || thread.time > VM.getTimeMillis()) {
+        return next(VM.getTimeMillis());
+    }
+
+    /**
+     * Get the next thread in the queue that has reached a given time.
+     *
+     * @param now the current time
+     * @return a thread or null if there is none
+     */
+    VMThread next(long now) {
+        if (now < earliest) {
             return null;
         }
-        first = first.nextTimerThread;
-        thread.nextTimerThread = null;
-        Assert.that(thread.time != 0);
-        thread.time = 0;
-        return thread;
+        long nowTick = now >>> TICK_SHIFT;
+        if (cursor > nowTick) {
+            // The clock has been set back.
+            cursor = nowTick;
+        } else if (nowTick - cursor >= WHEEL_SIZE) {
+            // Every bucket is visited once, which is enough to find every thread that is due.
+            cursor = nowTick - WHEEL_MASK;
+        }
+        while (true) {
+            VMThread thread = wheel[(int)cursor & WHEEL_MASK];
+            while (thread != null) {
+                if (thread.time <= now) {
+                    unlink(thread);
+                    Assert.that(thread.time != 0);
+                    thread.time = 0;
+                    return thread;
+                }
+                thread = thread.nextTimerThread;
+            }
+            if (cursor == nowTick) {
+                break;
+            }
+            cursor++;
+        }
+        earliest = findEarliest(nowTick);
+        return null;
+    }
+
+    /**
+     * Find the earliest wake up time of the threads in the wheel, none of which may be due
+     * before the start of a given tick.
+     *
+     * @param fromTick the tick from which to search
+     * @return the earliest wake up time or Long.MAX_VALUE if the wheel is empty
+     */
+    private long findEarliest(long fromTick) {
+        long min = Long.MAX_VALUE;
+        if (count == 0) {
+            return min;
+        }
+
+        /*
+         * Look for the first tick that holds a thread due in the current revolution.
+         */
+        for (int i = 0; i != WHEEL_SIZE; i++) {
+            long tick = fromTick + i;
+            VMThread thread = wheel[(int)tick & WHEEL_MASK];
+            while (thread != null) {
+                if ((thread.time >>> TICK_SHIFT) == tick && thread.time < min) {
+                    min = thread.time;
+                }
+                thread = thread.nextTimerThread;
+            }
+            if (min != Long.MAX_VALUE) {
+                return min;
+            }
+        }
+
+        /*
+         * Every thread is at least one revolution away.
+         */
+        for (int i = 0; i != WHEEL_SIZE; i++) {
+            VMThread thread = wheel[i];
+            while (thread != null) {
+                if (thread.time < min) {
+                    min = thread.time;
+                }
+                thread = thread.nextTimerThread;
+            }
+        }
+        return min;
     }
 
     /**
@@ -3077,46 +3504,45 @@ final class TimerQueue {
      * @param thread the thread
      */
     void remove(VMThread thread) {
-        if (first == null) {
+        if (count == 0) {
             Assert.that(thread.time == 0);
             return;
         }
         if (thread.time == 0) {
             return;
         }
+        unlink(thread);
         thread.time = 0;
-        if (thread == first) {
-            first = thread.nextTimerThread;
-            thread.nextTimerThread = null;
-            return;
-        }
-        VMThread p = first;
-        while (p.nextTimerThread != null) {
-            if (p.nextTimerThread == thread) {
-                p.nextTimerThread = thread.nextTimerThread;
-                thread.nextTimerThread = null;
-                return;
-            }
-            p = p.nextTimerThread;
-        }
-        VM.fatalVMError();
     }
 
     /**
-     * Get the time delta to the next event in the queue.
+     * Get the time delta to the next event in the queue. The result is never later than
+     * the time at which the first thread becomes due, but may be earlier.
      *
      * @return the time
      */
     long nextDelta() {
-        if (first != null) {
-            long now = VM.getTimeMillis();
-            if (now >= first.time) {
-                return 0;
+        if (count == 0 || earliest == Long.MAX_VALUE) {
+            return Long.MAX_VALUE; // wait "forever"
+        }
+        return nextDelta(VM.getTimeMillis());
+    }
+
+    /**
+     * Get the time delta from a given time to the next event in the queue.
+     *
+     * @param now the current time
+     * @return the time
+     */
+    long nextDelta(long now) {
+        if (count != 0) {
+            if (earliest == Long.MAX_VALUE) {
+                return Long.MAX_VALUE; // wait "forever"
             }
-            if (first.time == Long.MAX_VALUE) {
-                return first.time; // wait "forever"
+            if (now >= earliest) {
+                return 0;
             }
-            return first.time - now;
+            return earliest - now;
         } else {
             return Long.MAX_VALUE;
         }
@@ -3129,44 +3555,68 @@ final class TimerQueue {
      * @param isolate  the isolate whose timer-blocked threads are to be removed
      */
     void prune(Isolate isolate) {
-        start:
-        while (true) {
-            VMThread t = first;
-            while (t != null) {
-                if (t.getIsolate() == isolate) {
-                    long time = t.time - VM.getTimeMillis();
-                    remove(t);
-                    t.time = time;
-                    isolate.addToHibernatedTimerThread(t);
-                    continue start;
-                }
-                t = t.nextTimerThread;
+        for (int i = 0; i != WHEEL_SIZE; i++) {
+            prune(isolate, wheel[i]);
+        }
+        prune(isolate, forever);
+    }
+
+    /**
+     * Remove the threads owned by <code>isolate</code> from one bucket.
+     *
+     * @param isolate  the isolate whose timer-blocked threads are to be removed
+     * @param t        the first thread of the bucket
+     */
+    private void prune(Isolate isolate, VMThread t) {
+        while (t != null) {
+            VMThread next = t.nextTimerThread;
+            if (t.getIsolate() == isolate) {
+                long time = t.time - VM.getTimeMillis();
+                remove(t);
+                t.time = time;
+                isolate.addToHibernatedTimerThread(t);
             }
-            break;
+            t = next;
         }
     }
 
     /**
-     * Adjust the times of all threads in the timer queue. Note that this does not reorder the threads in the timer queue.
+     * Adjust the times of all threads in the timer queue. The threads are rehashed into the
+     * buckets corresponding to their new times.
      * @param deltaT ms (must be negative).
      */
     void adjustWaits(long deltaT) {
         Assert.that(deltaT < 0);
-        VMThread thread = first;
-        while (thread != null) {
-            long time = thread.time;
-            if (time != Long.MAX_VALUE) { // if not "wait forever"
-                time = time + deltaT;
-                if (time < 0) {
-                    /*
-                     * If the new time is much, much earlier than the old time, delta will be large negative number.
-                     * Set new wakeup time to the past, so it will wake up the thread as soon as possible.
-                     */
-                    time = 0;
-                }
-                thread.time = time;
+        VMThread list = null;
+        for (int i = 0; i != WHEEL_SIZE; i++) {
+            VMThread thread = wheel[i];
+            while (thread != null) {
+                VMThread next = thread.nextTimerThread;
+                unlink(thread);
+                thread.nextTimerThread = list;
+                list = thread;
+                thread = next;
             }
-            thread = thread.nextTimerThread;
+        }
+        earliest = Long.MAX_VALUE;
+        while (list != null) {
+            VMThread thread = list;
+            list = thread.nextTimerThread;
+            thread.nextTimerThread = null;
+            long time = thread.time + deltaT;
+            if (time <= 0) {
+                /*
+                 * If the new time is much, much earlier than the old time, delta will be large negative number.
+                 * Set new wakeup time to the past, so it will wake up the thread as soon as possible.
+                 * (A time of 0 denotes a thread that is not in the queue, so use 1.)
+                 */
+                time = 1;
+            }
+            thread.time = time;
+            link(thread);
+        }
+        if (earliest != Long.MAX_VALUE && (earliest >>> TICK_SHIFT) < cursor) {
+            cursor = earliest >>> TICK_SHIFT;
         }
     }
 
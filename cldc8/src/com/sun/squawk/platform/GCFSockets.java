@@ -83,6 +83,23 @@ public interface GCFSockets {
      */
     public int readBuf(int handle, byte b[], int off, int len) throws IOException;
 
+    /**
+     * Reads from the open socket connection into several buffers (scatter read).
+     * The buffers are filled in order, and as with {@link #readBuf}, fewer bytes
+     * than the total length may be read.
+     *
+     * @param handle the socket descriptor
+     * @param bufs the buffers into which the data is read.
+     * @param offs the start offset in each buffer at which the data is written.
+     * @param lens the maximum number of bytes to read into each buffer.
+     *
+     * @return the total number of bytes read into the buffers, or
+     *         <tt>-1</tt> if there is no more data because the end of
+     *         the stream has been reached.
+     * @throws IOException 
+     */
+    public int readv(int handle, byte[][] bufs, int[] offs, int[] lens) throws IOException;
+
     /**
      * Read a byte from the open socket connection.
      * This function will return an unsigned byte (0-255) if data was read,
@@ -123,6 +140,20 @@ public interface GCFSockets {
      */
     public int writeBuf(int handle, byte b[], int off, int len) throws IOException;
 
+    /**
+     * Writes several buffers to the open socket connection (gather write).
+     * As with {@link #writeBuf}, fewer bytes than the total length may be written.
+     *
+     * @param handle the socket descriptor
+     * @param bufs the buffers of the data to write
+     * @param offs the start offset in each buffer of the data to write.
+     * @param lens the number of bytes to write from each buffer.
+     *
+     * @return the total number of bytes written
+     * @throws IOException 
+     */
+    public int writev(int handle, byte[][] bufs, int[] offs, int[] lens) throws IOException;
+
     /**
      * Writes to the open socket connection.
      *
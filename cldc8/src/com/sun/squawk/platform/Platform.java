@@ -101,6 +101,11 @@ public class Platform {
      */
     public static SystemEvents createSystemEvents() {
         if (IS_NATIVE) {
+/*if[EPOLL_SYSTEM_EVENTS]*/
+            if (com.sun.cldc.jna.Platform.getPlatform().isLinux()) {
+                return (SystemEvents) getPlatformInstance("linux.SystemEventsImpl");
+            }
+/*end[EPOLL_SYSTEM_EVENTS]*/
             return (SystemEvents) getPlatformInstance("SystemEventsImpl");
         } else {
             return null;
@@ -24,14 +24,19 @@
 
 package com.sun.squawk.platform.posix;
 
+import com.sun.squawk.Address;
+import com.sun.squawk.UWord;
+import com.sun.squawk.Unsafe;
 import com.sun.squawk.VM;
 import com.sun.squawk.VMThread;
 import com.sun.cldc.jna.Pointer;
+import com.sun.cldc.jna.PrivatePointer;
 import com.sun.squawk.platform.GCFSockets;
 import com.sun.cldc.jna.ptr.IntByReference;
 import com.sun.squawk.platform.posix.natives.*;
 import com.sun.squawk.platform.posix.natives.LibC.*;
 import com.sun.squawk.util.Assert;
+import com.sun.squawk.vm.HDR;
 import java.io.IOException;
 
 /**
@@ -265,47 +270,192 @@ public class GCFSocketsImpl implements GCFSockets {
         return newSocket;
     }
     
+    /**
+     * The most buffers passed to one call of readv or writev. POSIX guarantees at least 16.
+     */
+    private final static int MAX_IOVECS = 16;
+
+    /**
+     * The size of a "struct iovec": the base address and the length of a buffer, which are each a machine word.
+     */
+    private final static int IOVEC_SIZE = HDR.BYTES_PER_WORD * 2;
+
+    /**
+     * The buffers a call needs besides the caller's arrays: the iovec array passed to readv and
+     * writev and the one byte buffer used by readByte and writeByte. Each call takes a Scratch
+     * of its own and gives it back when it is done, so another thread can never change them
+     * while a call is waiting for the socket.
+     */
+    private final static class Scratch {
+        final Pointer iovecs = new Pointer(MAX_IOVECS * IOVEC_SIZE);
+        final byte[] byteBuf = new byte[1];
+        Scratch next;
+    }
+
+    /**
+     * The Scratch buffers that are not in use. A new one is only allocated when more calls are in
+     * progress at the same time than ever before.
+     */
+    private Scratch freeScratch;
+
+    /**
+     * Takes a Scratch for the use of one call.
+     */
+    private Scratch takeScratch() {
+        Scratch scratch = freeScratch;
+        if (scratch == null) {
+            return new Scratch();
+        }
+        freeScratch = scratch.next;
+        scratch.next = null;
+        return scratch;
+    }
+
+    /**
+     * Gives back a Scratch taken by {@link #takeScratch}.
+     */
+    private void releaseScratch(Scratch scratch) {
+        scratch.next = freeScratch;
+        freeScratch = scratch;
+    }
+
+    /**
+     * Sets the base address and the length of the n'th "struct iovec" in an array.
+     */
+    private static void setIovec(Pointer iovecs, int n, Address base, int len) {
+        Address iovec = iovecs.address().add(n * IOVEC_SIZE);
+        Unsafe.setAddress(iovec, 0, base);
+        Unsafe.setUWord(iovec, 1, UWord.fromPrimitive(len));
+    }
+
+    /**
+     * Checks that <code>b[off .. off+len)</code> is within the array.
+     */
+    private static void checkBuffer(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Reads from fd straight into <code>b[off .. off+len)</code>, without waiting.
+     */
+    private int read0(int fd, Pointer iovecs, byte[] b, int off, int len) {
+        checkBuffer(b, off, len);
+        boolean oldState = PrivatePointer.setUpArrayBufferState();
+        /*------------------- DISABLE GC: ---------------------------*/
+        setIovec(iovecs, 0, PrivatePointer.createArrayBuffer(b, off, len), len);
+        int result = libc.readv(fd, iovecs, 1);
+        PrivatePointer.tearDownArrayBufferState(oldState);
+        /*------------------- ENABLE GC: ---------------------------*/
+        return result;
+    }
+
+    /**
+     * Writes <code>b[off .. off+len)</code> straight from the array to fd, without waiting.
+     */
+    private int write0(int fd, Pointer iovecs, byte[] b, int off, int len) {
+        checkBuffer(b, off, len);
+        boolean oldState = PrivatePointer.setUpArrayBufferState();
+        /*------------------- DISABLE GC: ---------------------------*/
+        setIovec(iovecs, 0, PrivatePointer.createArrayBuffer(b, off, len), len);
+        int result = libc.writev(fd, iovecs, 1);
+        PrivatePointer.tearDownArrayBufferState(oldState);
+        /*------------------- ENABLE GC: ---------------------------*/
+        return result;
+    }
+
+    /**
+     * Checks the buffers passed to readv or writev.
+     *
+     * @return the number of buffers to pass to the native call
+     */
+    private static int checkBuffers(byte[][] bufs, int[] offs, int[] lens) {
+        if (offs.length < bufs.length || lens.length < bufs.length) {
+            throw new IllegalArgumentException();
+        }
+        int count = Math.min(bufs.length, MAX_IOVECS);
+        for (int i = 0; i < count; i++) {
+            checkBuffer(bufs[i], offs[i], lens[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Does a readv or writev straight into or out of the buffers, without waiting.
+     *
+     * @param limit the most bytes to transfer
+     */
+    private int transfer(int fd, Pointer iovecs, byte[][] bufs, int[] offs, int[] lens, int count, int limit, boolean write) {
+        boolean oldState = PrivatePointer.setUpArrayBufferState();
+        /*------------------- DISABLE GC: ---------------------------*/
+        int n = 0;
+        while (n < count && limit > 0) {
+            int len = Math.min(lens[n], limit);
+            setIovec(iovecs, n, PrivatePointer.createArrayBuffer(bufs[n], offs[n], len), len);
+            limit -= len;
+            n++;
+        }
+        int result = write ? libc.writev(fd, iovecs, n) : libc.readv(fd, iovecs, n);
+        PrivatePointer.tearDownArrayBufferState(oldState);
+        /*------------------- ENABLE GC: ---------------------------*/
+        return result;
+    }
+
+    /**
+     * Waits until there is data to read from fd.
+     *
+     * @return the number of bytes that can be read without blocking, or 0 if the connection is closed
+     */
+    private int waitForData(int fd) throws IOException {
+        int bAvail = available(fd);  // may throw IOException
+
+        if (bAvail == 0) {
+            if (DEBUG) {    System.err.println("Wait for read in select..."); }
+            VMThread.getSystemEvents().waitForReadEvent(fd);
+            bAvail = available(fd);
+        }
+        if (DEBUG) {    System.err.println("waitForData(" + fd + ") returned from select. retry."); }
+        return bAvail;
+    }
+
     /**
      * @inheritDoc
      */
     public int readBuf(int fd, byte b[], int offset, int length) throws IOException {
-        byte[] buf = b;
-        int result;
-
-        if (offset != 0) {
-            if (DEBUG) {    System.err.println("readBuf() into temp buf"); }
-            buf = new byte[length];
+        Scratch scratch = takeScratch();
+        try {
+            return readBuf(fd, scratch.iovecs, b, offset, length);
+        } finally {
+            releaseScratch(scratch);
         }
+    }
+
+    private int readBuf(int fd, Pointer iovecs, byte b[], int offset, int length) throws IOException {
+        int result;
 
         if (NBIO_WORKS) {
-            result = libc.read(fd, buf, length); // We rely on open0() for setting the socket to non-blocking
+            result = read0(fd, iovecs, b, offset, length); // We rely on open0() for setting the socket to non-blocking
             if (result < 0) {
                 int err_code = LibCUtil.errno();
                 if (err_code == LibC.EWOULDBLOCK) {
                     if (DEBUG) {    System.err.println("Wait for read in select..."); }
                     VMThread.getSystemEvents().waitForReadEvent(fd);
-                    result = libc.read(fd, buf, length); // We rely on open0() for setting the socket to non-blocking
+                    result = read0(fd, iovecs, b, offset, length); // We rely on open0() for setting the socket to non-blocking
                 }
                 LibCUtil.errCheckNeg(result);
             }
         } else {
             // If non-blocking IO doesn't seems to be working, try this hack...
 
-            int bAvail = available(fd);  // may throw IOException
-
-            if (bAvail == 0) {
-                if (DEBUG) {    System.err.println("Wait for read in select..."); }
-                VMThread.getSystemEvents().waitForReadEvent(fd);
-                bAvail = available(fd);
-                if (bAvail == 0) { // woke up because connection is closed
-                    if (DEBUG) {    System.err.println("readBuf(" + fd + ") signalling EOF."); }
-                    return -1; // signal EOF
-                }
+            int bAvail = waitForData(fd);
+            if (bAvail == 0) { // woke up because connection is closed
+                if (DEBUG) {    System.err.println("readBuf(" + fd + ") signalling EOF."); }
+                return -1; // signal EOF
             }
-            if (DEBUG) {    System.err.println("readBuf(" + fd + ") returned from select. retry."); }
 
             int n = Math.min(bAvail, length); // don't read more than is asked for...
-            result = libc.read(fd, buf, n); // only read what we know is there...
+            result = read0(fd, iovecs, b, offset, n); // only read what we know is there...
             LibCUtil.errCheckNeg(result);
         }
 
@@ -319,14 +469,54 @@ public class GCFSocketsImpl implements GCFSockets {
             result = -1;
         }
         
-        if (offset != 0 && result > 0) {
-            System.arraycopy(buf, 0, b, offset, result);
-        }
         if (DEBUG) { System.out.println("readBuf(" + fd + ") = " + result); }
 
         return result;
     }
 
+    /**
+     * @inheritDoc
+     */
+    public int readv(int fd, byte[][] bufs, int[] offs, int[] lens) throws IOException {
+        int count = checkBuffers(bufs, offs, lens);
+        Scratch scratch = takeScratch();
+        try {
+            return readv(fd, scratch.iovecs, bufs, offs, lens, count);
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
+    private int readv(int fd, Pointer iovecs, byte[][] bufs, int[] offs, int[] lens, int count) throws IOException {
+        int result;
+
+        if (NBIO_WORKS) {
+            result = transfer(fd, iovecs, bufs, offs, lens, count, Integer.MAX_VALUE, false);
+            if (result < 0) {
+                int err_code = LibCUtil.errno();
+                if (err_code == LibC.EWOULDBLOCK) {
+                    VMThread.getSystemEvents().waitForReadEvent(fd);
+                    result = transfer(fd, iovecs, bufs, offs, lens, count, Integer.MAX_VALUE, false);
+                }
+                LibCUtil.errCheckNeg(result);
+            }
+        } else {
+            int bAvail = waitForData(fd);
+            if (bAvail == 0) { // woke up because connection is closed
+                return -1; // signal EOF
+            }
+            result = transfer(fd, iovecs, bufs, offs, lens, count, bAvail, false); // only read what we know is there...
+            LibCUtil.errCheckNeg(result);
+        }
+
+        if (result == 0) {
+            result = -1;
+        }
+        if (DEBUG) { System.out.println("readv(" + fd + ") = " + result); }
+
+        return result;
+    }
+
     public int readByte(int fd, byte[] b) throws IOException {
         int result = -1; // EOF
 
@@ -338,30 +528,41 @@ public class GCFSocketsImpl implements GCFSockets {
     }
 
     public int readByte(int fd) throws IOException {
-        return readByte(fd, new byte[1]);
+        Scratch scratch = takeScratch();
+        try {
+            int result = -1; // EOF
+            if (readBuf(fd, scratch.iovecs, scratch.byteBuf, 0, 1) == 1) {
+                result = scratch.byteBuf[0] & 0xFF; // do not sign-extend
+            }
+            return result;
+        } finally {
+            releaseScratch(scratch);
+        }
     }
     
     /**
      * @inheritDoc
      */
     public int writeBuf(int fd, byte buffer[], int off, int len) throws IOException {
-        int result = 0;
-        byte[] buf = buffer;
-        if (off != 0) {
-            buf = new byte[len];
-            System.arraycopy(buffer, off, buf, 0, len);
+        Scratch scratch = takeScratch();
+        try {
+            return writeBuf(fd, scratch.iovecs, buffer, off, len);
+        } finally {
+            releaseScratch(scratch);
         }
+    }
 
+    private int writeBuf(int fd, Pointer iovecs, byte buffer[], int off, int len) throws IOException {
         if (DEBUG) {    System.err.println("writeBuf(" + fd + ") before write."); }
 
-        result = libc.write(fd, buf, len);// We rely on open0() for setting the socket to non-blocking
+        int result = write0(fd, iovecs, buffer, off, len);// We rely on open0() for setting the socket to non-blocking
 
         if (result < 0) {
             int err_code = LibCUtil.errno();
             if (err_code == LibC.EWOULDBLOCK) {
                 VMThread.getSystemEvents().waitForWriteEvent(fd);
                 if (DEBUG) {    System.err.println("writeBuf(" + fd + ") returned from select. retry."); }
-                result = libc.write(fd, buf, len); // We rely on open0() for setting the socket to non-blocking
+                result = write0(fd, iovecs, buffer, off, len); // We rely on open0() for setting the socket to non-blocking
             }
             if (DEBUG) {    System.err.println("writeBuf(" + fd + ") error:"); }
             LibCUtil.errCheckNeg(result);
@@ -373,13 +574,45 @@ public class GCFSocketsImpl implements GCFSockets {
     /**
      * @inheritDoc
      */
-    public int writeByte(int fd, int b) throws IOException {
-        byte[] buf = new byte[1];
-        buf[0] = (byte)b;
-        int result = writeBuf(fd, buf, 0, 1);
+    public int writev(int fd, byte[][] bufs, int[] offs, int[] lens) throws IOException {
+        int count = checkBuffers(bufs, offs, lens);
+        Scratch scratch = takeScratch();
+        try {
+            return writev(fd, scratch.iovecs, bufs, offs, lens, count);
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
+    private int writev(int fd, Pointer iovecs, byte[][] bufs, int[] offs, int[] lens, int count) throws IOException {
+        int result = transfer(fd, iovecs, bufs, offs, lens, count, Integer.MAX_VALUE, true);
+
+        if (result < 0) {
+            int err_code = LibCUtil.errno();
+            if (err_code == LibC.EWOULDBLOCK) {
+                VMThread.getSystemEvents().waitForWriteEvent(fd);
+                result = transfer(fd, iovecs, bufs, offs, lens, count, Integer.MAX_VALUE, true);
+            }
+            LibCUtil.errCheckNeg(result);
+        }
+        if (DEBUG) { System.out.println("writev(" + fd + ") = " + result); }
+
         return result;
     }
 
+    /**
+     * @inheritDoc
+     */
+    public int writeByte(int fd, int b) throws IOException {
+        Scratch scratch = takeScratch();
+        try {
+            scratch.byteBuf[0] = (byte)b;
+            return writeBuf(fd, scratch.iovecs, scratch.byteBuf, 0, 1);
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
     private Pointer availableBuf = new Pointer(4);
     
     /**
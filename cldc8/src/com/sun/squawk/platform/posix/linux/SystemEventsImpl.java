@@ -0,0 +1,231 @@
+//if[!PLATFORM_TYPE_BARE_METAL]
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.platform.posix.linux;
+
+import com.sun.squawk.platform.SystemEvents;
+import com.sun.squawk.platform.posix.LibCUtil;
+import com.sun.squawk.platform.posix.natives.LibC;
+import com.sun.squawk.VM;
+import com.sun.squawk.VMThread;
+import com.sun.cldc.jna.*;
+import com.sun.squawk.util.BitSet;
+
+/**
+ * Linux implementation of SystemEvents, using epoll.
+ *
+ * A file descriptor is registered edge-triggered and one-shot for the events that threads
+ * are waiting for on it. Registration is updated when a thread starts waiting, and after an
+ * event if another thread is still waiting. The kernel picks up the change even while the
+ * IOHandler is blocked in epoll_wait, so the wait does not have to be cancelled. The cost
+ * of waiting for events depends on the number of events that occur, not on the number or
+ * the values of the file descriptors being waited on, and there is no FD_SETSIZE limit.
+ */
+public class SystemEventsImpl extends SystemEvents implements Runnable {
+    private final static boolean DEBUG = false;
+
+    /* Event flags from <sys/epoll.h> */
+    private final static int EPOLLIN      = 0x001;
+    private final static int EPOLLOUT     = 0x004;
+    private final static int EPOLLERR     = 0x008;
+    private final static int EPOLLHUP     = 0x010;
+    private final static int EPOLLONESHOT = 1 << 30;
+    private final static int EPOLLET      = 1 << 31;
+
+    /**
+     * The maximum number of events handled per call to epoll_wait.
+     */
+    private final static int MAX_EVENTS = 64;
+
+    private volatile boolean cancelRunLoop;
+
+    private final int epfd;
+
+    /* The file descriptors that threads are waiting to read from and write to. */
+    private final BitSet readWaiters;
+    private final BitSet writeWaiters;
+
+    /* The events returned by squawk_epoll_wait, as pairs of ints (fd, events). */
+    private final Pointer events;
+
+    private BlockingFunction epollWaitPtr;
+    private Function epollArmPtr;
+    protected TaskExecutor selectRunner;
+    protected long max_wait = Long.MAX_VALUE;
+
+    public SystemEventsImpl() {
+        selectRunner = new TaskExecutor("native IO handler", TaskExecutor.TASK_PRIORITY_MED, 0);
+
+        NativeLibrary jnaNativeLibrary = NativeLibrary.getDefaultInstance();
+        epollWaitPtr = jnaNativeLibrary.getBlockingFunction("squawk_epoll_wait");
+        epollWaitPtr.setTaskExecutor(selectRunner);
+        epollArmPtr = jnaNativeLibrary.getFunction("squawk_epoll_arm");
+
+        epfd = jnaNativeLibrary.getFunction("squawk_epoll_create").call0();
+        if (epfd < 0) {
+            throw new RuntimeException("epoll_create error: " + LibCUtil.errno());
+        }
+
+        readWaiters = new BitSet();
+        writeWaiters = new BitSet();
+        events = new Pointer(MAX_EVENTS * 2 * 4);
+    }
+
+    /**
+     * Registers a file descriptor for the events that threads are waiting for on it.
+     *
+     * @param fd the file descriptor
+     */
+    private void arm(int fd) {
+        int interest = EPOLLET | EPOLLONESHOT;
+        if (readWaiters.get(fd)) {
+            interest |= EPOLLIN;
+        }
+        if (writeWaiters.get(fd)) {
+            interest |= EPOLLOUT;
+        }
+        if (epollArmPtr.call3(epfd, fd, interest) != 0) {
+            System.err.println("epoll_ctl error: " + LibCUtil.errno() + " fd: " + fd);
+        }
+    }
+
+    /**
+     * Tell the thread scheduler to make the threads waiting for the events that occurred runnable.
+     * A one-shot registration is disabled by its first event, so a file descriptor is re-armed
+     * if a thread is still waiting on it.
+     *
+     * @param num number of events to be processed
+     */
+    private void handleEvents(int num) {
+        for (int i = 0; i < num; i++) {
+            int fd = events.getInt(i * 8);
+            int ev = events.getInt(i * 8 + 4);
+            boolean error = (ev & (EPOLLERR | EPOLLHUP)) != 0;
+            if (DEBUG) { VM.println("handleEvents: event on fd: " + fd + " events: " + ev); }
+
+            if (readWaiters.get(fd) && (error || (ev & EPOLLIN) != 0)) {
+                readWaiters.clear(fd);
+                VMThread.signalOSEvent(fd);
+            }
+            if (writeWaiters.get(fd) && (error || (ev & EPOLLOUT) != 0)) {
+                writeWaiters.clear(fd);
+                VMThread.signalOSEvent(fd);
+            }
+            if (readWaiters.get(fd) || writeWaiters.get(fd)) {
+                arm(fd);
+            }
+        }
+    }
+
+    /**
+     * Poll the OS to see if there have been any events on the requested fds.
+     *
+     * Try not to allocate if there are no events...
+     * @param timeout  md to wait, or 0 for no wait, or Long.MAX_VALUE for inifinite wait
+     */
+    public void waitForEvents(long timeout) {
+        // Emergency switch in case epoll_wait misses wakeups and hangs. See posix.SystemEventsImpl.
+        if (timeout > max_wait) {
+            timeout = max_wait;
+        }
+        int millis;
+        if (timeout == Long.MAX_VALUE) {
+            millis = -1;
+        } else if (timeout > Integer.MAX_VALUE) {
+            millis = Integer.MAX_VALUE;
+        } else {
+            millis = (int)timeout;
+        }
+
+        if (DEBUG) { VM.println("waitForEvents - before epoll_wait"); }
+        int num = epollWaitPtr.call4(epfd, events, MAX_EVENTS, millis); /* block waiting for event or timeout */
+        if (DEBUG) { VM.println("waitForEvents - after epoll_wait. num = " + num); }
+
+        if (num > 0) {
+            handleEvents(num);
+        } else if (num < 0) {
+            int errno = LibCUtil.errno();
+            if (errno != LibC.EINTR) {
+                System.err.println("epoll_wait error: " + errno);
+            }
+        } else {
+            if (DEBUG) { VM.println("in waitForEvents(), epoll_wait timed out or cancelled"); }
+        }
+    }
+
+    public void waitForReadEvent(int fd) {
+        if (DEBUG) { VM.println("waitForReadEvent fd: " + fd); }
+        readWaiters.set(fd);
+        arm(fd);
+        VMThread.waitForOSEvent(fd); // read is ready, handleEvents will clear fd from readWaiters
+    }
+
+    public void waitForWriteEvent(int fd) {
+        if (DEBUG) { VM.println("waitForWriteEvent fd: " + fd); }
+        writeWaiters.set(fd);
+        arm(fd);
+        VMThread.waitForOSEvent(fd); // write is ready, handleEvents will clear fd from writeWaiters
+    }
+
+    /**
+     * Start
+     */
+    public void startIO() {
+        Thread IOHandler = new Thread(this, "IOHandler");
+        IOHandler.start();
+    }
+
+    /**
+     * IOHandler run loop. Wait in epoll_wait until IO occurs.
+     */
+    public void run() {
+        while (!cancelRunLoop) {
+            waitForEvents(Long.MAX_VALUE);
+            VMThread.yield();
+        }
+        selectRunner.cancelTaskExecutor(); /* cancel the native thread that we use for blocking calls...*/
+    }
+
+    /**
+     * Call to end the run() method.
+     */
+    public void cancelIOHandler() {
+        cancelRunLoop = true;
+    }
+
+    /**
+     * Set the maximum time that the system will wait in epoll_wait
+     *
+     * @param max max wait time in ms. Must be > 0.
+     */
+    public void setMaxWait(long max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException();
+        }
+        max_wait = max;
+    }
+
+}
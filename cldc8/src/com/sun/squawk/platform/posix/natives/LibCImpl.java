@@ -111,6 +111,22 @@ public abstract class LibCImpl implements LibC {
         return result;
     }
     
+    protected final Function readvPtr;
+    
+    public int readv(int arg0, Pointer arg1, int arg2) {
+        int result0 = readvPtr.call3(arg0, arg1, arg2);
+        int result = (int)result0;
+        return result;
+    }
+    
+    protected final Function writevPtr;
+    
+    public int writev(int arg0, Pointer arg1, int arg2) {
+        int result0 = writevPtr.call3(arg0, arg1, arg2);
+        int result = (int)result0;
+        return result;
+    }
+    
     protected final Function fstatPtr;
     
     public int fstat(int arg0, stat arg1) {
@@ -160,6 +176,8 @@ public abstract class LibCImpl implements LibC {
         writePtr = jnaNativeLibrary.getFunction(realName("write"));
         closePtr = jnaNativeLibrary.getFunction(realName("close"));
         readPtr = jnaNativeLibrary.getFunction(realName("read"));
+        readvPtr = jnaNativeLibrary.getFunction(realName("readv"));
+        writevPtr = jnaNativeLibrary.getFunction(realName("writev"));
         fstatPtr = jnaNativeLibrary.getFunction(realName("fstat"));
         fsyncPtr = jnaNativeLibrary.getFunction(realName("fsync"));
         lseekPtr = jnaNativeLibrary.getFunction(realName("lseek"));
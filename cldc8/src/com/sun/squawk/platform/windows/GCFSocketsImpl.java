@@ -240,9 +240,37 @@ public class GCFSocketsImpl implements GCFSockets {
             result = -1;
         }
 
+        if (offset != 0 && result > 0) {
+            System.arraycopy(buf, 0, b, offset, result);
+        }
+
         return result;
     }
 
+    /**
+     * @inheritDoc
+     */
+    public int readv(int fd, byte[][] bufs, int[] offs, int[] lens) throws IOException {
+        int total = 0;
+        for (int i = 0; i < bufs.length; i++) {
+            if (lens[i] == 0) {
+                continue;
+            }
+            if (total != 0 && available(fd) == 0) {
+                break; // don't block once some data has been read
+            }
+            int result = readBuf(fd, bufs[i], offs[i], lens[i]);
+            if (result < 0) {
+                return total == 0 ? result : total;
+            }
+            total += result;
+            if (result < lens[i]) {
+                break;
+            }
+        }
+        return total;
+    }
+
     public int readByte(int fd, byte[] b) throws IOException {
         int result = -1; // EOF
 
@@ -286,6 +314,21 @@ public class GCFSocketsImpl implements GCFSockets {
         return result;
     }
 
+    /**
+     * @inheritDoc
+     */
+    public int writev(int fd, byte[][] bufs, int[] offs, int[] lens) throws IOException {
+        int total = 0;
+        for (int i = 0; i < bufs.length; i++) {
+            int result = writeBuf(fd, bufs[i], offs[i], lens[i]);
+            total += result;
+            if (result < lens[i]) {
+                break;
+            }
+        }
+        return total;
+    }
+
     /**
      * @inheritDoc
      */
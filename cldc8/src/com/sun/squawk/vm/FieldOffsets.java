@@ -112,40 +112,55 @@ public class FieldOffsets {
     public final static long com_sun_squawk_Klass$oopMapWord = 10 | OOP;
 
 /*if[PLATFORM_TYPE_BARE_METAL]*/
+    /**
+     * The offset of the 'primarySupertypes' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$primarySupertypes = 11 | OOP;
+
+    /**
+     * The offset of the 'secondarySupertypes' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$secondarySupertypes = 12 | OOP;
+
+    /**
+     * The offset of the 'secondaryVTableMaps' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$secondaryVTableMaps = 13 | OOP;
+
     /**
      * The offset of the 'modifiers' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$modifiers = 11 | INT;
+    public final static long com_sun_squawk_Klass$modifiers = 14 | INT;
     
     /**
      * The offset of the 'id' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$id = 24 | SHORT;
+    public final static long com_sun_squawk_Klass$id = 30 | SHORT;
 
     /**
      * The offset of the 'instanceSizeBytes' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$instanceSizeBytes = 25 | SHORT;
+    public final static long com_sun_squawk_Klass$instanceSizeBytes = 31 | SHORT;
 
     /**
      * The offset of the 'staticFieldsSize' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$staticFieldsSize = 26 | SHORT;
+    public final static long com_sun_squawk_Klass$staticFieldsSize = 32 | SHORT;
 
     /**
      * The offset of the 'refStaticFieldsSize' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$refStaticFieldsSize = 27 | SHORT;
+    public final static long com_sun_squawk_Klass$refStaticFieldsSize = 33 | SHORT;
 
     /**
      * The offset of the 'state' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$state = 56 | BYTE;
+    public final static long com_sun_squawk_Klass$state = 68 | BYTE;
 
     /**
      * The offset of the 'initModifiers' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$initModifiers = 57 | BYTE;
+    public final static long com_sun_squawk_Klass$initModifiers = 69 | BYTE;
 
     // unused
     public final static long com_sun_squawk_Klass$dataMap = 0 | OOP;
@@ -166,45 +181,60 @@ public class FieldOffsets {
      */
     public final static long com_sun_squawk_Klass$dataMapWord = 12 | OOP;
 
+    /**
+     * The offset of the 'primarySupertypes' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$primarySupertypes = 13 | OOP;
+
+    /**
+     * The offset of the 'secondarySupertypes' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$secondarySupertypes = 14 | OOP;
+
+    /**
+     * The offset of the 'secondaryVTableMaps' field in com.sun.squawk.Klass.
+     */
+    public final static long com_sun_squawk_Klass$secondaryVTableMaps = 15 | OOP;
+
     /**
      * The offset of the 'modifiers' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$modifiers = (/*VAL*/false/*SQUAWK_64*/ ? 27 : 13) | INT;
+    public final static long com_sun_squawk_Klass$modifiers = (/*VAL*/false/*SQUAWK_64*/ ? 33 : 16) | INT;
 
     /**
      * The offset of the 'dataMapLength' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$dataMapLength = (/*VAL*/false/*SQUAWK_64*/ ? 26 : 28) | SHORT;
+    public final static long com_sun_squawk_Klass$dataMapLength = (/*VAL*/false/*SQUAWK_64*/ ? 38 : 34) | SHORT;
 
     /**
      * The offset of the 'id' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$id = (/*VAL*/false/*SQUAWK_64*/ ? 56 : 29) | SHORT;
+    public final static long com_sun_squawk_Klass$id = (/*VAL*/false/*SQUAWK_64*/ ? 68 : 35) | SHORT;
 
     /**
      * The offset of the 'instanceSizeBytes' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$instanceSizeBytes = 30 | SHORT;
+    public final static long com_sun_squawk_Klass$instanceSizeBytes = 36 | SHORT;
 
     /**
      * The offset of the 'staticFieldsSize' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$staticFieldsSize = 31 | SHORT;
+    public final static long com_sun_squawk_Klass$staticFieldsSize = 37 | SHORT;
 
     /**
      * The offset of the 'refStaticFieldsSize' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$refStaticFieldsSize = 32 | SHORT;
+    public final static long com_sun_squawk_Klass$refStaticFieldsSize = 38 | SHORT;
 
     /**
      * The offset of the 'state' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$state = 66 | BYTE;
+    public final static long com_sun_squawk_Klass$state = 78 | BYTE;
 
     /**
      * The offset of the 'initModifiers' field in com.sun.squawk.Klass.
      */
-    public final static long com_sun_squawk_Klass$initModifiers = 67 | BYTE;
+    public final static long com_sun_squawk_Klass$initModifiers = 79 | BYTE;
 /*end[PLATFORM_TYPE_BARE_METAL]*/
 
     /**
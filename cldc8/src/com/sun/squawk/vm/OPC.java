@@ -47,251 +47,251 @@ public final class OPC {
         CONST_8                = 8,
         CONST_9                = 9,
         CONST_10               = 10,
-        CONST_11               = 11,
-        CONST_12               = 12,
-        CONST_13               = 13,
-        CONST_14               = 14,
-        CONST_15               = 15,
-        OBJECT_0               = 16,
-        OBJECT_1               = 17,
-        OBJECT_2               = 18,
-        OBJECT_3               = 19,
-        OBJECT_4               = 20,
-        OBJECT_5               = 21,
-        OBJECT_6               = 22,
-        OBJECT_7               = 23,
-        OBJECT_8               = 24,
-        OBJECT_9               = 25,
-        OBJECT_10              = 26,
-        OBJECT_11              = 27,
-        OBJECT_12              = 28,
-        OBJECT_13              = 29,
-        OBJECT_14              = 30,
-        OBJECT_15              = 31,
-        LOAD_0                 = 32,
-        LOAD_1                 = 33,
-        LOAD_2                 = 34,
-        LOAD_3                 = 35,
-        LOAD_4                 = 36,
-        LOAD_5                 = 37,
-        LOAD_6                 = 38,
-        LOAD_7                 = 39,
-        LOAD_8                 = 40,
-        LOAD_9                 = 41,
-        LOAD_10                = 42,
-        LOAD_11                = 43,
-        LOAD_12                = 44,
-        LOAD_13                = 45,
-        LOAD_14                = 46,
-        LOAD_15                = 47,
-        STORE_0                = 48,
-        STORE_1                = 49,
-        STORE_2                = 50,
-        STORE_3                = 51,
-        STORE_4                = 52,
-        STORE_5                = 53,
-        STORE_6                = 54,
-        STORE_7                = 55,
-        STORE_8                = 56,
-        STORE_9                = 57,
-        STORE_10               = 58,
-        STORE_11               = 59,
-        STORE_12               = 60,
-        STORE_13               = 61,
-        STORE_14               = 62,
-        STORE_15               = 63,
-        LOADPARM_0             = 64,
-        LOADPARM_1             = 65,
-        LOADPARM_2             = 66,
-        LOADPARM_3             = 67,
-        LOADPARM_4             = 68,
-        LOADPARM_5             = 69,
-        LOADPARM_6             = 70,
-        LOADPARM_7             = 71,
-        WIDE_M1                = 72,
-        WIDE_0                 = 73,
-        WIDE_1                 = 74,
-        WIDE_SHORT             = 75,
-        WIDE_INT               = 76,
-        ESCAPE                 = 77,
-        ESCAPE_WIDE_M1         = 78,
-        ESCAPE_WIDE_0          = 79,
-        ESCAPE_WIDE_1          = 80,
-        ESCAPE_WIDE_SHORT      = 81,
-        ESCAPE_WIDE_INT        = 82,
-        CATCH                  = 83,
-        CONST_NULL             = 84,
-        CONST_M1               = 85,
-        CONST_BYTE             = 86,
-        CONST_SHORT            = 87,
-        CONST_CHAR             = 88,
-        CONST_INT              = 89,
-        CONST_LONG             = 90,
-        OBJECT                 = 91,
-        LOAD                   = 92,
-        LOAD_I2                = 93,
-        STORE                  = 94,
-        STORE_I2               = 95,
-        LOADPARM               = 96,
-        LOADPARM_I2            = 97,
-        STOREPARM              = 98,
-        STOREPARM_I2           = 99,
-        INC                    = 100,
-        DEC                    = 101,
-        INCPARM                = 102,
-        DECPARM                = 103,
-        GOTO                   = 104,
-        IF_EQ_O                = 105,
-        IF_NE_O                = 106,
-        IF_CMPEQ_O             = 107,
-        IF_CMPNE_O             = 108,
-        IF_EQ_I                = 109,
-        IF_NE_I                = 110,
-        IF_LT_I                = 111,
-        IF_LE_I                = 112,
-        IF_GT_I                = 113,
-        IF_GE_I                = 114,
-        IF_CMPEQ_I             = 115,
-        IF_CMPNE_I             = 116,
-        IF_CMPLT_I             = 117,
-        IF_CMPLE_I             = 118,
-        IF_CMPGT_I             = 119,
-        IF_CMPGE_I             = 120,
-        IF_EQ_L                = 121,
-        IF_NE_L                = 122,
-        IF_LT_L                = 123,
-        IF_LE_L                = 124,
-        IF_GT_L                = 125,
-        IF_GE_L                = 126,
-        IF_CMPEQ_L             = 127,
-        IF_CMPNE_L             = 128,
-        IF_CMPLT_L             = 129,
-        IF_CMPLE_L             = 130,
-        IF_CMPGT_L             = 131,
-        IF_CMPGE_L             = 132,
-        GETSTATIC_I            = 133,
-        GETSTATIC_O            = 134,
-        GETSTATIC_L            = 135,
-        CLASS_GETSTATIC_I      = 136,
-        CLASS_GETSTATIC_O      = 137,
-        CLASS_GETSTATIC_L      = 138,
-        PUTSTATIC_I            = 139,
-        PUTSTATIC_O            = 140,
-        PUTSTATIC_L            = 141,
-        CLASS_PUTSTATIC_I      = 142,
-        CLASS_PUTSTATIC_O      = 143,
-        CLASS_PUTSTATIC_L      = 144,
-        GETFIELD_I             = 145,
-        GETFIELD_B             = 146,
-        GETFIELD_S             = 147,
-        GETFIELD_C             = 148,
-        GETFIELD_O             = 149,
-        GETFIELD_L             = 150,
-        GETFIELD0_I            = 151,
-        GETFIELD0_B            = 152,
-        GETFIELD0_S            = 153,
-        GETFIELD0_C            = 154,
-        GETFIELD0_O            = 155,
-        GETFIELD0_L            = 156,
-        PUTFIELD_I             = 157,
-        PUTFIELD_B             = 158,
-        PUTFIELD_S             = 159,
-        PUTFIELD_O             = 160,
-        PUTFIELD_L             = 161,
-        PUTFIELD0_I            = 162,
-        PUTFIELD0_B            = 163,
-        PUTFIELD0_S            = 164,
-        PUTFIELD0_O            = 165,
-        PUTFIELD0_L            = 166,
-        INVOKEVIRTUAL_I        = 167,
-        INVOKEVIRTUAL_V        = 168,
-        INVOKEVIRTUAL_L        = 169,
-        INVOKEVIRTUAL_O        = 170,
-        INVOKESTATIC_I         = 171,
-        INVOKESTATIC_V         = 172,
-        INVOKESTATIC_L         = 173,
-        INVOKESTATIC_O         = 174,
-        INVOKESUPER_I          = 175,
-        INVOKESUPER_V          = 176,
-        INVOKESUPER_L          = 177,
-        INVOKESUPER_O          = 178,
-        INVOKENATIVE_I         = 179,
-        INVOKENATIVE_V         = 180,
-        INVOKENATIVE_L         = 181,
-        INVOKENATIVE_O         = 182,
-        FINDSLOT               = 183,
-        EXTEND                 = 184,
-        INVOKESLOT_I           = 185,
-        INVOKESLOT_V           = 186,
-        INVOKESLOT_L           = 187,
-        INVOKESLOT_O           = 188,
-        RETURN_V               = 189,
-        RETURN_I               = 190,
-        RETURN_L               = 191,
-        RETURN_O               = 192,
-        TABLESWITCH_I          = 193,
-        TABLESWITCH_S          = 194,
-        EXTEND0                = 195,
-        ADD_I                  = 196,
-        SUB_I                  = 197,
-        AND_I                  = 198,
-        OR_I                   = 199,
-        XOR_I                  = 200,
-        SHL_I                  = 201,
-        SHR_I                  = 202,
-        USHR_I                 = 203,
-        MUL_I                  = 204,
-        DIV_I                  = 205,
-        REM_I                  = 206,
-        NEG_I                  = 207,
-        I2B                    = 208,
-        I2S                    = 209,
-        I2C                    = 210,
-        ADD_L                  = 211,
-        SUB_L                  = 212,
-        MUL_L                  = 213,
-        DIV_L                  = 214,
-        REM_L                  = 215,
-        AND_L                  = 216,
-        OR_L                   = 217,
-        XOR_L                  = 218,
-        NEG_L                  = 219,
-        SHL_L                  = 220,
-        SHR_L                  = 221,
-        USHR_L                 = 222,
-        L2I                    = 223,
-        I2L                    = 224,
-        THROW                  = 225,
-        POP_1                  = 226,
-        POP_2                  = 227,
-        MONITORENTER           = 228,
-        MONITOREXIT            = 229,
-        CLASS_MONITORENTER     = 230,
-        CLASS_MONITOREXIT      = 231,
-        ARRAYLENGTH            = 232,
-        NEW                    = 233,
-        NEWARRAY               = 234,
-        NEWDIMENSION           = 235,
-        CLASS_CLINIT           = 236,
-        BBTARGET_SYS           = 237,
-        BBTARGET_APP           = 238,
-        INSTANCEOF             = 239,
-        CHECKCAST              = 240,
-        ALOAD_I                = 241,
-        ALOAD_B                = 242,
-        ALOAD_S                = 243,
-        ALOAD_C                = 244,
-        ALOAD_O                = 245,
-        ALOAD_L                = 246,
-        ASTORE_I               = 247,
-        ASTORE_B               = 248,
-        ASTORE_S               = 249,
-        ASTORE_O               = 250,
-        ASTORE_L               = 251,
-        LOOKUP_I               = 252,
-        LOOKUP_B               = 253,
-        LOOKUP_S               = 254,
-        PAUSE                  = 255,
+        OBJECT_0               = 11,
+        OBJECT_1               = 12,
+        OBJECT_2               = 13,
+        OBJECT_3               = 14,
+        OBJECT_4               = 15,
+        OBJECT_5               = 16,
+        LOAD_0                 = 17,
+        LOAD_1                 = 18,
+        LOAD_2                 = 19,
+        LOAD_3                 = 20,
+        LOAD_4                 = 21,
+        LOAD_5                 = 22,
+        LOAD_6                 = 23,
+        LOAD_7                 = 24,
+        LOAD_8                 = 25,
+        STORE_0                = 26,
+        STORE_1                = 27,
+        STORE_2                = 28,
+        STORE_3                = 29,
+        STORE_4                = 30,
+        STORE_5                = 31,
+        STORE_6                = 32,
+        STORE_7                = 33,
+        STORE_8                = 34,
+        LOADPARM_0             = 35,
+        LOADPARM_1             = 36,
+        LOADPARM_2             = 37,
+        LOADPARM_3             = 38,
+        LOADPARM_4             = 39,
+        WIDE_M1                = 40,
+        WIDE_0                 = 41,
+        WIDE_1                 = 42,
+        WIDE_SHORT             = 43,
+        WIDE_INT               = 44,
+        ESCAPE                 = 45,
+        ESCAPE_WIDE_M1         = 46,
+        ESCAPE_WIDE_0          = 47,
+        ESCAPE_WIDE_1          = 48,
+        ESCAPE_WIDE_SHORT      = 49,
+        ESCAPE_WIDE_INT        = 50,
+        CATCH                  = 51,
+        CONST_NULL             = 52,
+        CONST_M1               = 53,
+        CONST_BYTE             = 54,
+        CONST_SHORT            = 55,
+        CONST_CHAR             = 56,
+        CONST_INT              = 57,
+        CONST_LONG             = 58,
+        OBJECT                 = 59,
+        LOAD                   = 60,
+        LOAD_I2                = 61,
+        STORE                  = 62,
+        STORE_I2               = 63,
+        LOADPARM               = 64,
+        LOADPARM_I2            = 65,
+        STOREPARM              = 66,
+        STOREPARM_I2           = 67,
+        INC                    = 68,
+        DEC                    = 69,
+        INCPARM                = 70,
+        DECPARM                = 71,
+        GOTO                   = 72,
+        IF_EQ_O                = 73,
+        IF_NE_O                = 74,
+        IF_CMPEQ_O             = 75,
+        IF_CMPNE_O             = 76,
+        IF_EQ_I                = 77,
+        IF_NE_I                = 78,
+        IF_LT_I                = 79,
+        IF_LE_I                = 80,
+        IF_GT_I                = 81,
+        IF_GE_I                = 82,
+        IF_CMPEQ_I             = 83,
+        IF_CMPNE_I             = 84,
+        IF_CMPLT_I             = 85,
+        IF_CMPLE_I             = 86,
+        IF_CMPGT_I             = 87,
+        IF_CMPGE_I             = 88,
+        IF_EQ_L                = 89,
+        IF_NE_L                = 90,
+        IF_LT_L                = 91,
+        IF_LE_L                = 92,
+        IF_GT_L                = 93,
+        IF_GE_L                = 94,
+        IF_CMPEQ_L             = 95,
+        IF_CMPNE_L             = 96,
+        IF_CMPLT_L             = 97,
+        IF_CMPLE_L             = 98,
+        IF_CMPGT_L             = 99,
+        IF_CMPGE_L             = 100,
+        GETSTATIC_I            = 101,
+        GETSTATIC_O            = 102,
+        GETSTATIC_L            = 103,
+        CLASS_GETSTATIC_I      = 104,
+        CLASS_GETSTATIC_O      = 105,
+        CLASS_GETSTATIC_L      = 106,
+        PUTSTATIC_I            = 107,
+        PUTSTATIC_O            = 108,
+        PUTSTATIC_L            = 109,
+        CLASS_PUTSTATIC_I      = 110,
+        CLASS_PUTSTATIC_O      = 111,
+        CLASS_PUTSTATIC_L      = 112,
+        GETFIELD_I             = 113,
+        GETFIELD_B             = 114,
+        GETFIELD_S             = 115,
+        GETFIELD_C             = 116,
+        GETFIELD_O             = 117,
+        GETFIELD_L             = 118,
+        GETFIELD0_I            = 119,
+        GETFIELD0_B            = 120,
+        GETFIELD0_S            = 121,
+        GETFIELD0_C            = 122,
+        GETFIELD0_O            = 123,
+        GETFIELD0_L            = 124,
+        PUTFIELD_I             = 125,
+        PUTFIELD_B             = 126,
+        PUTFIELD_S             = 127,
+        PUTFIELD_O             = 128,
+        PUTFIELD_L             = 129,
+        PUTFIELD0_I            = 130,
+        PUTFIELD0_B            = 131,
+        PUTFIELD0_S            = 132,
+        PUTFIELD0_O            = 133,
+        PUTFIELD0_L            = 134,
+        INVOKEVIRTUAL_I        = 135,
+        INVOKEVIRTUAL_V        = 136,
+        INVOKEVIRTUAL_L        = 137,
+        INVOKEVIRTUAL_O        = 138,
+        INVOKESTATIC_I         = 139,
+        INVOKESTATIC_V         = 140,
+        INVOKESTATIC_L         = 141,
+        INVOKESTATIC_O         = 142,
+        INVOKESUPER_I          = 143,
+        INVOKESUPER_V          = 144,
+        INVOKESUPER_L          = 145,
+        INVOKESUPER_O          = 146,
+        INVOKENATIVE_I         = 147,
+        INVOKENATIVE_V         = 148,
+        INVOKENATIVE_L         = 149,
+        INVOKENATIVE_O         = 150,
+        FINDSLOT               = 151,
+        EXTEND                 = 152,
+        INVOKESLOT_I           = 153,
+        INVOKESLOT_V           = 154,
+        INVOKESLOT_L           = 155,
+        INVOKESLOT_O           = 156,
+        RETURN_V               = 157,
+        RETURN_I               = 158,
+        RETURN_L               = 159,
+        RETURN_O               = 160,
+        TABLESWITCH_I          = 161,
+        TABLESWITCH_S          = 162,
+        EXTEND0                = 163,
+        ADD_I                  = 164,
+        SUB_I                  = 165,
+        AND_I                  = 166,
+        OR_I                   = 167,
+        XOR_I                  = 168,
+        SHL_I                  = 169,
+        SHR_I                  = 170,
+        USHR_I                 = 171,
+        MUL_I                  = 172,
+        DIV_I                  = 173,
+        REM_I                  = 174,
+        NEG_I                  = 175,
+        I2B                    = 176,
+        I2S                    = 177,
+        I2C                    = 178,
+        ADD_L                  = 179,
+        SUB_L                  = 180,
+        MUL_L                  = 181,
+        DIV_L                  = 182,
+        REM_L                  = 183,
+        AND_L                  = 184,
+        OR_L                   = 185,
+        XOR_L                  = 186,
+        NEG_L                  = 187,
+        SHL_L                  = 188,
+        SHR_L                  = 189,
+        USHR_L                 = 190,
+        L2I                    = 191,
+        I2L                    = 192,
+        THROW                  = 193,
+        POP_1                  = 194,
+        POP_2                  = 195,
+        MONITORENTER           = 196,
+        MONITOREXIT            = 197,
+        CLASS_MONITORENTER     = 198,
+        CLASS_MONITOREXIT      = 199,
+        ARRAYLENGTH            = 200,
+        NEW                    = 201,
+        NEWARRAY               = 202,
+        NEWDIMENSION           = 203,
+        CLASS_CLINIT           = 204,
+        BBTARGET_SYS           = 205,
+        BBTARGET_APP           = 206,
+        INSTANCEOF             = 207,
+        CHECKCAST              = 208,
+        ALOAD_I                = 209,
+        ALOAD_B                = 210,
+        ALOAD_S                = 211,
+        ALOAD_C                = 212,
+        ALOAD_O                = 213,
+        ALOAD_L                = 214,
+        ASTORE_I               = 215,
+        ASTORE_B               = 216,
+        ASTORE_S               = 217,
+        ASTORE_O               = 218,
+        ASTORE_L               = 219,
+        LOOKUP_I               = 220,
+        LOOKUP_B               = 221,
+        LOOKUP_S               = 222,
+        PAUSE                  = 223,
+        LOADPARM_0__LOAD_2     = 224,
+        LOADPARM_1__GETFIELD0_I = 225,
+        LOADPARM_0__LOAD_3     = 226,
+        LOAD_3__ALOAD_I        = 227,
+        LOAD_2__ALOAD_I        = 228,
+        STORE_1__LOAD_1        = 229,
+        LOAD_1__IF_CMPGE_I     = 230,
+        GETFIELD0_O__STORE_1   = 231,
+        LOAD_1__IF_CMPLE_I     = 232,
+        LOADPARM_0__INVOKEVIRTUAL_I = 233,
+        LOAD_2__LOAD_3         = 234,
+        LOAD_3__IF_CMPGT_I     = 235,
+        LOAD_1__ARRAYLENGTH    = 236,
+        LOADPARM_0__IF_EQ_O    = 237,
+        LOAD_1__STOREPARM      = 238,
+        LOAD_1__LOAD_4         = 239,
+        GETFIELD0_I__RETURN_I  = 240,
+        LOAD_4__LOAD_1         = 241,
+        LOADPARM_0__OBJECT_1   = 242,
+        LOAD_3__INVOKEVIRTUAL_I = 243,
+        OBJECT_1__INVOKESTATIC_I = 244,
+        CONST_SHORT__AND_I     = 245,
+        LOAD_2__LOAD_1         = 246,
+        CONST_8__USHR_I        = 247,
+        STORE_1__GOTO          = 248,
+        LOADPARM_1__LOADPARM_2 = 249,
+        STORE_1__LOADPARM_1    = 250,
+        LOAD_2__LOADPARM_0     = 251,
+        MUL_I__RETURN_I        = 252,
+        LOADPARM_1__LOADPARM_0 = 253,
+        LOAD_1__LOAD_2         = 254,
+        LOAD_3__LOAD_4         = 255,
         OBJECT_WIDE            = 256,
         LOAD_WIDE              = 257,
         LOAD_I2_WIDE           = 258,
@@ -504,27 +504,12 @@ public final class OPC {
         /* CONST_8 */                   "\u0001" +
         /* CONST_9 */                   "\u0001" +
         /* CONST_10 */                  "\u0001" +
-        /* CONST_11 */                  "\u0001" +
-        /* CONST_12 */                  "\u0001" +
-        /* CONST_13 */                  "\u0001" +
-        /* CONST_14 */                  "\u0001" +
-        /* CONST_15 */                  "\u0001" +
         /* OBJECT_0 */                  "\u0001" +
         /* OBJECT_1 */                  "\u0001" +
         /* OBJECT_2 */                  "\u0001" +
         /* OBJECT_3 */                  "\u0001" +
         /* OBJECT_4 */                  "\u0001" +
         /* OBJECT_5 */                  "\u0001" +
-        /* OBJECT_6 */                  "\u0001" +
-        /* OBJECT_7 */                  "\u0001" +
-        /* OBJECT_8 */                  "\u0001" +
-        /* OBJECT_9 */                  "\u0001" +
-        /* OBJECT_10 */                 "\u0001" +
-        /* OBJECT_11 */                 "\u0001" +
-        /* OBJECT_12 */                 "\u0001" +
-        /* OBJECT_13 */                 "\u0001" +
-        /* OBJECT_14 */                 "\u0001" +
-        /* OBJECT_15 */                 "\u0001" +
         /* LOAD_0 */                    "\u0001" +
         /* LOAD_1 */                    "\u0001" +
         /* LOAD_2 */                    "\u0001" +
@@ -534,13 +519,6 @@ public final class OPC {
         /* LOAD_6 */                    "\u0001" +
         /* LOAD_7 */                    "\u0001" +
         /* LOAD_8 */                    "\u0001" +
-        /* LOAD_9 */                    "\u0001" +
-        /* LOAD_10 */                   "\u0001" +
-        /* LOAD_11 */                   "\u0001" +
-        /* LOAD_12 */                   "\u0001" +
-        /* LOAD_13 */                   "\u0001" +
-        /* LOAD_14 */                   "\u0001" +
-        /* LOAD_15 */                   "\u0001" +
         /* STORE_0 */                   "\u0001" +
         /* STORE_1 */                   "\u0001" +
         /* STORE_2 */                   "\u0001" +
@@ -550,21 +528,11 @@ public final class OPC {
         /* STORE_6 */                   "\u0001" +
         /* STORE_7 */                   "\u0001" +
         /* STORE_8 */                   "\u0001" +
-        /* STORE_9 */                   "\u0001" +
-        /* STORE_10 */                  "\u0001" +
-        /* STORE_11 */                  "\u0001" +
-        /* STORE_12 */                  "\u0001" +
-        /* STORE_13 */                  "\u0001" +
-        /* STORE_14 */                  "\u0001" +
-        /* STORE_15 */                  "\u0001" +
         /* LOADPARM_0 */                "\u0001" +
         /* LOADPARM_1 */                "\u0001" +
         /* LOADPARM_2 */                "\u0001" +
         /* LOADPARM_3 */                "\u0001" +
         /* LOADPARM_4 */                "\u0001" +
-        /* LOADPARM_5 */                "\u0001" +
-        /* LOADPARM_6 */                "\u0001" +
-        /* LOADPARM_7 */                "\u0001" +
         /* WIDE_M1 */                   "\u0000" +
         /* WIDE_0 */                    "\u0000" +
         /* WIDE_1 */                    "\u0000" +
@@ -749,6 +717,38 @@ public final class OPC {
         /* LOOKUP_B */                  "\u0001" +
         /* LOOKUP_S */                  "\u0001" +
         /* PAUSE */                     "\u0001" +
+        /* LOADPARM_0__LOAD_2 */        "\u0001" +
+        /* LOADPARM_1__GETFIELD0_I */   "\u0002" +
+        /* LOADPARM_0__LOAD_3 */        "\u0001" +
+        /* LOAD_3__ALOAD_I */           "\u0001" +
+        /* LOAD_2__ALOAD_I */           "\u0001" +
+        /* STORE_1__LOAD_1 */           "\u0001" +
+        /* LOAD_1__IF_CMPGE_I */        "\u0002" +
+        /* GETFIELD0_O__STORE_1 */      "\u0002" +
+        /* LOAD_1__IF_CMPLE_I */        "\u0002" +
+        /* LOADPARM_0__INVOKEVIRTUAL_I */"\u0002" +
+        /* LOAD_2__LOAD_3 */            "\u0001" +
+        /* LOAD_3__IF_CMPGT_I */        "\u0002" +
+        /* LOAD_1__ARRAYLENGTH */       "\u0001" +
+        /* LOADPARM_0__IF_EQ_O */       "\u0002" +
+        /* LOAD_1__STOREPARM */         "\u0002" +
+        /* LOAD_1__LOAD_4 */            "\u0001" +
+        /* GETFIELD0_I__RETURN_I */     "\u0002" +
+        /* LOAD_4__LOAD_1 */            "\u0001" +
+        /* LOADPARM_0__OBJECT_1 */      "\u0001" +
+        /* LOAD_3__INVOKEVIRTUAL_I */   "\u0002" +
+        /* OBJECT_1__INVOKESTATIC_I */  "\u0002" +
+        /* CONST_SHORT__AND_I */        "\u0003" +
+        /* LOAD_2__LOAD_1 */            "\u0001" +
+        /* CONST_8__USHR_I */           "\u0001" +
+        /* STORE_1__GOTO */             "\u0002" +
+        /* LOADPARM_1__LOADPARM_2 */    "\u0001" +
+        /* STORE_1__LOADPARM_1 */       "\u0001" +
+        /* LOAD_2__LOADPARM_0 */        "\u0001" +
+        /* MUL_I__RETURN_I */           "\u0001" +
+        /* LOADPARM_1__LOADPARM_0 */    "\u0001" +
+        /* LOAD_1__LOAD_2 */            "\u0001" +
+        /* LOAD_3__LOAD_4 */            "\u0001" +
         /* OBJECT_WIDE */               "\u0002" +
         /* LOAD_WIDE */                 "\u0002" +
         /* LOAD_I2_WIDE */              "\u0002" +
@@ -941,7 +941,7 @@ public final class OPC {
         public static final int BYTECODE_COUNT = NON_FLOAT_BYTECODE_COUNT + FLOAT_BYTECODE_COUNT;
 
         /** The delta that is applied to an opcode < 256 to get the widened version of the opcode. */
-        public static final int WIDE_DELTA = 165;
+        public static final int WIDE_DELTA = 197;
 
         /** The delta that is applied to an opcode >= 256 to get the widened version of the opcode. */
         public static final int ESCAPE_WIDE_DELTA = 56;
@@ -959,5 +959,5 @@ public final class OPC {
         return (unit & (1 << (opcode % 8))) != 0;
     }
 
-    private final static String wideTable = "\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u00f8\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u0001\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u00fc\u00ff\u00ff\u0003\u0000\u0000\u0000\u0000\u0000\u0000\u0000";
+    private final static String wideTable = "\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u00f8\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u00ff\u0001\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u00fc\u00ff\u00ff\u0003\u0000\u0000\u0000\u0000\u0000\u0000\u0000";
 }
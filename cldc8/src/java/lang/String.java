@@ -920,12 +920,22 @@ public final class String implements Comparable<String>, CharSequence {
      * @return  a hash code value for this object.
      */
     public int hashCode() {
-        int h = 0;
         int len = length();
+        boolean cached = len >= GC.MIN_CACHED_STRING_HASH_LENGTH;
+        if (cached) {
+            int h = GC.getStringHashCode(this);
+            if (h != 0) {
+                return h;
+            }
+        }
 
+        int h = 0;
         for (int i = 0; i < len; i++) {
             h = 31*h + NativeUnsafe.charAt(this, i);
         }
+        if (cached && h != 0) {
+            GC.setStringHashCode(this, h);
+        }
         return h;
     }
 
@@ -76,9 +76,10 @@ public class Throwable {
     private String detailMessage;
 
     /**
-     * The trace of the call stack at the point this object was created.
+     * The trace of the call stack at the point this object was created. It is recorded by
+     * {@link VM#captureCurrentStack} and only decoded when it is printed.
      */
-    private final ExecutionPoint[] trace;
+    private Object trace;
 
     private Throwable cause = this;
 	
@@ -87,15 +88,26 @@ public class Throwable {
      * its error message string.
      */
     public Throwable() {
+/*if[PRINT_STACK_TRACE]*/
+        fillInStackTrace();
+/*end[PRINT_STACK_TRACE]*/	
+    }
+
+    /**
+     * Records the current call stack in this <code>Throwable</code>, to be printed by
+     * {@link #printStackTrace()}. This is called by the constructors. A subclass whose
+     * instances are thrown and caught as part of normal control flow can override it
+     * to return without recording anything, which makes creating them much cheaper.
+     *
+     * @return  this <code>Throwable</code>
+     */
+    public Throwable fillInStackTrace() {
 /*if[PRINT_STACK_TRACE]*/
         if (VMThread.currentThread() != null) {
-            trace = VM.reifyCurrentStack( -1);
-        } else {
-            trace = null;
+            trace = VM.captureCurrentStack();
         }
-/*else[PRINT_STACK_TRACE]*/
-//	trace = null;
-/*end[PRINT_STACK_TRACE]*/	
+/*end[PRINT_STACK_TRACE]*/
+        return this;
     }
 
     /**
@@ -201,12 +213,14 @@ public class Throwable {
 /*end[ENABLE_VERBOSE]*/
 /*if[PRINT_STACK_TRACE]*/
             if (this != VM.getOutOfMemoryError() && trace != null) {
-                for (int i = 0; i != trace.length; ++i) {
-                    internalFrame = internalFrame && internalFrame(trace[i]);
+                int frames = VM.getCapturedFrameCount(trace);
+                for (int i = 0; i != frames; ++i) {
+                    ExecutionPoint frame = VM.getCapturedFrame(trace, i);
+                    internalFrame = internalFrame && frame != null && internalFrame(frame);
                     if (!internalFrame) {
                         stream.print("    ");
-                        if (trace[i] != null) {
-                            trace[i].print(stream);
+                        if (frame != null) {
+                            frame.print(stream);
                         } else {
                             stream.print("undecipherable");
                         }
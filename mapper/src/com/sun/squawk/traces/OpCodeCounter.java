@@ -29,32 +29,84 @@ import java.util.*;
 
 // *STACKTRACESTART*:21162:*PROFILE TRACE*:invokenative_v
 
+/**
+ * Counts the opcodes in the profile traces of a trace file produced by a profiling VM.
+ * Each profile trace records the opcode of the last instruction executed. When the VM is
+ * run with <code>-Xprof:1</code>, there is a trace for every instruction and so the
+ * sequences of opcodes executed can also be counted. (The superinstructions are chosen from
+ * the cheaper profile written by a VM built with -DOPCODE_PROFILER=1, see
+ * com.sun.squawk.builder.gen.Superinstructions.)
+ * <p>
+ * Usage: OpCodeCounter [-n:&lt;length&gt;] [-exact] [tracefile]
+ * <pre>
+ *    -n:&lt;length&gt;   count sequences of 'length' consecutive opcodes (default 1)
+ *    -exact         do not merge the opcodes with an implicit parameter (e.g. load_3) into one entry (e.g. load_n)
+ *    tracefile      the trace file (default "trace")
+ * </pre>
+ */
 public class OpCodeCounter {
     public static void main(String[] args) throws Exception {
-        BufferedReader reader = new BufferedReader(new FileReader("trace"), 1000000);
+        int length = 1;
+        boolean exact = false;
+        String file = "trace";
+        for (int i = 0 ; i < args.length ; i++) {
+            String arg = args[i];
+            if (arg.startsWith("-n:")) {
+                length = Integer.parseInt(arg.substring(3));
+                if (length < 1) {
+                    throw new IllegalArgumentException("invalid sequence length: " + arg);
+                }
+            } else if (arg.equals("-exact")) {
+                exact = true;
+            } else if (arg.startsWith("-")) {
+                System.err.println("Usage: OpCodeCounter [-n:<length>] [-exact] [tracefile]");
+                return;
+            } else {
+                file = arg;
+            }
+        }
+
+        BufferedReader reader = new BufferedReader(new FileReader(file), 1000000);
         String line = reader.readLine();
         Hashtable<String, Integer> table = new Hashtable<String, Integer>();
+        String[] window = new String[length];
+        int windowSize = 0;
         int opcodes = 0;
         int keys = 0;
         while (line != null) {
             if (line.startsWith("*STACKTRACESTART*") && line.indexOf("*PROFILE TRACE*") != -1) {
                 int index = line.lastIndexOf(':');
                 String opcode = line.substring(index+1);
-                for (int i = 0 ; i < 16 ; i++) {
-                    String end = "_"+i;
-                    if (opcode.endsWith(end)) {
-                        opcode = opcode.substring(0, opcode.length() - end.length()) + "_n";
+                if (!exact) {
+                    for (int i = 0 ; i < 16 ; i++) {
+                        String end = "_"+i;
+                        if (opcode.endsWith(end)) {
+                            opcode = opcode.substring(0, opcode.length() - end.length()) + "_n";
+                        }
                     }
                 }
                 if (!opcode.startsWith("invokenative_")) { // ignore invokenatives
-                    opcodes++;
-                    Integer i = (Integer)table.get(opcode);
-                    if (i == null) {
-                        table.put(opcode, new Integer(1));
-                        keys++;
-                    } else {
-                        table.put(opcode, new Integer(i.intValue()+1));
+                    if (windowSize == length) {
+                        System.arraycopy(window, 1, window, 0, length - 1);
+                        windowSize--;
+                    }
+                    window[windowSize++] = opcode;
+                    if (windowSize == length) {
+                        String key = window[0];
+                        for (int i = 1 ; i < length ; i++) {
+                            key += " " + window[i];
+                        }
+                        opcodes++;
+                        Integer i = (Integer)table.get(key);
+                        if (i == null) {
+                            table.put(key, new Integer(1));
+                            keys++;
+                        } else {
+                            table.put(key, new Integer(i.intValue()+1));
+                        }
                     }
+                } else {
+                    windowSize = 0; // a sequence cannot span a native call
                 }
             }
             line = reader.readLine();
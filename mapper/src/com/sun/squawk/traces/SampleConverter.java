@@ -0,0 +1,326 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.traces;
+
+import java.io.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * Converts the samples recorded by a VM run with <code>-Xsample:&lt;n&gt;</code> into folded
+ * stacks, one line per distinct stack with the frames separated by ';' and followed by the
+ * number of samples, which is the input format of flame graph tools. It also prints the
+ * self and total time of each method, where the self time is the share of the samples in
+ * which the method was the inner most frame and the total time is the share of the samples
+ * in which it was on the stack at all.<p>
+ *
+ * The method addresses in the samples are symbolized with the same map files as used by
+ * the {@link ProfileViewer}.
+ */
+public class SampleConverter {
+
+    /**
+     * Pattern for matching the first line of a sample file.
+     */
+    private static final Pattern HEADER = Pattern.compile("\\*SAMPLES\\*:\\*ROM\\*:(\\d+):(\\d+):\\*NVM\\*:(\\d+):(\\d+):\\*(\\d+)\\*");
+
+    /**
+     * Pattern for matching the line with the sample rate, the number of samples taken and the number of samples dropped.
+     */
+    private static final Pattern RATE = Pattern.compile("\\*SAMPLERATE\\*:(\\d+):(\\d+):(\\d+)");
+
+    /**
+     * Pattern for matching a frame of a sample. Capturing group 1 is the method address and group 2 is a bytecode offset.
+     */
+    private static final Pattern FRAME = Pattern.compile("(\\d+)@(\\d+)");
+
+    /**
+     * The map from addresses to symbolic information.
+     */
+    private final Symbols symbols = new Symbols();
+
+    /**
+     * Specifies if the source line is appended to the name of each frame.
+     */
+    private boolean lines;
+
+    /**
+     * Specifies if each stack starts with a frame for the thread.
+     */
+    private boolean threads;
+
+    /**
+     * The number of samples for each folded stack.
+     */
+    private final Map<String, int[]> folded = new TreeMap<String, int[]>();
+
+    /**
+     * The self and total sample counts of each method.
+     */
+    private final Map<String, int[]> methods = new HashMap<String, int[]>();
+
+    /**
+     * The number of samples read.
+     */
+    private int samples;
+
+    /**
+     * Gets the name of the method at an address.
+     */
+    private String getMethodName(long address) {
+        try {
+            return symbols.lookupMethod(address).getName(true);
+        } catch (Symbols.UnknownMethodException e) {
+            return "0x" + Long.toHexString(address);
+        }
+    }
+
+    /**
+     * Gets the source line of a bytecode offset in the method at an address, or -1 if it is not known.
+     */
+    private int getLineNumber(long address, int pc) {
+        try {
+            // The offset is of the instruction that will be executed next in the method
+            return symbols.lookupMethod(address).getSourceLineNumber(pc == 0 ? 0 : pc - 1);
+        } catch (Symbols.UnknownMethodException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Adds one sample to the folded stacks and the method counts.
+     *
+     * @param line  a '*SAMPLE*' line without its prefix
+     */
+    private void addSample(String line) {
+        String[] parts = line.split(":");
+        if (parts.length < 2) {
+            return; // taken before the first frame was set up
+        }
+        String[] methodNames = new String[parts.length - 1];
+        String[] frames = new String[parts.length - 1];
+        for (int i = 1; i != parts.length; ++i) {
+            Matcher m = FRAME.matcher(parts[i]);
+            if (!m.matches()) {
+                throw new IllegalArgumentException("malformed frame: " + parts[i]);
+            }
+            long address = Long.parseLong(m.group(1));
+            methodNames[i - 1] = getMethodName(address);
+            frames[i - 1] = lines ? methodNames[i - 1] + ":" + getLineNumber(address, Integer.parseInt(m.group(2))) : methodNames[i - 1];
+        }
+
+        StringBuffer stack = new StringBuffer();
+        if (threads) {
+            stack.append(parts[0].equals("-1") ? "service thread" : "thread " + parts[0]);
+        }
+        Set<String> seen = new HashSet<String>();
+        for (int i = frames.length - 1; i >= 0; --i) {
+            if (stack.length() != 0) {
+                stack.append(';');
+            }
+            stack.append(frames[i]);
+
+            String method = methodNames[i];
+            int[] counts = methods.get(method);
+            if (counts == null) {
+                counts = new int[2];
+                methods.put(method, counts);
+            }
+            if (i == 0) {
+                counts[0]++;
+            }
+            if (seen.add(method)) {
+                counts[1]++;
+            }
+        }
+
+        int[] count = folded.get(stack.toString());
+        if (count == null) {
+            count = new int[1];
+            folded.put(stack.toString(), count);
+        }
+        count[0]++;
+        samples++;
+    }
+
+    /**
+     * Reads a sample file.
+     *
+     * @param file  the file written by the VM
+     * @return the line with the sample rate or null if there was none
+     */
+    private String read(File file) throws IOException {
+        InputFile in = new InputFile(file);
+        String line = in.readLine();
+        Matcher m = line == null ? null : HEADER.matcher(line);
+        if (m == null || !m.matches()) {
+            throw new IOException(file + " is not a sample file");
+        }
+        long romStart = Long.parseLong(m.group(1));
+        long romEnd   = Long.parseLong(m.group(2));
+        long nvmStart = Long.parseLong(m.group(3));
+        long nvmEnd   = Long.parseLong(m.group(4));
+        symbols.relocate(new AddressRelocator(romStart, (int)(romEnd - romStart), nvmStart, (int)(nvmEnd - nvmStart)), false);
+
+        String rate = null;
+        while ((line = in.readLine()) != null) {
+            if (line.startsWith("*SAMPLE*:")) {
+                addSample(line.substring("*SAMPLE*:".length()));
+            } else if (RATE.matcher(line).matches()) {
+                rate = line;
+            }
+        }
+        return rate;
+    }
+
+    /**
+     * Writes the folded stacks.
+     */
+    private void writeFolded(PrintStream out) {
+        for (Map.Entry<String, int[]> entry : folded.entrySet()) {
+            out.println(entry.getKey() + " " + entry.getValue()[0]);
+        }
+    }
+
+    /**
+     * Writes the self and total time of the methods, highest self time first.
+     *
+     * @param top  the maximum number of methods to write
+     */
+    private void writeMethods(PrintStream out, int top) {
+        List<Map.Entry<String, int[]>> entries = new ArrayList<Map.Entry<String, int[]>>(methods.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, int[]>>() {
+            public int compare(Map.Entry<String, int[]> e1, Map.Entry<String, int[]> e2) {
+                int[] c1 = e1.getValue();
+                int[] c2 = e2.getValue();
+                return c1[0] != c2[0] ? c2[0] - c1[0] : c2[1] - c1[1];
+            }
+        });
+        out.println("   self%  total%    self   total  method");
+        for (Map.Entry<String, int[]> entry : entries.subList(0, Math.min(top, entries.size()))) {
+            int[] counts = entry.getValue();
+            out.println(format(percent(counts[0]), 8) + format(percent(counts[1]), 8) +
+                        format(String.valueOf(counts[0]), 8) + format(String.valueOf(counts[1]), 8) + "  " + entry.getKey());
+        }
+    }
+
+    private String percent(int count) {
+        return String.valueOf(Math.round(count * 1000.0 / samples) / 10.0);
+    }
+
+    private static String format(String s, int width) {
+        StringBuffer buf = new StringBuffer();
+        for (int i = s.length(); i < width; ++i) {
+            buf.append(' ');
+        }
+        return buf.append(s).toString();
+    }
+
+    /**
+     * Prints the usage message.
+     *
+     * @param errMsg   an optional error message or null
+     */
+    private static void usage(String errMsg) {
+        PrintStream out = System.err;
+        if (errMsg != null) {
+            out.println(errMsg);
+        }
+        out.println("Usage: SampleConverter [-options] [samplefile]");
+        out.println("where options include:");
+        out.println("    -map:<file>         map file containing method meta info");
+        out.println("    -folded:<file>      where to write the folded stacks (default: squawk.folded)");
+        out.println("    -top:<n>            the number of methods to list (default: 50)");
+        out.println("    -lines              add the source line number to each frame");
+        out.println("    -threads            start each stack with the thread it was taken on");
+        out.println("    -h                  show this message and exit");
+        out.println("The sample file defaults to squawk.samples.");
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args  see {@link #usage}
+     */
+    public static void main(String[] args) throws IOException {
+        SampleConverter converter = new SampleConverter();
+        Vector<String> symbolsToLoad = new Vector<String>();
+        symbolsToLoad.addElement("squawk.sym");
+        symbolsToLoad.addElement("squawk_dynamic.sym");
+        String foldedFile = "squawk.folded";
+        int top = 50;
+
+        int argc = 0;
+        while (argc != args.length && args[argc].startsWith("-")) {
+            String arg = args[argc++];
+            if (arg.startsWith("-map:")) {
+                symbolsToLoad.addElement(arg.substring("-map:".length()));
+            } else if (arg.startsWith("-folded:")) {
+                foldedFile = arg.substring("-folded:".length());
+            } else if (arg.startsWith("-top:")) {
+                top = Integer.parseInt(arg.substring("-top:".length()));
+            } else if (arg.equals("-lines")) {
+                converter.lines = true;
+            } else if (arg.equals("-threads")) {
+                converter.threads = true;
+            } else if (arg.equals("-h")) {
+                usage(null);
+                return;
+            } else {
+                usage("Unknown option: " + arg);
+                return;
+            }
+        }
+        File sampleFile = new File(argc == args.length ? "squawk.samples" : args[argc]);
+
+        for (String file : symbolsToLoad) {
+            if (new File(file).exists()) {
+                converter.symbols.loadIfFileExists(new File(file));
+            }
+        }
+
+        String rate = converter.read(sampleFile);
+        if (converter.samples == 0) {
+            System.err.println("warning: no samples were read from " + sampleFile);
+            return;
+        }
+
+        PrintStream out = new PrintStream(new FileOutputStream(foldedFile));
+        try {
+            converter.writeFolded(out);
+        } finally {
+            out.close();
+        }
+
+        if (rate != null) {
+            Matcher m = RATE.matcher(rate);
+            m.matches();
+            System.out.println(m.group(2) + " samples taken at " + m.group(1) + "Hz, " + m.group(3) + " dropped from the buffer");
+        }
+        System.out.println(converter.samples + " samples, " + converter.folded.size() + " distinct stacks written to " + foldedFile);
+        System.out.println();
+        converter.writeMethods(System.out, top);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * BlockingFunction call overhead.
+ *
+ * THREADS Java threads each call getpid() CALLS times as a BlockingFunction,
+ * first using the cached TaskExecutors, then all sharing one TaskExecutor so
+ * that calls queue up on its run queue. Reports the call rate, the time the
+ * callers waited, the number of TaskExecutors created and the run queue depth.
+ *
+ * Targets with native blocking function support only (e.g. Linux).
+ */
+import com.sun.cldc.jna.BlockingFunction;
+import com.sun.cldc.jna.NativeLibrary;
+import com.sun.cldc.jna.TaskExecutor;
+
+public class Main {
+	static final int THREADS = 4;
+	static final int CALLS = 5000;
+
+	static class Caller extends Thread {
+		final BlockingFunction getpid;
+
+		Caller(TaskExecutor te) {
+			getpid = NativeLibrary.getDefaultInstance().getBlockingFunction("getpid");
+			if (te != null) {
+				getpid.setTaskExecutor(te);
+			}
+		}
+
+		public void run() {
+			for (int i = 0; i < CALLS; i++) {
+				getpid.call0();
+			}
+		}
+	}
+
+	static void run(String label, TaskExecutor te) throws InterruptedException {
+		int calls = TaskExecutor.getBlockingCallCount();
+		long wait = TaskExecutor.getTotalWaitTime();
+		Caller[] callers = new Caller[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			callers[i] = new Caller(te);
+		}
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < THREADS; i++) {
+			callers[i].start();
+		}
+		for (int i = 0; i < THREADS; i++) {
+			callers[i].join();
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		calls = TaskExecutor.getBlockingCallCount() - calls;
+		wait = TaskExecutor.getTotalWaitTime() - wait;
+		System.out.println(label + calls + " calls in " + elapsed + "ms, " +
+				(elapsed == 0 ? 0 : calls * 1000L / elapsed) + " calls/s, " +
+				(calls == 0 ? 0 : wait / calls) + "us average wait");
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		run("cached executors: ", null);
+		System.out.println("  " + TaskExecutor.getCachedTaskExecutorCount() + " executors created, " +
+				TaskExecutor.getCachedTaskExecutorHits() + " reused");
+
+		TaskExecutor te = new TaskExecutor("benchmark");
+		run("shared executor:  ", te);
+		System.out.println("  " + te.getTaskCount() + " tasks run, max queue depth " + te.getMaxQueueDepth() +
+				", max wait " + TaskExecutor.getMaxWaitTime() + "us");
+		te.stopTaskExecutor();
+	}
+}
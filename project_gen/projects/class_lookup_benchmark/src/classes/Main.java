@@ -0,0 +1,52 @@
+/*
+ * Class lookup by name.
+ *
+ * Resolves the name of every class in the suites of the current isolate
+ * (squawk.suite and its children, if any) through Klass.lookupKlass, which is
+ * what Class.forName and the isolate startup use, ROUNDS times. Class.forName
+ * itself is not called so that no class initializers are run. Classes whose
+ * names were stripped from the suite (-stripSystemClassName, used when the
+ * project is built with MAP=false) cannot be looked up and are skipped.
+ */
+import com.sun.squawk.Klass;
+import com.sun.squawk.Suite;
+import com.sun.squawk.VM;
+
+public class Main {
+	static final int ROUNDS = 20;
+
+	static String[] classNames;
+
+	public static void main(String[] args) {
+		int count = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			String[] names = pass == 0 ? null : new String[count];
+			count = 0;
+			for (Suite suite = VM.getCurrentIsolate().getLeafSuite(); suite != null; suite = suite.getParent()) {
+				for (int i = 0; i < suite.getClassCount(); i++) {
+					Klass klass = suite.getKlass(i);
+					if (klass != null && klass.getInternalName().length() != 0) {
+						if (names != null) {
+							names[count] = klass.getInternalName();
+						}
+						count++;
+					}
+				}
+			}
+			classNames = names;
+		}
+
+		long start = VM.getTimeMicros();
+		for (int round = 0; round < ROUNDS; round++) {
+			for (int i = 0; i < classNames.length; i++) {
+				if (Klass.lookupKlass(classNames[i]) == null) {
+					System.out.println("not found: " + classNames[i]);
+				}
+			}
+		}
+		long elapsed = VM.getTimeMicros() - start;
+		long lookups = (long)ROUNDS * classNames.length;
+		System.out.println(classNames.length + " classes, " + lookups + " lookups in " + elapsed + "us, " +
+				(lookups == 0 ? 0 : elapsed * 1000 / lookups) + "ns per lookup");
+	}
+}
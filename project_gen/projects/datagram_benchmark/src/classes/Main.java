@@ -0,0 +1,112 @@
+/*
+ * Loopback UDP throughput.
+ *
+ * A sender thread sends PACKETS datagrams of PACKET_SIZE bytes to a receiver on
+ * the same VM, first one system call per datagram (DatagramSocket.send/read), then
+ * BATCH datagrams per recvmmsg/sendmmsg (DatagramSocket.send/receive with a
+ * DatagramBatch). UDP may drop datagrams when the receiver falls behind, so the
+ * receiver stops at the first marker datagram the sender keeps sending when it
+ * is done, and both the received count and the rate are reported.
+ *
+ * Linux target only, e.g. make PROJECT=datagram_benchmark
+ */
+import com.sun.squawk.io.DatagramBatch;
+import com.sun.squawk.io.DatagramSocket;
+import com.sun.squawk.io.NetUtil;
+
+import java.io.IOException;
+
+public class Main {
+	static final int PORT = 9200;
+	static final int PACKETS = 200000;
+	static final int PACKET_SIZE = 64;
+	static final int BATCH = 32;
+
+	static final byte DATA = 0;
+	static final byte MARKER = 1;
+
+	static volatile boolean done;
+
+	static class Sender extends Thread {
+		final int addr;
+		final boolean batched;
+
+		Sender(int addr, boolean batched) {
+			this.addr = addr;
+			this.batched = batched;
+		}
+
+		public void run() {
+			try {
+				DatagramSocket socket = new DatagramSocket();
+				if (batched) {
+					DatagramBatch batch = new DatagramBatch(BATCH, PACKET_SIZE);
+					for (int i = 0; i < BATCH; i++) {
+						batch.set(i, addr, PORT, PACKET_SIZE);
+					}
+					batch.setCount(BATCH);
+					for (int sent = 0; sent < PACKETS; sent += BATCH) {
+						socket.send(batch);
+					}
+				} else {
+					byte[] buf = new byte[PACKET_SIZE];
+					for (int sent = 0; sent < PACKETS; sent++) {
+						socket.send(addr, PORT, buf, 0, PACKET_SIZE);
+					}
+				}
+				byte[] marker = new byte[] {MARKER};
+				while (!done) {
+					socket.send(addr, PORT, marker, 0, 1);
+					Thread.sleep(10);
+				}
+				socket.close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	static void run(int addr, boolean batched) throws IOException {
+		DatagramSocket socket = new DatagramSocket(PORT);
+		done = false;
+		new Sender(addr, batched).start();
+
+		int received = 0;
+		long start = System.currentTimeMillis();
+		if (batched) {
+			DatagramBatch batch = new DatagramBatch(BATCH, PACKET_SIZE);
+			byte[] data = batch.getData();
+			while (!done) {
+				int n = socket.receive(batch);
+				for (int i = 0; i < n; i++) {
+					if (data[batch.getOffset(i)] == MARKER) {
+						done = true;
+						break;
+					}
+					received++;
+				}
+			}
+		} else {
+			byte[] buf = new byte[PACKET_SIZE];
+			while (!done) {
+				socket.read(buf, 0, PACKET_SIZE);
+				if (buf[0] == MARKER) {
+					done = true;
+				} else {
+					received++;
+				}
+			}
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		socket.close();
+		System.out.println((batched ? "recvmmsg/sendmmsg: " : "recv/sendto:       ") + received + " of " + PACKETS +
+				" datagrams in " + elapsed + "ms, " + (elapsed == 0 ? 0 : received * 1000L / elapsed) + " datagrams/s");
+	}
+
+	public static void main(String[] args) throws Exception {
+		int addr = NetUtil.gethostbyname("localhost");
+		run(addr, false);
+		Thread.sleep(100);
+		run(addr, true);
+	}
+}
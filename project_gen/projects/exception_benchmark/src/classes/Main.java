@@ -0,0 +1,56 @@
+/*
+ * Exception throughput.
+ *
+ * Throws and catches THROWS exceptions from DEPTH frames down the stack, first
+ * an exception that records the call stack when it is created, then one that
+ * opts out by overriding fillInStackTrace. Finally one recorded stack trace is
+ * printed to check that it is still decoded correctly.
+ */
+public class Main {
+	static final int THROWS = 100000;
+	static final int DEPTH = 10;
+
+	static class TracedException extends Exception {
+	}
+
+	static class UntracedException extends Exception {
+		public Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	static void throwAt(int depth, boolean traced) throws Exception {
+		if (depth > 0) {
+			throwAt(depth - 1, traced);
+		} else if (traced) {
+			throw new TracedException();
+		} else {
+			throw new UntracedException();
+		}
+	}
+
+	static void run(boolean traced) {
+		int caught = 0;
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < THROWS; i++) {
+			try {
+				throwAt(DEPTH, traced);
+			} catch (Exception e) {
+				caught++;
+			}
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		System.out.println((traced ? "with stack trace:    " : "without stack trace: ") + caught + " exceptions in " +
+				elapsed + "ms, " + (elapsed == 0 ? 0 : caught * 1000L / elapsed) + " exceptions/s");
+	}
+
+	public static void main(String[] args) {
+		run(true);
+		run(false);
+		try {
+			throwAt(2, true);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+}
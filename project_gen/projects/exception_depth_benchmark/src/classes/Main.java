@@ -0,0 +1,52 @@
+/*
+ * Exception handler lookup.
+ *
+ * Throws an exception DEPTH frames down the stack and catches it at the top,
+ * THROWS times for each DEPTH. Every frame in between has a try block with
+ * handlers for other exception types, so the VM has to look at the exception
+ * table of each frame as it unwinds. The exception does not record a stack
+ * trace, so the time is mostly spent finding the handler.
+ */
+public class Main {
+	static final int THROWS = 20000;
+	static final int[] DEPTHS = {1, 10, 50};
+
+	static class FlowException extends Exception {
+		public Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	static final FlowException EXCEPTION = new FlowException();
+
+	static int unwind(int depth) throws FlowException {
+		try {
+			if (depth == 0) {
+				throw EXCEPTION;
+			}
+			return unwind(depth - 1) + 1;
+		} catch (IllegalStateException e) {
+			return -1;
+		} catch (ArithmeticException e) {
+			return -2;
+		}
+	}
+
+	public static void main(String[] args) {
+		for (int d = 0; d < DEPTHS.length; d++) {
+			int depth = DEPTHS[d];
+			int caught = 0;
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < THROWS; i++) {
+				try {
+					unwind(depth);
+				} catch (FlowException e) {
+					caught++;
+				}
+			}
+			long elapsed = System.currentTimeMillis() - start;
+			System.out.println("depth " + depth + ": " + caught + " exceptions in " + elapsed + "ms, " +
+					(caught == 0 ? 0 : elapsed * 1000000L / caught) + "ns per throw");
+		}
+	}
+}
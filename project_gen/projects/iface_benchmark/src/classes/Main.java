@@ -0,0 +1,90 @@
+/*
+ * Interface call throughput.
+ *
+ * Times monomorphic and polymorphic interface call sites. The deep cases call
+ * through classes that implement the interface several super classes up, which
+ * the per-class interface tables resolve without walking the hierarchy. To
+ * compare the interface call site cache with the uncached findslot path, add
+ *     BUILD_FLAGS += -DINTERFACE_CACHE_SIZE=0
+ * to the generated Makefile and rebuild.
+ */
+public class Main {
+	static final int CALLS = 5000000;
+
+	interface Counter {
+		int next(int x);
+	}
+
+	static class A implements Counter {
+		public int next(int x) {
+			return x + 1;
+		}
+	}
+
+	static class B implements Counter {
+		public int next(int x) {
+			return x + 2;
+		}
+	}
+
+	static class C extends A {
+		public int next(int x) {
+			return x + 3;
+		}
+	}
+
+	interface Marker1 {
+	}
+
+	interface Marker2 {
+	}
+
+	interface Marker3 {
+	}
+
+	static class D1 implements Marker1, Counter {
+		public int next(int x) {
+			return x + 4;
+		}
+	}
+
+	static class D2 extends D1 implements Marker2 {
+	}
+
+	static class D3 extends D2 implements Marker3 {
+	}
+
+	static class D4 extends D3 {
+		public int next(int x) {
+			return x + 5;
+		}
+	}
+
+	static int run(Counter[] targets) {
+		int x = 0;
+		int mask = targets.length - 1;
+		for (int i = 0; i < CALLS; i++) {
+			x = targets[i & mask].next(x);
+		}
+		return x;
+	}
+
+	static void time(String label, Counter[] targets) {
+		long start = System.currentTimeMillis();
+		int result = run(targets);
+		long elapsed = System.currentTimeMillis() - start;
+		if (elapsed == 0) {
+			elapsed = 1;
+		}
+		System.out.println(label + ": " + elapsed + "ms " + (CALLS / elapsed) + " calls/ms (" + result + ")");
+	}
+
+	public static void main(String[] args) {
+		time("monomorphic", new Counter[] { new A() });
+		time("inherited", new Counter[] { new C() });
+		time("bimorphic", new Counter[] { new A(), new B() });
+		time("megamorphic", new Counter[] { new A(), new B(), new C(), new B() });
+		time("deep", new Counter[] { new D4() });
+		time("deep megamorphic", new Counter[] { new D4(), new D3(), new D2(), new D1() });
+	}
+}
@@ -0,0 +1,340 @@
+/*
+ * Fixed amount of interpreter work.
+ *
+ * Runs ROUNDS rounds of kernels written the way application code for the
+ * VM usually is: string building and parsing, a hash table and a growable list,
+ * sorting an array, virtual calls to small accessors, a table driven CRC
+ * and a binary tree. Each kernel does the same work on every run, so the
+ * number of bytecodes executed does not depend on the speed of the VM and
+ * a VM built with -DOPCODE_PROFILER=1 counts the same program every time.
+ * The checksum shows that the work was done.
+ */
+public class Main {
+	static final int ROUNDS = 100;
+
+	static int strings(int round) {
+		StringBuffer sb = new StringBuffer();
+		int sum = 0;
+		for (int i = 0; i < 200; i++) {
+			sb.setLength(0);
+			sb.append("item-").append(i * round).append('/').append(i);
+			String s = sb.toString();
+			int slash = s.indexOf('/');
+			sum += Integer.parseInt(s.substring(5, slash)) + Integer.parseInt(s.substring(slash + 1));
+			if (s.startsWith("item-1")) {
+				sum += s.length();
+			}
+		}
+		return sum;
+	}
+
+	static class List {
+		private Object[] elements = new Object[8];
+		private int size;
+		void add(Object o) {
+			if (size == elements.length) {
+				Object[] grown = new Object[size * 2];
+				System.arraycopy(elements, 0, grown, 0, size);
+				elements = grown;
+			}
+			elements[size++] = o;
+		}
+		Object get(int i) {
+			if (i >= size) {
+				throw new ArrayIndexOutOfBoundsException(i);
+			}
+			return elements[i];
+		}
+		void removeLast() {
+			elements[--size] = null;
+		}
+		int size() {
+			return size;
+		}
+	}
+
+	static class Table {
+		static class Entry {
+			final Object key;
+			Object value;
+			Entry next;
+			Entry(Object key, Object value, Entry next) {
+				this.key = key;
+				this.value = value;
+				this.next = next;
+			}
+		}
+		private Entry[] buckets = new Entry[64];
+		private int size;
+		private int index(Object key) {
+			return (key.hashCode() & 0x7FFFFFFF) % buckets.length;
+		}
+		void put(Object key, Object value) {
+			int i = index(key);
+			for (Entry e = buckets[i]; e != null; e = e.next) {
+				if (e.key.equals(key)) {
+					e.value = value;
+					return;
+				}
+			}
+			buckets[i] = new Entry(key, value, buckets[i]);
+			size++;
+		}
+		Object get(Object key) {
+			for (Entry e = buckets[index(key)]; e != null; e = e.next) {
+				if (e.key.equals(key)) {
+					return e.value;
+				}
+			}
+			return null;
+		}
+		int size() {
+			return size;
+		}
+	}
+
+	static int collections(int round) {
+		Table table = new Table();
+		List list = new List();
+		for (int i = 0; i < 300; i++) {
+			Integer key = new Integer(i + round);
+			table.put(key, "v" + i);
+			list.add(key);
+		}
+		int sum = 0;
+		for (int i = 0; i < list.size(); i++) {
+			Object value = table.get(list.get(i));
+			if (value != null) {
+				sum += ((String)value).length();
+			}
+		}
+		while (list.size() > 100) {
+			list.removeLast();
+		}
+		return sum + list.size() + table.size();
+	}
+
+	static int sort(int round) {
+		int[] a = new int[8000];
+		int seed = round + 1;
+		for (int i = 0; i < a.length; i++) {
+			seed = seed * 1103515245 + 12345;
+			a[i] = (seed >>> 8) & 0xFFFF;
+		}
+		quicksort(a, 0, a.length - 1);
+		for (int i = 1; i < a.length; i++) {
+			if (a[i - 1] > a[i]) {
+				throw new RuntimeException("not sorted");
+			}
+		}
+		return a[a.length / 2];
+	}
+
+	static void quicksort(int[] a, int lo, int hi) {
+		while (lo < hi) {
+			int pivot = a[(lo + hi) >>> 1];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (a[i] < pivot) {
+					i++;
+				}
+				while (a[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int t = a[i];
+					a[i] = a[j];
+					a[j] = t;
+					i++;
+					j--;
+				}
+			}
+			if (j - lo < hi - i) {
+				quicksort(a, lo, j);
+				lo = i;
+			} else {
+				quicksort(a, i, hi);
+				hi = j;
+			}
+		}
+	}
+
+	static abstract class Shape {
+		private final int id;
+		Shape(int id) {
+			this.id = id;
+		}
+		int getId() {
+			return id;
+		}
+		abstract int area();
+		boolean isLarge() {
+			return area() > 100;
+		}
+	}
+
+	static class Rect extends Shape {
+		private int w;
+		private int h;
+		Rect(int id, int w, int h) {
+			super(id);
+			this.w = w;
+			this.h = h;
+		}
+		int getWidth() {
+			return w;
+		}
+		int getHeight() {
+			return h;
+		}
+		int area() {
+			return getWidth() * getHeight();
+		}
+	}
+
+	static class Square extends Rect {
+		Square(int id, int side) {
+			super(id, side, side);
+		}
+		boolean isLarge() {
+			return getWidth() > 10;
+		}
+	}
+
+	static class Circle extends Shape {
+		private int r;
+		Circle(int id, int r) {
+			super(id);
+			this.r = r;
+		}
+		int area() {
+			return 3 * r * r;
+		}
+	}
+
+	static int objects(int round) {
+		Shape[] shapes = new Shape[60];
+		for (int i = 0; i < shapes.length; i++) {
+			switch (i % 3) {
+				case 0: shapes[i] = new Rect(i, i % 7 + round % 5, i % 11 + 1); break;
+				case 1: shapes[i] = new Square(i, i % 13); break;
+				default: shapes[i] = new Circle(i, i % 9); break;
+			}
+		}
+		int sum = 0;
+		for (int n = 0; n < 300; n++) {
+			for (int i = 0; i < shapes.length; i++) {
+				Shape s = shapes[i];
+				sum += s.area();
+				if (s.isLarge()) {
+					sum += s.getId();
+				}
+			}
+		}
+		return sum;
+	}
+
+	static final int[] CRC_TABLE = new int[256];
+	static {
+		for (int n = 0; n < 256; n++) {
+			int c = n;
+			for (int k = 0; k < 8; k++) {
+				c = (c & 1) != 0 ? 0xEDB88320 ^ (c >>> 1) : c >>> 1;
+			}
+			CRC_TABLE[n] = c;
+		}
+	}
+
+	static int crc(int round) {
+		byte[] data = new byte[2048];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte)(i * 31 + round);
+		}
+		int c = 0xFFFFFFFF;
+		for (int n = 0; n < 12; n++) {
+			for (int i = 0; i < data.length; i++) {
+				c = CRC_TABLE[(c ^ data[i]) & 0xFF] ^ (c >>> 8);
+			}
+		}
+		return c ^ 0xFFFFFFFF;
+	}
+
+	static class Node {
+		int key;
+		Node left;
+		Node right;
+		Node(int key) {
+			this.key = key;
+		}
+	}
+
+	static Node insert(Node node, int key) {
+		if (node == null) {
+			return new Node(key);
+		}
+		if (key < node.key) {
+			node.left = insert(node.left, key);
+		} else if (key > node.key) {
+			node.right = insert(node.right, key);
+		}
+		return node;
+	}
+
+	static boolean contains(Node node, int key) {
+		while (node != null) {
+			if (key == node.key) {
+				return true;
+			}
+			node = key < node.key ? node.left : node.right;
+		}
+		return false;
+	}
+
+	static int tree(int round) {
+		Node root = null;
+		int seed = round + 7;
+		for (int i = 0; i < 1500; i++) {
+			seed = seed * 69069 + 1;
+			root = insert(root, (seed >>> 12) & 0xFFF);
+		}
+		int found = 0;
+		for (int key = 0; key < 4096; key++) {
+			if (contains(root, key)) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	public static void main(String[] args) {
+		long[] times = new long[6];
+		int checksum = 0;
+		long start = System.currentTimeMillis();
+		for (int round = 0; round < ROUNDS; round++) {
+			long t0 = System.currentTimeMillis();
+			checksum += strings(round);
+			long t1 = System.currentTimeMillis();
+			checksum += collections(round);
+			long t2 = System.currentTimeMillis();
+			checksum += sort(round);
+			long t3 = System.currentTimeMillis();
+			checksum += objects(round);
+			long t4 = System.currentTimeMillis();
+			checksum += crc(round);
+			long t5 = System.currentTimeMillis();
+			checksum += tree(round);
+			long t6 = System.currentTimeMillis();
+			times[0] += t1 - t0;
+			times[1] += t2 - t1;
+			times[2] += t3 - t2;
+			times[3] += t4 - t3;
+			times[4] += t5 - t4;
+			times[5] += t6 - t5;
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		System.out.println("strings(ms): " + times[0] + " collections(ms): " + times[1] + " sort(ms): " + times[2]);
+		System.out.println("objects(ms): " + times[3] + " crc(ms): " + times[4] + " tree(ms): " + times[5]);
+		System.out.println("rounds: " + ROUNDS + " elapsed(ms): " + elapsed + " checksum: " + checksum);
+	}
+}
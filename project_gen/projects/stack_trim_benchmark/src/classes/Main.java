@@ -0,0 +1,61 @@
+/*
+ * Stack trimming.
+ *
+ * Starts THREADS threads that each recurse DEPTH calls deep once, which extends
+ * their stacks, and then wait until the main thread is done. The collector
+ * trims the stacks of idle threads after a collection and the old stacks are
+ * reclaimed by the next one, so the heap is collected twice and the memory
+ * freed by the second collection is reported per thread.
+ */
+public class Main {
+	static final int THREADS = 200;
+	static final int DEPTH = 500;
+
+	static final Object lock = new Object();
+	static int waiting;
+	static boolean done;
+
+	static int recurse(int depth) {
+		return depth == 0 ? 0 : recurse(depth - 1) + 1;
+	}
+
+	static class Worker extends Thread {
+		public void run() {
+			recurse(DEPTH);
+			synchronized (lock) {
+				waiting++;
+				lock.notifyAll();
+				while (!done) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+					}
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < THREADS; i++) {
+			new Worker().start();
+		}
+		synchronized (lock) {
+			while (waiting != THREADS) {
+				lock.wait();
+			}
+		}
+
+		System.gc();
+		long before = runtime.freeMemory();
+		System.gc();
+		long after = runtime.freeMemory();
+		System.out.println(THREADS + " idle threads: " + (after - before) + " bytes of stack freed, " +
+				(after - before) / THREADS + " bytes per thread");
+
+		synchronized (lock) {
+			done = true;
+			lock.notifyAll();
+		}
+	}
+}
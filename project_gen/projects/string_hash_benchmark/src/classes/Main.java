@@ -0,0 +1,67 @@
+/*
+ * String hash codes.
+ *
+ * Calls String.hashCode() CALLS times on strings of several lengths, once on
+ * string literals, which are in the suite (ROM or NVM), and once on copies of
+ * them made at run time, which are in RAM. A loop that calls String.length()
+ * instead is timed first so that the cost of the loop and the call can be
+ * subtracted. The checksum must not change from one VM to another.
+ */
+import com.sun.squawk.VM;
+
+public class Main {
+	static final int CALLS = 200000;
+
+	static final String[] LITERALS = {
+		"abcdefgh",
+		"abcdefghijkl",
+		"abcdefghijklmnop",
+		"abcdefghijklmnopqrst",
+		"abcdefghijklmnopqrstuvwx",
+		"abcdefghijklmnopqrstuvwxyz012345",
+		"abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKL",
+		"abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ+/",
+	};
+
+	static int checksum;
+
+	static long timeLength(String s) {
+		int sum = 0;
+		long start = VM.getTimeMicros();
+		for (int i = 0; i < CALLS; i++) {
+			sum += s.length();
+		}
+		long elapsed = VM.getTimeMicros() - start;
+		checksum += sum;
+		return elapsed;
+	}
+
+	static long timeHashCode(String s) {
+		int sum = 0;
+		long start = VM.getTimeMicros();
+		for (int i = 0; i < CALLS; i++) {
+			sum += s.hashCode();
+		}
+		long elapsed = VM.getTimeMicros() - start;
+		checksum += sum;
+		return elapsed;
+	}
+
+	static long nanosPerCall(long micros, long overhead) {
+		return (micros - overhead) * 1000 / CALLS;
+	}
+
+	public static void main(String[] args) {
+		long overhead = timeLength(LITERALS[0]);
+		System.out.println("loop overhead: " + overhead * 1000 / CALLS + "ns per call");
+		for (int i = 0; i < LITERALS.length; i++) {
+			String rom = LITERALS[i];
+			String ram = new String(rom.toCharArray());
+			long romTime = timeHashCode(rom);
+			long ramTime = timeHashCode(ram);
+			System.out.println("length " + rom.length() + ": rom " + nanosPerCall(romTime, overhead) +
+					"ns, ram " + nanosPerCall(ramTime, overhead) + "ns per hashCode");
+		}
+		System.out.println("checksum: " + checksum);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Thread switch throughput.
+ *
+ * THREADS threads hand the CPU to each other with
+ * Thread.yield() and monitor hand-offs for DURATION ms. Every time a thread
+ * finds that another thread ran since its own last turn, it counts one switch.
+ * Builds with ENABLE_VM_STATISTICS=true can compare the result with
+ * com.sun.squawk.VM.Stats.getThreadSwitchCount().
+ */
+public class Main {
+	static final int THREADS = 16;
+	static final long DURATION = 10000;
+
+	static final Object lock = new Object();
+	static Thread lastRunner;
+	static int switches;
+	static int handoffs;
+	static volatile boolean stop;
+
+	static void ran() {
+		Thread self = Thread.currentThread();
+		if (lastRunner != self) {
+			lastRunner = self;
+			switches++;
+		}
+	}
+
+	static class Yielder extends Thread {
+		public void run() {
+			while (!stop) {
+				ran();
+				Thread.yield();
+			}
+		}
+	}
+
+	static class HandOff extends Thread {
+		public void run() {
+			while (!stop) {
+				synchronized (lock) {
+					ran();
+					handoffs++;
+					lock.notify();
+					try {
+						lock.wait(10);
+					} catch (InterruptedException e) {
+					}
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			threads[i] = (i & 1) == 0 ? (Thread)new Yielder() : (Thread)new HandOff();
+		}
+		Thread.currentThread().setPriority(Thread.MAX_PRIORITY);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < THREADS; i++) {
+			threads[i].start();
+		}
+		try {
+			Thread.sleep(DURATION);
+		} catch (InterruptedException e) {
+		}
+		stop = true;
+		long elapsed = System.currentTimeMillis() - start;
+		for (int i = 0; i < THREADS; i++) {
+			try {
+				threads[i].join();
+			} catch (InterruptedException e) {
+			}
+		}
+		System.out.println("threads: " + THREADS + " elapsed(ms): " + elapsed);
+		System.out.println("switches/s: " + (switches * 1000L / elapsed) + " hand-offs/s: " + (handoffs * 1000L / elapsed));
+	}
+}
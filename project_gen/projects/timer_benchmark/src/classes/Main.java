@@ -0,0 +1,68 @@
+/*
+ * Scheduler latency with many timed threads.
+ *
+ * Starts THREADS threads that repeatedly sleep for a pseudo-random period and
+ * records how late each wake up is. Every timer insert and expiry goes through
+ * the VM's TimerQueue, so the reported latency reflects its cost.
+ *
+ * 1000 threads need roughly 1MB of heap, e.g. make RAM_SIZE=2048*1024
+ */
+public class Main {
+	static final int THREADS = 1000;
+	static final int ROUNDS = 20;
+
+	static int done;
+	static long wakeups;
+	static long totalLatency;
+	static long maxLatency;
+
+	static synchronized void record(long latency) {
+		wakeups++;
+		totalLatency += latency;
+		if (latency > maxLatency) {
+			maxLatency = latency;
+		}
+	}
+
+	static synchronized void finished() {
+		done++;
+	}
+
+	static class Sleeper extends Thread {
+		int seed;
+
+		Sleeper(int seed) {
+			this.seed = seed;
+		}
+
+		public void run() {
+			for (int i = 0; i < ROUNDS; i++) {
+				seed = seed * 1103515245 + 12345;
+				int period = 10 + ((seed >>> 16) % 200);
+				long target = System.currentTimeMillis() + period;
+				try {
+					Thread.sleep(period);
+				} catch (InterruptedException e) {
+				}
+				record(System.currentTimeMillis() - target);
+			}
+			finished();
+		}
+	}
+
+	public static void main(String[] args) {
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < THREADS; i++) {
+			new Sleeper(i).start();
+		}
+		while (done < THREADS) {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+			}
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		System.out.println("threads: " + THREADS + " wakeups: " + wakeups + " elapsed(ms): " + elapsed);
+		System.out.println("latency avg(ms): " + (totalLatency / wakeups) + " max(ms): " + maxLatency);
+	}
+}
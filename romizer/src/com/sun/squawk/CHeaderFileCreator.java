@@ -601,7 +601,7 @@ public final class CHeaderFileCreator {
 
         // Write the string constant that is the mnemonics for the types
         out.println("const char *AddressType_Mnemonics = \"" + AddressType.Mnemonics + "\";");
-        out.println("#if TRACE");
+        out.println("#if TRACE || OPCODE_PROFILER");
 
         // Write function that will translate a bytecode into its name.
         out.println("char *getOpcodeName(int code) {");
@@ -112,7 +112,9 @@ public class ObjectGraphLoader {
         short staticFieldsSize = (short) NativeUnsafe.getShort(address, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$staticFieldsSize));
         short refStaticFieldsSize = (short) NativeUnsafe.getShort(address, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$refStaticFieldsSize));
         byte initModifiers = (byte) NativeUnsafe.getByte(address, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$initModifiers));
-        klass.initForObjectGraphLoader(virtualMethodBodies, staticMethodBodies, superType, interfaces, null, oopMap, oopMapWord, dataMap, dataMapWord, dataMapLength, modifiers, state, instanceSizeBytes, staticFieldsSize, refStaticFieldsSize, initModifiers);
+        Klass[] primarySupertypes = getKlassesAt(NativeUnsafe.getAddress(address, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$primarySupertypes)));
+        Klass[] secondarySupertypes = getKlassesAt(NativeUnsafe.getAddress(address, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$secondarySupertypes)));
+        klass.initForObjectGraphLoader(virtualMethodBodies, staticMethodBodies, superType, interfaces, null, oopMap, oopMapWord, dataMap, dataMapWord, dataMapLength, modifiers, state, instanceSizeBytes, staticFieldsSize, refStaticFieldsSize, initModifiers, primarySupertypes, secondarySupertypes);
     }
     
     protected Klass[] getKlassesAt(Address address) {
@@ -222,7 +224,8 @@ public class ObjectGraphLoader {
 		}
         int length = GC.getArrayLengthNoCheck(address);
         // get the class ID of the string
-        Address klassAddress = NativeUnsafe.getAddress(address, HDR.klass);
+        Address classOrAssociation = NativeUnsafe.getAddress(address, HDR.klass);
+        Address klassAddress = NativeUnsafe.getAddress(classOrAssociation, (int)FieldOffsets.com_sun_squawk_Klass$self);
         int classID = NativeUnsafe.getShort(klassAddress, FieldOffsets.decodeOffset(FieldOffsets.com_sun_squawk_Klass$id));
         Assert.that(classID == CID.STRING || classID == CID.STRING_OF_BYTES);
         // assume it is an 8-bit string
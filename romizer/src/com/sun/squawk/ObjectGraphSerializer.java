@@ -69,6 +69,13 @@ public final class ObjectGraphSerializer {
      */
     private static int saveDepth;
     
+    /**
+     * The addresses of the strings allocated by the current call to {@link #serialize} whose
+     * hash codes are precomputed, and their hash codes.
+     */
+    private static final List<Address> hashedStrings = new ArrayList<Address>();
+    private static final List<Integer> hashedStringCodes = new ArrayList<Integer>();
+
     /**
      * Turn on a significantly more verbose mode to allow for debugging.
      */
@@ -108,7 +115,12 @@ public final class ObjectGraphSerializer {
             GC.initialize();
         }
 
+        hashedStrings.clear();
+        hashedStringCodes.clear();
         save(object);
+        if (object instanceof Suite) {
+            saveStringHashCodes(objectMap.get(object), start);
+        }
 
         // Fix up the class pointers of the objects in the Squawk memory
         NativeUnsafe.resolveClasses(objectMap);
@@ -271,6 +283,45 @@ public final class ObjectGraphSerializer {
         return true;
     }
 
+    /**
+     * Records the hash code of a string in Squawk memory if it is to be precomputed.
+     *
+     * @param   str               the host string
+     * @param   serializedObject  the copy of <code>str</code> in Squawk memory
+     */
+    private static void saveStringHashCode(String str, Object serializedObject) {
+        int hash = str.hashCode();
+        if (str.length() >= GC.MIN_CACHED_STRING_HASH_LENGTH && hash != 0) {
+            hashedStrings.add((Address)serializedObject);
+            hashedStringCodes.add(hash);
+        }
+    }
+
+    /**
+     * Saves the table of the hash codes recorded by {@link #saveStringHashCode} during the
+     * serialization of a suite and sets the suite's <code>stringHashCodes</code> field to it.
+     * The field is looked up because the fields of a suite that are never used are stripped.
+     * The table is keyed by the offset of each string from the start of the memory, which
+     * does not change when the memory is relocated.
+     *
+     * @param   serializedSuite  the copy of the suite in Squawk memory
+     * @param   start            the start of the memory holding the suite
+     */
+    private static void saveStringHashCodes(Object serializedSuite, Address start) {
+        int count = hashedStrings.size();
+        int[] offsets = new int[count];
+        int[] hashCodes = new int[count];
+        for (int i = 0; i != count; i++) {
+            offsets[i] = hashedStrings.get(i).diff(start).toInt();
+            hashCodes[i] = hashedStringCodes.get(i);
+        }
+        Field field = classToKlass(Suite.class).lookupField("stringHashCodes", Klass.INT_ARRAY, false);
+        if (field != null) {
+            Object table = save(Suite.createStringHashCodeTable(offsets, hashCodes));
+            NativeUnsafe.setObject(serializedSuite, field.getOffset(), table);
+        }
+    }
+
     /**
      * Copies an object graph from the host memory to the Squawk memory.
      *
@@ -334,6 +385,7 @@ public final class ObjectGraphSerializer {
                         for (int i = 0; i != value.length; ++i) {
                             NativeUnsafe.setByte(serializedObject, i, (byte)value[i]);
                         }
+                        saveStringHashCode((String)object, serializedObject);
                         break;
                     }
                     case CID.STRING: {
@@ -376,6 +428,7 @@ public final class ObjectGraphSerializer {
                         for (int i = 0; i != value.length; ++i) {
                             NativeUnsafe.setChar(serializedObject, i, value[i]);
                         }
+                        saveStringHashCode(str, serializedObject);
                         break;
                     }
                     case CID.INT_ARRAY: {
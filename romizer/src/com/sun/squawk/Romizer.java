@@ -198,6 +198,11 @@ public class Romizer {
      * This is the ObjectGraphLoader used when the -parent: option is used to specify the suite to load
      */
     protected ObjectGraphLoader objectGraphLoader;
+
+    /**
+     * The store of the per-class translation cache, or null if there is no <code>-cache:</code> option.
+     */
+    private static RomizerCache.ClassStore classStore;
     
     /**
      * If true, do not create the C header "rom.h"
@@ -290,6 +295,12 @@ public class Romizer {
             out.println("    -traceswapper       trace endianess swapping");
         }
         
+        out.println("    -cache:<dir>        reuse the files written by an earlier run with the same");
+        out.println("                        arguments and inputs, which are kept in <dir>. If an");
+        out.println("                        input changed, reuse the translation of each class");
+        out.println("                        whose class file and dependencies are unchanged");
+        out.println("    -cachecheck         with -cache:, translate every class and fail if the");
+        out.println("                        cached translation of a class differs");
         out.println("    -h                  show this help message and exit");
         out.println();
         out.println();
@@ -371,7 +382,31 @@ public class Romizer {
     public static void main(String args[]) throws IOException {
         Romizer romizer = null;
         List<String> classNames = new ArrayList<String>();
-        String[] argsLeft = args;
+        String[] argsLeft = ArgsUtilities.expandArgFiles(args);
+
+        // Reuse the files written by an identical earlier run if there is a cache
+        String cacheDir = null;
+        boolean cacheCheck = false;
+        List<String> romizeArgs = new ArrayList<String>(argsLeft.length);
+        for (String arg : argsLeft) {
+            if (arg.startsWith("-cache:")) {
+                cacheDir = arg.substring("-cache:".length());
+            } else if (arg.equals("-cachecheck")) {
+                cacheCheck = true;
+            } else {
+                romizeArgs.add(arg);
+            }
+        }
+        argsLeft = romizeArgs.toArray(new String[romizeArgs.size()]);
+        RomizerCache cache = null;
+        if (cacheDir != null && argsLeft.length != 0) {
+            cache = new RomizerCache(new File(cacheDir), argsLeft);
+            if (!cacheCheck && cache.restore()) {
+                return;
+            }
+            classStore = new RomizerCache.ClassStore(new File(cacheDir), cacheCheck);
+        }
+
         while (true) {
 	        try {
 	            String[] newArgsLeft = new String[argsLeft.length + classNames.size()];
@@ -387,6 +422,10 @@ public class Romizer {
                     //traceRomize(argsLeft);
 		            argsLeft = romizer.run(argsLeft);
 		        }
+		        if (cache != null) {
+		            classStore.close();
+		            cache.store();
+		        }
 		        return;
 	        } catch (NoClassDefFoundError e) {
                 if (romizer != null && romizer.getLastClassName() != null) {
@@ -824,7 +863,9 @@ public class Romizer {
         Isolate isolate = new Isolate(null, null, suite);
         VM.setCurrentIsolate(isolate);
 
-        isolate.setTranslator(new Translator());
+        Translator newTranslator = new Translator();
+        newTranslator.setStore(classStore);
+        isolate.setTranslator(newTranslator);
         TranslatorInterface translator = isolate.getTranslator();
         try {
 	        translator.open(suite, classPath);
@@ -915,6 +956,7 @@ public class Romizer {
 		} else {
 			file = new File(new File(destPath), name);
 		}
+		RomizerCache.addOutputFile(file);
 		File dir = file.getParentFile();
 		if (dir != null) {
 			if (!dir.exists()) {
@@ -956,6 +998,10 @@ public class Romizer {
 /*end[STATIC_MAIN_CLASS]*/
 	
         strippedSuite.close();
+        if (stripSystemClassName) {
+            // The names of these classes are not saved so they cannot be found by name at runtime
+            strippedSuite.indexClassNames(new String[] { "com.sun.squawk.", "[com.sun.squawk." });
+        }
         // Ensure no classes that were meant to be excluded have been included
         verifyExclusions(strippedSuite);
 
@@ -973,6 +1019,7 @@ public class Romizer {
         String uri = strippedSuite.getParent() == null ? ObjectMemory.BOOTSTRAP_URI : url;
         strippedSuite.save(dos, uri, VM.isBigEndian());
         generatedFiles.addElement(new File(suiteFileName).getAbsolutePath());
+        RomizerCache.addOutputFile(new File(suiteFileName));
 
         // Create the <suiteName>.metadata file of all the class files from which the suite was created
         if (createMetadata) {
@@ -992,6 +1039,7 @@ public class Romizer {
             NativeUnsafe.setMemorySize(memorySizePrior);
             GC.setAllocTop(Address.zero().add(memorySizePrior));
             generatedFiles.addElement(new File(suiteFileName + Suite.FILE_EXTENSION_METADATA).getAbsolutePath());
+            RomizerCache.addOutputFile(new File(suiteFileName + Suite.FILE_EXTENSION_METADATA));
         }
 
         // Create the <suiteName>_classes.jar file of all the class files from which the suite was created
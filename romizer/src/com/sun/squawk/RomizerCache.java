@@ -0,0 +1,541 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.sun.squawk.translator.TranslationStore;
+import com.sun.squawk.util.LineReader;
+
+/**
+ * A cache of the files written by whole romizer runs (<code>-cache:&lt;dir&gt;</code>).<p>
+ *
+ * This memoizes complete runs. When any input changed, the run is done again but the
+ * translator reuses the translation of the unchanged classes from the {@link ClassStore}
+ * kept in the same directory.<p>
+ *
+ * The key of a romizer run is a SHA-1 digest of its arguments, its working directory and the
+ * contents of all its inputs: the files and directories named by the arguments, the classes
+ * of the romizer and translator themselves (the host class path) and the build properties and
+ * exclude files in the Squawk directory. The files are hashed in parallel, one task per file,
+ * and the digests are combined in path order so the key does not depend on the scheduling.<p>
+ *
+ * When a run with the same key has completed before, the files it wrote are copied back
+ * instead of romizing again, so they are byte for byte the same as those of a full run. Each
+ * entry is a directory named by the key holding the files and a manifest of where they go.
+ */
+class RomizerCache {
+
+    /**
+     * The name of the file listing the paths of the files in an entry, one per line.
+     */
+    private static final String MANIFEST = "manifest";
+
+    /**
+     * Options whose value is an output location rather than an input.
+     */
+    private static final String[] OUTPUT_OPTIONS = { "-d:", "-o:" };
+
+    /**
+     * The directory holding the entries.
+     */
+    private final File dir;
+
+    /**
+     * The key of the current run.
+     */
+    private final String key;
+
+    /**
+     * The absolute paths of the files written by the current run.
+     */
+    private static final Set<String> outputFiles = new LinkedHashSet<String>();
+
+    /**
+     * Computes the key of a romizer run.
+     *
+     * @param dir   the cache directory
+     * @param args  the romizer arguments without the <code>-cache:</code> option
+     */
+    RomizerCache(File dir, String[] args) throws IOException {
+        this.dir = dir;
+        this.key = computeKey(args);
+    }
+
+    /**
+     * Records a file written by the romizer.
+     */
+    static void addOutputFile(File file) {
+        outputFiles.add(file.getAbsolutePath());
+    }
+
+    /**
+     * Copies the files of a previous run with the same key back to where that run wrote them.
+     *
+     * @return true if there was such a run
+     */
+    boolean restore() throws IOException {
+        File entry = new File(dir, key);
+        File manifest = new File(entry, MANIFEST);
+        if (!manifest.exists()) {
+            return false;
+        }
+        Vector<String> paths = new Vector<String>();
+        LineReader.readLines(manifest.getPath(), paths);
+        for (int i = 0; i != paths.size(); ++i) {
+            File file = new File(paths.elementAt(i));
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            copy(new File(entry, String.valueOf(i)), file);
+        }
+        System.out.println("Romizer reused " + paths.size() + " cached files (" + key + ")");
+        return true;
+    }
+
+    /**
+     * Stores the files written by the current run, if it wrote any. The entry is written under a temporary
+     * name and renamed when complete so that a failed or concurrent store never leaves a
+     * partial entry behind.
+     */
+    void store() throws IOException {
+        File entry = new File(dir, key);
+        if (outputFiles.isEmpty() || entry.exists()) {
+            return;
+        }
+        File tmp = new File(dir, key + ".tmp" + System.nanoTime());
+        if (!tmp.mkdirs()) {
+            throw new IOException("could not create " + tmp);
+        }
+        PrintStream manifest = new PrintStream(new FileOutputStream(new File(tmp, MANIFEST)));
+        try {
+            int i = 0;
+            for (String path : outputFiles) {
+                File file = new File(path);
+                if (file.isFile()) {
+                    copy(file, new File(tmp, String.valueOf(i++)));
+                    manifest.println(path);
+                }
+            }
+        } finally {
+            manifest.close();
+        }
+        if (!tmp.renameTo(entry)) {
+            deleteAll(tmp);
+        }
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                          Per-class translation cache                      *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * The store of the per-class translation cache, used when a run cannot be reused as a
+     * whole. The entries are files in the <code>classes</code> directory of the cache, named
+     * by their key. They are written in the background by a pool of threads, as a temporary
+     * file that is renamed when complete.<p>
+     *
+     * The context digest covers the classes of the romizer and translator and the build
+     * properties, like the key of a whole run. A parent suite loaded from a file is identified
+     * by the digest of that file.<p>
+     *
+     * In check mode (<code>-cachecheck</code>) the translator translates every class and compares
+     * its entry with the stored one. A difference means the cache would not have reproduced
+     * the translation, and fails the run.
+     */
+    static class ClassStore implements TranslationStore {
+
+        private final File dir;
+        private final boolean checking;
+        private final byte[] context;
+        private final Map<String, byte[]> suiteDigests = new HashMap<String, byte[]>();
+        private final ExecutorService writer;
+        private final List<String> mismatches = new ArrayList<String>();
+        private int hits, misses, writes, matches;
+
+        /**
+         * Opens the store in a cache directory.
+         *
+         * @param cacheDir  the cache directory
+         * @param checking  true to check the stored entries instead of using them
+         */
+        ClassStore(File cacheDir, boolean checking) throws IOException {
+            this.dir = new File(cacheDir, "classes");
+            this.checking = checking;
+            SortedSet<File> inputs = new TreeSet<File>();
+            addToolInputs(inputs);
+            MessageDigest digest = newDigest();
+            updateFiles(digest, inputs);
+            this.context = digest.digest();
+            this.writer = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "translation cache writer");
+                    thread.setDaemon(true); // a failed run does not wait for the writes
+                    return thread;
+                }
+            });
+        }
+
+        public byte[] digest(byte[] data) {
+            return newDigest().digest(data);
+        }
+
+        public byte[] getContextDigest() {
+            return context;
+        }
+
+        public byte[] getSuiteDigest(Suite suite) {
+            String uri = suite.getURI();
+            if (uri == null || !uri.startsWith("file://")) {
+                return null;
+            }
+            String path = uri.substring("file://".length());
+            byte[] digest = suiteDigests.get(path);
+            if (digest == null) {
+                try {
+                    digest = hashFile(new File(path));
+                } catch (IOException e) {
+                    return null;
+                }
+                suiteDigests.put(path, digest);
+            }
+            return digest;
+        }
+
+        private File getFile(byte[] key) {
+            String name = toHex(key);
+            return new File(new File(dir, name.substring(0, 2)), name);
+        }
+
+        public byte[] get(byte[] key) {
+            File file = getFile(key);
+            if (!file.isFile()) {
+                misses++;
+                return null;
+            }
+            try {
+                byte[] entry = new byte[(int)file.length()];
+                DataInputStream in = new DataInputStream(new FileInputStream(file));
+                try {
+                    in.readFully(entry);
+                } finally {
+                    in.close();
+                }
+                hits++;
+                return entry;
+            } catch (IOException e) {
+                misses++;
+                return null;
+            }
+        }
+
+        public void put(byte[] key, final byte[] entry) {
+            final File file = getFile(key);
+            writes++;
+            writer.execute(new Runnable() {
+                public void run() {
+                    File parent = file.getParentFile();
+                    parent.mkdirs();
+                    File tmp = new File(parent, file.getName() + ".tmp" + Thread.currentThread().getId());
+                    try {
+                        OutputStream out = new FileOutputStream(tmp);
+                        try {
+                            out.write(entry);
+                        } finally {
+                            out.close();
+                        }
+                        if (!tmp.renameTo(file)) {
+                            tmp.delete();
+                        }
+                    } catch (IOException e) {
+                        tmp.delete();
+                    }
+                }
+            });
+        }
+
+        public boolean isChecking() {
+            return checking;
+        }
+
+        public synchronized void checked(String className, boolean identical) {
+            if (identical) {
+                matches++;
+            } else {
+                mismatches.add(className);
+            }
+        }
+
+        /**
+         * Waits for the pending writes and reports the use of the store.
+         *
+         * @throws RuntimeException if checking found an entry that differs from a new translation
+         */
+        void close() {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException("interrupted while writing the translation cache");
+            }
+            System.out.println("Translation cache: " + hits + " entries found, " + misses + " missing, " + writes + " written");
+            if (checking) {
+                System.out.println("Translation cache check: " + matches + " classes identical, " + mismatches.size() + " different");
+                if (!mismatches.isEmpty()) {
+                    for (String name : mismatches) {
+                        System.out.println("    " + name);
+                    }
+                    throw new RuntimeException("translation cache check failed for " + mismatches.size() + " classes");
+                }
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                              Key computation                              *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Computes the key of a run from its arguments and the contents of its inputs.
+     */
+    private static String computeKey(String[] args) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, new File("").getAbsolutePath());
+
+        SortedSet<File> inputs = new TreeSet<File>();
+        for (String arg : args) {
+            update(digest, arg);
+            addInputs(arg, inputs);
+        }
+        addToolInputs(inputs);
+        updateFiles(digest, inputs);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Adds the inputs every run depends on to a set of inputs: the classes of the romizer and
+     * translator and the build properties and exclude files in the Squawk directory.
+     */
+    private static void addToolInputs(Set<File> inputs) {
+        String classPath = System.getProperty("java.class.path");
+        if (classPath != null) {
+            addPathInputs(classPath, inputs);
+        }
+        File squawkDir = Romizer.squawkDir == null ? new File(".") : Romizer.squawkDir;
+        File[] files = squawkDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (file.isFile() && (name.endsWith(".properties") || name.endsWith(".exclude") || name.equals("build.override"))) {
+                    inputs.add(file.getAbsoluteFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the paths and contents of the files under a set of inputs to a digest, in path order.
+     */
+    private static void updateFiles(MessageDigest digest, SortedSet<File> inputs) throws IOException {
+        List<File> sorted = new ArrayList<File>();
+        for (File input : inputs) {
+            collectFiles(input, sorted);
+        }
+        byte[][] hashes = hashFiles(sorted);
+        for (int i = 0; i != hashes.length; ++i) {
+            update(digest, sorted.get(i).getPath());
+            digest.update(hashes[i]);
+        }
+    }
+
+    /**
+     * Adds the files and directories named by an argument to a set of inputs. The value of an
+     * option may be a path of several entries and a suite may be named without its extension.
+     */
+    private static void addInputs(String arg, Set<File> inputs) {
+        String value = arg;
+        if (arg.startsWith("-")) {
+            for (String option : OUTPUT_OPTIONS) {
+                if (arg.startsWith(option)) {
+                    return;
+                }
+            }
+            int colon = arg.indexOf(':');
+            if (colon == -1) {
+                return;
+            }
+            value = arg.substring(colon + 1);
+        }
+        addPathInputs(value, inputs);
+    }
+
+    private static void addPathInputs(String path, Set<File> inputs) {
+        StringTokenizer st = new StringTokenizer(path, File.pathSeparator);
+        while (st.hasMoreTokens()) {
+            String entry = st.nextToken();
+            File file = new File(entry);
+            if (file.exists()) {
+                inputs.add(file.getAbsoluteFile());
+            } else {
+                file = new File(entry + Suite.FILE_EXTENSION);
+                if (file.exists()) {
+                    inputs.add(file.getAbsoluteFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a file, or all the files under a directory, to a list in path order.
+     */
+    private static void collectFiles(File file, List<File> files) {
+        if (file.isDirectory()) {
+            String[] names = file.list();
+            if (names != null) {
+                Arrays.sort(names);
+                for (String name : names) {
+                    collectFiles(new File(file, name), files);
+                }
+            }
+        } else if (file.isFile()) {
+            files.add(file);
+        }
+    }
+
+    /**
+     * Computes the digests of a list of files using all the available processors.
+     */
+    private static byte[][] hashFiles(List<File> files) throws IOException {
+        int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>(files.size());
+            for (final File file : files) {
+                futures.add(executor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws IOException {
+                        return hashFile(file);
+                    }
+                }));
+            }
+            byte[][] hashes = new byte[files.size()][];
+            for (int i = 0; i != hashes.length; ++i) {
+                hashes[i] = futures.get(i).get();
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            throw new IOException("interrupted while hashing the romizer inputs");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] hashFile(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                digest.update(buf, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Adds a string to a digest, terminated so that adjacent strings cannot run together.
+     */
+    private static void update(MessageDigest digest, String s) {
+        try {
+            digest.update(s.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        digest.update((byte)0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuffer buf = new StringBuffer(bytes.length * 2);
+        for (byte b : bytes) {
+            buf.append(Character.forDigit((b >> 4) & 0xF, 16));
+            buf.append(Character.forDigit(b & 0xF, 16));
+        }
+        return buf.toString();
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                                File helpers                               *
+    \*---------------------------------------------------------------------------*/
+
+    private static void copy(File from, File to) throws IOException {
+        InputStream in = new FileInputStream(from);
+        try {
+            OutputStream out = new FileOutputStream(to);
+            try {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    out.write(buf, 0, n);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void deleteAll(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteAll(f);
+            }
+        }
+        file.delete();
+    }
+}
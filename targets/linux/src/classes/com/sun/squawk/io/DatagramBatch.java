@@ -0,0 +1,101 @@
+package com.sun.squawk.io;
+
+/**
+ * A reusable set of buffers for sending or receiving many datagrams with one
+ * system call, see {@link DatagramSocket#receive(DatagramBatch)} and
+ * {@link DatagramSocket#send(DatagramBatch)}. The datagrams are stored one after
+ * the other in a single byte array, <code>packetSize</code> bytes apart, so no
+ * objects are allocated per datagram.
+ */
+public class DatagramBatch {
+    final byte[] data;
+    final int packetSize;
+    final int[] lengths;
+    final int[] addresses;
+    final int[] ports;
+    int count;
+
+    /**
+     * @param capacity    the maximum number of datagrams in the batch
+     * @param packetSize  the maximum size of a datagram. Longer datagrams are truncated when received.
+     */
+    public DatagramBatch(int capacity, int packetSize) {
+	if (capacity <= 0 || packetSize <= 0) {
+	    throw new IllegalArgumentException();
+	}
+	this.data = new byte[capacity * packetSize];
+	this.packetSize = packetSize;
+	this.lengths = new int[capacity];
+	this.addresses = new int[capacity];
+	this.ports = new int[capacity];
+    }
+
+    public int getCapacity() {
+	return lengths.length;
+    }
+
+    public int getPacketSize() {
+	return packetSize;
+    }
+
+    /**
+     * @return the number of datagrams received, or to be sent
+     */
+    public int getCount() {
+	return count;
+    }
+
+    public void setCount(int count) {
+	if (count < 0 || count > lengths.length) {
+	    throw new IllegalArgumentException();
+	}
+	this.count = count;
+    }
+
+    /**
+     * @return the array holding the data of all the datagrams
+     */
+    public byte[] getData() {
+	return data;
+    }
+
+    /**
+     * @return the offset in {@link #getData()} of datagram <code>i</code>
+     */
+    public int getOffset(int i) {
+	return i * packetSize;
+    }
+
+    public int getLength(int i) {
+	return lengths[i];
+    }
+
+    /**
+     * @return the address datagram <code>i</code> was received from
+     */
+    public int getAddress(int i) {
+	return addresses[i];
+    }
+
+    /**
+     * @return the port datagram <code>i</code> was received from
+     */
+    public int getPort(int i) {
+	return ports[i];
+    }
+
+    /**
+     * Sets the destination and length of a datagram to be sent. Its data has to be
+     * written to {@link #getData()} at {@link #getOffset(int) getOffset(i)}.
+     *
+     * @param addr  the destination address, or 0 for the address the socket is connected to
+     */
+    public void set(int i, int addr, int port, int length) {
+	if (length < 0 || length > packetSize) {
+	    throw new IllegalArgumentException();
+	}
+	addresses[i] = addr;
+	ports[i] = port;
+	lengths[i] = length;
+    }
+}
@@ -10,6 +10,8 @@ public class DatagramSocket extends AbstractSocket {
     private static native int send0(int handle, byte[] buf, int off, int len);
     private static native int send1(int handle, int addr, int port, byte[] buf, int off, int len);
     private static native int receive0(int handle, byte[] buf, int off, int len);
+    private static native int receive2(int handle, byte[] buf, int packetSize, int[] lens, int[] addrs, int[] ports, int count);
+    private static native int send2(int handle, byte[] buf, int packetSize, int[] lens, int[] addrs, int[] ports, int first, int count);
     private int handle;
 	
     public DatagramSocket() throws IOException {
@@ -112,10 +114,57 @@ public class DatagramSocket extends AbstractSocket {
 	    } else if (n == -2) {
 		VM.waitForInterrupt(Events.READ_READY_EVENT);
 	    } else {
-		System.out.println("n="+n);
 		break;
 	    }
 	}
 	return n;
     }
+
+    /**
+     * Receives the datagrams that are waiting, up to the capacity of a batch, with
+     * one system call. Blocks until at least one datagram has arrived.
+     *
+     * @return the number of datagrams received, which is also the count of the batch
+     */
+    public int receive(DatagramBatch batch) throws IOException {
+	if (handle == 0) {
+	    throw new IOException();
+	}
+	int n;
+	while (true) {
+	    n = receive2(handle, batch.data, batch.packetSize, batch.lengths, batch.addresses, batch.ports, batch.lengths.length);
+	    if (n == -1) {
+		throw new IOException();
+	    } else if (n == -2) {
+		VM.waitForInterrupt(Events.READ_READY_EVENT);
+	    } else {
+		break;
+	    }
+	}
+	batch.count = n;
+	return n;
+    }
+
+    /**
+     * Sends the datagrams in a batch with as few system calls as possible.
+     *
+     * @return the number of datagrams sent
+     */
+    public int send(DatagramBatch batch) throws IOException {
+	if (handle == 0) {
+	    throw new IOException();
+	}
+	int sent = 0;
+	while (sent < batch.count) {
+	    int n = send2(handle, batch.data, batch.packetSize, batch.lengths, batch.addresses, batch.ports, sent, batch.count - sent);
+	    if (n == -1) {
+		throw new IOException();
+	    } else if (n == -2) {
+		VM.waitForInterrupt(Events.WRITE_READY_EVENT);
+	    } else {
+		sent += n;
+	    }
+	}
+	return sent;
+    }
 }
@@ -1,14 +1,17 @@
 #include "events.h"
 
+/*
+ * Socket readiness is posted from the SIGIO handler (see net_api.c) to
+ * every thread waiting for it. There are no unbound events.
+ */
 int squawk_event_type(int type) {
-	// TODO
 	return BOUND_EVENT;
 }
 
 int squawk_check_unbound_event(int type, int clear_flag, int *evt) {
-	// do nothing for now
+	return 0;
 }
 
 void squawk_update_event() {
-	// do nothing for now
+	// the events are in the event ring already
 }
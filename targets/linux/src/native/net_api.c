@@ -40,6 +40,7 @@ void sigio_handler(int sig, siginfo_t* info, void *ptr) {
 void install_signal_handler() {
     struct sigaction sa;
 
+    squawk_init_event();
     sigemptyset(&sa.sa_mask);
     sa.sa_flags = SA_RESTART | SA_SIGINFO;
     sa.sa_sigaction = sigio_handler;    
@@ -353,3 +354,89 @@ int Java_com_sun_squawk_io_DatagramSocket_receive0(int handle, void *buf, int of
 	return -1;
     }
 }
+
+/*
+ * The maximum number of datagrams moved by one recvmmsg or sendmmsg call.
+ */
+#define MAX_DATAGRAM_BATCH 64
+
+/*
+ * Receives up to 'count' datagrams with one system call. Datagram i is stored at
+ * buf + i * packetSize, and its length, source address and port are stored in
+ * lens[i], addrs[i] and ports[i].
+ */
+int Java_com_sun_squawk_io_DatagramSocket_receive2(int handle, void *buf, int packetSize, int *lens, int *addrs, int *ports, int count) {
+    struct mmsghdr msgs[MAX_DATAGRAM_BATCH];
+    struct iovec iovs[MAX_DATAGRAM_BATCH];
+    struct sockaddr_in from[MAX_DATAGRAM_BATCH];
+    int i, n;
+
+    if (count > MAX_DATAGRAM_BATCH) {
+	count = MAX_DATAGRAM_BATCH;
+    }
+    memset(msgs, 0, count * sizeof(struct mmsghdr));
+    for (i = 0; i < count; i++) {
+	iovs[i].iov_base = (char*)buf + i * packetSize;
+	iovs[i].iov_len = packetSize;
+	msgs[i].msg_hdr.msg_iov = &iovs[i];
+	msgs[i].msg_hdr.msg_iovlen = 1;
+	msgs[i].msg_hdr.msg_name = &from[i];
+	msgs[i].msg_hdr.msg_namelen = sizeof(from[i]);
+    }
+    n = recvmmsg(handle, msgs, count, 0, NULL);
+    if (n == -1) {
+	if (errno == EAGAIN || errno == EWOULDBLOCK) {
+	    return -2;
+	} else {
+	    fprintf(stderr, "recvmmsg failed %d\n", errno);
+	    return -1;
+	}
+    }
+    for (i = 0; i < n; i++) {
+	lens[i] = msgs[i].msg_len;
+	addrs[i] = from[i].sin_addr.s_addr;
+	ports[i] = ntohs(from[i].sin_port);
+    }
+    return n;
+}
+
+/*
+ * Sends datagrams first to first + count - 1 with one system call. Datagram i is
+ * lens[i] bytes at buf + i * packetSize, and is sent to addrs[i] and ports[i], or
+ * to the connected address if addrs[i] is 0.
+ */
+int Java_com_sun_squawk_io_DatagramSocket_send2(int handle, void *buf, int packetSize, int *lens, int *addrs, int *ports, int first, int count) {
+    struct mmsghdr msgs[MAX_DATAGRAM_BATCH];
+    struct iovec iovs[MAX_DATAGRAM_BATCH];
+    struct sockaddr_in to[MAX_DATAGRAM_BATCH];
+    int i, n;
+
+    if (count > MAX_DATAGRAM_BATCH) {
+	count = MAX_DATAGRAM_BATCH;
+    }
+    memset(msgs, 0, count * sizeof(struct mmsghdr));
+    for (i = 0; i < count; i++) {
+	int k = first + i;
+	iovs[i].iov_base = (char*)buf + k * packetSize;
+	iovs[i].iov_len = lens[k];
+	msgs[i].msg_hdr.msg_iov = &iovs[i];
+	msgs[i].msg_hdr.msg_iovlen = 1;
+	if (addrs[k] != 0) {
+	    to[i].sin_family = AF_INET;
+	    to[i].sin_addr.s_addr = addrs[k];
+	    to[i].sin_port = htons((unsigned short)ports[k]);
+	    msgs[i].msg_hdr.msg_name = &to[i];
+	    msgs[i].msg_hdr.msg_namelen = sizeof(to[i]);
+	}
+    }
+    n = sendmmsg(handle, msgs, count, 0);
+    if (n != -1) {
+	return n;
+    }
+    if (errno == EAGAIN || errno == EWOULDBLOCK) {
+	return -2;
+    } else {
+	fprintf(stderr, "sendmmsg failed %d\n", errno);
+	return -1;
+    }
+}
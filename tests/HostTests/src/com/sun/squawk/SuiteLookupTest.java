@@ -0,0 +1,206 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk;
+
+import java.io.PrintStream;
+import java.util.Random;
+
+import static com.sun.squawk.TestThreads.allocate;
+import static com.sun.squawk.TestThreads.check;
+import static com.sun.squawk.TestThreads.setField;
+
+/**
+ * Tests the lookup of classes by name in open suites, which scans the classes, and in
+ * closed suites, which does a binary search of the sorted name index.
+ */
+public class SuiteLookupTest {
+
+    public static void main(String[] args) {
+        boot();
+        testOpenAndClosed();
+        testMissing();
+        testOmittedPrefixes();
+        testParent();
+        testRandom(1);
+        testRandom(2);
+        testRandom(3);
+    }
+
+    /**
+     * A translator that loads nothing. The tests only need the bootstrap classes
+     * to exist, not their methods.
+     */
+    static class NullTranslator implements TranslatorInterface {
+        public void open(Suite suite, String classPath) {}
+        public boolean isValidClassName(String name) { return true; }
+        public String getLastClassName() { return null; }
+        public void load(Klass klass) {}
+        public void convert(Klass klass) {}
+        public void close(int type) {}
+        public byte[] getResourceData(String name) { return null; }
+        public void printTraceFlags(PrintStream out) {}
+        public void printOptionProperties(PrintStream out, boolean asParameters) {}
+        public boolean processOption(String arg) { return false; }
+        public boolean isOption(String arg) { return false; }
+    }
+
+    /**
+     * Sets up a hosted isolate the way the romizer does, so that the bootstrap
+     * classes are created in its suite when Klass is initialized.
+     */
+    static void boot() {
+        VM.setCurrentIsolate(null);
+        Isolate isolate = new Isolate(null, null, new Suite("bootstrap", null, Suite.LIBRARY));
+        VM.setCurrentIsolate(isolate);
+        isolate.setTranslator(new NullTranslator());
+    }
+
+    /**
+     * Creates a class with a given name. Only the name is set.
+     */
+    static Klass newKlass(String name) {
+        Klass klass = (Klass)allocate(Klass.class);
+        setField(klass, "name", name);
+        return klass;
+    }
+
+    /**
+     * Creates an open suite holding classes with the given names, in the given order.
+     * Null names leave empty slots, like the unused system class IDs of a real suite.
+     */
+    static Suite newSuite(Suite parent, String[] names) {
+        Suite suite = new Suite("test", parent, Suite.APPLICATION);
+        Klass[] classes = new Klass[names.length];
+        for (int i = 0; i != names.length; i++) {
+            if (names[i] != null) {
+                classes[i] = newKlass(names[i]);
+            }
+        }
+        setField(suite, "classes", classes);
+        return suite;
+    }
+
+    /**
+     * Every class is found by name, with the same result before and after the suite is closed.
+     * Once closed, the classes are only found through the index.
+     */
+    static void testOpenAndClosed() {
+        String[] names = { "java.lang.String", null, "a.B", "java.lang.Object", "[I", null, "z.Last", "com.sun.squawk.VM" };
+        Suite suite = newSuite(null, names);
+        Klass[] open = new Klass[names.length];
+        for (int i = 0; i != names.length; i++) {
+            if (names[i] != null) {
+                open[i] = suite.lookup(names[i]);
+                check("open: " + names[i], open[i] != null && open[i].getInternalName().equals(names[i]));
+            }
+        }
+        suite.close();
+        setField(suite, "classes", new Klass[0]); // leave only the sorted index to search
+        for (int i = 0; i != names.length; i++) {
+            if (names[i] != null) {
+                check("closed: " + names[i], suite.lookup(names[i]) == open[i]);
+            }
+        }
+    }
+
+    /**
+     * Names before the first, after the last and between two classes are not found.
+     */
+    static void testMissing() {
+        Suite suite = newSuite(null, new String[] { "b", "d", "f" });
+        suite.close();
+        String[] missing = { "", "a", "c", "e", "g", "bb", "d.", "f0" };
+        for (int i = 0; i != missing.length; i++) {
+            check("missing: \"" + missing[i] + "\"", suite.lookup(missing[i]) == null);
+        }
+
+        Suite empty = newSuite(null, new String[] { null, null });
+        empty.close();
+        check("missing: empty suite", empty.lookup("a") == null);
+    }
+
+    /**
+     * Classes left out of the index with a prefix are no longer found, the others still are.
+     */
+    static void testOmittedPrefixes() {
+        String[] names = { "com.sun.squawk.VM", "[com.sun.squawk.Klass", "com.sun.cldc.jna.Pointer", "java.lang.Object", "[java.lang.Object" };
+        Suite suite = newSuite(null, names);
+        suite.close();
+        suite.indexClassNames(new String[] { "com.sun.squawk.", "[com.sun.squawk." });
+        check("omitted: VM", suite.lookup("com.sun.squawk.VM") == null);
+        check("omitted: Klass array", suite.lookup("[com.sun.squawk.Klass") == null);
+        check("omitted: Pointer", suite.lookup("com.sun.cldc.jna.Pointer") != null);
+        check("omitted: Object", suite.lookup("java.lang.Object") != null);
+        check("omitted: Object array", suite.lookup("[java.lang.Object") != null);
+    }
+
+    /**
+     * The parent suite is searched first, and the child's own classes are still found.
+     */
+    static void testParent() {
+        Suite parent = newSuite(null, new String[] { "java.lang.Object", "p.Shared" });
+        parent.close();
+        Suite child = newSuite(parent, new String[] { "c.Own", "p.Shared" });
+        Klass parentShared = parent.lookup("p.Shared");
+        for (int pass = 0; pass != 2; pass++) {
+            String state = pass == 0 ? "open" : "closed";
+            check("parent " + state + ": Object", child.lookup("java.lang.Object") == parent.lookup("java.lang.Object"));
+            check("parent " + state + ": shared", child.lookup("p.Shared") == parentShared);
+            check("parent " + state + ": own", child.lookup("c.Own") != null && child.lookup("c.Own").getInternalName().equals("c.Own"));
+            check("parent " + state + ": missing", child.lookup("c.Other") == null);
+            child.close();
+        }
+    }
+
+    /**
+     * A closed suite finds the same classes as the scan of an open suite, for random names.
+     */
+    static void testRandom(long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[200];
+        for (int i = 0; i != names.length; i++) {
+            names[i] = random.nextInt(4) == 0 ? null : randomName(random) + i; // the suffix keeps the names unique
+        }
+        Suite open = newSuite(null, names);
+        Suite closed = newSuite(null, names);
+        closed.close();
+        for (int i = 0; i != 2000; i++) {
+            String name = random.nextBoolean() && names[i % names.length] != null ? names[i % names.length] : randomName(random);
+            Klass expected = open.lookup(name);
+            Klass actual = closed.lookup(name);
+            check("random " + seed + ": " + name, expected == null ? actual == null : actual != null && actual.getInternalName().equals(name));
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuffer sb = new StringBuffer();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i != length; i++) {
+            sb.append("ab.[$Z".charAt(random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Creates VMThread instances for tests that run on the host JVM.
+ * The threads are allocated without running a constructor, as their
+ * constructors need a running VM. Only the fields used by the queues are set.
+ */
+class TestThreads {
+
+    private static Object unsafe;
+    private static Method allocateInstance;
+
+    private TestThreads() {
+    }
+
+    /**
+     * Creates a thread.
+     *
+     * @param priority the priority of the thread
+     * @return the thread
+     */
+    static VMThread newThread(int priority) {
+        VMThread thread = (VMThread)allocate(VMThread.class);
+        thread.priority = (byte)priority;
+        return thread;
+    }
+
+    /**
+     * Allocates an object without running a constructor.
+     *
+     * @param klass the class of the object
+     * @return the object
+     */
+    static Object allocate(Class<?> klass) {
+        try {
+            if (unsafe == null) {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field f = unsafeClass.getDeclaredField("theUnsafe");
+                f.setAccessible(true);
+                unsafe = f.get(null);
+                allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+            }
+            return allocateInstance.invoke(unsafe, klass);
+        } catch (Exception e) {
+            throw new RuntimeException(e.toString());
+        }
+    }
+
+    /**
+     * Sets a private field of an object.
+     *
+     * @param object the object
+     * @param name   the name of the field
+     * @param value  the new value of the field
+     */
+    static void setField(Object object, String name, Object value) {
+        try {
+            Field f = object.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(object, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e.toString());
+        }
+    }
+
+    /**
+     * Fails the test if a check does not hold.
+     *
+     * @param name the name of the check
+     * @param ok   the result of the check
+     */
+    static void check(String name, boolean ok) {
+        if (!ok) {
+            throw new RuntimeException("Check failed: " + name);
+        }
+    }
+}
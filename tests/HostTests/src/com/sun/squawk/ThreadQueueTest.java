@@ -0,0 +1,184 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk;
+
+import java.util.Random;
+
+import static com.sun.squawk.TestThreads.allocate;
+import static com.sun.squawk.TestThreads.check;
+import static com.sun.squawk.TestThreads.newThread;
+import static com.sun.squawk.TestThreads.setField;
+
+/**
+ * Tests the per-priority run queues of ThreadQueue and their occupancy bitmap.
+ */
+public class ThreadQueueTest {
+
+    private final static int MIN_PRIORITY = 1;
+    private final static int MAX_PRIORITY = VMThread.REAL_MAX_SYS_PRIORITY;
+
+    public static void main(String[] args) {
+        testOrder();
+        testSystemThreadsOnly();
+        testCopyAPIThreads();
+        testPrune();
+        testRandom(1);
+        testRandom(2);
+        testRandom(3);
+    }
+
+    /**
+     * Higher priorities come first, and threads of the same priority in the order they were added.
+     */
+    static void testOrder() {
+        ThreadQueue q = new ThreadQueue();
+        VMThread[][] threads = new VMThread[MAX_PRIORITY + 1][3];
+        for (int i = 0; i != 3; i++) {
+            for (int p = MIN_PRIORITY; p <= MAX_PRIORITY; p++) {
+                threads[p][i] = newThread(p);
+                q.add(threads[p][i]);
+            }
+        }
+        check("order: size", q.size() == MAX_PRIORITY * 3);
+        for (int p = MAX_PRIORITY; p >= MIN_PRIORITY; p--) {
+            for (int i = 0; i != 3; i++) {
+                VMThread thread = q.next();
+                check("order: priority " + p + " thread " + i, thread == threads[p][i]);
+                check("order: unlinked", thread.nextThread == null);
+            }
+        }
+        check("order: empty", q.next() == null && q.size() == 0);
+
+        // A level that was emptied is used again.
+        VMThread a = newThread(5);
+        q.add(a);
+        check("order: reused level", q.next() == a && q.next() == null);
+    }
+
+    /**
+     * While only system threads may run, user priority threads stay in the queue.
+     */
+    static void testSystemThreadsOnly() {
+        ThreadQueue q = new ThreadQueue();
+        VMThread user = newThread(VMThread.MAX_PRIORITY);
+        VMThread system = newThread(VMThread.MAX_PRIORITY + 1);
+        q.add(user);
+        q.add(system);
+        VMThread.systemThreadsOnly = true;
+        try {
+            check("system only: system", q.next() == system);
+            check("system only: user held", q.next() == null && q.size() == 1);
+        } finally {
+            VMThread.systemThreadsOnly = false;
+        }
+        check("system only: user", q.next() == user);
+    }
+
+    /**
+     * The API threads are copied in scheduling order.
+     */
+    static void testCopyAPIThreads() {
+        ThreadQueue q = new ThreadQueue();
+        int[] priorities = {3, 7, 3, 12, 1};
+        int[] order = {3, 1, 0, 2, 4};
+        Thread[] apiThreads = new Thread[priorities.length];
+        for (int i = 0; i != priorities.length; i++) {
+            VMThread thread = newThread(priorities[i]);
+            apiThreads[i] = new Thread();
+            setField(thread, "apiThread", apiThreads[i]);
+            q.add(thread);
+        }
+        Thread[] result = new Thread[q.size()];
+        q.copyAPIThreadsInto(result);
+        for (int i = 0; i != order.length; i++) {
+            check("copy: " + i, result[i] == apiThreads[order[i]]);
+        }
+    }
+
+    /**
+     * Pruning removes the threads of one isolate and keeps the others in order.
+     */
+    static void testPrune() {
+        Isolate a = (Isolate)allocate(Isolate.class);
+        Isolate b = (Isolate)allocate(Isolate.class);
+        ThreadQueue q = new ThreadQueue();
+        VMThread[] threads = new VMThread[12];
+        for (int i = 0; i != threads.length; i++) {
+            threads[i] = newThread(i % 2 == 0 ? 5 : 8);
+            setField(threads[i], "isolate", i % 3 == 0 ? a : b);
+            q.add(threads[i]);
+        }
+        q.prune(a);
+        check("prune: size", q.size() == 8);
+        int[] order = {1, 5, 7, 11, 2, 4, 8, 10};
+        for (int i = 0; i != order.length; i++) {
+            check("prune: " + i, q.next() == threads[order[i]]);
+        }
+        check("prune: empty", q.next() == null);
+    }
+
+    /**
+     * Random adds and removes, checked against a list per priority.
+     *
+     * @param seed the seed of the random sequence
+     */
+    static void testRandom(long seed) {
+        Random random = new Random(seed);
+        ThreadQueue q = new ThreadQueue();
+        java.util.LinkedList<VMThread>[] expected = newLists();
+        int size = 0;
+        for (int step = 0; step != 50000; step++) {
+            if (random.nextInt(3) != 0) {
+                int p = MIN_PRIORITY + random.nextInt(MAX_PRIORITY);
+                VMThread thread = newThread(p);
+                q.add(thread);
+                expected[p].addLast(thread);
+                size++;
+            } else {
+                VMThread thread = q.next();
+                VMThread first = null;
+                for (int p = MAX_PRIORITY; p >= MIN_PRIORITY; p--) {
+                    if (!expected[p].isEmpty()) {
+                        first = expected[p].removeFirst();
+                        size--;
+                        break;
+                    }
+                }
+                check("random: next", thread == first);
+            }
+            check("random: size", q.size() == size);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static java.util.LinkedList<VMThread>[] newLists() {
+        java.util.LinkedList<VMThread>[] lists = new java.util.LinkedList[MAX_PRIORITY + 1];
+        for (int p = 0; p != lists.length; p++) {
+            lists[p] = new java.util.LinkedList<VMThread>();
+        }
+        return lists;
+    }
+}
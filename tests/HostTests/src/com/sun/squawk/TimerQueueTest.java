@@ -0,0 +1,249 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk;
+
+import java.util.Random;
+
+import static com.sun.squawk.TestThreads.check;
+import static com.sun.squawk.TestThreads.newThread;
+
+/**
+ * Tests the timer wheel in TimerQueue against a list of wake up times.
+ * The clock is passed in explicitly, so the tests do not depend on real time.
+ */
+public class TimerQueueTest {
+
+    /**
+     * The ticks per revolution of the wheel times the milliseconds per tick.
+     */
+    private final static long REVOLUTION = 64 * 16;
+
+    public static void main(String[] args) {
+        testOrder();
+        testCollisions();
+        testRemove();
+        testForever();
+        testAdjustWaits();
+        testClockSetBack();
+        testRandom(1);
+        testRandom(2);
+        testRandom(3);
+    }
+
+    /**
+     * Threads come out once they are due and not before, whatever order they were added in.
+     */
+    static void testOrder() {
+        TimerQueue q = new TimerQueue();
+        long now = 10000;
+        long[] deltas = {500, 20, 3000, 1, 20, 1023, 1024, 1025, 70000};
+        VMThread[] threads = new VMThread[deltas.length];
+        for (int i = 0; i != deltas.length; i++) {
+            threads[i] = newThread(5);
+            q.add(threads[i], deltas[i], now);
+        }
+        check("order: nothing due", q.next(now) == null);
+        check("order: nextDelta", q.nextDelta(now) == 1);
+        long[] sorted = (long[])deltas.clone();
+        java.util.Arrays.sort(sorted);
+        int seen = 0;
+        for (long t = now; t <= now + 70000; t++) {
+            VMThread thread;
+            while ((thread = q.next(t)) != null) {
+                int i = indexOf(threads, thread);
+                check("order: due at " + t, now + deltas[i] <= t);
+                check("order: late at " + t, now + deltas[i] == t);
+                check("order: time cleared", thread.time == 0);
+                threads[i] = null;
+                seen++;
+            }
+        }
+        check("order: all seen", seen == deltas.length);
+        check("order: empty", q.nextDelta(now) == Long.MAX_VALUE);
+    }
+
+    /**
+     * Threads that hash to the same bucket but are one or more revolutions apart.
+     */
+    static void testCollisions() {
+        TimerQueue q = new TimerQueue();
+        long now = 0;
+        VMThread a = newThread(5);
+        VMThread b = newThread(5);
+        VMThread c = newThread(5);
+        q.add(c, 5 + 2 * REVOLUTION, now);
+        q.add(a, 5, now);
+        q.add(b, 5 + REVOLUTION, now);
+        check("collisions: a", q.next(5) == a && q.next(5) == null);
+        check("collisions: nextDelta b", q.nextDelta(5) == REVOLUTION);
+        check("collisions: not b", q.next(5 + REVOLUTION - 1) == null);
+        check("collisions: b", q.next(5 + REVOLUTION) == b && q.next(5 + REVOLUTION) == null);
+        check("collisions: nextDelta c", q.nextDelta(5 + REVOLUTION) == REVOLUTION);
+
+        // Skipping several revolutions at once still finds the thread.
+        check("collisions: c", q.next(100 * REVOLUTION) == c);
+        check("collisions: empty", q.next(100 * REVOLUTION) == null);
+    }
+
+    /**
+     * Removing threads from the middle and the head of a bucket.
+     */
+    static void testRemove() {
+        TimerQueue q = new TimerQueue();
+        VMThread a = newThread(5);
+        VMThread b = newThread(5);
+        VMThread c = newThread(5);
+        q.add(a, 100, 0);
+        q.add(b, 101, 0);
+        q.add(c, 102, 0);
+        q.remove(b);
+        check("remove: time cleared", b.time == 0 && b.nextTimerThread == null && b.prevTimerThread == null);
+        q.remove(b);
+        q.remove(c);
+        check("remove: nextDelta is a lower bound", q.nextDelta(0) <= 100);
+        check("remove: a", q.next(200) == a && q.next(200) == null);
+        check("remove: empty", q.nextDelta(200) == Long.MAX_VALUE);
+    }
+
+    /**
+     * Threads that wait forever are never due, even when the time delta overflows.
+     */
+    static void testForever() {
+        TimerQueue q = new TimerQueue();
+        VMThread a = newThread(5);
+        VMThread b = newThread(5);
+        q.add(a, Long.MAX_VALUE, 1000);
+        q.add(b, Long.MAX_VALUE - 10, 1000);
+        check("forever: time", a.time == Long.MAX_VALUE && b.time == Long.MAX_VALUE);
+        check("forever: nextDelta", q.nextDelta(1000) == Long.MAX_VALUE);
+        check("forever: not due", q.next(Long.MAX_VALUE - 1) == null);
+        q.remove(a);
+        q.remove(b);
+        check("forever: empty", q.nextDelta(1000) == Long.MAX_VALUE);
+    }
+
+    /**
+     * Moving the wake up times back after the clock has been set back.
+     */
+    static void testAdjustWaits() {
+        TimerQueue q = new TimerQueue();
+        VMThread a = newThread(5);
+        VMThread b = newThread(5);
+        q.add(a, 50, 5000);
+        q.add(b, 3000, 5000);
+        q.adjustWaits(-4000);
+        check("adjustWaits: a", a.time == 1050);
+        check("adjustWaits: b", b.time == 4000);
+        check("adjustWaits: not due", q.next(1049) == null);
+        check("adjustWaits: a due", q.next(1050) == a);
+        check("adjustWaits: b due", q.next(4000) == b);
+
+        VMThread c = newThread(5);
+        q.add(c, 10, 100);
+        q.adjustWaits(-1000);
+        check("adjustWaits: clamped", c.time == 1);
+        check("adjustWaits: c due", q.next(1) == c);
+    }
+
+    /**
+     * The clock going backwards does not lose threads.
+     */
+    static void testClockSetBack() {
+        TimerQueue q = new TimerQueue();
+        VMThread a = newThread(5);
+        VMThread b = newThread(5);
+        q.add(a, 5000, 100000);
+        check("set back: nothing due", q.next(100000) == null);
+        q.add(b, 10, 2000);
+        check("set back: b", q.next(2010) == b);
+        check("set back: a", q.next(105000) == a);
+    }
+
+    /**
+     * Random adds, removes and clock steps, checked against a list of wake up times.
+     *
+     * @param seed the seed of the random sequence
+     */
+    static void testRandom(long seed) {
+        Random random = new Random(seed);
+        TimerQueue q = new TimerQueue();
+        VMThread[] threads = new VMThread[200];
+        long[] due = new long[threads.length];
+        for (int i = 0; i != threads.length; i++) {
+            threads[i] = newThread(5);
+        }
+        long now = random.nextInt(1 << 20);
+        for (int step = 0; step != 20000; step++) {
+            int i = random.nextInt(threads.length);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1: {
+                    if (due[i] == 0) {
+                        long delta = random.nextBoolean() ? random.nextInt(100) : random.nextInt(5000);
+                        q.add(threads[i], delta, now);
+                        due[i] = now + delta;
+                    }
+                    break;
+                }
+                case 2: {
+                    q.remove(threads[i]);
+                    due[i] = 0;
+                    break;
+                }
+                case 3: {
+                    long earliest = Long.MAX_VALUE;
+                    for (int j = 0; j != due.length; j++) {
+                        if (due[j] != 0 && due[j] < earliest) {
+                            earliest = due[j];
+                        }
+                    }
+                    long delta = q.nextDelta(now);
+                    check("random: nextDelta is a lower bound", earliest == Long.MAX_VALUE ? delta == Long.MAX_VALUE : now + delta <= Math.max(earliest, now));
+                    now += random.nextInt(300);
+                    VMThread thread;
+                    while ((thread = q.next(now)) != null) {
+                        int j = indexOf(threads, thread);
+                        check("random: due", due[j] != 0 && due[j] <= now);
+                        due[j] = 0;
+                    }
+                    for (int j = 0; j != due.length; j++) {
+                        check("random: not missed", due[j] == 0 || due[j] > now);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int indexOf(VMThread[] threads, VMThread thread) {
+        for (int i = 0; i != threads.length; i++) {
+            if (threads[i] == thread) {
+                return i;
+            }
+        }
+        throw new RuntimeException("Unknown thread");
+    }
+}
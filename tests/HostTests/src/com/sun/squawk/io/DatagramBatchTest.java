@@ -0,0 +1,137 @@
+/*
+ * Copyright 2004-2010 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.io;
+
+/**
+ * Tests the buffer layout and argument checks of the Linux DatagramBatch. The batch
+ * is plain Java, so runhosttests.sh compiles it from the Linux target sources.
+ */
+public class DatagramBatchTest {
+
+    public static void main(String[] args) {
+        testLayout();
+        testSet();
+        testCount();
+        testConstructor();
+    }
+
+    /**
+     * The datagrams are packetSize bytes apart in one array of capacity * packetSize bytes.
+     */
+    static void testLayout() {
+        DatagramBatch batch = new DatagramBatch(4, 100);
+        check("layout: capacity", batch.getCapacity() == 4);
+        check("layout: packet size", batch.getPacketSize() == 100);
+        check("layout: data length", batch.getData().length == 400);
+        check("layout: empty", batch.getCount() == 0);
+        for (int i = 0; i != 4; i++) {
+            check("layout: offset " + i, batch.getOffset(i) == i * 100);
+        }
+        check("layout: same array", batch.getData() == batch.getData());
+    }
+
+    /**
+     * set() records the destination and length of a datagram and rejects bad lengths.
+     */
+    static void testSet() {
+        DatagramBatch batch = new DatagramBatch(3, 16);
+        batch.set(0, 0x7F000001, 1234, 0);
+        batch.set(2, 0, 80, 16);
+        check("set: address 0", batch.getAddress(0) == 0x7F000001);
+        check("set: port 0", batch.getPort(0) == 1234);
+        check("set: length 0", batch.getLength(0) == 0);
+        check("set: connected address", batch.getAddress(2) == 0);
+        check("set: port 2", batch.getPort(2) == 80);
+        check("set: full length", batch.getLength(2) == 16);
+        check("set: untouched", batch.getLength(1) == 0 && batch.getPort(1) == 0);
+
+        checkIllegal("set: too long", new Runnable() {
+            public void run() {
+                new DatagramBatch(1, 16).set(0, 0, 0, 17);
+            }
+        });
+        checkIllegal("set: negative", new Runnable() {
+            public void run() {
+                new DatagramBatch(1, 16).set(0, 0, 0, -1);
+            }
+        });
+    }
+
+    /**
+     * The count can be anything from 0 to the capacity.
+     */
+    static void testCount() {
+        final DatagramBatch batch = new DatagramBatch(5, 8);
+        batch.setCount(5);
+        check("count: full", batch.getCount() == 5);
+        batch.setCount(0);
+        check("count: reset", batch.getCount() == 0);
+        checkIllegal("count: over capacity", new Runnable() {
+            public void run() {
+                batch.setCount(6);
+            }
+        });
+        checkIllegal("count: negative", new Runnable() {
+            public void run() {
+                batch.setCount(-1);
+            }
+        });
+        check("count: unchanged", batch.getCount() == 0);
+    }
+
+    /**
+     * A batch must hold at least one datagram of at least one byte.
+     */
+    static void testConstructor() {
+        int[][] bad = { { 0, 10 }, { 10, 0 }, { -1, 10 }, { 10, -1 } };
+        for (int i = 0; i != bad.length; i++) {
+            final int capacity = bad[i][0];
+            final int packetSize = bad[i][1];
+            checkIllegal("constructor: " + capacity + ", " + packetSize, new Runnable() {
+                public void run() {
+                    new DatagramBatch(capacity, packetSize);
+                }
+            });
+        }
+        DatagramBatch one = new DatagramBatch(1, 1);
+        check("constructor: smallest", one.getData().length == 1);
+    }
+
+    private static void checkIllegal(String name, Runnable r) {
+        try {
+            r.run();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new RuntimeException("Check failed: " + name + " did not throw IllegalArgumentException");
+    }
+
+    private static void check(String name, boolean ok) {
+        if (!ok) {
+            throw new RuntimeException("Check failed: " + name);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package tests;
+
+import com.sun.squawk.VM;
+import com.sun.squawk.platform.GCFSockets;
+import com.sun.squawk.platform.Platform;
+import java.io.*;
+
+/**
+ * Measures the throughput of a loopback socket, and counts the objects allocated while
+ * doing so, which should be none once the connection is set up.
+ *
+ * A writer thread sends blocks of data and the main thread reads them back. Each block
+ * is read and written at a non-zero offset, as a buffered stream would do it. Then the
+ * same is done with each block split into a header and a body that are sent with one
+ * writev and received with one readv.
+ *
+ * To run:
+ * <pre>
+ *   squawk -suite:tests/TestSockets/TestSockets tests.SocketThroughputBenchmark [port [megabytes [blocksize]]]
+ * </pre>
+ * The defaults are port 9100, 64 megabytes and 8192 byte blocks. Objects are counted by
+ * {@link VM.Stats}, so the VM has to be built with ENABLE_VM_STATISTICS=true in build.properties.
+ */
+public class SocketThroughputBenchmark {
+
+    private static final int HEADER = 16;
+
+    private static final GCFSockets sockets = Platform.getGCFSockets();
+
+    /**
+     * Sends a number of bytes to a socket.
+     */
+    static class Writer implements Runnable {
+        private final int fd;
+        private final long total;
+        private final boolean gather;
+        private final byte[] header = new byte[HEADER + 1];
+        private final byte[] body;
+        private final byte[][] bufs;
+        private final int[] offs = new int[2];
+        private final int[] lens = new int[2];
+        IOException failure;
+
+        Writer(int fd, long total, int blockSize, boolean gather) {
+            this.fd = fd;
+            this.total = total;
+            this.gather = gather;
+            body = new byte[blockSize + 1];
+            for (int i = 0; i < body.length; i++) {
+                body[i] = (byte)i;
+            }
+            bufs = new byte[][] {header, body};
+        }
+
+        public void run() {
+            try {
+                long sent = 0;
+                int blockSize = body.length - 1;
+                while (sent < total) {
+                    if (gather) {
+                        offs[0] = 1;
+                        lens[0] = HEADER;
+                        offs[1] = 1;
+                        lens[1] = blockSize - HEADER;
+                        while (lens[0] + lens[1] > 0) {
+                            int n = sockets.writev(fd, bufs, offs, lens);
+                            sent += n;
+                            advance(offs, lens, n);
+                        }
+                    } else {
+                        int off = 1;
+                        while (off <= blockSize) {
+                            int n = sockets.writeBuf(fd, body, off, blockSize + 1 - off);
+                            sent += n;
+                            off += n;
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+    }
+
+    /**
+     * Moves the offsets and lengths of a pair of buffers past the bytes that have been transferred.
+     */
+    static void advance(int[] offs, int[] lens, int n) {
+        for (int i = 0; i < offs.length && n > 0; i++) {
+            int k = Math.min(n, lens[i]);
+            offs[i] += k;
+            lens[i] -= k;
+            n -= k;
+        }
+    }
+
+    /**
+     * Sends a number of bytes over a loopback connection and reads them back.
+     */
+    private static void run(int server, long total, int blockSize, boolean gather) throws IOException {
+        int client = sockets.open("localhost", port, 0);
+        int conn = sockets.accept(server);
+        Writer writer = new Writer(client, total, blockSize, gather);
+        Thread thread = new Thread(writer, "Writer");
+
+        byte[] header = new byte[HEADER + 1];
+        byte[] body = new byte[blockSize + 1];
+        byte[][] bufs = {header, body};
+        int[] offs = new int[2];
+        int[] lens = new int[2];
+
+        /*
+         * Let the connection and the threads settle, then count from the first block on.
+         */
+        thread.start();
+        Thread.yield();
+        int objects = VM.Stats.getObjectsAllocatedTotal();
+        long start = System.currentTimeMillis();
+
+        long received = 0;
+        while (received < total) {
+            int n;
+            if (gather) {
+                offs[0] = 1;
+                lens[0] = HEADER;
+                offs[1] = 1;
+                lens[1] = blockSize - HEADER;
+                n = sockets.readv(conn, bufs, offs, lens);
+            } else {
+                n = sockets.readBuf(conn, body, 1, blockSize);
+            }
+            if (n < 0) {
+                throw new EOFException();
+            }
+            received += n;
+        }
+
+        long time = System.currentTimeMillis() - start;
+        objects = VM.Stats.getObjectsAllocatedTotal() - objects;
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            ex.printStackTrace();
+        }
+        if (writer.failure != null) {
+            throw writer.failure;
+        }
+        sockets.close(conn);
+        sockets.close(client);
+
+        System.out.println("    " + (gather ? "readv/writev:    " : "readBuf/writeBuf: ") + (total >> 20) + "MB in " + time + "ms, " +
+                (time == 0 ? 0 : (total * 1000 / time) >> 10) + "KB/s, " + objects + " objects allocated");
+    }
+
+    private static int port;
+
+    /**
+     * @param args [port [megabytes [blocksize]]]
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        port = args.length > 0 ? Integer.parseInt(args[0]) : 9100;
+        long total = (long)(args.length > 1 ? Integer.parseInt(args[1]) : 64) << 20;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : 8192;
+        if (blockSize <= HEADER) {
+            throw new IllegalArgumentException("block size must be more than " + HEADER);
+        }
+        total -= total % blockSize; // so that the reader gets exactly what is sent
+
+        System.out.println("GCFSockets: " + sockets.getClass().getName() + ", " + blockSize + " byte blocks");
+        int server = sockets.openServer(port, 1);
+        run(server, total, blockSize, false);
+        run(server, total, blockSize, true);
+        sockets.close(server);
+    }
+}
@@ -0,0 +1,166 @@
+package tests;
+
+import com.sun.squawk.VMThread;
+import java.io.*;
+import javax.microedition.io.*;
+
+/**
+ * Measures how waiting for socket events scales with the number of open connections.
+ *
+ * For each number of connections, that many loopback connections are opened, each with
+ * an echo thread on the server side that is blocked waiting to read. Then:
+ * <ul>
+ *   <li> idle: one client does round trips of one byte while all the other connections are idle
+ *   <li> active: every client does round trips at the same time
+ * </ul>
+ *
+ * To run:
+ * <pre>
+ *   squawk -Xmx:64M -suite:tests/TestSockets/TestSockets tests.SystemEventsBenchmark [port [rounds [connections...]]]
+ * </pre>
+ * The defaults are port 9000, 10000 rounds and 10, 1000 and 5000 connections. Each connection
+ * uses two file descriptors, so the open file limit (ulimit -n) has to be raised for 5000.
+ * Build with EPOLL_SYSTEM_EVENTS=false in build.properties to measure the select backend, which
+ * skips the connection counts that do not fit in an fd_set.
+ */
+public class SystemEventsBenchmark {
+
+    /**
+     * The server side of a connection, which echoes each byte back.
+     */
+    static class Echo implements Runnable {
+        private final StreamConnection conn;
+
+        Echo(StreamConnection conn) {
+            this.conn = conn;
+        }
+
+        public void run() {
+            try {
+                InputStream in = conn.openInputStream();
+                OutputStream out = conn.openOutputStream();
+                int b;
+                while ((b = in.read()) != -1) {
+                    out.write(b);
+                    out.flush();
+                }
+                in.close();
+                out.close();
+                conn.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private static StreamConnection[] clients;
+    private static InputStream[] ins;
+    private static OutputStream[] outs;
+
+    private static void open(int port, int n) throws IOException {
+        StreamConnectionNotifier server = (StreamConnectionNotifier) Connector.open("socket://:" + port);
+        clients = new StreamConnection[n];
+        ins = new InputStream[n];
+        outs = new OutputStream[n];
+        for (int i = 0; i < n; i++) {
+            clients[i] = (StreamConnection) Connector.open("socket://localhost:" + port);
+            ins[i] = clients[i].openInputStream();
+            outs[i] = clients[i].openOutputStream();
+            new Thread(new Echo(server.acceptAndOpen()), "Echo " + i).start();
+        }
+        server.close();
+    }
+
+    private static void close() throws IOException {
+        for (int i = 0; i < clients.length; i++) {
+            ins[i].close();
+            outs[i].close();
+            clients[i].close();
+        }
+        clients = null;
+        ins = null;
+        outs = null;
+    }
+
+    private static void roundTrips(int i, int count) throws IOException {
+        for (int k = 0; k < count; k++) {
+            outs[i].write(k);
+            outs[i].flush();
+            if (ins[i].read() == -1) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void idle(int n, int rounds) throws IOException {
+        long start = System.currentTimeMillis();
+        roundTrips(0, rounds);
+        long time = System.currentTimeMillis() - start;
+        System.out.println("    idle:   " + n + " connections, " + rounds + " round trips in " + time + "ms, " + (time * 1000 / rounds) + "us per round trip");
+    }
+
+    private static void active(final int n, int rounds) throws IOException {
+        final int each = Math.max(1, rounds / n);
+        final IOException[] failure = new IOException[1];
+        Thread[] threads = new Thread[n];
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < n; i++) {
+            final int conn = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        roundTrips(conn, each);
+                    } catch (IOException ex) {
+                        failure[0] = ex;
+                    }
+                }
+            }, "Client " + i);
+            threads[i].start();
+        }
+        for (int i = 0; i < n; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException ex) {
+                ex.printStackTrace();
+            }
+        }
+        long time = System.currentTimeMillis() - start;
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        int total = each * n;
+        System.out.println("    active: " + n + " connections, " + total + " round trips in " + time + "ms, " + (time == 0 ? 0 : total * 1000L / time) + " round trips per second");
+    }
+
+    /**
+     * @param args [port [rounds [connections...]]]
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int[] counts = {10, 1000, 5000};
+        if (args.length > 2) {
+            counts = new int[args.length - 2];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = Integer.parseInt(args[i + 2]);
+            }
+        }
+
+        String backend = VMThread.getSystemEvents().getClass().getName();
+        boolean usesSelect = backend.equals("com.sun.squawk.platform.posix.SystemEventsImpl");
+        System.out.println("SystemEvents: " + backend);
+
+        for (int i = 0; i < counts.length; i++) {
+            int n = counts[i];
+            if (usesSelect && 2 * n + 16 > 1024) {
+                System.out.println("    skipping " + n + " connections: more file descriptors than FD_SETSIZE");
+                continue;
+            }
+            open(port + i, n);
+            idle(n, rounds);
+            active(n, rounds);
+            close();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2006-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011-20012 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+package tests;
+
+import java.util.Vector;
+
+/**
+ * Times the type checks done by checkcast, instanceof and aastore, in the way that
+ * collection code does them: each element taken out of a Vector is cast back to its
+ * type. The classes are several levels deep and implement interfaces through their
+ * super classes and super interfaces, which are the cases where a check that walks
+ * the class hierarchy is slowest.
+ *
+ * To run:
+ * <pre>
+ *   squawk -suite:tests/TimeIt/TimeIt tests.CastBenchmark [iterations]
+ * </pre>
+ * The gain is seen by comparing the times with those of a VM built before class
+ * displays were added to Klass.
+ */
+public class CastBenchmark {
+
+    interface Named {
+        String name();
+    }
+
+    interface Sized extends Named {
+        int size();
+    }
+
+    interface Shaped extends Sized {
+    }
+
+    static class Level1 implements Sized {
+        public String name() {
+            return "level";
+        }
+
+        public int size() {
+            return 1;
+        }
+    }
+
+    static class Level2 extends Level1 {
+    }
+
+    static class Level3 extends Level2 implements Shaped {
+    }
+
+    static class Level4 extends Level3 {
+    }
+
+    static class Level5 extends Level4 {
+    }
+
+    static class Level6 extends Level5 {
+        public int size() {
+            return 6;
+        }
+    }
+
+    private static int iterations = 1000000;
+
+    private static final int SIZE = 64;
+
+    private static Vector elements;
+
+    /**
+     * Accumulates the results of the loops so that they cannot be optimized away.
+     */
+    static int sink;
+
+    private static long report(String name, long start) {
+        long time = System.currentTimeMillis() - start;
+        System.out.println("    " + name + ": " + time + "ms");
+        return time;
+    }
+
+    /**
+     * Casts each element to a class near the root of the hierarchy of its class.
+     */
+    private static int castToClass() {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            Level1 e = (Level1)elements.elementAt(i & (SIZE - 1));
+            sum += e.size();
+        }
+        return sum;
+    }
+
+    /**
+     * Casts each element to the interface that is furthest from the interfaces its class declares.
+     */
+    private static int castToInterface() {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            Named e = (Named)elements.elementAt(i & (SIZE - 1));
+            sum += e.name().length();
+        }
+        return sum;
+    }
+
+    /**
+     * Tests each element against a class and an interface that it is not a subtype of.
+     */
+    private static int instanceOfMiss() {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            Object e = elements.elementAt(i & (SIZE - 1));
+            if (e instanceof Level6) {
+                sum++;
+            }
+            if (e instanceof Runnable) {
+                sum++;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Stores each element into an array whose component type is an interface.
+     */
+    private static int storeToArray() {
+        Sized[] array = new Sized[SIZE];
+        Object[] store = array;
+        for (int i = 0; i < iterations; i++) {
+            store[i & (SIZE - 1)] = elements.elementAt(i & (SIZE - 1));
+        }
+        return array[0].size();
+    }
+
+    /**
+     * @param args [iterations]
+     */
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            iterations = Integer.parseInt(args[0]);
+        }
+        elements = new Vector(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            elements.addElement((i & 1) == 0 ? (Level1)new Level5() : (Level1)new Level4());
+        }
+        System.out.println("CastBenchmark: " + iterations + " iterations");
+
+        long total = 0;
+        long start = System.currentTimeMillis();
+        sink += castToClass();
+        total += report("checkcast to class", start);
+        start = System.currentTimeMillis();
+        sink += castToInterface();
+        total += report("checkcast to interface", start);
+        start = System.currentTimeMillis();
+        sink += instanceOfMiss();
+        total += report("instanceof (miss)", start);
+        start = System.currentTimeMillis();
+        sink += storeToArray();
+        total += report("aastore", start);
+        System.out.println("    total: " + total + "ms");
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2006-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * Copyright 2011-20012 Oracle Corporation. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Oracle Corporation, 500 Oracle Parkway, Redwood
+ * Shores, CA 94065 or visit www.oracle.com if you need additional
+ * information or have any questions.
+ */
+package tests;
+
+import com.sun.squawk.VM;
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * Times the synchronized collections and counts the monitors that are allocated
+ * while using them. Uncontended locking should not allocate any monitors, even when
+ * the lock object has a hash code. A thread that is switched out while holding a lock
+ * still gets a real monitor for it, so the two thread cases count those.
+ *
+ * To run (the VM has to be built with ENABLE_VM_STATISTICS=true):
+ * <pre>
+ *   squawk -suite:tests/TimeIt/TimeIt tests.MonitorBenchmark [iterations]
+ * </pre>
+ */
+public class MonitorBenchmark {
+
+    private static int iterations = 100000;
+
+    /**
+     * Uses a Vector, a Hashtable and a StringBuffer, all of which synchronize on every call.
+     */
+    static class Work implements Runnable {
+        private final Vector vector;
+        private final Hashtable table = new Hashtable();
+        private final StringBuffer buffer = new StringBuffer();
+        private final Integer key = new Integer(42);
+
+        Work(Vector vector) {
+            this.vector = vector;
+        }
+
+        public void run() {
+            for (int i = 0; i < iterations; i++) {
+                vector.addElement(key);
+                vector.elementAt(0);
+                vector.removeElementAt(0);
+                table.put(key, key);
+                table.get(key);
+                buffer.setLength(0);
+                buffer.append('x');
+            }
+        }
+    }
+
+    private static void time(String name, Runnable[] work) {
+        Thread[] threads = new Thread[work.length];
+        int monitors = VM.Stats.getMonitorsAllocatedCount();
+        int contended = VM.Stats.getContendedMontorEnterCount();
+        int switches = VM.Stats.getThreadSwitchCount();
+        long start = System.currentTimeMillis();
+        if (work.length == 1) {
+            work[0].run();
+        } else {
+            for (int i = 0; i < work.length; i++) {
+                threads[i] = new Thread(work[i]);
+                threads[i].start();
+            }
+            for (int i = 0; i < work.length; i++) {
+                try {
+                    threads[i].join();
+                } catch (InterruptedException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+        long time = System.currentTimeMillis() - start;
+        monitors = VM.Stats.getMonitorsAllocatedCount() - monitors;
+        contended = VM.Stats.getContendedMontorEnterCount() - contended;
+        switches = VM.Stats.getThreadSwitchCount() - switches;
+        System.out.println(name + ": " + time + "ms, " + monitors + " monitors allocated, " +
+                contended + " contended enters, " + switches + " thread switches");
+    }
+
+    /**
+     * @param args [iterations]
+     */
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            iterations = Integer.parseInt(args[0]);
+        }
+        System.out.println("MonitorBenchmark: " + iterations + " iterations, 7 synchronized calls each");
+
+        time("one thread", new Runnable[] {new Work(new Vector())});
+
+        /*
+         * Using the vector as a key gives it an ObjectAssociation to hold the hash code.
+         */
+        Vector hashed = new Vector();
+        new Hashtable().put(hashed, hashed);
+        time("one thread, hashed lock", new Runnable[] {new Work(hashed)});
+
+        time("two threads, separate locks", new Runnable[] {new Work(new Vector()), new Work(new Vector())});
+
+        Vector shared = new Vector();
+        time("two threads, shared vector", new Runnable[] {new Work(shared), new Work(shared)});
+    }
+}
@@ -0,0 +1,19 @@
+#!/bin/sh
+#
+# Compiles and runs the tests in tests/HostTests on the host JVM.
+# Must be run from the main Squawk directory after the tree has been built.
+# The class path is the hosted one the romizer runs with.
+
+CP=hosted-support/classes.jar:romizer/classes.jar:cldc/classes.jar
+OUT=`mktemp -d` || exit 1
+trap 'rm -rf $OUT' 0
+
+# Target classes that are plain Java are compiled from their sources
+TARGET_SOURCES=targets/linux/src/classes/com/sun/squawk/io/DatagramBatch.java
+
+javac -nowarn -cp $CP -d $OUT `find tests/HostTests/src -name '*.java'` $TARGET_SOURCES || exit 1
+
+for TEST in com.sun.squawk.TimerQueueTest com.sun.squawk.ThreadQueueTest com.sun.squawk.SuiteLookupTest com.sun.squawk.io.DatagramBatchTest; do
+    java -cp $CP:$OUT $TEST || { echo "FAILED: $TEST"; exit 1; }
+    echo "passed: $TEST"
+done
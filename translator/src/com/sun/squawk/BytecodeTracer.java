@@ -25,6 +25,7 @@
 package com.sun.squawk;
 
 
+import com.sun.squawk.util.Assert;
 import com.sun.squawk.vm.*;
 
 /**
@@ -258,47 +259,17 @@ public abstract class BytecodeTracer {
      * @todo handle wide versions
      */
     private boolean do_load_store(int opcode) {
-        switch(opcode) {
-            case OPC.LOAD_0:
-            case OPC.LOAD_1:
-            case OPC.LOAD_2:
-            case OPC.LOAD_3:
-            case OPC.LOAD_4:
-            case OPC.LOAD_5:
-            case OPC.LOAD_6:
-            case OPC.LOAD_7:
-            case OPC.LOAD_8:
-            case OPC.LOAD_9:
-            case OPC.LOAD_10:
-            case OPC.LOAD_11:
-            case OPC.LOAD_12:
-            case OPC.LOAD_13:
-            case OPC.LOAD_14:
-            case OPC.LOAD_15:
-            case OPC.STORE_0:
-            case OPC.STORE_1:
-            case OPC.STORE_2:
-            case OPC.STORE_3:
-            case OPC.STORE_4:
-            case OPC.STORE_5:
-            case OPC.STORE_6:
-            case OPC.STORE_7:
-            case OPC.STORE_8:
-            case OPC.STORE_9:
-            case OPC.STORE_10:
-            case OPC.STORE_11:
-            case OPC.STORE_12:
-            case OPC.STORE_13:
-            case OPC.STORE_14:
-            case OPC.STORE_15:{
-                int index = opcode & 0xF;
-                String var = getVarDetails(index, false);
-                if (var == null) {
-                    var = "";
-                }
-                print(opcode, var);
-                break;
+        if (opcode >= OPC.LOAD_0 && opcode < OPC.LOAD_0 + FusionTable.LOAD_COUNT ||
+            opcode >= OPC.STORE_0 && opcode < OPC.STORE_0 + FusionTable.STORE_COUNT) {
+            int index = opcode - (opcode < OPC.STORE_0 ? OPC.LOAD_0 : OPC.STORE_0);
+            String var = getVarDetails(index, false);
+            if (var == null) {
+                var = "";
             }
+            print(opcode, var);
+            return true;
+        }
+        switch(opcode) {
             case OPC.LOAD:
             case OPC.STORE:
             case OPC.LOAD_I2:
@@ -327,23 +298,15 @@ public abstract class BytecodeTracer {
      * @todo handle wide versions
      */
     private boolean do_load_store_parm(int opcode) {
-        switch(opcode) {
-            case OPC.LOADPARM_0:
-            case OPC.LOADPARM_1:
-            case OPC.LOADPARM_2:
-            case OPC.LOADPARM_3:
-            case OPC.LOADPARM_4:
-            case OPC.LOADPARM_5:
-            case OPC.LOADPARM_6:
-            case OPC.LOADPARM_7: {
-                int index = opcode & 0x7;
-                String var = getVarDetails(index, true);
-                if (var == null) {
-                    var = "";
-                }
-                print(opcode, var);
-                break;
+        if (opcode >= OPC.LOADPARM_0 && opcode < OPC.LOADPARM_0 + FusionTable.LOADPARM_COUNT) {
+            String var = getVarDetails(opcode - OPC.LOADPARM_0, true);
+            if (var == null) {
+                var = "";
             }
+            print(opcode, var);
+            return true;
+        }
+        switch(opcode) {
             case OPC.LOADPARM:
             case OPC.STOREPARM:
             case OPC.LOADPARM_I2:
@@ -372,31 +335,15 @@ public abstract class BytecodeTracer {
      * @todo handle wide versions
      */
     private boolean do_object(int opcode) {
-        switch(opcode) {
-            case OPC.OBJECT_0:
-            case OPC.OBJECT_1:
-            case OPC.OBJECT_2:
-            case OPC.OBJECT_3:
-            case OPC.OBJECT_4:
-            case OPC.OBJECT_5:
-            case OPC.OBJECT_6:
-            case OPC.OBJECT_7:
-            case OPC.OBJECT_8:
-            case OPC.OBJECT_9:
-            case OPC.OBJECT_10:
-            case OPC.OBJECT_11:
-            case OPC.OBJECT_12:
-            case OPC.OBJECT_13:
-            case OPC.OBJECT_14:
-            case OPC.OBJECT_15: {
-                int index = opcode & 0xF;
-                String obj = getObjectDetails(index);
-                if (obj == null) {
-                    obj = "";
-                }
-                print(opcode, obj);
-                break;
+        if (opcode >= OPC.OBJECT_0 && opcode < OPC.OBJECT_0 + FusionTable.OBJECT_COUNT) {
+            String obj = getObjectDetails(opcode - OPC.OBJECT_0);
+            if (obj == null) {
+                obj = "";
             }
+            print(opcode, obj);
+            return true;
+        }
+        switch(opcode) {
             case OPC.OBJECT: {
                 int index = getByte() & 0xFF;
                 String obj = getObjectDetails(index);
@@ -411,6 +358,27 @@ public abstract class BytecodeTracer {
         return true;
     }
 
+    /**
+     * Process a superinstruction
+     *
+     * @param opcode the  regular opcode
+     * @return true if the bytecode was for a superinstruction
+     */
+    private boolean do_fused(int opcode) {
+        if (!FusionTable.isFused(opcode)) {
+            return false;
+        }
+        switch (OPC.getSize(opcode) - 1) {
+            case 0:  print(opcode);                        break;
+            case 1:  print(opcode, ""+getUnsignedByte());  break;
+            case 2:  print(opcode, ""+getShort());         break;
+            case 4:  print(opcode, ""+getInt());           break;
+            case 8:  print(opcode, ""+getLong());          break;
+            default: Assert.shouldNotReachHere();
+        }
+        return true;
+    }
+
     /**
      * Process a normal bytecode
      *
@@ -420,7 +388,8 @@ public abstract class BytecodeTracer {
         if (do_const(opcode) ||
             do_object(opcode) ||
             do_load_store(opcode) ||
-            do_load_store_parm(opcode)) {
+            do_load_store_parm(opcode) ||
+            do_fused(opcode)) {
             return;
         }
         if (isBranch(opcode)) {
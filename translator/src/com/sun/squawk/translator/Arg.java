@@ -144,14 +144,15 @@ public final class Arg {
     public final static int VERBOSE = 5;
     public final static int DEAD_STRING_ELIMINATION = 6;
     public final static int DEAD_CLASS_ELIMINATION = 7;
-//    public final static int INLINE_METHOD_LIMIT = 8;
-//    public final static int INLINE_OBJECT_CONSTRUCTOR = 9;
-//    public final static int OPTIMIZE_BYTECODE = 10;
-//    public final static int OPTIMIZE_BYTECODE_CONTROL = 11;
-//    public final static int OPTIMIZE_DEADCODE = 12;
-//    public final static int INLINE_NEVER_OVERRIDDEN = 13;
+    public final static int INLINE_METHOD_LIMIT = 8;
+    public final static int INLINE_OBJECT_CONSTRUCTOR = 9;
+    public final static int INLINE_NEVER_OVERRIDDEN = 10;
+    public final static int DEVIRTUALIZE = 11;
+//    public final static int OPTIMIZE_BYTECODE = 12;
+//    public final static int OPTIMIZE_BYTECODE_CONTROL = 13;
+//    public final static int OPTIMIZE_DEADCODE = 14;
     
-    public final static int LAST_ARG = DEAD_CLASS_ELIMINATION;
+    public final static int LAST_ARG = DEVIRTUALIZE;
     
     final static Arg[] translatorArgs = new Arg[LAST_ARG + 1];
     
@@ -185,17 +186,21 @@ public final class Arg {
 //                "<bool> optimize control byte codes.");
 //        initArg(OPTIMIZE_DEADCODE, "optimizeDeadCode", Arg.BOOLEAN, "true", //GOOD
 //                "<bool> delete unreachable bytecodes.");
-//        initArg(INLINE_METHOD_LIMIT, "inlineMethodLimit", Arg.INT, "3",
-//                "<n> Inline known methods with <m> bytecodes or less.\n" +
-//                "                           <m> = <n> + <num parameters>. Don't inline if <n> = 0.");
-//        initArg(INLINE_OBJECT_CONSTRUCTOR, "inlineObjectConstructor", Arg.BOOLEAN, "true", //?
-//                "<bool> If inlining, always inline the constructor or Object.");
+        // inlining needs whole-suite optimization, which keeps the IR of every method in memory until
+        // the suite is closed, so it is off unless a limit is given (e.g. -inlineMethodLimit:3).
+        initArg(INLINE_METHOD_LIMIT, "inlineMethodLimit", Arg.INT, "0",
+                "<n> Inline known methods with <m> bytecodes or less.\n" +
+                "                           <m> = <n> + <num parameters>. Don't inline if <n> = 0.");
+        initArg(INLINE_OBJECT_CONSTRUCTOR, "inlineObjectConstructor", Arg.BOOLEAN, "true",
+                "<bool> If inlining, always inline the constructor of Object.");
         initArg(DEAD_CLASS_ELIMINATION, "deadClassElimination", Arg.BOOLEAN, "true",
                 "<bool> Remove unused classes.");
         // this option make the debugging proxy's job have to do whole-suite analysis the exact same way as the original suite creation, 
         // which is slow and error prone. So turn off for now. 
-//        initArg(INLINE_NEVER_OVERRIDDEN, "inlineNeverOverridden", Arg.BOOLEAN, "false", 
-//                "<bool> Allow inlines of methods that are not final, but in fact are never overridden.");        
+        initArg(INLINE_NEVER_OVERRIDDEN, "inlineNeverOverridden", Arg.BOOLEAN, "false", 
+                "<bool> Allow inlines of methods that are not final, but in fact are never overridden.");
+        initArg(DEVIRTUALIZE, "devirtualize", Arg.BOOLEAN, "false",
+                "<bool> Replace interface calls that have only one implementation with direct calls.");
         
     }
     /**
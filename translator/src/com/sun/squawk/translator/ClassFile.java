@@ -185,6 +185,11 @@ public final class ClassFile {
 
     private ObjectTable objectTable;
 
+    /**
+     * The entry of this class in the translation cache, or null if it is not cached.
+     */
+    private ClassRecord record;
+
     /**
      * Create an ObjectTable for this class based on the ObjectTables of all of the used methods in the class.
      * @param translator
@@ -228,10 +233,26 @@ public final class ClassFile {
             if (!method.isHosted() && !method.isAbstract() && !method.isNative()) {
                 Assert.that(code != null);
                 if (phase == 0 || phase == 1) {
-                    code.convert(translator, method, method.getOffset(), 1, null);
-                    int size = 0;
-                    if (Translator.TRACING_ENABLED) {
-                        size = code.getIR().size();
+                    TranslationCache cache = translator.getCache();
+                    int size = -1;
+                    if (phase == 1 && record != null && record.stored) {
+                        size = cache.replay(record, code, method, isStatic, i);
+                    }
+                    if (size == -1) {
+                        if (phase == 1 && record != null && record.stored) {
+                            record = null; // the cached bodies cannot be used without the IR of every method
+                        }
+                        if (phase == 1 && cache != null) {
+                            cache.beginMethod();
+                        }
+                        code.convert(translator, method, method.getOffset(), 1, null);
+                        size = 0;
+                        if (Translator.TRACING_ENABLED) {
+                            size = code.getIR().size();
+                        }
+                        if (phase == 1 && cache != null) {
+                            cache.endMethod(code, isStatic, i, size);
+                        }
                     }
                     translator.methodDB.recordMethod(method, size);
                 }
@@ -248,6 +269,52 @@ public final class ClassFile {
         }
     }
 
+    /**
+     * Builds the IR of the methods whose phase 1 was replayed from the translation cache.
+     *
+     * @param translator   the translation context
+     * @param isStatic     specifies static or virtual methods
+     */
+    private void ensureIR(Translator translator, boolean isStatic) {
+        Code[] methodsCode = isStatic ? staticMethods : virtualMethods;
+        for (int i = 0 ; i < methodsCode.length ; i++) {
+            Method method = definedClass.getMethod(i, isStatic);
+            Code code = methodsCode[i];
+            if (!method.isHosted() && !method.isAbstract() && !method.isNative() && !code.hasIR()) {
+                code.convert(translator, method, method.getOffset(), 1, null);
+            }
+        }
+    }
+
+    /**
+     * Completes phase 1 of the conversion for a set of methods whose IR was
+     * left untransformed for whole-suite optimization.
+     *
+     * @param translator   the translation context
+     * @param isStatic     specifies static or virtual methods
+     */
+    private void finishPhase1(Translator translator, boolean isStatic) {
+        Code[] methodsCode = isStatic ? staticMethods : virtualMethods;
+        for (int i = 0 ; i < methodsCode.length ; i++) {
+            Code code = methodsCode[i];
+            if (code != null && code.hasIR()) {
+                code.finishPhase1(translator, definedClass.getMethod(i, isStatic));
+            }
+        }
+    }
+
+    /**
+     * Completes phase 1 of the conversion for all the methods of this class. This is
+     * only called when whole-suite optimization deferred the transformation of the IR.
+     *
+     * @param translator   the translation context
+     */
+    void finishConvertPhase1(Translator translator) {
+        Assert.that(translator.shouldOptimizeSuite());
+        finishPhase1(translator, true);
+        finishPhase1(translator, false);
+    }
+
     /**
      * Performs a pre-pass over all of the methods in the class, generating IR for each method.
      * Changes the state of the definedClass from <code>STATE_LOADED</code> to <code>STATE_CONVERTING</code>.
@@ -280,9 +347,36 @@ public final class ClassFile {
          * Generate IR if doing two-pass translation
          */
         if (generateIR) {
-            // This conversion first builds the IR for all the methods.
-            convertMethods(translator, true, 1, null);
-            convertMethods(translator, false, 1, null);
+            TranslationCache cache = translator.getCache();
+            if (cache != null) {
+                record = cache.lookup(definedClass);
+            }
+            if (record != null && record.stored) {
+                // Replay the conversion recorded in the translation cache.
+                convertMethods(translator, true, 1, null);
+                convertMethods(translator, false, 1, null);
+                if (record != null) {
+                    cache.replayed(definedClass);
+                } else {
+                    cache.translated(definedClass);
+                }
+            } else {
+                // This conversion first builds the IR for all the methods.
+                if (record != null) {
+                    cache.startRecording(record);
+                }
+                try {
+                    convertMethods(translator, true, 1, null);
+                    convertMethods(translator, false, 1, null);
+                } finally {
+                    if (record != null && !cache.stopRecording()) {
+                        record = null;
+                    }
+                }
+                if (cache != null) {
+                    cache.translated(definedClass);
+                }
+            }
         }
         
         definedClass.changeState(Klass.STATE_CONVERTING);
@@ -329,9 +423,28 @@ public final class ClassFile {
                 Object[] objects = objectTable.getConstantObjectArray();
                 definedClass.setObjectTable(objects);
                 
-                // Now generate squawk code from IR.
-                convertMethods(translator, true, 2, bodies);
-                convertMethods(translator, false, 2, bodies);
+                TranslationCache cache = translator.getCache();
+                if (record != null && cache.installBodies(record, objects, bodies)) {
+                    // The method bodies in the translation cache are still valid.
+                    staticMethods = NO_METHODS;
+                    virtualMethods = NO_METHODS;
+                } else {
+                    // Now generate squawk code from IR.
+                    ensureIR(translator, true);
+                    ensureIR(translator, false);
+                    if (record != null) {
+                        cache.startBodies(record, objects);
+                    }
+                    try {
+                        convertMethods(translator, true, 2, bodies);
+                        convertMethods(translator, false, 2, bodies);
+                    } finally {
+                        if (record != null && cache.stopBodies()) {
+                            cache.store(record);
+                        }
+                    }
+                }
+                record = null;
             }
         } catch (NoClassDefFoundError e) {
             definedClass.changeState(Klass.STATE_ERROR);
@@ -342,7 +455,7 @@ public final class ClassFile {
         for (int i = 0; i < bodies.size(); i++) {
             MethodBody body = (MethodBody)bodies.elementAt(i);
             if (body != null) {
-                new com.sun.squawk.translator.ir.verifier.Verifier().verify(body);
+                new com.sun.squawk.translator.ir.verifier.Verifier().verify(body, translator);
             }
         }
 /*end[SUITE_VERIFIER]*/
@@ -0,0 +1,505 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.translator;
+
+import java.io.*;
+
+import com.sun.squawk.*;
+
+/**
+ * The entry of the translation cache for one class. It holds, in encoded form, what the
+ * translation of the class did to the rest of the suite during phase 1, what phase 1
+ * produced for the later stages, and the method bodies emitted by phase 2.<p>
+ *
+ * The phase 1 data of a method is the ordered sequence of the calls it made that change
+ * the global state (creating and loading classes, updating class modifiers and recording
+ * calls in the method database), terminated by {@link #END}, followed by the size of its
+ * IR, the classes the IR refers to (used by dead class elimination) and its table of
+ * constant objects in the order they were added, with their use counts.<p>
+ *
+ * Classes are encoded by name, so an entry can only be decoded in a translation where each
+ * of these names resolves to a class. The dependencies list the class files (or parent
+ * suite classes) that the recorded translation depended on, with their digests; the entry
+ * is only used if all of them are unchanged.
+ *
+ */
+final class ClassRecord {
+
+    /**
+     * The version of the encoding. It is part of the key of every entry.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The tags of the phase 1 events.
+     */
+    static final byte END = 0, CLASS = 1, LOAD = 2, MODIFIERS = 3, CALL = 4;
+
+    /**
+     * The tags of the constant objects.
+     */
+    private static final byte KLASS = 'K', STRING = 'S', INTS = 'I', SHORTS = 'H', BYTES = 'B';
+
+    /**
+     * The kinds of dependencies.
+     */
+    static final byte LOCAL = 0, PARENT = 1;
+
+    /**
+     * The class this is the entry for.
+     */
+    final Klass klass;
+
+    /**
+     * The key of the entry in the store.
+     */
+    final byte[] key;
+
+    /**
+     * True if this entry was read from the store, false if it is being recorded.
+     */
+    final boolean stored;
+
+    /**
+     * The phase 1 data of each static and virtual method, or null for a method without code.
+     */
+    final byte[][] staticMethods;
+    final byte[][] virtualMethods;
+
+    /**
+     * The names, kinds and digests of the dependencies.
+     */
+    String[] depNames;
+    byte[] depKinds;
+    byte[][] depDigests;
+
+    /**
+     * The encoded object table of the class, or null if phase 2 has not been recorded.
+     */
+    byte[] objectTable;
+
+    /**
+     * The opcodes emitted by phase 2.
+     */
+    int[] opcodes;
+
+    /**
+     * The native methods looked up by phase 2.
+     */
+    String[] nativeMethods;
+
+    /**
+     * The encoded method body of each static and virtual method, or null for a
+     * method without code or whose code was eliminated.
+     */
+    byte[][] staticBodies;
+    byte[][] virtualBodies;
+
+    /**
+     * Creates an empty entry for recording the translation of a class.
+     *
+     * @param klass  the class
+     * @param key    the key of the entry
+     */
+    ClassRecord(Klass klass, byte[] key) {
+        this(klass, key, false);
+    }
+
+    private ClassRecord(Klass klass, byte[] key, boolean stored) {
+        this.klass = klass;
+        this.key = key;
+        this.stored = stored;
+        this.staticMethods = new byte[klass.getMethodCount(true)][];
+        this.virtualMethods = new byte[klass.getMethodCount(false)][];
+    }
+
+    /**
+     * Gets the phase 1 data of the methods of one kind.
+     */
+    byte[][] getMethods(boolean isStatic) {
+        return isStatic ? staticMethods : virtualMethods;
+    }
+
+    /**
+     * Gets the encoded method bodies of one kind.
+     */
+    byte[][] getBodies(boolean isStatic) {
+        return isStatic ? staticBodies : virtualBodies;
+    }
+
+    /**
+     * Determines if the method bodies of the class have been recorded.
+     */
+    boolean hasBodies() {
+        return objectTable != null;
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                           Entry encoding                                  *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Encodes this entry for the store.
+     *
+     * @return the encoded entry
+     */
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(VERSION);
+        out.writeUTF(klass.getInternalName());
+        out.writeInt(depNames.length);
+        for (int i = 0; i != depNames.length; ++i) {
+            out.writeUTF(depNames[i]);
+            out.writeByte(depKinds[i]);
+            writeBytes(out, depDigests[i]);
+        }
+        writeArrays(out, staticMethods);
+        writeArrays(out, virtualMethods);
+        out.writeBoolean(hasBodies());
+        if (hasBodies()) {
+            writeBytes(out, objectTable);
+            writeInts(out, opcodes);
+            out.writeInt(nativeMethods.length);
+            for (int i = 0; i != nativeMethods.length; ++i) {
+                out.writeUTF(nativeMethods[i]);
+            }
+            writeArrays(out, staticBodies);
+            writeArrays(out, virtualBodies);
+        }
+        out.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decodes an entry read from the store.
+     *
+     * @param klass  the class the entry is for
+     * @param key    the key of the entry
+     * @param entry  the encoded entry
+     * @return the decoded entry
+     * @throws IOException if the entry is malformed or is not for <code>klass</code>
+     */
+    static ClassRecord decode(Klass klass, byte[] key, byte[] entry) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+        if (in.readInt() != VERSION || !in.readUTF().equals(klass.getInternalName())) {
+            throw new IOException("entry is not for " + klass);
+        }
+        ClassRecord record = new ClassRecord(klass, key, true);
+        int count = in.readInt();
+        record.depNames = new String[count];
+        record.depKinds = new byte[count];
+        record.depDigests = new byte[count][];
+        for (int i = 0; i != count; ++i) {
+            record.depNames[i] = in.readUTF();
+            record.depKinds[i] = in.readByte();
+            record.depDigests[i] = readBytes(in);
+        }
+        readArrays(in, record.staticMethods);
+        readArrays(in, record.virtualMethods);
+        if (in.readBoolean()) {
+            record.objectTable = readBytes(in);
+            record.opcodes = readInts(in);
+            record.nativeMethods = new String[in.readInt()];
+            for (int i = 0; i != record.nativeMethods.length; ++i) {
+                record.nativeMethods[i] = in.readUTF();
+            }
+            record.staticBodies = readArrays(in, new byte[record.staticMethods.length][]);
+            record.virtualBodies = readArrays(in, new byte[record.virtualMethods.length][]);
+        }
+        if (in.read() != -1) {
+            throw new IOException("trailing data in entry for " + klass);
+        }
+        return record;
+    }
+
+    private static void writeArrays(DataOutputStream out, byte[][] arrays) throws IOException {
+        out.writeInt(arrays.length);
+        for (int i = 0; i != arrays.length; ++i) {
+            writeBytes(out, arrays[i]);
+        }
+    }
+
+    private static byte[][] readArrays(DataInputStream in, byte[][] arrays) throws IOException {
+        if (in.readInt() != arrays.length) {
+            throw new IOException("method count mismatch");
+        }
+        for (int i = 0; i != arrays.length; ++i) {
+            arrays[i] = readBytes(in);
+        }
+        return arrays;
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                      Encoding of the recorded values                      *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Writes a byte array that may be null.
+     */
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes an int array that may be null.
+     */
+    static void writeInts(DataOutputStream out, int[] ints) throws IOException {
+        if (ints == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(ints.length);
+            for (int i = 0; i != ints.length; ++i) {
+                out.writeInt(ints[i]);
+            }
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        int[] ints = new int[length];
+        for (int i = 0; i != length; ++i) {
+            ints[i] = in.readInt();
+        }
+        return ints;
+    }
+
+    /**
+     * Writes a class by name. Only a class that can be found again by its name in the
+     * suite being translated can be written.
+     *
+     * @throws IOException if <code>klass</code> cannot be found by its name
+     */
+    static void writeKlass(DataOutputStream out, Klass klass) throws IOException {
+        if (klass == null) {
+            out.writeBoolean(false);
+        } else {
+            String name = klass.getInternalName();
+            if (Klass.lookupKlass(name) != klass) {
+                throw new IOException("class cannot be found by name: " + klass);
+            }
+            out.writeBoolean(true);
+            out.writeUTF(name);
+        }
+    }
+
+    static Klass readKlass(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String name = in.readUTF();
+        Klass klass = Klass.lookupKlass(name);
+        if (klass == null) {
+            throw new IOException("class not found: " + name);
+        }
+        return klass;
+    }
+
+    /**
+     * Writes a constant object of one of the types that can be in an object table.
+     */
+    static void writeObject(DataOutputStream out, Object object) throws IOException {
+        if (object instanceof Klass) {
+            out.writeByte(KLASS);
+            writeKlass(out, (Klass)object);
+        } else if (object instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String)object);
+        } else if (object instanceof int[]) {
+            out.writeByte(INTS);
+            writeInts(out, (int[])object);
+        } else if (object instanceof short[]) {
+            short[] shorts = (short[])object;
+            out.writeByte(SHORTS);
+            out.writeInt(shorts.length);
+            for (int i = 0; i != shorts.length; ++i) {
+                out.writeShort(shorts[i]);
+            }
+        } else if (object instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[])object);
+        } else {
+            throw new IOException("cannot encode constant " + object);
+        }
+    }
+
+    static Object readObject(DataInputStream in) throws IOException {
+        Object object;
+        switch (in.readByte()) {
+            case KLASS:  object = readKlass(in); break;
+            case STRING: object = in.readUTF(); break;
+            case INTS:   object = readInts(in); break;
+            case BYTES:  object = readBytes(in); break;
+            case SHORTS: {
+                short[] shorts = new short[in.readInt()];
+                for (int i = 0; i != shorts.length; ++i) {
+                    shorts[i] = in.readShort();
+                }
+                object = shorts;
+                break;
+            }
+            default: throw new IOException("bad constant tag");
+        }
+        if (object == null) {
+            throw new IOException("null constant");
+        }
+        return object;
+    }
+
+    /**
+     * Encodes the object table of a class.
+     *
+     * @param objects  the constant objects of the class, in table order
+     * @return the encoded table
+     */
+    static byte[] encodeObjects(Object[] objects) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(objects.length);
+        for (int i = 0; i != objects.length; ++i) {
+            writeObject(out, objects[i]);
+        }
+        out.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Encodes a method body emitted by phase 2. The parameter types are not written as
+     * they are derived from the method when the body is decoded.
+     *
+     * @param body  the method body
+     * @return the encoded body
+     */
+    static byte[] encodeBody(MethodBody body) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(body.getMaxStack());
+
+        Klass[] types = body.getTypes();
+        int parameters = body.getParametersCount();
+        out.writeInt(types.length - parameters);
+        for (int i = parameters; i != types.length; ++i) {
+            writeKlass(out, types[i]);
+        }
+
+        ExceptionHandler[] handlers = body.getExceptionTable();
+        out.writeInt(handlers == null ? -1 : handlers.length);
+        for (int i = 0; handlers != null && i != handlers.length; ++i) {
+            out.writeInt(handlers[i].getStart());
+            out.writeInt(handlers[i].getEnd());
+            out.writeInt(handlers[i].getHandler());
+            writeKlass(out, handlers[i].getKlass());
+        }
+
+        MethodMetadata metadata = body.getMetadata();
+        writeInts(out, metadata == null ? null : metadata.getLineNumberTable());
+        ScopedLocalVariable[] lvt = metadata == null ? null : metadata.getLocalVariableTable();
+        out.writeInt(lvt == null ? -1 : lvt.length);
+        for (int i = 0; lvt != null && i != lvt.length; ++i) {
+            out.writeUTF(lvt[i].name);
+            writeKlass(out, lvt[i].type);
+            out.writeInt(lvt[i].slot);
+            out.writeInt(lvt[i].start);
+            out.writeInt(lvt[i].length);
+        }
+
+        writeBytes(out, body.getCode());
+        byte[] typeMap = null;
+/*if[TYPEMAP]*/
+        typeMap = body.getTypeMap();
+/*end[TYPEMAP]*/
+        writeBytes(out, typeMap);
+        out.writeBoolean(body.getInlinedSuperConstructor());
+        out.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decodes a method body.
+     *
+     * @param method  the method the body is for
+     * @param data    the encoded body
+     * @return the method body
+     */
+    static MethodBody decodeBody(Method method, byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int maxStack = in.readInt();
+
+        Klass[] locals = new Klass[in.readInt()];
+        for (int i = 0; i != locals.length; ++i) {
+            locals[i] = readKlass(in);
+        }
+
+        ExceptionHandler[] handlers = null;
+        int count = in.readInt();
+        if (count != -1) {
+            handlers = new ExceptionHandler[count];
+            for (int i = 0; i != count; ++i) {
+                int start = in.readInt();
+                int end = in.readInt();
+                int handler = in.readInt();
+                handlers[i] = new ExceptionHandler(start, end, handler, readKlass(in));
+            }
+        }
+
+        int[] lnt = readInts(in);
+        ScopedLocalVariable[] lvt = null;
+        count = in.readInt();
+        if (count != -1) {
+            lvt = new ScopedLocalVariable[count];
+            for (int i = 0; i != count; ++i) {
+                String name = in.readUTF();
+                Klass type = readKlass(in);
+                int slot = in.readInt();
+                int start = in.readInt();
+                int length = in.readInt();
+                lvt[i] = new ScopedLocalVariable(name, type, slot, start, length);
+            }
+        }
+
+        byte[] code = readBytes(in);
+        byte[] typeMap = readBytes(in);
+        boolean inlinedSuperConstructor = in.readBoolean();
+        return new MethodBody(method, maxStack, locals, handlers, lnt, lvt, code, typeMap, Translator.REVERSE_PARAMETERS, inlinedSuperConstructor);
+    }
+}
@@ -194,6 +194,12 @@ public final class Code {
 
     private ObjectTable objectTable;
 
+    /**
+     * The classes referred to by the IR of a method whose phase 1 was replayed from the
+     * translation cache, in place of the IR.
+     */
+    private Klass[] classReferences;
+
     /**
      * Convert the code of this method from its Java bytecode form to its
      * Squawk bytecode form. This must only be called once and cannot be called
@@ -241,36 +247,66 @@ public final class Code {
              */
             codeParser = new CodeParser(translator, method, code, constantPool);
             irBuilder = new IRBuilder(translator, codeParser);
-            IR ir = irBuilder.getIR();
 
             /*
-             * Add the object references into the table of constants.
+             * When optimizing the whole suite, the IR is left in its JVM form so
+             * that the Inliner can work on it once every method has been built.
              */
-            objectTable = new ObjectTable(declaringClass);
-            for (Instruction instruction = ir.getHead() ; instruction != null ; instruction = instruction.getNext()) {
-                Object object = instruction.getConstantObject();
-                if (object != null) {
-                    if (instruction instanceof FieldAccessor) {         // ignore special cases:
-                        Klass fieldDefiningClass = ((FieldAccessor)instruction).getField().getDefiningClass();
-                        if (fieldDefiningClass.hasGlobalStatics() || fieldDefiningClass == declaringClass) {
-                            // getstatic/putstatic on global globals doesn't really use the class object table
-                            // getstatic/putstatic on "this class" doesn't really use the class object table
-                            continue;
-                        }
-                    }
-                    objectTable.addConstantObject(object);
-                }
+            if (!translator.shouldOptimizeSuite()) {
+                finishPhase1(translator, method);
             }
-            
-            /*
-             * Transform the IR.
-             */
-            IRTransformer transformer = new IRTransformer(ir, method, getFrame());
-            transformer.transform(translator);
         } finally {
             code = null; // Allow the code to be garbage collected
         }
     }
+
+    /**
+     * Completes the first phase of the conversion by building the table of constants
+     * used by the IR and transforming the IR to its Squawk form. This is called at the
+     * end of {@link #convertPhase1} unless whole-suite optimization is being done, in which
+     * case it is called by the translator after the whole-suite optimizations.
+     *
+     * @param  translator   the translation context
+     * @param  method       the method owning this code
+     */
+    void finishPhase1(Translator translator, Method method) {
+        Klass declaringClass = method.getDefiningClass();
+        IR ir = irBuilder.getIR();
+
+        /*
+         * Add the object references into the table of constants.
+         */
+        objectTable = new ObjectTable(declaringClass);
+        for (Instruction instruction = ir.getHead() ; instruction != null ; instruction = instruction.getNext()) {
+            Object object = instruction.getConstantObject();
+            if (object != null) {
+                if (instruction instanceof FieldAccessor) {         // ignore special cases:
+                    Klass fieldDefiningClass = ((FieldAccessor)instruction).getField().getDefiningClass();
+                    if (fieldDefiningClass.hasGlobalStatics() || fieldDefiningClass == declaringClass) {
+                        // getstatic/putstatic on global globals doesn't really use the class object table
+                        // getstatic/putstatic on "this class" doesn't really use the class object table
+                        continue;
+                    }
+                }
+                objectTable.addConstantObject(object);
+            }
+        }
+
+        /*
+         * Transform the IR.
+         */
+        IRTransformer transformer = new IRTransformer(ir, method, getFrame());
+        transformer.transform(translator);
+    }
+
+    /**
+     * Determines if the IR for this method was built by phase 1 and is still held.
+     *
+     * @return true if {@link #getIR} can be called
+     */
+    boolean hasIR() {
+        return irBuilder != null;
+    }
     
     IR getIR()  {
         return irBuilder.getIR();
@@ -288,6 +324,27 @@ public final class Code {
         return objectTable;
     }
 
+    /**
+     * Sets the results of a phase 1 replayed from the translation cache. The bytecode is
+     * kept so that the IR can still be built if the cached method body cannot be used.
+     *
+     * @param objectTable      the table of constants used by the method
+     * @param classReferences  the classes referred to by the IR of the method
+     */
+    void replayed(ObjectTable objectTable, Klass[] classReferences) {
+        this.objectTable = objectTable;
+        this.classReferences = classReferences;
+    }
+
+    /**
+     * Gets the classes referred to by the IR of a method whose phase 1 was replayed.
+     *
+     * @return the classes or null if phase 1 was not replayed
+     */
+    Klass[] getClassReferences() {
+        return classReferences;
+    }
+
     /**
      * Second phase of the conversion.
      *
@@ -354,6 +411,10 @@ public final class Code {
              * Install the transformed method into the class.
              */
             definingClass.installMethodBody(body, method.isStatic());
+            translator.recordMethodBody(body);
+            if (translator.getCache() != null) {
+                translator.getCache().recordBody(method, body);
+            }
 
             /*
              * Trace the instructions again now that they have their Squawk
@@ -385,6 +446,8 @@ public final class Code {
         } finally {
             irBuilder  = null; // Allow GC
             codeParser = null; // Allow GC
+            code = null;
+            classReferences = null;
         }
     }
 
@@ -403,6 +466,7 @@ public final class Code {
         try {
             if (phase == 1) {
                 convertPhase1(translator, method, index);
+                classReferences = null;
             } else {
                 MethodBody b = convertPhase2(translator, method, index);
                 if (bodies != null)
@@ -418,6 +482,7 @@ public final class Code {
             code = null;
             irBuilder = null;
             codeParser = null;
+            classReferences = null;
             throw e;
         }
     }
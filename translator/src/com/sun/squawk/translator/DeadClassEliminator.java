@@ -292,16 +292,39 @@ public class DeadClassEliminator {
                     shallowMark(parameters[j]);
                 }
             }
-            ClassReferenceRecordingVisitor visitor = new ClassReferenceRecordingVisitor(this);
-            IR ir = code.getIR();
-            for (Instruction instruction = ir.getHead() ; instruction != null ; instruction = instruction.getNext()) {
-                instruction.visit(visitor);
+            Klass[] replayed = code.getClassReferences();
+            if (replayed != null) {
+                for (int i = 0; i < replayed.length; i++) {
+                    shallowMark(replayed[i]);
+                }
+            } else {
+                SquawkVector references = new SquawkVector();
+                collectClassReferences(code, references);
+                for (int i = 0; i < references.size(); i++) {
+                    shallowMark((Klass)references.elementAt(i));
+                }
             }
+        }
+    }
+
+    /**
+     * Collects the classes referred to by the IR and the exception handlers of a method.
+     *
+     * @param code        the code of the method, after phase 1
+     * @param references  the vector to add the classes to
+     */
+    static void collectClassReferences(Code code, SquawkVector references) {
+        ClassReferenceRecordingVisitor visitor = new ClassReferenceRecordingVisitor(references);
+        IR ir = code.getIR();
+        for (Instruction instruction = ir.getHead() ; instruction != null ; instruction = instruction.getNext()) {
+            instruction.visit(visitor);
+        }
 
-            ExceptionHandler[] exceptionHandlers = code.getCodeParser().getExceptionHandlers();
-            for (int i = 0; i < exceptionHandlers.length; i++) {
-                Klass handlerklass = exceptionHandlers[i].getKlass();
-                shallowMark(handlerklass);
+        ExceptionHandler[] exceptionHandlers = code.getCodeParser().getExceptionHandlers();
+        for (int i = 0; i < exceptionHandlers.length; i++) {
+            Klass handlerklass = exceptionHandlers[i].getKlass();
+            if (handlerklass != null) {
+                references.addElement(handlerklass);
             }
         }
     }
@@ -483,27 +506,33 @@ class ExampleDeadClass {
 
 class ClassReferenceRecordingVisitor extends ReferenceRecordingVisitor {
 
-    private DeadClassEliminator dce;
+    private SquawkVector references;
 
-    ClassReferenceRecordingVisitor(DeadClassEliminator dce) {
-        this.dce = dce;
+    ClassReferenceRecordingVisitor(SquawkVector references) {
+        this.references = references;
+    }
+
+    private void add(Klass klass) {
+        if (klass != null) {
+            references.addElement(klass);
+        }
     }
 
     protected void recordKlass(Klass klass) {
-        dce.shallowMark(klass);
+        add(klass);
     }
 
     protected void recordMethod(Method method) {
-        dce.shallowMark(method.getDefiningClass());
+        add(method.getDefiningClass());
 
     }
 
     protected void recordField(Field field) {
         if (DeadClassEliminator.AGGRESSIVE_DCE && field.isStatic()) {
-            dce.shallowMark(field.getDefiningClass());
+            add(field.getDefiningClass());
         } else {
-            dce.shallowMark(field.getDefiningClass());
-            dce.shallowMark(field.getType());
+            add(field.getDefiningClass());
+            add(field.getType());
         }
     }
 
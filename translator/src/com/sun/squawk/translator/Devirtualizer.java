@@ -0,0 +1,270 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.translator;
+
+import java.io.PrintStream;
+
+import com.sun.squawk.*;
+import com.sun.squawk.translator.ir.*;
+import com.sun.squawk.translator.ir.instr.*;
+import com.sun.squawk.util.Tracer;
+
+/**
+ * Replaces interface calls that can only dispatch to one method with a direct call to
+ * that method. This runs over the whole suite once phase 1 has built the IR of every
+ * method, and before calls are inlined, so that the inliner can treat the new calls
+ * as bound.<p>
+ *
+ * An interface call is a <code>findslot</code> that searches the receiver's class for
+ * the implementation of the interface method, followed by an <code>invokeslot</code>.
+ * If the {@link MethodDB} shows that the interface method has exactly one implementation,
+ * the pair is replaced by an <code>invokesuper</code> of that implementation, which
+ * null checks the receiver and calls the method straight out of the vtable of its
+ * defining class.<p>
+ *
+ * Virtual calls are not rewritten: an <code>invokevirtual</code> is already a single
+ * vtable load, whereas an <code>invokesuper</code> would also have to push the class.
+ * Those with a single implementation are only counted.
+ *
+ */
+public class Devirtualizer {
+
+    private final Translator translator;
+
+    /*
+     * Statistics
+     */
+    private int interfaceCallsDevirtualized;
+    private int interfaceCallsRemaining;
+    private int virtualCallsMonomorphic;
+
+    /**
+     * Creates a Devirtualizer for the suite being translated by <code>translator</code>.
+     *
+     * @param translator the translator
+     */
+    public Devirtualizer(Translator translator) {
+        this.translator = translator;
+    }
+
+    /**
+     * Devirtualizes the calls in all the methods of the suite.
+     */
+    public void devirtualizeCalls() {
+        Suite suite = translator.getSuite();
+
+        /*
+         * Inherited methods may implement the interfaces of a subclass.
+         */
+        for (int cno = 0; cno < suite.getClassCount(); cno++) {
+            Klass klass = suite.getKlass(cno);
+            if (klass != null) {
+                translator.methodDB.computeInheritedImplementorsInfo(klass);
+            }
+        }
+
+        for (int cno = 0; cno < suite.getClassCount(); cno++) {
+            Klass klass = suite.getKlass(cno);
+            if (klass == null || klass.isSynthetic()) {
+                continue;
+            }
+            ClassFile classFile = translator.lookupClassFile(klass);
+            if (classFile != null) {
+                for (int i = 0; i < classFile.getStaticMethodCount(); i++) {
+                    devirtualizeCallsIn(klass.getMethod(i, true), classFile.getStaticMethod(i));
+                }
+                for (int i = 0; i < classFile.getVirtualMethodCount(); i++) {
+                    devirtualizeCallsIn(klass.getMethod(i, false), classFile.getVirtualMethod(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Devirtualizes the calls made by a given method.
+     *
+     * @param method  the method
+     * @param code    the code of the method, which may be null
+     */
+    private void devirtualizeCallsIn(Method method, Code code) {
+        if (code == null || !code.hasIR()) {
+            return;
+        }
+        IR ir = code.getIR();
+        Instruction instruction = ir.getHead();
+        while (instruction != null) {
+            Instruction next = instruction.getNext();
+            if (instruction instanceof InvokeSlot) {
+                InvokeSlot invoke = (InvokeSlot)instruction;
+                Method impl = getSingleImplementation(invoke.getMethod());
+                if (impl != null && devirtualize(ir, code.getFrame(), invoke, impl)) {
+                    if (Translator.TRACING_ENABLED && Tracer.isTracing("devirtualizing", method.toString())) {
+                        Tracer.traceln("[devirtualized " + invoke.getMethod() + " to " + impl + " in " + method + "]");
+                    }
+                    interfaceCallsDevirtualized++;
+                } else {
+                    interfaceCallsRemaining++;
+                }
+            } else if (instruction instanceof InvokeVirtual) {
+                Method callee = ((InvokeVirtual)instruction).getMethod();
+                if (!(callee.isPrivate() || callee.isFinal() || callee.getDefiningClass().isFinal()) &&
+                    getSingleImplementation(callee) != null) {
+                    virtualCallsMonomorphic++;
+                }
+            }
+            instruction = next;
+        }
+    }
+
+    /**
+     * Gets the only method that a call to a given method can dispatch to.
+     *
+     * @param callee  the method called
+     * @return the implementation or null if there is not exactly one that can be called directly
+     */
+    private Method getSingleImplementation(Method callee) {
+        if (callee.isHosted()) {
+            return null;
+        }
+
+        /*
+         * The methods of Object may implement an interface method without being recorded as doing so.
+         */
+        if (callee.getDefiningClass().isInterface() &&
+            Klass.OBJECT.lookupMethod(callee.getName(), callee.getParameterTypes(), callee.getReturnType(), null, false) != null) {
+            return null;
+        }
+
+        Method impl = translator.methodDB.getSingleImplementation(callee);
+        if (impl == null || impl.isNative() || impl.isHosted() || impl.getReturnType() != callee.getReturnType()) {
+            return null;
+        }
+        return impl;
+    }
+
+    /**
+     * Replaces an interface call with a direct call to the only method it can dispatch to.
+     *
+     * @param ir      the IR containing the call
+     * @param frame   the frame of the method containing the call
+     * @param invoke  the invokeslot
+     * @param impl    the implementation of the interface method
+     * @return true if the call was replaced
+     */
+    private boolean devirtualize(IR ir, Frame frame, final InvokeSlot invoke, Method impl) {
+        StackProducer[] parameters = invoke.getParameters();
+        int slotIndex = Translator.REVERSE_PARAMETERS ? 0 : parameters.length - 1;
+        if (!(parameters[slotIndex] instanceof FindSlot)) {
+            return false;
+        }
+        final FindSlot findSlot = (FindSlot)parameters[slotIndex];
+
+        /*
+         * A result that is still on the operand stack at a branch target may be merged
+         * with other values, and the merge only knows the original producer.
+         */
+        if (reachesTarget(ir, invoke)) {
+            return false;
+        }
+
+        StackProducer[] arguments = new StackProducer[parameters.length - 1];
+        System.arraycopy(parameters, Translator.REVERSE_PARAMETERS ? 1 : 0, arguments, 0, arguments.length);
+        final InvokeSuper replacement = new InvokeSuper(impl, arguments);
+        replacement.setBytecodeOffset(invoke.getBytecodeOffset());
+        if (invoke.isSpilt()) {
+            replacement.spill(invoke.getSpillLocal());
+        }
+        if (invoke.isDuped()) {
+            replacement.setDuped(frame);
+        }
+
+        ir.insertBefore(replacement, invoke);
+        ir.remove(invoke);
+        ir.remove(findSlot);
+
+        OperandVisitor redirector = new OperandVisitor() {
+            public StackProducer doOperand(Instruction instruction, StackProducer operand) {
+                return operand == invoke ? replacement : operand;
+            }
+        };
+        StackProducer receiver = arguments[Translator.REVERSE_PARAMETERS ? 0 : arguments.length - 1];
+        int receiverUses = 0;
+        for (Instruction instruction = ir.getHead(); instruction != null; instruction = instruction.getNext()) {
+            instruction.visit(redirector);
+            if (usesOperand(instruction, receiver)) {
+                receiverUses++;
+            }
+        }
+
+        /*
+         * The receiver was only duped so that it could be passed to the findslot as well.
+         */
+        if (receiver.isDuped() && receiverUses == 1 && !(receiver instanceof StackMerge)) {
+            receiver.cancelDuping();
+        }
+        return true;
+    }
+
+    /**
+     * Determines if a given value is on the operand stack at any branch target.
+     */
+    private static boolean reachesTarget(IR ir, StackProducer value) {
+        Target[] targets = ir.getTargets();
+        if (targets != null) {
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i].isDerivedFrom(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if a given instruction uses a given value as an operand.
+     */
+    private static boolean usesOperand(Instruction instruction, final StackProducer value) {
+        final boolean[] found = new boolean[1];
+        instruction.visit(new OperandVisitor() {
+            public StackProducer doOperand(Instruction instruction, StackProducer operand) {
+                if (operand == value) {
+                    found[0] = true;
+                }
+                return operand;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Prints the devirtualization statistics for the suite.
+     *
+     * @param out  the stream to print to
+     */
+    public void printStats(PrintStream out) {
+        out.println("    devirtualized calls:    " + interfaceCallsDevirtualized + " of " + (interfaceCallsDevirtualized + interfaceCallsRemaining) + " interface calls");
+        out.println("    monomorphic virtuals:   " + virtualCallsMonomorphic + " (already direct vtable calls)");
+    }
+}
@@ -0,0 +1,656 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.translator;
+
+import java.io.PrintStream;
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+import com.sun.squawk.*;
+import com.sun.squawk.translator.ir.*;
+import com.sun.squawk.translator.ir.instr.*;
+import com.sun.squawk.util.Arrays;
+import com.sun.squawk.util.Assert;
+import com.sun.squawk.util.Comparer;
+import com.sun.squawk.util.SquawkVector;
+import com.sun.squawk.util.Tracer;
+
+/**
+ * Inlines calls to small methods whose target is known at translation time. This
+ * runs over the whole suite once phase 1 has built the IR of every method, and before
+ * that IR is transformed, so the calls recorded in the {@link MethodDB} (and therefore
+ * dead method elimination) only see the calls that remain after inlining.<p>
+ *
+ * A call is inlined if the callee is static, private, final, a constructor or never
+ * overridden (see {@link Arg#INLINE_NEVER_OVERRIDDEN}) and the callee's IR is straight
+ * line code that consumes each of its parameters exactly once in the order they were
+ * pushed, using only constants and instance field accesses. Such code can replace the
+ * invoke directly: the arguments are already on the caller's operand stack in the order
+ * the code expects, no locals are needed, and no targets, stack maps or exception
+ * handlers are created. This covers getters, setters and constructors that only chain
+ * to <code>Object.&lt;init&gt;</code>. Calls within a callee are inlined before the
+ * callee itself is considered, so chains of empty constructors disappear completely.
+ *
+ */
+public class Inliner {
+
+    /**
+     * Marks a method in {@link #templates} that cannot be inlined.
+     */
+    private final static Object NOT_INLINABLE = new Object();
+
+    private final Translator translator;
+
+    /**
+     * Maximum number of instructions, not counting the loads of the parameters,
+     * in a method that can be inlined.
+     */
+    private final int limit;
+
+    private final boolean inlineObjectConstructor;
+
+    private final boolean inlineNeverOverridden;
+
+    /**
+     * Table of {Method -> Code} for every method in the suite that has IR.
+     */
+    private final Hashtable codes = new Hashtable();
+
+    /**
+     * The methods in {@link #codes} sorted by the name of their class, then static methods
+     * before virtual ones, then by their index in the class. The calls are inlined in this
+     * order so that the result does not depend on the hash codes of the methods.
+     */
+    private final SquawkVector methods = new SquawkVector();
+
+    /**
+     * Table of {Method -> Template or NOT_INLINABLE}.
+     */
+    private final Hashtable templates = new Hashtable();
+
+    /**
+     * Methods whose calls are being inlined, and those whose calls have been inlined.
+     */
+    private final Hashtable inProgress = new Hashtable();
+    private final Hashtable done = new Hashtable();
+
+    /*
+     * Statistics
+     */
+    private int callsInlined;
+    private int methodsChanged;
+    private int invokesBefore;
+    private int invokesAfter;
+    private int irSizeBefore;
+    private int irSizeAfter;
+
+    /**
+     * Creates an Inliner for the suite being translated by <code>translator</code>.
+     *
+     * @param translator the translator
+     */
+    public Inliner(Translator translator) {
+        this.translator = translator;
+        this.limit = Arg.get(Arg.INLINE_METHOD_LIMIT).getInt();
+        this.inlineObjectConstructor = Arg.get(Arg.INLINE_OBJECT_CONSTRUCTOR).getBool();
+        this.inlineNeverOverridden = Arg.get(Arg.INLINE_NEVER_OVERRIDDEN).getBool();
+    }
+
+    /**
+     * The code of an inlinable method, described in terms of the callee's IR.
+     */
+    static final class Template {
+
+        /**
+         * The number of parameters, including the receiver.
+         */
+        final int parameterCount;
+
+        /**
+         * The loads of the parameters at the start of the callee, or null if the parameters are not used.
+         */
+        final StackProducer[] parameters;
+
+        /**
+         * The instructions after the loads of the parameters, excluding the return.
+         */
+        final Instruction[] body;
+
+        /**
+         * The returned value, which is a member of <code>parameters</code> or <code>body</code> or null.
+         */
+        final StackProducer result;
+
+        /**
+         * True if this is a constructor whose body uses its receiver, so the receiver it returns must
+         * be discarded by the caller.
+         */
+        final boolean returnsUsedReceiver;
+
+        /**
+         * The number of stack words needed above the ones used by the invoke.
+         */
+        final int extraStack;
+
+        Template(int parameterCount, StackProducer[] parameters, Instruction[] body, StackProducer result, boolean returnsUsedReceiver, int extraStack) {
+            this.parameterCount = parameterCount;
+            this.parameters = parameters;
+            this.body = body;
+            this.result = result;
+            this.returnsUsedReceiver = returnsUsedReceiver;
+            this.extraStack = extraStack;
+        }
+    }
+
+    /**
+     * Inlines the calls in all the methods of the suite.
+     */
+    public void inlineCalls() {
+        Suite suite = translator.getSuite();
+        SquawkVector klasses = new SquawkVector();
+        for (int cno = 0; cno < suite.getClassCount(); cno++) {
+            Klass klass = suite.getKlass(cno);
+            if (klass != null && !klass.isSynthetic()) {
+                klasses.addElement(klass);
+            }
+        }
+        Klass[] sorted = new Klass[klasses.size()];
+        klasses.copyInto(sorted);
+        Arrays.sort(sorted, new Comparer() {
+            public int compare(Object a, Object b) {
+                return ((Klass)a).getName().compareTo(((Klass)b).getName());
+            }
+        });
+
+        for (int k = 0; k < sorted.length; k++) {
+            Klass klass = sorted[k];
+            ClassFile classFile = translator.lookupClassFile(klass);
+            if (classFile != null) {
+                for (int i = 0; i < classFile.getStaticMethodCount(); i++) {
+                    addCode(klass.getMethod(i, true), classFile.getStaticMethod(i));
+                }
+                for (int i = 0; i < classFile.getVirtualMethodCount(); i++) {
+                    addCode(klass.getMethod(i, false), classFile.getVirtualMethod(i));
+                }
+            }
+        }
+
+        invokesBefore = countInvokes();
+        irSizeBefore = countInstructions();
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = (Method)methods.elementAt(i);
+            inlineCallsIn(method, (Code)codes.get(method));
+        }
+        invokesAfter = countInvokes();
+        irSizeAfter = countInstructions();
+    }
+
+    private void addCode(Method method, Code code) {
+        if (code != null && code.hasIR()) {
+            codes.put(method, code);
+            methods.addElement(method);
+        }
+    }
+
+    private int countInvokes() {
+        int count = 0;
+        for (Enumeration e = codes.elements(); e.hasMoreElements(); ) {
+            IR ir = ((Code)e.nextElement()).getIR();
+            for (Instruction instruction = ir.getHead(); instruction != null; instruction = instruction.getNext()) {
+                if (instruction instanceof Invoke) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int countInstructions() {
+        int count = 0;
+        for (Enumeration e = codes.elements(); e.hasMoreElements(); ) {
+            count += ((Code)e.nextElement()).getIR().size();
+        }
+        return count;
+    }
+
+    /**
+     * Inlines the calls made by a given method.
+     *
+     * @param method  the method
+     * @param code    the code of the method
+     */
+    private void inlineCallsIn(Method method, Code code) {
+        if (done.containsKey(method) || inProgress.containsKey(method)) {
+            return;
+        }
+        inProgress.put(method, method);
+
+        IR ir = code.getIR();
+        int inlined = 0;
+        Instruction instruction = ir.getHead();
+        while (instruction != null) {
+            Instruction next = instruction.getNext();
+            if (instruction instanceof InvokeStatic || instruction instanceof InvokeVirtual || instruction instanceof InvokeSuper) {
+                Invoke invoke = (Invoke)instruction;
+                Instruction following = skipPseudoInstructions(next);
+                if (following instanceof Pop && ((Pop)following).value() == invoke) {
+                    next = following.getNext(); // the pop may be removed by inline()
+                }
+                Template template = getTemplate(invoke, method);
+                if (template != null && inline(ir, code.getFrame(), invoke, template)) {
+                    if (Translator.TRACING_ENABLED && Tracer.isTracing("inlining", method.toString())) {
+                        Tracer.traceln("[inlined " + invoke.getMethod() + " into " + method + "]");
+                    }
+                    inlined++;
+                }
+            }
+            instruction = next;
+        }
+
+        if (inlined != 0) {
+            callsInlined += inlined;
+            methodsChanged++;
+        }
+        inProgress.remove(method);
+        done.put(method, method);
+    }
+
+    /**
+     * Gets the template for the method called by an invoke if the call can be inlined.
+     *
+     * @param invoke  the invoke
+     * @param caller  the method containing the invoke
+     * @return the template for the callee or null if the call cannot be inlined
+     */
+    private Template getTemplate(Invoke invoke, Method caller) {
+        Method callee = invoke.getMethod();
+        Klass calleeClass = callee.getDefiningClass();
+
+        /*
+         * A virtual call can only be inlined if there is exactly one method it can dispatch to.
+         */
+        if (invoke instanceof InvokeVirtual &&
+            !(callee.isPrivate() || callee.isFinal() || calleeClass.isFinal() ||
+              (inlineNeverOverridden && translator.methodDB.isNeverOverriden(callee)))) {
+            return null;
+        }
+
+        /*
+         * The invokestatic of a static method may be what initializes its class.
+         */
+        if (callee.isStatic() && !callee.isConstructor() && calleeClass.mustClinit() && !callee.isAllowInlined() &&
+            !calleeClass.isAssignableFrom(caller.getDefiningClass())) {
+            return null;
+        }
+
+        Object template = templates.get(callee);
+        if (template == null) {
+            if (inProgress.containsKey(callee)) {
+                return null; // recursive call
+            }
+            template = createTemplate(callee);
+            if (template == null) {
+                template = NOT_INLINABLE;
+            }
+            templates.put(callee, template);
+        }
+        return template == NOT_INLINABLE ? null : (Template)template;
+    }
+
+    /**
+     * Skips over pseudo instructions.
+     *
+     * @param instruction  an instruction or null
+     * @return the first instruction from <code>instruction</code> onwards that is not a pseudo instruction
+     */
+    private static Instruction skipPseudoInstructions(Instruction instruction) {
+        while (instruction instanceof PseudoInstruction) {
+            instruction = instruction.getNext();
+        }
+        return instruction;
+    }
+
+    private static int words(StackProducer producer) {
+        return producer.getType().isDoubleWord() ? 2 : 1;
+    }
+
+    /**
+     * Creates the template for a method if it can be inlined.
+     *
+     * @param callee  the method
+     * @return the template or null if <code>callee</code> cannot be inlined
+     */
+    private Template createTemplate(Method callee) {
+        if (callee.isHosted() || callee.isNative() || callee.isAbstract() || callee.isSynchronized() ||
+            callee.isNotInlined() || callee.isClassInitializer() || callee.isReplacementConstructor()) {
+            return null;
+        }
+        if (callee.isConstructor() && callee.getDefiningClass() == Klass.OBJECT && !inlineObjectConstructor) {
+            return null;
+        }
+        Code code = (Code)codes.get(callee);
+        if (code == null) {
+            return null; // not in this suite
+        }
+
+        inlineCallsIn(callee, code);
+
+        IR ir = code.getIR();
+        Target[] targets = ir.getTargets();
+        if (ir.getExceptionHandlers() != null || (targets != null && targets.length != 0)) {
+            return null;
+        }
+
+        boolean isConstructor = callee.isConstructor();
+        boolean hasReceiver = !callee.isStatic() || isConstructor;
+        Klass[] parameterTypes = callee.getParameterTypes();
+        int parameterCount = parameterTypes.length + (hasReceiver ? 1 : 0);
+
+        Instruction first = skipPseudoInstructions(ir.getHead());
+        Instruction last = ir.getTail();
+        while (last instanceof PseudoInstruction) {
+            last = last.getPrevious();
+        }
+        if (!(last instanceof Return)) {
+            return null;
+        }
+
+        /*
+         * A constructor returns its receiver, which is loaded again just before the return.
+         */
+        if (isConstructor) {
+            Instruction load = last.getPrevious();
+            while (load instanceof PseudoInstruction) {
+                load = load.getPrevious();
+            }
+            if (!(load instanceof LoadLocal) || ((Return)last).getValue() != load) {
+                return null;
+            }
+            Local local = ((LoadLocal)load).getLocal();
+            if (!local.isParameter() || local.getJavacIndex() != 0) {
+                return null;
+            }
+            if (load == first) {
+                if (parameterCount != 1) {
+                    return null;
+                }
+                // An empty constructor: the call is replaced by its receiver.
+                return new Template(1, null, new Instruction[0], null, false, 0);
+            }
+            last = load;
+        }
+
+        /*
+         * The parameters must be loaded first, each one once, in order.
+         */
+        StackProducer[] stack = new StackProducer[ir.size()];
+        int sp = 0;
+        int words = 0;
+        int maxWords = 0;
+        StackProducer[] parameters = new StackProducer[parameterCount];
+        int javacIndex = 0;
+        Instruction instruction = first;
+        for (int i = 0; i < parameterCount; i++) {
+            if (!(instruction instanceof LoadLocal) || instruction == last) {
+                return null;
+            }
+            Local local = ((LoadLocal)instruction).getLocal();
+            if (!local.isParameter() || local.getJavacIndex() != javacIndex) {
+                return null;
+            }
+            Klass type = (hasReceiver && i == 0) ? callee.getDefiningClass() : parameterTypes[hasReceiver ? i - 1 : i];
+            javacIndex += type.isDoubleWord() ? 2 : 1;
+            parameters[i] = (StackProducer)instruction;
+            stack[sp++] = parameters[i];
+            words += words(parameters[i]);
+            instruction = skipPseudoInstructions(instruction.getNext());
+        }
+        int parameterWords = words;
+        maxWords = words;
+
+        /*
+         * The body may only contain constants and instance field accesses that consume
+         * the operand stack in order. The receiver of a virtual method must be null checked
+         * by the first field access, as the invoke that did the check is removed. This applies
+         * to methods with an AllowInlinedPragma too: the caller may still pass null.
+         */
+        boolean receiverChecked = !hasReceiver || isConstructor;
+        SquawkVector body = new SquawkVector();
+        final SquawkVector operands = new SquawkVector();
+        OperandVisitor collector = new OperandVisitor() {
+            public StackProducer doOperand(Instruction instruction, StackProducer operand) {
+                operands.addElement(operand);
+                return operand;
+            }
+        };
+        for (; instruction != last; instruction = instruction.getNext()) {
+            if (instruction instanceof PseudoInstruction) {
+                continue;
+            }
+            if (!(instruction instanceof Constant || instruction instanceof GetField || instruction instanceof PutField)) {
+                return null;
+            }
+            operands.removeAllElements();
+            instruction.visit(collector);
+            int count = operands.size();
+            if (count > sp) {
+                return null;
+            }
+            for (int i = 0; i < count; i++) {
+                StackProducer operand = (StackProducer)operands.elementAt(i);
+                if (stack[sp - count + i] != operand || operand.isSpilt() || operand.isDuped()) {
+                    return null;
+                }
+                words -= words(operand);
+            }
+            sp -= count;
+            if (instruction instanceof InstanceFieldAccessor && !receiverChecked) {
+                if (((InstanceFieldAccessor)instruction).getObject() != parameters[0]) {
+                    return null;
+                }
+                receiverChecked = true;
+            }
+            if (instruction instanceof StackProducer) {
+                StackProducer producer = (StackProducer)instruction;
+                stack[sp++] = producer;
+                words += words(producer);
+                if (words > maxWords) {
+                    maxWords = words;
+                }
+            }
+            body.addElement(instruction);
+        }
+        if (!receiverChecked || (body.size() > limit && !callee.isForceInlined())) {
+            return null;
+        }
+
+        /*
+         * The value returned must be the only thing left on the stack.
+         */
+        StackProducer result = null;
+        int resultWords = 0;
+        if (!isConstructor) {
+            result = ((Return)last).getValue();
+            if (result != null) {
+                if (sp != 1 || stack[0] != result || result.isSpilt() || result.isDuped() ||
+                    Frame.getLocalTypeFor(result.getType()) != Frame.getLocalTypeFor(callee.getReturnType())) {
+                    return null;
+                }
+                sp = 0;
+                resultWords = words(result);
+            }
+        }
+        if (sp != 0) {
+            return null;
+        }
+
+        Instruction[] instructions = new Instruction[body.size()];
+        body.copyInto(instructions);
+        int extraStack = maxWords - Math.max(parameterWords, resultWords);
+        return new Template(parameterCount, parameters, instructions, result, isConstructor, extraStack > 0 ? extraStack : 0);
+    }
+
+    /**
+     * Replaces an invoke with a copy of the code of the invoked method.
+     *
+     * @param ir        the IR containing the invoke
+     * @param frame     the frame of the method containing the invoke
+     * @param invoke    the invoke to replace
+     * @param template  the code of the invoked method
+     * @return true if the invoke was replaced
+     */
+    private boolean inline(IR ir, Frame frame, final Invoke invoke, Template template) {
+        StackProducer[] arguments = invoke.getParameters();
+        Assert.that(arguments.length == template.parameterCount);
+        if (invoke.isSpilt() || invoke.isDuped()) {
+            return false;
+        }
+
+        /*
+         * Find the instruction that uses the invoke's result. A constructor's result
+         * can only be dropped if the caller discards it.
+         */
+        Instruction user = null;
+        if (invoke.getType() != Klass.VOID) {
+            for (user = invoke.getNext(); user != null; user = user.getNext()) {
+                if (usesOperand(user, invoke)) {
+                    break;
+                }
+            }
+            if (user == null) {
+                return false;
+            }
+        }
+        Pop pop = (user instanceof Pop && user == skipPseudoInstructions(invoke.getNext())) ? (Pop)user : null;
+        if (template.returnsUsedReceiver && pop == null) {
+            return false;
+        }
+
+        /*
+         * Copy the body, feeding it with the caller's arguments.
+         */
+        Hashtable copies = new Hashtable();
+        if (template.parameters != null) {
+            for (int i = 0; i < arguments.length; i++) {
+                copies.put(template.parameters[i], arguments[i]);
+            }
+        }
+        for (int i = 0; i < template.body.length; i++) {
+            Instruction copy = copy(template.body[i], copies);
+            copy.setBytecodeOffset(invoke.getBytecodeOffset());
+            ir.insertBefore(copy, invoke);
+            copies.put(template.body[i], copy);
+        }
+
+        /*
+         * Redirect the use of the invoke's result.
+         */
+        StackProducer result;
+        if (template.returnsUsedReceiver) {
+            result = null;
+        } else if (template.parameters == null) {
+            result = arguments[0];
+        } else {
+            result = template.result == null ? null : (StackProducer)copies.get(template.result);
+        }
+        if (result != null) {
+            final StackProducer replacement = result;
+            user.visit(new OperandVisitor() {
+                public StackProducer doOperand(Instruction instruction, StackProducer operand) {
+                    return operand == invoke ? replacement : operand;
+                }
+            });
+        }
+        ir.remove(invoke);
+
+        /*
+         * Remove a discarded result that has no side effects. The result may
+         * be marked as spilt because every invoke parameter is spilt when
+         * parameters are reversed but, as the pop is now its only consumer,
+         * no fill will ever be generated for it.
+         */
+        if (pop != null) {
+            if (result == null) {
+                ir.remove(pop);
+            } else if ((result instanceof LoadLocal || result instanceof Constant) && skipPseudoInstructions(result.getNext()) == pop &&
+                       !result.isDuped()) {
+                ir.remove(result);
+                ir.remove(pop);
+            }
+        }
+
+        if (template.extraStack > 0) {
+            frame.extendMaxStack(template.extraStack);
+        }
+        return true;
+    }
+
+    /**
+     * Determines if a given instruction uses a given value as an operand.
+     */
+    private static boolean usesOperand(Instruction instruction, final StackProducer value) {
+        final boolean[] found = new boolean[1];
+        instruction.visit(new OperandVisitor() {
+            public StackProducer doOperand(Instruction instruction, StackProducer operand) {
+                found[0] |= (operand == value);
+                return operand;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Copies an instruction from the body of a template.
+     *
+     * @param instruction  the instruction to copy
+     * @param copies       table of {callee instruction -> caller instruction} for the operands of <code>instruction</code>
+     * @return the copy
+     */
+    private static Instruction copy(Instruction instruction, Hashtable copies) {
+        if (instruction instanceof ConstantObject) {
+            ConstantObject constant = (ConstantObject)instruction;
+            return new ConstantObject(constant.getType(), constant.getValue());
+        } else if (instruction instanceof Constant) {
+            return Constant.create(((Constant)instruction).getValue());
+        } else if (instruction instanceof GetField) {
+            GetField getField = (GetField)instruction;
+            return new GetField(getField.getField(), (StackProducer)copies.get(getField.getObject()));
+        } else {
+            PutField putField = (PutField)instruction;
+            return new PutField(putField.getField(), (StackProducer)copies.get(putField.getObject()), (StackProducer)copies.get(putField.getValue()));
+        }
+    }
+
+    /**
+     * Prints the inlining statistics.
+     *
+     * @param out  the stream to print to
+     */
+    public void printStats(PrintStream out) {
+        out.println("    inlined calls:          " + callsInlined + " in " + methodsChanged + " methods");
+        out.println("    invokes:                " + invokesBefore + " -> " + invokesAfter + " (" + (invokesAfter - invokesBefore) + ")");
+        out.println("    IR instructions:        " + irSizeBefore + " -> " + irSizeAfter + " (" + (irSizeAfter - irSizeBefore) + ")");
+    }
+}
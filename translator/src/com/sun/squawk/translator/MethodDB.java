@@ -224,6 +224,9 @@ public class MethodDB {
         if (!callee.isHosted() && !callee.isNative()) {
             MethodDB.Entry cw = lookupMethodEntry(callee);
             caller.addCall(cw);
+            if (translator.getCache() != null) {
+                translator.getCache().recordMethodCall(callee);
+            }
         }
      }
      
@@ -445,7 +448,53 @@ public class MethodDB {
          
          return false;
     }
-  
+
+     /**
+      * Finds the only method that a call to <code>m</code> can dispatch to. This is <code>m</code> itself
+      * if it is concrete and never overridden, or the single concrete override of an abstract or interface
+      * method. Like {@link #isNeverOverriden}, this makes closed-world assumptions, so every method involved
+      * must be defined in this suite and not be externally visible. The inherited implementors info must
+      * have been computed for every class in the suite (see {@link #computeInheritedImplementorsInfo}).
+      *
+      * @param m the virtual or interface method called
+      * @return the only implementation of <code>m</code>, or null if there is not exactly one or it cannot be determined
+      */
+     public Method getSingleImplementation(Method m) {
+         Assert.that(!m.isStatic());        // caller should check
+         Suite suite = translator.getSuite();
+         Hashtable visited = new Hashtable();
+         SquawkVector pending = new SquawkVector();
+         MethodDB.Entry impl = null;
+
+         pending.addElement(lookupMethodEntry(m));
+         while (!pending.isEmpty()) {
+             MethodDB.Entry mw = (MethodDB.Entry)pending.lastElement();
+             pending.removeElementAt(pending.size() - 1);
+             if (visited.containsKey(mw)) {
+                 continue;
+             }
+             visited.put(mw, mw);
+
+             if (!suite.contains(mw.m.getDefiningClass()) || isExternallyVisible(mw)) {
+                 return null;
+             }
+             if (!mw.m.isAbstract()) {
+                 if (impl != null) {
+                     return null;
+                 }
+                 impl = mw;
+             }
+
+             SquawkVector overrides = mw.getOverrides();
+             if (overrides != null) {
+                 for (int i = 0; i < overrides.size(); i++) {
+                     pending.addElement(overrides.elementAt(i));
+                 }
+             }
+         }
+         return impl == null ? null : impl.m;
+     }
+
    /**
      * Are two methods equal? (Where does other method come from???)
      *
@@ -267,6 +267,21 @@ public class ObjectTable {
         }
     }
 
+    /**
+     * Gets the objects of this table with their use counts, in the order they were added.
+     *
+     * @return the counters of the objects in this table
+     */
+    ObjectCounter[] getObjectCounters() {
+        ObjectCounter[] list = new ObjectCounter[objectTable.size()];
+        Enumeration e = objectTable.elements();
+        while (e.hasMoreElements()) {
+            ObjectCounter counter = (ObjectCounter)e.nextElement();
+            list[counter.getIndex()] = counter;
+        }
+        return list;
+    }
+
     void mergeMethodsObjectTable(Translator translator, Code[] methodsCode, boolean isStatic) {
         for (int i = 0; i < methodsCode.length; i++) {
             Method method = definedClass.getMethod(i, isStatic);
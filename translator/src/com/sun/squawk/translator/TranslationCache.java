@@ -0,0 +1,912 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.translator;
+
+import java.io.*;
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.Vector;
+
+import com.sun.squawk.*;
+import com.sun.squawk.translator.ci.ClassFileLoader;
+import com.sun.squawk.translator.ci.UninitializedObjectClass;
+import com.sun.squawk.util.Arrays;
+import com.sun.squawk.util.SquawkVector;
+
+/**
+ * The per-class translation cache. Each class is keyed by the digest of its class file,
+ * the translator options and the translation context (see {@link TranslationStore}).<p>
+ *
+ * Phase 1 cannot simply be skipped for a cached class: converting its methods creates and
+ * loads other classes, which decides the order of the classes in the suite, and records the
+ * calls used by dead method elimination. So the cache records these calls while a class is
+ * converted for real, and replays them in the same order instead of parsing the bytecode
+ * when the class is found in the cache. The replay also restores what the later stages need
+ * from phase 1: the object table of each method and the classes its IR refers to.<p>
+ *
+ * Phase 2 of a replayed class reuses the cached method bodies if the merged object table of
+ * the class and the set of its methods that survived dead method elimination are the same
+ * as when they were recorded. Otherwise the IR of the replayed methods is built from the
+ * bytecode and phase 2 is done as usual.<p>
+ *
+ * An entry is only used when the class files it depended on are unchanged. Anything that
+ * cannot be recorded or replayed faithfully makes the class fall back to a normal translation.
+ *
+ */
+final class TranslationCache {
+
+    /**
+     * The digest used for a class that has no class file.
+     */
+    private static final byte[] NO_CLASS_FILE = {};
+
+    /**
+     * The class file digests of the classes translated by this process, for the child suites.
+     */
+    private static final Hashtable translatedDigests = new Hashtable();
+
+    private final Translator translator;
+    private final TranslationStore store;
+
+    /**
+     * The digest of the context and the translator options.
+     */
+    private final byte[] context;
+
+    /**
+     * The digests of the class files on the class path, by class name.
+     */
+    private final Hashtable localDigests = new Hashtable();
+
+    /**
+     * The number of classes replayed, whose method bodies were reused, translated and stored.
+     */
+    private int replayed, reused, translated, stored;
+
+    /**
+     * Creates the cache for the translation of a suite.
+     *
+     * @param translator  the translator
+     * @param store       the store holding the entries
+     */
+    TranslationCache(Translator translator, TranslationStore store) {
+        this.translator = translator;
+        this.store = store;
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeInt(ClassRecord.VERSION);
+            out.write(store.getContextDigest());
+            for (int i = 0; i < Arg.translatorArgs.length; i++) {
+                Arg arg = Arg.translatorArgs[i];
+                if (i != Arg.HELP && i != Arg.VERBOSE && i != Arg.PRINT_STATS) {
+                    out.writeUTF(arg.getPropertyName());
+                    out.writeUTF(arg.getType() == 'I' ? String.valueOf(arg.getInt()) : String.valueOf(arg.getBool()));
+                }
+            }
+            out.writeBoolean(translator.getSuite().isBootstrap());
+            out.close();
+            context = store.digest(baos.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException(e.toString());
+        }
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                           Keys and dependencies                           *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Gets the digest of the class file of a class on the class path of the translator.
+     *
+     * @param name  the internal name of the class
+     * @return the digest or {@link #NO_CLASS_FILE}
+     */
+    private byte[] getLocalDigest(String name) {
+        byte[] digest = (byte[])localDigests.get(name);
+        if (digest == null) {
+            try {
+                digest = store.digest(translator.getClassPath().getBytes(ClassFileLoader.getClassFilePath(name)));
+            } catch (IOException e) {
+                digest = NO_CLASS_FILE;
+            }
+            localDigests.put(name, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Gets the digest a dependency has now.
+     *
+     * @param name  the name of the class
+     * @param kind  receives the kind of the dependency
+     * @return the digest or null if it is not known
+     */
+    private byte[] getDependencyDigest(String name, byte[] kind) {
+        Klass klass = Klass.lookupKlass(name);
+        Suite suite = translator.getSuite();
+        if (klass == null || suite.contains(klass)) {
+            kind[0] = ClassRecord.LOCAL;
+            return getLocalDigest(name);
+        }
+        kind[0] = ClassRecord.PARENT;
+        byte[] digest = (byte[])translatedDigests.get(klass);
+        if (digest == null) {
+            for (Suite parent = suite.getParent(); parent != null; parent = parent.getParent()) {
+                if (parent.contains(klass)) {
+                    return store.getSuiteDigest(parent);
+                }
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Gets the key of the entry for a class.
+     *
+     * @param klass  the class
+     * @return the key or null if the class has no class file
+     */
+    private byte[] getKey(Klass klass) {
+        String name = klass.getInternalName();
+        byte[] digest = getLocalDigest(name);
+        if (digest == NO_CLASS_FILE) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.write(context);
+            out.writeUTF(name);
+            out.write(digest);
+            out.close();
+            return store.digest(baos.toByteArray());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Determines if the dependencies of an entry are unchanged.
+     */
+    private boolean isValid(ClassRecord record) {
+        byte[] kind = new byte[1];
+        for (int i = 0; i != record.depNames.length; ++i) {
+            byte[] digest = getDependencyDigest(record.depNames[i], kind);
+            if (digest == null || kind[0] != record.depKinds[i] || !Arrays.equals(digest, record.depDigests[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a class and the classes its layout depends on to the dependencies of an entry.
+     */
+    private static void addDependency(Hashtable deps, Klass klass) {
+        while (klass != null && klass.isArray()) {
+            klass = klass.getComponentType();
+        }
+        if (klass == null || klass.isPrimitive() || deps.get(klass) != null) {
+            return;
+        }
+        deps.put(klass, klass);
+        addDependency(deps, klass.getSuperclass());
+        if (klass.getState() >= Klass.STATE_LOADED && klass.getState() != Klass.STATE_ERROR) {
+            Klass[] interfaces = klass.getInterfaces();
+            for (int i = 0; i != interfaces.length; ++i) {
+                addDependency(deps, interfaces[i]);
+            }
+        }
+    }
+
+    /**
+     * Computes the dependencies of an entry from the classes its recording referred to.
+     *
+     * @return false if the digest of a dependency is not known
+     */
+    private boolean setDependencies(ClassRecord record, Hashtable classes) {
+        Hashtable deps = new Hashtable();
+        addDependency(deps, record.klass);
+        for (Enumeration e = classes.elements(); e.hasMoreElements(); ) {
+            addDependency(deps, (Klass)e.nextElement());
+        }
+
+        Vector names = new Vector();
+        for (Enumeration e = deps.elements(); e.hasMoreElements(); ) {
+            Klass klass = (Klass)e.nextElement();
+            if (!klass.isSynthetic()) {
+                names.addElement(klass.getInternalName());
+            }
+        }
+        String[] sorted = new String[names.size()];
+        names.copyInto(sorted);
+        Arrays.sort(sorted, new com.sun.squawk.util.Comparer() {
+            public int compare(Object o1, Object o2) {
+                return ((String)o1).compareTo((String)o2);
+            }
+        });
+
+        record.depNames = sorted;
+        record.depKinds = new byte[sorted.length];
+        record.depDigests = new byte[sorted.length][];
+        byte[] kind = new byte[1];
+        for (int i = 0; i != sorted.length; ++i) {
+            byte[] digest = getDependencyDigest(sorted[i], kind);
+            if (digest == null) {
+                return false;
+            }
+            record.depKinds[i] = kind[0];
+            record.depDigests[i] = digest;
+        }
+        return true;
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                                  Lookup                                   *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Gets the entry for a class about to be converted.
+     *
+     * @param klass  the class
+     * @return a valid entry read from the store, a new entry to record the translation
+     *         in, or null if the class cannot be cached
+     */
+    ClassRecord lookup(Klass klass) {
+        byte[] key = getKey(klass);
+        if (key == null) {
+            return null;
+        }
+        if (!store.isChecking()) {
+            byte[] entry = store.get(key);
+            if (entry != null) {
+                try {
+                    ClassRecord record = ClassRecord.decode(klass, key, entry);
+                    if (isValid(record)) {
+                        return record;
+                    }
+                } catch (IOException e) {
+                    // a malformed entry is replaced by a new one
+                }
+            }
+        }
+        return new ClassRecord(klass, key);
+    }
+
+    /**
+     * Stores an entry once the translation of its class is complete. When checking, the
+     * entry is compared with the stored one instead, if that one is still valid.
+     *
+     * @param record  the entry
+     */
+    void store(ClassRecord record) {
+        translatedDigests.put(record.klass, getLocalDigest(record.klass.getInternalName()));
+        byte[] entry;
+        try {
+            entry = record.encode();
+        } catch (IOException e) {
+            return;
+        }
+        if (store.isChecking()) {
+            byte[] old = store.get(record.key);
+            if (old != null) {
+                try {
+                    if (isValid(ClassRecord.decode(record.klass, record.key, old))) {
+                        store.checked(record.klass.getInternalName(), Arrays.equals(old, entry));
+                        return;
+                    }
+                } catch (IOException e) {
+                    // replace a malformed entry
+                }
+            }
+        }
+        store.put(record.key, entry);
+        stored++;
+    }
+
+    /**
+     * Records that a class was translated without using the cache.
+     */
+    void translated(Klass klass) {
+        translatedDigests.put(klass, getLocalDigest(klass.getInternalName()));
+        translated++;
+    }
+
+    /**
+     * Prints the statistics of the cache.
+     *
+     * @param out  the stream to print to
+     */
+    void printStats(PrintStream out) {
+        out.println("    classes replayed:       " + replayed + " (method bodies reused for " + reused + ")");
+        out.println("    classes translated:     " + translated + " (stored " + stored + ")");
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                        Recording of phase 1                               *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * The entry whose phase 1 is being recorded, or null.
+     */
+    private ClassRecord recording;
+
+    /**
+     * True if the recording failed and the entry will not be stored.
+     */
+    private boolean failed;
+
+    /**
+     * The classes referred to by the entry being recorded.
+     */
+    private Hashtable classes;
+
+    /**
+     * The events already recorded for the class (classes and loads) and for the
+     * current method (calls).
+     */
+    private Hashtable classEvents;
+    private Hashtable methodEvents;
+
+    /**
+     * The events of the current method.
+     */
+    private ByteArrayOutputStream eventBytes;
+    private DataOutputStream events;
+
+    /**
+     * The nesting depth of class loading. Only the outermost events are recorded as the
+     * others are the effect of replaying them.
+     */
+    private int loadDepth;
+
+    /**
+     * The number of classes in the suite after the last recorded event, used to detect a
+     * class created by a call that is not recorded.
+     */
+    private int classCount;
+
+    /**
+     * Starts recording the phase 1 of a class.
+     *
+     * @param record  the new entry of the class
+     */
+    void startRecording(ClassRecord record) {
+        recording = record;
+        failed = false;
+        classes = new Hashtable();
+        classEvents = new Hashtable();
+    }
+
+    /**
+     * Stops recording the phase 1 of a class.
+     *
+     * @return false if the recording failed and the entry must not be stored
+     */
+    boolean stopRecording() {
+        boolean ok = recording != null && !failed && setDependencies(recording, classes);
+        recording = null;
+        events = null;
+        classes = null;
+        classEvents = null;
+        methodEvents = null;
+        return ok;
+    }
+
+    /**
+     * Determines if an event happens at the top level of the phase 1 of a method being recorded.
+     */
+    private boolean isRecording() {
+        return events != null && loadDepth == 0;
+    }
+
+    /**
+     * Checks that no class was created since the last recorded event.
+     */
+    private void checkClassCount() {
+        if (translator.getSuite().getClassCount() != classCount) {
+            failed = true;
+        }
+    }
+
+    /**
+     * Adds an event unless it was already recorded.
+     */
+    private boolean addEvent(Hashtable table, String event) {
+        if (table.get(event) != null) {
+            return false;
+        }
+        table.put(event, event);
+        return true;
+    }
+
+    /**
+     * Records a class referred to by the entry being recorded.
+     */
+    private void addClass(Klass klass) {
+        if (klass != null) {
+            classes.put(klass, klass);
+        }
+    }
+
+    /**
+     * Starts recording the phase 1 of a method.
+     */
+    void beginMethod() {
+        if (recording != null) {
+            eventBytes = new ByteArrayOutputStream();
+            events = new DataOutputStream(eventBytes);
+            methodEvents = new Hashtable();
+            classCount = translator.getSuite().getClassCount();
+        }
+    }
+
+    /**
+     * Finishes recording the phase 1 of a method.
+     *
+     * @param code      the code of the method after phase 1
+     * @param isStatic  specifies a static or virtual method
+     * @param index     the index of the method
+     * @param irSize    the size of the IR of the method
+     */
+    void endMethod(Code code, boolean isStatic, int index, int irSize) {
+        if (events == null) {
+            return;
+        }
+        checkClassCount();
+        try {
+            events.writeByte(ClassRecord.END);
+            events.writeInt(irSize);
+
+            SquawkVector references = new SquawkVector();
+            DeadClassEliminator.collectClassReferences(code, references);
+            events.writeInt(references.size());
+            for (int i = 0; i != references.size(); ++i) {
+                Klass klass = (Klass)references.elementAt(i);
+                if (klass instanceof UninitializedObjectClass) {
+                    klass = klass.getSuperclass(); // marking its superclass has the same effect
+                }
+                addClass(klass);
+                ClassRecord.writeKlass(events, klass);
+            }
+
+            ObjectCounter[] counters = code.getObjectTable().getObjectCounters();
+            events.writeInt(counters.length);
+            for (int i = 0; i != counters.length; ++i) {
+                Object object = counters[i].getObject();
+                if (object instanceof Klass) {
+                    addClass((Klass)object);
+                }
+                ClassRecord.writeObject(events, object);
+                events.writeInt(counters[i].getCounter());
+            }
+            events.close();
+            recording.getMethods(isStatic)[index] = eventBytes.toByteArray();
+        } catch (IOException e) {
+            failed = true;
+        }
+        events = null;
+        eventBytes = null;
+        methodEvents = null;
+    }
+
+    /**
+     * Gets or creates a class on behalf of the phase 1 of a method.
+     *
+     * @see Klass#getClass(String, boolean)
+     */
+    Klass getClass(String name, boolean isFieldDescriptor) {
+        boolean recording = isRecording();
+        if (recording) {
+            checkClassCount();
+        }
+        Klass klass = Klass.getClass(name, isFieldDescriptor);
+        if (recording) {
+            addClass(klass);
+            String className = klass.getInternalName();
+            if (addEvent(classEvents, "C" + className)) {
+                try {
+                    events.writeByte(ClassRecord.CLASS);
+                    events.writeUTF(className);
+                } catch (IOException e) {
+                    failed = true;
+                }
+            }
+            classCount = translator.getSuite().getClassCount();
+        }
+        return klass;
+    }
+
+    /**
+     * Notifies the cache that the translator is about to load a class.
+     *
+     * @param klass  the class
+     */
+    void beginLoad(Klass klass) {
+        if (isRecording()) {
+            checkClassCount();
+            addClass(klass);
+            String className = klass.getInternalName();
+            if (addEvent(classEvents, "L" + className)) {
+                try {
+                    events.writeByte(ClassRecord.LOAD);
+                    events.writeUTF(className);
+                } catch (IOException e) {
+                    failed = true;
+                }
+            }
+        }
+        loadDepth++;
+    }
+
+    /**
+     * Notifies the cache that the translator finished loading a class.
+     */
+    void endLoad() {
+        loadDepth--;
+        if (isRecording()) {
+            classCount = translator.getSuite().getClassCount();
+        }
+    }
+
+    /**
+     * Records an update of the modifiers of a class.
+     *
+     * @param klass      the class
+     * @param modifiers  the modifiers added
+     */
+    void updateModifiers(Klass klass, int modifiers) {
+        if (isRecording()) {
+            checkClassCount();
+            addClass(klass);
+            String className = klass.getInternalName();
+            if (addEvent(classEvents, "M" + className + ":" + modifiers)) {
+                try {
+                    events.writeByte(ClassRecord.MODIFIERS);
+                    events.writeUTF(className);
+                    events.writeInt(modifiers);
+                } catch (IOException e) {
+                    failed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a call recorded in the method database for the method being converted.
+     *
+     * @param callee  the called method
+     */
+    void recordMethodCall(Method callee) {
+        if (isRecording()) {
+            checkClassCount();
+            Klass klass = callee.getDefiningClass();
+            boolean isStatic = callee.isStatic();
+            int index = indexOf(callee);
+            if (index == -1) {
+                failed = true;
+                return;
+            }
+            addClass(klass);
+            String className = klass.getInternalName();
+            if (addEvent(methodEvents, className + (isStatic ? ":s" : ":v") + index)) {
+                try {
+                    events.writeByte(ClassRecord.CALL);
+                    events.writeUTF(className);
+                    events.writeBoolean(isStatic);
+                    events.writeInt(index);
+                } catch (IOException e) {
+                    failed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a method in its defining class.
+     *
+     * @return the index or -1 if it is not found
+     */
+    private static int indexOf(Method method) {
+        Klass klass = method.getDefiningClass();
+        boolean isStatic = method.isStatic();
+        for (int i = 0; i != klass.getMethodCount(isStatic); ++i) {
+            if (method.equals(klass.getMethod(i, isStatic))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                           Replay of phase 1                               *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Replays the phase 1 of a method.
+     *
+     * @param record    the entry of the class
+     * @param code      the code of the method
+     * @param method    the method
+     * @param isStatic  specifies a static or virtual method
+     * @param index     the index of the method
+     * @return the size of the IR of the method, or -1 if the method has to be
+     *         converted from its bytecode instead
+     */
+    int replay(ClassRecord record, Code code, Method method, boolean isStatic, int index) {
+        byte[] data = record.getMethods(isStatic)[index];
+        if (data == null) {
+            return -1;
+        }
+        try {
+            /*
+             * A class in the error state can make phase 1 fail where the recorded one did not.
+             */
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            for (int tag = in.readByte(); tag != ClassRecord.END; tag = in.readByte()) {
+                Klass klass = Klass.lookupKlass(in.readUTF());
+                if (klass != null && klass.getState() == Klass.STATE_ERROR) {
+                    return -1;
+                }
+                if (tag == ClassRecord.MODIFIERS) {
+                    in.readInt();
+                } else if (tag == ClassRecord.CALL) {
+                    in.readBoolean();
+                    in.readInt();
+                }
+            }
+
+            in = new DataInputStream(new ByteArrayInputStream(data));
+            MethodDB.Entry caller = translator.methodDB.lookupMethodEntry(method);
+            for (int tag = in.readByte(); tag != ClassRecord.END; tag = in.readByte()) {
+                Klass klass = Klass.getClass(in.readUTF(), false);
+                switch (tag) {
+                    case ClassRecord.CLASS: {
+                        break;
+                    }
+                    case ClassRecord.LOAD: {
+                        translator.load(klass);
+                        break;
+                    }
+                    case ClassRecord.MODIFIERS: {
+                        klass.updateModifiers(in.readInt());
+                        break;
+                    }
+                    case ClassRecord.CALL: {
+                        boolean calleeIsStatic = in.readBoolean();
+                        int calleeIndex = in.readInt();
+                        if (calleeIndex >= klass.getMethodCount(calleeIsStatic)) {
+                            return -1;
+                        }
+                        translator.methodDB.recordMethodCall(caller, klass.getMethod(calleeIndex, calleeIsStatic));
+                        break;
+                    }
+                    default: {
+                        throw new IOException("bad event");
+                    }
+                }
+            }
+            int irSize = in.readInt();
+
+            Klass[] references = new Klass[in.readInt()];
+            for (int i = 0; i != references.length; ++i) {
+                references[i] = ClassRecord.readKlass(in);
+            }
+
+            ObjectTable objectTable = new ObjectTable(method.getDefiningClass());
+            int count = in.readInt();
+            for (int i = 0; i != count; ++i) {
+                Object object = ClassRecord.readObject(in);
+                for (int uses = in.readInt(); uses != 0; uses--) {
+                    objectTable.addConstantObject(object);
+                }
+            }
+            code.replayed(objectTable, references);
+            return irSize;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Records that a class was replayed.
+     */
+    void replayed(Klass klass) {
+        translatedDigests.put(klass, getLocalDigest(klass.getInternalName()));
+        replayed++;
+    }
+
+    /*---------------------------------------------------------------------------*\
+     *                                 Phase 2                                   *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Determines if a method with code survived dead method elimination.
+     */
+    private boolean isLive(Method method) {
+        return !Arg.get(Arg.DEAD_METHOD_ELIMINATION).getBool() || translator.dme.isMarkedUsed(method);
+    }
+
+    /**
+     * Decodes the cached method bodies of one kind if they match the methods that survived
+     * dead method elimination.
+     *
+     * @return the method bodies or null if they do not match
+     */
+    private MethodBody[] decodeBodies(ClassRecord record, boolean isStatic) throws IOException {
+        Klass klass = record.klass;
+        byte[][] bodies = record.getBodies(isStatic);
+        MethodBody[] result = new MethodBody[bodies.length];
+        for (int i = 0; i != bodies.length; ++i) {
+            Method method = klass.getMethod(i, isStatic);
+            boolean hasCode = !method.isHosted() && !method.isAbstract() && !method.isNative();
+            boolean live = hasCode && isLive(method);
+            if (live != (bodies[i] != null)) {
+                return null;
+            }
+            if (live) {
+                result[i] = ClassRecord.decodeBody(method, bodies[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Installs the cached method bodies of a replayed class if they are still valid.
+     *
+     * @param record   the entry of the class
+     * @param objects  the object table of the class
+     * @param bodies   {@link Vector} to insert the method bodies into or null
+     * @return true if the method bodies were installed
+     */
+    boolean installBodies(ClassRecord record, Object[] objects, Vector bodies) {
+        if (!record.stored || !record.hasBodies() || store.isChecking()) {
+            return false;
+        }
+        MethodBody[] staticBodies;
+        MethodBody[] virtualBodies;
+        try {
+            if (!Arrays.equals(ClassRecord.encodeObjects(objects), record.objectTable)) {
+                return false;
+            }
+            staticBodies = decodeBodies(record, true);
+            virtualBodies = decodeBodies(record, false);
+            if (staticBodies == null || virtualBodies == null) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        install(record.klass, staticBodies, true, bodies);
+        install(record.klass, virtualBodies, false, bodies);
+        for (int i = 0; i != record.opcodes.length; ++i) {
+            Translator.opcodeSet.set(record.opcodes[i]);
+        }
+        for (int i = 0; i != record.nativeMethods.length; ++i) {
+            Translator.lookupNative(record.nativeMethods[i]);
+        }
+        reused++;
+        return true;
+    }
+
+    private void install(Klass klass, MethodBody[] methodBodies, boolean isStatic, Vector bodies) {
+        for (int i = 0; i != methodBodies.length; ++i) {
+            MethodBody body = methodBodies[i];
+            if (body != null) {
+                klass.installMethodBody(body, isStatic);
+                translator.recordMethodBody(body);
+                if (bodies != null) {
+                    bodies.addElement(body);
+                }
+            }
+        }
+    }
+
+    /**
+     * The entry whose method bodies are being recorded, or null.
+     */
+    private ClassRecord recordingBodies;
+
+    /**
+     * The opcodes emitted before the method bodies of the class.
+     */
+    private BitSet previousOpcodes;
+
+    /**
+     * Starts recording the method bodies of a class.
+     *
+     * @param record   the entry of the class
+     * @param objects  the object table of the class
+     */
+    void startBodies(ClassRecord record, Object[] objects) {
+        try {
+            record.objectTable = ClassRecord.encodeObjects(objects);
+        } catch (IOException e) {
+            return;
+        }
+        record.staticBodies = new byte[record.staticMethods.length][];
+        record.virtualBodies = new byte[record.virtualMethods.length][];
+        recordingBodies = record;
+        previousOpcodes = Translator.opcodeSet;
+        Translator.opcodeSet = new BitSet();
+        Translator.nativeMethodsLookedUp = new Vector();
+    }
+
+    /**
+     * Records a method body emitted by phase 2.
+     *
+     * @param method  the method
+     * @param body    its body
+     */
+    void recordBody(Method method, MethodBody body) {
+        if (recordingBodies != null) {
+            try {
+                int index = indexOf(method);
+                if (index == -1) {
+                    throw new IOException("method not found: " + method);
+                }
+                recordingBodies.getBodies(method.isStatic())[index] = ClassRecord.encodeBody(body);
+            } catch (IOException e) {
+                recordingBodies.objectTable = null;
+            }
+        }
+    }
+
+    /**
+     * Stops recording the method bodies of a class.
+     *
+     * @return true if the bodies were recorded
+     */
+    boolean stopBodies() {
+        ClassRecord record = recordingBodies;
+        if (record == null) {
+            return false;
+        }
+        BitSet used = Translator.opcodeSet;
+        Translator.opcodeSet = previousOpcodes;
+        previousOpcodes.or(used);
+        int count = 0;
+        for (int i = 0; i < used.size(); i++) {
+            if (used.get(i)) {
+                count++;
+            }
+        }
+        record.opcodes = new int[count];
+        count = 0;
+        for (int i = 0; i < used.size(); i++) {
+            if (used.get(i)) {
+                record.opcodes[count++] = i;
+            }
+        }
+        record.nativeMethods = new String[Translator.nativeMethodsLookedUp.size()];
+        Translator.nativeMethodsLookedUp.copyInto(record.nativeMethods);
+        Translator.nativeMethodsLookedUp = null;
+        recordingBodies = null;
+        previousOpcodes = null;
+        return record.hasBodies();
+    }
+}
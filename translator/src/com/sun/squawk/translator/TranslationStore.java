@@ -0,0 +1,94 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ *
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ *
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+package com.sun.squawk.translator;
+
+import com.sun.squawk.Suite;
+
+/**
+ * The storage behind the per-class translation cache. The translator computes the keys
+ * and encodes the entries (see {@link TranslationCache}); the store only hashes bytes and
+ * keeps the entries, so that it can be implemented on the host with files and a real
+ * message digest. The romizer provides one with its <code>-cache:&lt;dir&gt;</code> option.
+ *
+ */
+public interface TranslationStore {
+
+    /**
+     * Computes a collision resistant digest (e.g. SHA-1) of some bytes.
+     *
+     * @param data  the bytes to hash
+     * @return the digest of <code>data</code>
+     */
+    public byte[] digest(byte[] data);
+
+    /**
+     * Gets a digest of everything outside the class files and the translator options
+     * that the output of the translator depends on, such as the classes of the translator
+     * and of the hosted VM.
+     *
+     * @return the digest of the translation context
+     */
+    public byte[] getContextDigest();
+
+    /**
+     * Gets a digest of the contents of a closed suite that was loaded from a file.
+     *
+     * @param suite  a parent of the suite being translated
+     * @return the digest of the file <code>suite</code> was loaded from, or null if it is not known
+     */
+    public byte[] getSuiteDigest(Suite suite);
+
+    /**
+     * Gets a stored entry.
+     *
+     * @param key  the key of the entry
+     * @return the entry stored under <code>key</code> or null if there is none
+     */
+    public byte[] get(byte[] key);
+
+    /**
+     * Stores an entry. The store may complete the write in the background.
+     *
+     * @param key    the key of the entry
+     * @param entry  the contents of the entry
+     */
+    public void put(byte[] key, byte[] entry);
+
+    /**
+     * Determines if the translator should check the stored entries instead of using them.
+     * In this mode every class is translated and its entry is compared with the stored one.
+     *
+     * @return true if the stored entries are being checked
+     */
+    public boolean isChecking();
+
+    /**
+     * Reports the result of checking the stored entry of a class.
+     *
+     * @param className  the name of the class
+     * @param identical  true if the stored entry was byte for byte the same as the new one
+     */
+    public void checked(String className, boolean identical);
+}
@@ -31,6 +31,7 @@ import javax.microedition.io.Connector;
 import java.util.Hashtable;
 import java.util.Stack;
 import java.util.BitSet;
+import java.util.Vector;
 
 import com.sun.squawk.util.Assert;
 import com.sun.squawk.io.connections.*;
@@ -49,6 +50,12 @@ import com.sun.squawk.translator.ir.InstructionEmitter;
 public final class Translator implements TranslatorInterface {
     
     public static BitSet opcodeSet = new BitSet();
+
+    /**
+     * The names of the native methods looked up while the method bodies of a class are
+     * recorded for the translation cache, or null when no bodies are being recorded.
+     */
+    static Vector nativeMethodsLookedUp;
     
     public final static boolean TRACING_ENABLED = true;
 
@@ -64,8 +71,14 @@ public final class Translator implements TranslatorInterface {
      * Returns true the translator should try to inline method calls.
      */
     public static boolean shouldDoInlining() {
-        return false;
-//        return Arg.get(Arg.INLINE_METHOD_LIMIT).getInt() > 0;
+        return Arg.get(Arg.INLINE_METHOD_LIMIT).getInt() > 0;
+    }
+
+    /**
+     * Returns true the translator should try to devirtualize method calls.
+     */
+    public static boolean shouldDevirtualize() {
+        return Arg.get(Arg.DEVIRTUALIZE).getBool();
     }
 
     /**
@@ -94,7 +107,7 @@ public final class Translator implements TranslatorInterface {
     private void setOptions() {
         Arg.setOptions();
         
-        if (Arg.get(Arg.DEAD_CLASS_ELIMINATION).getBool() ||  Arg.get(Arg.DEAD_METHOD_ELIMINATION).getBool() /* || (Arg.get(Arg.INLINE_METHOD_LIMIT).getInt() > 0)*/) {
+        if (Arg.get(Arg.DEAD_CLASS_ELIMINATION).getBool() ||  Arg.get(Arg.DEAD_METHOD_ELIMINATION).getBool() || shouldDoInlining() || shouldDevirtualize()) {
             translationStrategy = BY_SUITE;
         } else if (Arg.get(Arg.OPTIMIZE_CONSTANT_OBJECTS).getBool()) {
             translationStrategy = BY_CLASS;
@@ -103,7 +116,7 @@ public final class Translator implements TranslatorInterface {
         }
         
         if (translationStrategy >= BY_SUITE && (
-                (shouldDoInlining()
+                (shouldDoInlining() || shouldDevirtualize()
                 /*|| Arg.get(Arg.OPTIMIZE_BYTECODE).getBool()
                 || Arg.get(Arg.OPTIMIZE_BYTECODE_CONTROL).getBool()
                 || Arg.get(Arg.OPTIMIZE_DEADCODE).getBool()*/ ))) {
@@ -171,6 +184,33 @@ public final class Translator implements TranslatorInterface {
      */
     DeadClassEliminator dce;
 
+    /**
+     * A Devirtualizer is created in close() if we do devirtualization.
+     */
+    Devirtualizer devirtualizer;
+
+    /**
+     * An Inliner is created in close() if we do inlining.
+     */
+    Inliner inliner;
+
+    /**
+     * The store behind the per-class translation cache, or null if there is none.
+     */
+    private TranslationStore store;
+
+    /**
+     * The per-class translation cache, created in open() if there is a store and each
+     * class can be translated on its own (i.e. without whole-suite optimization).
+     */
+    private TranslationCache cache;
+
+    /**
+     * The number of methods and bytes of Squawk bytecode emitted for the suite.
+     */
+    private int methodBodyCount;
+    private int bytecodeSize;
+
     /**
      * {@inheritDoc}
      */
@@ -178,6 +218,10 @@ public final class Translator implements TranslatorInterface {
         this.suiteType = -9999; // This is set for real in close().
         this.suite = suite;
         this.classFiles = new Hashtable();
+        this.devirtualizer = null;
+        this.inliner = null;
+        this.methodBodyCount = 0;
+        this.bytecodeSize = 0;
         setOptions();
         try {
             String url = "classpath://" +  classPath;
@@ -186,6 +230,56 @@ public final class Translator implements TranslatorInterface {
         	throw new LinkageError("Error while setting class path from '"+ classPath + "': " + ioe);
         }
         methodDB = new MethodDB(this);
+        cache = null;
+        if (store != null && translationStrategy == BY_SUITE && !optimizeSuite) {
+            cache = new TranslationCache(this, store);
+        }
+    }
+
+    /**
+     * Sets the store used to cache the translation of each class across translations.
+     * This must be called before {@link #open}.
+     *
+     * @param store  the store or null for no caching
+     */
+    public void setStore(TranslationStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Gets the per-class translation cache.
+     *
+     * @return the cache or null if the classes of this suite are not cached
+     */
+    TranslationCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets or creates a class on behalf of the conversion of a method. All such requests
+     * go through the translator so that they can be recorded in the translation cache.
+     *
+     * @see Klass#getClass(String, boolean)
+     */
+    public Klass getKlass(String name, boolean isFieldDescriptor) {
+        if (cache != null) {
+            return cache.getClass(name, isFieldDescriptor);
+        }
+        return Klass.getClass(name, isFieldDescriptor);
+    }
+
+    /**
+     * Updates the modifiers of a class on behalf of the conversion of a method.
+     *
+     * @param klass      the class
+     * @param modifiers  the modifiers to add
+     * @see Klass#updateModifiers(int)
+     */
+    public void updateModifiers(Klass klass, int modifiers) {
+        if (cache != null) {
+            cache.updateModifiers(klass, modifiers);
+        }
+        klass.updateModifiers(modifiers);
     }
 
     /**
@@ -200,15 +294,24 @@ public final class Translator implements TranslatorInterface {
      */
     public void load(Klass klass) {
         Assert.that(VM.isHosted() || VM.getCurrentIsolate().getLeafSuite() == suite);
-        int state = klass.getState();
-        if (state < Klass.STATE_LOADED) {
-            if (klass.isArray()) {
-                load(klass.getComponentType());
-            } else {
-            	lastClassNameStack.push(klass.getName());
-                ClassFile classFile = getClassFile(klass);
-                load(classFile);
-                lastClassNameStack.pop();
+        if (cache != null) {
+            cache.beginLoad(klass);
+        }
+        try {
+            int state = klass.getState();
+            if (state < Klass.STATE_LOADED) {
+                if (klass.isArray()) {
+                    load(klass.getComponentType());
+                } else {
+                    lastClassNameStack.push(klass.getName());
+                    ClassFile classFile = getClassFile(klass);
+                    load(classFile);
+                    lastClassNameStack.pop();
+                }
+            }
+        } finally {
+            if (cache != null) {
+                cache.endLoad();
             }
         }
     }
@@ -292,7 +395,26 @@ public final class Translator implements TranslatorInterface {
                 time = System.currentTimeMillis();
             }
             // bytecode optimizations and inlining go here
-            
+            if (optimizeSuite) {
+                if (shouldDevirtualize() && suiteType != Suite.DEBUG) {
+                    devirtualizer = new Devirtualizer(this);
+                    devirtualizer.devirtualizeCalls();
+                }
+                if (shouldDoInlining() && suiteType != Suite.DEBUG) {
+                    inliner = new Inliner(this);
+                    inliner.inlineCalls();
+                }
+                for (int cno = 0; cno < suite.getClassCount(); cno++) {
+                    Klass klass = suite.getKlass(cno);
+                    if (klass != null && !klass.isSynthetic()) {
+                        ClassFile classFile = lookupClassFile(klass);
+                        if (classFile != null) {
+                            classFile.finishConvertPhase1(this);
+                        }
+                    }
+                }
+            }
+
             if (Arg.get(Arg.DEAD_METHOD_ELIMINATION).getBool()) {
                 dme = new DeadMethodEliminator(this);
                 dme.computeMethodsUsed();
@@ -335,6 +457,40 @@ public final class Translator implements TranslatorInterface {
 /*end[ENABLE_VERBOSE]*/	    
         }
         Assert.always(lastClassNameStack.empty());
+
+        if (Arg.get(Arg.PRINT_STATS).getBool()) {
+            printStats(System.out);
+        }
+    }
+
+    /**
+     * Records a method body emitted for the suite.
+     *
+     * @param body  the method body
+     */
+    void recordMethodBody(MethodBody body) {
+        methodBodyCount++;
+        bytecodeSize += body.getCode().length;
+    }
+
+    /**
+     * Prints the translator statistics for the suite.
+     *
+     * @param out  the stream to print to
+     */
+    private void printStats(PrintStream out) {
+        out.println("Translator statistics for " + suite + ":");
+        if (devirtualizer != null) {
+            devirtualizer.printStats(out);
+        }
+        if (inliner != null) {
+            inliner.printStats(out);
+        }
+        out.println("    methods emitted:        " + methodBodyCount);
+        out.println("    bytecode emitted:       " + bytecodeSize + " bytes");
+        if (cache != null) {
+            cache.printStats(out);
+        }
     }
     
    /**
@@ -357,6 +513,8 @@ public final class Translator implements TranslatorInterface {
             out.println("    -tracemaps            trace stackmaps read from class files");
             out.println("    -traceDME             trace Dead Method Elimination");
             out.println("    -traceDCE             trace Dead Class Elimination");
+            out.println("    -traceinlining        trace inlining of method calls");
+            out.println("    -tracedevirtualizing  trace devirtualization of interface calls");
             out.println("    -tracecallgraph       print table of methods and callees (only when doing DME)");
             out.println("    -tracefilter:<string> filter trace with simple string filter");
         }
@@ -551,6 +709,25 @@ public final class Translator implements TranslatorInterface {
 
     public static final boolean REVERSE_PARAMETERS = /*VAL*/true/*REVERSE_PARAMETERS*/;
 
+    /*---------------------------------------------------------------------------*\
+     *                              Native methods                               *
+    \*---------------------------------------------------------------------------*/
+
+    /**
+     * Gets the identifier for a native method invoked by an emitted method body.
+     *
+     * @param name   the fully qualified name of the native method
+     * @return the identifier for the method or -1 if the method does not exist
+     * @see VM#lookupNative(String)
+     */
+    public static int lookupNative(String name) {
+        int identifier = VM.lookupNative(name);
+        if (identifier != -1 && nativeMethodsLookedUp != null && !nativeMethodsLookedUp.contains(name)) {
+            nativeMethodsLookedUp.addElement(name);
+        }
+        return identifier;
+    }
+
     /*---------------------------------------------------------------------------*\
      *                          Debugging                                         *
     \*---------------------------------------------------------------------------*/
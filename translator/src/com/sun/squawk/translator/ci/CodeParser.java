@@ -365,7 +365,7 @@ public final class CodeParser implements Context {
             }
             String name = constantPool.getUtf8(cfr.readUnsignedShort("lvt-nameIndex"));
             String desc = constantPool.getUtf8(cfr.readUnsignedShort("lvt-descriptorIndex"));
-            Klass type = Klass.getClass(desc, true);
+            Klass type = translator.getKlass(desc, true);
             int index = cfr.readUnsignedShort("lvt-index");
             Position start = getPosition(start_pc);
             Position end = getPosition(start_pc + length);
@@ -417,7 +417,7 @@ public class ConstantPool {
         if (skipOverFieldType(sig, 0, false) != sig.length()) {
             throw cfr.formatError("invalid field signature");
         }
-        return Klass.getClass(sig, true);
+        return translator.getKlass(sig, true);
     }
 
     /**
@@ -451,7 +451,7 @@ public class ConstantPool {
                     if (nextOffset == -1) {
                         break;
                     }
-                    Klass parameterType = Klass.getClass(sig.substring(offset, nextOffset), true);
+                    Klass parameterType = translator.getKlass(sig.substring(offset, nextOffset), true);
                     parameterTypes.addElement(parameterType);
                     offset = nextOffset;
                 }
@@ -473,7 +473,7 @@ public class ConstantPool {
                          * Now, we better just have a return value.
                          */
                         if (skipOverFieldType(sig, offset, true) == length) {
-                            returnType = Klass.getClass(sig.substring(offset, length), true);
+                            returnType = translator.getKlass(sig.substring(offset, length), true);
                         }
                     }
                 }
@@ -733,7 +733,7 @@ public class ConstantPool {
                 /*
                  * The name of array classes is in field descriptor form
                  */
-                klass = Klass.getClass(name, true);
+                klass = translator.getKlass(name, true);
             } else {
                 /*
                  * The name of non-array classes will be in JVM
@@ -741,7 +741,7 @@ public class ConstantPool {
                  * needs to be converted to Squawk internal form
                  */
                 name = name.replace('/', '.');
-                klass = Klass.getClass(name, false);
+                klass = translator.getKlass(name, false);
             }
             entries[index] = klass;
         }
@@ -675,6 +675,17 @@ public final class Frame {
         }
     }
 
+    /**
+     * Grows the max stack limit of the method by a given amount after its IR has been built.
+     * This is used when code inlined into the method needs more stack than the invoke it replaced.
+     *
+     * @param   amount  the number of extra stack words required
+     */
+    public void extendMaxStack(int amount) {
+        Assert.that(amount > 0);
+        ensureStack(stack.length + amount);
+    }
+
     /**
      * Resets the max stack limit back to the value specified in the class file for the current method.
      */
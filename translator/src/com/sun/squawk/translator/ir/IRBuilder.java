@@ -60,6 +60,11 @@ public final class IRBuilder {
         }
     }
 
+    /**
+     * The translation context.
+     */
+    private final Translator translator;
+
     /**
      * The method being processed.
      */
@@ -101,6 +106,7 @@ public final class IRBuilder {
      *                     will build an IR
      */
     public IRBuilder(Translator translator, CodeParser codeParser) {
+        this.translator = translator;
         this.codeParser = codeParser;
         this.method = codeParser.getMethod();
         try {
@@ -428,7 +434,7 @@ public final class IRBuilder {
                 }
                 case Opcode.opc_new:             opc_new(codeParser.parseNewOperand()); break;
                 case Opcode.opc_newarray:        opc_newarray(codeParser.parseNewArrayOperand()); break;
-                case Opcode.opc_anewarray:       opc_newarray(Klass.getClass("["+codeParser.parseClassOperand(). getInternalName(), false)); break;
+                case Opcode.opc_anewarray:       opc_newarray(translator.getKlass("["+codeParser.parseClassOperand(). getInternalName(), false)); break;
                 case Opcode.opc_arraylength:     opc_arraylength(); break;
                 case Opcode.opc_athrow:          opc_throw(); fallsThrough = false; break;
                 case Opcode.opc_checkcast:       opc_checkcast(codeParser.parseClassOperand());  break;
@@ -1675,7 +1681,7 @@ public final class IRBuilder {
                 // Class structure can be modified so set the flag indicating that it
                 // should reify its constant fields when it is initialized.
             	// Assume that a class defined in another suite is NOT modifiable.
-                field.getDefiningClass().updateModifiers(Modifier.COMPLETE_RUNTIME_STATICS);
+                translator.updateModifiers(field.getDefiningClass(), Modifier.COMPLETE_RUNTIME_STATICS);
             } else {
                 // The Class object is read-only so replace 'getstatic' with
                 // the appropriate load constant instruction
@@ -1739,7 +1745,7 @@ public final class IRBuilder {
                 // Class structure can be modified so set the flag indicating that it
                 // should reify its constant fields when it is initialized.
             	// Assume class defined in a parent suite to be read only
-                field.getDefiningClass().updateModifiers(Modifier.COMPLETE_RUNTIME_STATICS);
+                translator.updateModifiers(field.getDefiningClass(), Modifier.COMPLETE_RUNTIME_STATICS);
             } else {
                 throw Assert.shouldNotReachHere("writing to constant field of immutable class not supported");
             }
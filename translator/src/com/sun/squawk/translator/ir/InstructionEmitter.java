@@ -172,6 +172,22 @@ public class InstructionEmitter implements InstructionVisitor {
      */
     private boolean needAnotherPass;
 
+    /**
+     * The last single byte opcode emitted that can be the first part of a superinstruction, or -1.
+     */
+    private int fusibleOpcode;
+
+    /**
+     * The offset of {@link #fusibleOpcode}.
+     */
+    private int fusibleOpcodeOffset;
+
+    /**
+     * Flag to show if opcodes are fused into superinstructions. They are not when a type map is
+     * produced, as it would then need the type written by each part.
+     */
+    private final boolean fusing;
+
     /**
      * Flag to show if the method being converted is considered an application class.
      */
@@ -221,6 +237,11 @@ public class InstructionEmitter implements InstructionVisitor {
         if (VM.getCurrentIsolate().getLeafSuite().isBootstrap()) {
             isAppClass = !isSystemClass(classFile.getDefinedClass());
         }
+/*if[TYPEMAP]*/
+        this.fusing = !VM.usingTypeMap();
+/*else[TYPEMAP]*/
+//      this.fusing = true;
+/*end[TYPEMAP]*/
     }
 
     /**
@@ -244,6 +265,7 @@ public class InstructionEmitter implements InstructionVisitor {
          * Clear the byte counter and emit an EXTEND instruction.
          */
         count = 0;
+        fusibleOpcode = -1;
         if (clearedSlots > 0) {
             emitOpcode(OPC.EXTEND);  // TEMP -- for slow vm only
             emit(clearedSlots);
@@ -305,7 +327,19 @@ public class InstructionEmitter implements InstructionVisitor {
                 }
             }
 /*end[TYPEMAP]*/
+
+            /*
+             * A branch or an exception handler must start with an opcode of its own, and an
+             * instruction that emits nothing marks an offset (such as the end of a try block)
+             * that must not fall inside a superinstruction.
+             */
+            if (instruction instanceof TargetedInstruction) {
+                fusibleOpcode = -1;
+            }
             instruction.visit(this);
+            if (instruction.getBytecodeOffset() == count) {
+                fusibleOpcode = -1;
+            }
         }
 
         /*
@@ -327,6 +361,9 @@ public class InstructionEmitter implements InstructionVisitor {
      * Print stats.
      */
     private static String percent(int a, int b) {
+        if (b == 0) {
+            return "0.00"; // every method body came from the translation cache
+        }
         int pcent = (a*100)/b;
         int units = pcent/100;
         pcent -= units*100;
@@ -575,11 +612,38 @@ public class InstructionEmitter implements InstructionVisitor {
         if (opcode > 255) {
             emit(OPC.ESCAPE);
 	    Translator.opcodeSet.set(OPC.ESCAPE);
+            fusibleOpcode = -1;
+        } else if (fusibleOpcode != -1) {
+            int fused = FusionTable.fuse(fusibleOpcode, opcode);
+            if (fused != -1) {
+                // Peephole optimization to emit a superinstruction
+                if (state == EMIT) {
+                    code[fusibleOpcodeOffset] = (byte)fused;
+                }
+                Translator.opcodeSet.set(fused);
+                fusibleOpcode = -1;
+                return;
+            }
+        }
+        if (fusing && opcode <= 255) {
+            fusibleOpcode = opcode;
+            fusibleOpcodeOffset = count;
         }
         emit(opcode & 0xFF);
 	Translator.opcodeSet.set(opcode & 0xFF);
     }
 
+    /**
+     * Emits the opcode that follows a wide or escape_wide prefix.
+     *
+     * @param opcode the low byte of the opcode
+     */
+    private void emitPrefixedOpcode(int opcode) {
+        fusibleOpcode = -1;
+        emit(opcode);
+	Translator.opcodeSet.set(opcode);
+    }
+
     /**
      * Emits an opcode and temporarily forces its stack effect to be a given type.
      *
@@ -612,7 +676,7 @@ public class InstructionEmitter implements InstructionVisitor {
 	    Translator.opcodeSet.set(OPC.ESCAPE_WIDE_0);
 	    Translator.opcodeSet.set((opcode & 0xFF) + OPC.Properties.ESCAPE_WIDE_DELTA);
         }
-        emitOpcode(opcode & 0xFF);
+        emitPrefixedOpcode(opcode & 0xFF);
     }
 
     /**
@@ -630,7 +694,7 @@ public class InstructionEmitter implements InstructionVisitor {
 	    Translator.opcodeSet.set(OPC.ESCAPE_WIDE_1);
 	    Translator.opcodeSet.set((opcode & 0xFF) + OPC.Properties.ESCAPE_WIDE_DELTA);
         }
-        emitOpcode(opcode & 0xFF);
+        emitPrefixedOpcode(opcode & 0xFF);
     }
 
     /**
@@ -648,7 +712,7 @@ public class InstructionEmitter implements InstructionVisitor {
 	    Translator.opcodeSet.set(OPC.ESCAPE_WIDE_M1);
 	    Translator.opcodeSet.set((opcode & 0xFF) + OPC.Properties.ESCAPE_WIDE_DELTA);
         }
-        emitOpcode(opcode & 0xFF);
+        emitPrefixedOpcode(opcode & 0xFF);
     }
 
     /**
@@ -666,7 +730,7 @@ public class InstructionEmitter implements InstructionVisitor {
 	    Translator.opcodeSet.set(OPC.ESCAPE_WIDE_SHORT);
 	    Translator.opcodeSet.set((opcode & 0xFF) + OPC.Properties.ESCAPE_WIDE_DELTA);
         }
-        emitOpcode(opcode & 0xFF);
+        emitPrefixedOpcode(opcode & 0xFF);
     }
 
     /**
@@ -684,7 +748,7 @@ public class InstructionEmitter implements InstructionVisitor {
 	    Translator.opcodeSet.set(OPC.ESCAPE_WIDE_INT);
 	    Translator.opcodeSet.set((opcode & 0xFF) + OPC.Properties.ESCAPE_WIDE_DELTA);
         }
-        emitOpcode(opcode & 0xFF);
+        emitPrefixedOpcode(opcode & 0xFF);
     }
 
     /**
@@ -721,9 +785,11 @@ public class InstructionEmitter implements InstructionVisitor {
         int savePosition = count;
         switch (operandSize) {
             case 1: {                               // Single byte
-                emitOpcode(opcode);
-                int value = targetOffset - (count + 1);
+                // The opcode takes no space if it is fused with the one before it
+                boolean fused = fusibleOpcode != -1 && FusionTable.fuse(fusibleOpcode, opcode) != -1;
+                int value = targetOffset - (count + (fused ? 1 : 2));
                 if (value >= -128 && value < 128) {
+                    emitOpcode(opcode);
                     emit(value & 0xFF);
                     return true;
                 }
@@ -803,7 +869,7 @@ public class InstructionEmitter implements InstructionVisitor {
     private void emitConstantInt(int value) {
         if (value == -1) {
             emitOpcode(OPC.CONST_M1);
-        } else if (value >= 0 && value < 16) {
+        } else if (value >= 0 && value < FusionTable.CONST_COUNT) {
             emitOpcode(OPC.CONST_0 + value);
         } else if (value >= -128 && value < 128) {
             emitOpcode(OPC.CONST_BYTE);
@@ -847,7 +913,7 @@ public class InstructionEmitter implements InstructionVisitor {
         int   ivalue      = (int)value;
         float fvalue      = (float)ivalue;
         int   fvalue_bits = Float.floatToIntBits(fvalue);
-        if (value_bits == fvalue_bits && ivalue >= -1 && ivalue < 16) {
+        if (value_bits == fvalue_bits && ivalue >= -1 && ivalue < FusionTable.CONST_COUNT) {
             emitConstantInt(ivalue);
             emitOpcode(OPC.I2F);
         } else {
@@ -903,7 +969,7 @@ public class InstructionEmitter implements InstructionVisitor {
 
                 Assert.always((object.equals(o2) || ObjectTable.compareIgnoringCount(object, o2) == 0),
                         classFile.getDefinedClass() + " object = '" + object + "' index = " + index  + " object2 = " + o2);
-                emitCompact(OPC.OBJECT, OPC.OBJECT_0, 16, index);
+                emitCompact(OPC.OBJECT, OPC.OBJECT_0, FusionTable.OBJECT_COUNT, index);
             } catch (java.util.NoSuchElementException ex) {
                 throw new NoClassDefFoundError("no copy of object in class's object table: " + object);
             }
@@ -927,9 +993,9 @@ public class InstructionEmitter implements InstructionVisitor {
             }
         } else {
             if (isParm) {
-                emitCompact(OPC.LOADPARM, OPC.LOADPARM_0, 8, index);
+                emitCompact(OPC.LOADPARM, OPC.LOADPARM_0, FusionTable.LOADPARM_COUNT, index);
             } else {
-                emitCompact(OPC.LOAD, OPC.LOAD_0, 16, index);
+                emitCompact(OPC.LOAD, OPC.LOAD_0, FusionTable.LOAD_COUNT, index);
             }
         }
     }
@@ -951,7 +1017,7 @@ public class InstructionEmitter implements InstructionVisitor {
             if (isParm) {
                 emitUnsigned(OPC.STOREPARM, index);
             } else {
-                emitCompact(OPC.STORE, OPC.STORE_0, 16, index);
+                emitCompact(OPC.STORE, OPC.STORE_0, FusionTable.STORE_COUNT, index);
             }
         }
     }
@@ -1305,7 +1371,7 @@ public class InstructionEmitter implements InstructionVisitor {
      * @param type   the return type of the method
      */
     private void invokeNative(String name, Klass type) {
-        int identifier = VM.lookupNative(name);
+        int identifier = Translator.lookupNative(name);
         if (identifier == -1) {
             String msg = "Undefined native method invoked in " + method + ": " + name;
             throw new NoClassDefFoundError(msg);
@@ -215,6 +215,29 @@ public final class Target {
         return derivedStack;
     }
 
+    /**
+     * Determines if a given instruction produced one of the values on the operand
+     * stack at this target, either directly or as one of the values merged into
+     * a stack slot.
+     *
+     * @param producer  the instruction to test
+     * @return true if <code>producer</code> produced a value on the operand stack at this target
+     */
+    public boolean isDerivedFrom(final StackProducer producer) {
+        StackMerge.ProducerVisitor finder = new StackMerge.ProducerVisitor() {
+            public boolean visit(StackProducer merged) {
+                return merged != producer;
+            }
+        };
+        for (int i = 0 ; i < derivedStack.length ; i++) {
+            StackProducer derived = derivedStack[i];
+            if (derived == producer || (derived instanceof StackMerge && !((StackMerge)derived).visitProducers(finder))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Sets the instruction targeted by this target.
      *
@@ -757,6 +757,9 @@ final class Frame {
 
     public void doReturn() {
         // checkForUninitialized(); <-- Not a valid assumption for the TCK javasoft.sqe.tests.vm.instr.newX.new006.new00601m1.new00601m1_wrapper
+
+        // A superinstruction such as const_0__return_i pushes before it returns
+        flow = false;
     }
 
     public void bbtarget() {
@@ -66,16 +66,6 @@ public class Verifier extends VerifierBase {
                                                   do_const(9);                       break;
             case OPC.CONST_10:                    iparmNone();
                                                   do_const(10);                      break;
-            case OPC.CONST_11:                    iparmNone();
-                                                  do_const(11);                      break;
-            case OPC.CONST_12:                    iparmNone();
-                                                  do_const(12);                      break;
-            case OPC.CONST_13:                    iparmNone();
-                                                  do_const(13);                      break;
-            case OPC.CONST_14:                    iparmNone();
-                                                  do_const(14);                      break;
-            case OPC.CONST_15:                    iparmNone();
-                                                  do_const(15);                      break;
             case OPC.OBJECT_0:                    iparmNone();
                                                   do_object(0);                      break;
             case OPC.OBJECT_1:                    iparmNone();
@@ -88,26 +78,6 @@ public class Verifier extends VerifierBase {
                                                   do_object(4);                      break;
             case OPC.OBJECT_5:                    iparmNone();
                                                   do_object(5);                      break;
-            case OPC.OBJECT_6:                    iparmNone();
-                                                  do_object(6);                      break;
-            case OPC.OBJECT_7:                    iparmNone();
-                                                  do_object(7);                      break;
-            case OPC.OBJECT_8:                    iparmNone();
-                                                  do_object(8);                      break;
-            case OPC.OBJECT_9:                    iparmNone();
-                                                  do_object(9);                      break;
-            case OPC.OBJECT_10:                   iparmNone();
-                                                  do_object(10);                     break;
-            case OPC.OBJECT_11:                   iparmNone();
-                                                  do_object(11);                     break;
-            case OPC.OBJECT_12:                   iparmNone();
-                                                  do_object(12);                     break;
-            case OPC.OBJECT_13:                   iparmNone();
-                                                  do_object(13);                     break;
-            case OPC.OBJECT_14:                   iparmNone();
-                                                  do_object(14);                     break;
-            case OPC.OBJECT_15:                   iparmNone();
-                                                  do_object(15);                     break;
             case OPC.LOAD_0:                      iparmNone();
                                                   do_load(0);                        break;
             case OPC.LOAD_1:                      iparmNone();
@@ -126,20 +96,6 @@ public class Verifier extends VerifierBase {
                                                   do_load(7);                        break;
             case OPC.LOAD_8:                      iparmNone();
                                                   do_load(8);                        break;
-            case OPC.LOAD_9:                      iparmNone();
-                                                  do_load(9);                        break;
-            case OPC.LOAD_10:                     iparmNone();
-                                                  do_load(10);                       break;
-            case OPC.LOAD_11:                     iparmNone();
-                                                  do_load(11);                       break;
-            case OPC.LOAD_12:                     iparmNone();
-                                                  do_load(12);                       break;
-            case OPC.LOAD_13:                     iparmNone();
-                                                  do_load(13);                       break;
-            case OPC.LOAD_14:                     iparmNone();
-                                                  do_load(14);                       break;
-            case OPC.LOAD_15:                     iparmNone();
-                                                  do_load(15);                       break;
             case OPC.STORE_0:                     iparmNone();
                                                   do_store(0);                       break;
             case OPC.STORE_1:                     iparmNone();
@@ -158,20 +114,6 @@ public class Verifier extends VerifierBase {
                                                   do_store(7);                       break;
             case OPC.STORE_8:                     iparmNone();
                                                   do_store(8);                       break;
-            case OPC.STORE_9:                     iparmNone();
-                                                  do_store(9);                       break;
-            case OPC.STORE_10:                    iparmNone();
-                                                  do_store(10);                      break;
-            case OPC.STORE_11:                    iparmNone();
-                                                  do_store(11);                      break;
-            case OPC.STORE_12:                    iparmNone();
-                                                  do_store(12);                      break;
-            case OPC.STORE_13:                    iparmNone();
-                                                  do_store(13);                      break;
-            case OPC.STORE_14:                    iparmNone();
-                                                  do_store(14);                      break;
-            case OPC.STORE_15:                    iparmNone();
-                                                  do_store(15);                      break;
             case OPC.LOADPARM_0:                  iparmNone();
                                                   do_loadparm(0);                    break;
             case OPC.LOADPARM_1:                  iparmNone();
@@ -182,12 +124,6 @@ public class Verifier extends VerifierBase {
                                                   do_loadparm(3);                    break;
             case OPC.LOADPARM_4:                  iparmNone();
                                                   do_loadparm(4);                    break;
-            case OPC.LOADPARM_5:                  iparmNone();
-                                                  do_loadparm(5);                    break;
-            case OPC.LOADPARM_6:                  iparmNone();
-                                                  do_loadparm(6);                    break;
-            case OPC.LOADPARM_7:                  iparmNone();
-                                                  do_loadparm(7);                    break;
             case OPC.WIDE_M1:                     iparmNone();
                                                   do_wide(-1);                       break;
             case OPC.WIDE_0:                      iparmNone();
@@ -556,6 +492,70 @@ public class Verifier extends VerifierBase {
                                                   do_lookup(SHORT);                  break;
             case OPC.PAUSE:                       iparmNone();
                                                   do_pause();                        break;
+            case OPC.LOADPARM_0__LOAD_2:          iparmNone();
+                                                  do_loadparm(0); do_load(2);        break;
+            case OPC.LOADPARM_1__GETFIELD0_I:     iparmUByte();
+                                                  do_loadparm(1); do_getfield0(INT); break;
+            case OPC.LOADPARM_0__LOAD_3:          iparmNone();
+                                                  do_loadparm(0); do_load(3);        break;
+            case OPC.LOAD_3__ALOAD_I:             iparmNone();
+                                                  do_load(3); do_aload(INT);         break;
+            case OPC.LOAD_2__ALOAD_I:             iparmNone();
+                                                  do_load(2); do_aload(INT);         break;
+            case OPC.STORE_1__LOAD_1:             iparmNone();
+                                                  do_store(1); do_load(1);           break;
+            case OPC.LOAD_1__IF_CMPGE_I:          iparmByte();
+                                                  do_load(1); do_if(2, GE, INT);     break;
+            case OPC.GETFIELD0_O__STORE_1:        iparmUByte();
+                                                  do_getfield0(OOP); do_store(1);    break;
+            case OPC.LOAD_1__IF_CMPLE_I:          iparmByte();
+                                                  do_load(1); do_if(2, LE, INT);     break;
+            case OPC.LOADPARM_0__INVOKEVIRTUAL_I: iparmUByte();
+                                                  do_loadparm(0); do_invokevirtual(INT);break;
+            case OPC.LOAD_2__LOAD_3:              iparmNone();
+                                                  do_load(2); do_load(3);            break;
+            case OPC.LOAD_3__IF_CMPGT_I:          iparmByte();
+                                                  do_load(3); do_if(2, GT, INT);     break;
+            case OPC.LOAD_1__ARRAYLENGTH:         iparmNone();
+                                                  do_load(1); do_arraylength();      break;
+            case OPC.LOADPARM_0__IF_EQ_O:         iparmByte();
+                                                  do_loadparm(0); do_if(1, EQ, OOP); break;
+            case OPC.LOAD_1__STOREPARM:           iparmUByte();
+                                                  do_load(1); do_storeparm();        break;
+            case OPC.LOAD_1__LOAD_4:              iparmNone();
+                                                  do_load(1); do_load(4);            break;
+            case OPC.GETFIELD0_I__RETURN_I:       iparmUByte();
+                                                  do_getfield0(INT); do_return(INT); break;
+            case OPC.LOAD_4__LOAD_1:              iparmNone();
+                                                  do_load(4); do_load(1);            break;
+            case OPC.LOADPARM_0__OBJECT_1:        iparmNone();
+                                                  do_loadparm(0); do_object(1);      break;
+            case OPC.LOAD_3__INVOKEVIRTUAL_I:     iparmUByte();
+                                                  do_load(3); do_invokevirtual(INT); break;
+            case OPC.OBJECT_1__INVOKESTATIC_I:    iparmUByte();
+                                                  do_object(1); do_invokestatic(INT);break;
+            case OPC.CONST_SHORT__AND_I:          iparmNone();
+                                                  do_const_short(); do_and(INT);     break;
+            case OPC.LOAD_2__LOAD_1:              iparmNone();
+                                                  do_load(2); do_load(1);            break;
+            case OPC.CONST_8__USHR_I:             iparmNone();
+                                                  do_const(8); do_ushr(INT);         break;
+            case OPC.STORE_1__GOTO:               iparmByte();
+                                                  do_store(1); do_goto();            break;
+            case OPC.LOADPARM_1__LOADPARM_2:      iparmNone();
+                                                  do_loadparm(1); do_loadparm(2);    break;
+            case OPC.STORE_1__LOADPARM_1:         iparmNone();
+                                                  do_store(1); do_loadparm(1);       break;
+            case OPC.LOAD_2__LOADPARM_0:          iparmNone();
+                                                  do_load(2); do_loadparm(0);        break;
+            case OPC.MUL_I__RETURN_I:             iparmNone();
+                                                  do_mul(INT); do_return(INT);       break;
+            case OPC.LOADPARM_1__LOADPARM_0:      iparmNone();
+                                                  do_loadparm(1); do_loadparm(0);    break;
+            case OPC.LOAD_1__LOAD_2:              iparmNone();
+                                                  do_load(1); do_load(2);            break;
+            case OPC.LOAD_3__LOAD_4:              iparmNone();
+                                                  do_load(3); do_load(4);            break;
 
 /*if[FLOATS]*/
             case OPC.FCMPL:                       iparmNone();
@@ -126,12 +126,29 @@ public abstract class VerifierBase {
      */
     private Frame frame;
 
+    /**
+     * The translator that produced the method, or null if not known.
+     */
+    private Translator translator;
+
     /**
      * Verify a method body.
      *
      * @param body the method body to verify
      */
     public void verify(MethodBody body) {
+        verify(body, null);
+    }
+
+    /**
+     * Verify a method body produced by a given translator. The translator's {@link com.sun.squawk.translator.MethodDB}
+     * is used to check the interface calls that it devirtualized.
+     *
+     * @param body       the method body to verify
+     * @param translator the translator that produced <code>body</code>
+     */
+    public void verify(MethodBody body, Translator translator) {
+        this.translator = translator;
         Method method = body.getDefiningMethod();
         this.klass    = body.getDefiningClass();
         this.body     = body;
@@ -981,11 +998,35 @@ public abstract class VerifierBase {
                 frame.push((Klass)stack.elementAt(i));
             }
         }
-        check(Frame.isAssignable(superklass, fklass), "invalid superclass");
         Method m = getVirtualMethod(superklass, iparm);
+        check(Frame.isAssignable(superklass, fklass) || isSingleImplementation(fklass, superklass, m), "invalid superclass");
         do_invoke(m, t);
     }
 
+    /**
+     * Determines if an invokesuper whose receiver has an interface type is a devirtualized interface
+     * call. That is only the case if the method invoked is the single implementation of the interface
+     * method that {@link com.sun.squawk.translator.MethodDB#getSingleImplementation} found, as then
+     * the receiver must be an instance of the class defining the implementation.
+     *
+     * @param iface       the type of the receiver
+     * @param superklass  the class whose method is invoked
+     * @param m           a method with the signature of the method invoked
+     * @return true if the call is to the single implementation of a method of <code>iface</code>
+     */
+    private boolean isSingleImplementation(Klass iface, Klass superklass, Method m) {
+        if (translator == null || translator.getTranslationStrategy() < Translator.BY_SUITE || !Translator.shouldDevirtualize() ||
+            !iface.isInterface() || m == null) {
+            return false;
+        }
+        Method method = iface.lookupMethod(m.getName(), m.getParameterTypes(), m.getReturnType(), null, false);
+        if (method == null || !method.getDefiningClass().isInterface()) {
+            return false;
+        }
+        Method impl = translator.methodDB.getSingleImplementation(method);
+        return impl != null && impl.getDefiningClass() == superklass && impl.getOffset() == iparm;
+    }
+
     protected void do_invokenative(Klass t) {
         frame.mayCauseGC();
         if (iparm == Native.com_sun_squawk_VM$getGlobalOop) {
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2004-2008 Sun Microsystems, Inc. All Rights Reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER
+ * 
+ * This code is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 2
+ * only, as published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is
+ * included in the LICENSE file that accompanied this code).
+ * 
+ * You should have received a copy of the GNU General Public License
+ * version 2 along with this work; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA
+ * 
+ * Please contact Sun Microsystems, Inc., 16 Network Circle, Menlo
+ * Park, CA 94025 or visit www.sun.com if you need additional
+ * information or have any questions.
+ */
+
+/* **** GENERATED FILE -- DO NOT EDIT ****
+ *      generated by com.sun.squawk.builder.gen.FusionTable
+ */
+
+package com.sun.squawk.vm;
+
+/**
+ * This class defines the superinstructions of the Squawk VM instruction set, and the number of
+ * opcodes left for each family of instructions that has an implicit parameter in its opcode.
+ *
+ */
+public final class FusionTable {
+
+    /**
+     * The number of const_n instructions.
+     */
+    public final static int CONST_COUNT = 11;
+
+    /**
+     * The number of object_n instructions.
+     */
+    public final static int OBJECT_COUNT = 6;
+
+    /**
+     * The number of load_n instructions.
+     */
+    public final static int LOAD_COUNT = 9;
+
+    /**
+     * The number of store_n instructions.
+     */
+    public final static int STORE_COUNT = 9;
+
+    /**
+     * The number of loadparm_n instructions.
+     */
+    public final static int LOADPARM_COUNT = 5;
+
+    /**
+     * Gets the superinstruction that replaces a given pair of instructions.
+     *
+     * @param  first   the opcode of the first instruction
+     * @param  second  the opcode of the instruction following it
+     * @return the opcode of the superinstruction or -1 if there is none
+     */
+    public static int fuse(int first, int second) {
+        switch (first) {
+            case OPC.LOADPARM_0: {
+                switch (second) {
+                    case OPC.LOAD_2:              return OPC.LOADPARM_0__LOAD_2;
+                    case OPC.LOAD_3:              return OPC.LOADPARM_0__LOAD_3;
+                    case OPC.INVOKEVIRTUAL_I:     return OPC.LOADPARM_0__INVOKEVIRTUAL_I;
+                    case OPC.IF_EQ_O:             return OPC.LOADPARM_0__IF_EQ_O;
+                    case OPC.OBJECT_1:            return OPC.LOADPARM_0__OBJECT_1;
+                }
+                break;
+            }
+            case OPC.LOADPARM_1: {
+                switch (second) {
+                    case OPC.GETFIELD0_I:         return OPC.LOADPARM_1__GETFIELD0_I;
+                    case OPC.LOADPARM_2:          return OPC.LOADPARM_1__LOADPARM_2;
+                    case OPC.LOADPARM_0:          return OPC.LOADPARM_1__LOADPARM_0;
+                }
+                break;
+            }
+            case OPC.LOAD_3: {
+                switch (second) {
+                    case OPC.ALOAD_I:             return OPC.LOAD_3__ALOAD_I;
+                    case OPC.IF_CMPGT_I:          return OPC.LOAD_3__IF_CMPGT_I;
+                    case OPC.INVOKEVIRTUAL_I:     return OPC.LOAD_3__INVOKEVIRTUAL_I;
+                    case OPC.LOAD_4:              return OPC.LOAD_3__LOAD_4;
+                }
+                break;
+            }
+            case OPC.LOAD_2: {
+                switch (second) {
+                    case OPC.ALOAD_I:             return OPC.LOAD_2__ALOAD_I;
+                    case OPC.LOAD_3:              return OPC.LOAD_2__LOAD_3;
+                    case OPC.LOAD_1:              return OPC.LOAD_2__LOAD_1;
+                    case OPC.LOADPARM_0:          return OPC.LOAD_2__LOADPARM_0;
+                }
+                break;
+            }
+            case OPC.STORE_1: {
+                switch (second) {
+                    case OPC.LOAD_1:              return OPC.STORE_1__LOAD_1;
+                    case OPC.GOTO:                return OPC.STORE_1__GOTO;
+                    case OPC.LOADPARM_1:          return OPC.STORE_1__LOADPARM_1;
+                }
+                break;
+            }
+            case OPC.LOAD_1: {
+                switch (second) {
+                    case OPC.IF_CMPGE_I:          return OPC.LOAD_1__IF_CMPGE_I;
+                    case OPC.IF_CMPLE_I:          return OPC.LOAD_1__IF_CMPLE_I;
+                    case OPC.ARRAYLENGTH:         return OPC.LOAD_1__ARRAYLENGTH;
+                    case OPC.STOREPARM:           return OPC.LOAD_1__STOREPARM;
+                    case OPC.LOAD_4:              return OPC.LOAD_1__LOAD_4;
+                    case OPC.LOAD_2:              return OPC.LOAD_1__LOAD_2;
+                }
+                break;
+            }
+            case OPC.GETFIELD0_O: {
+                switch (second) {
+                    case OPC.STORE_1:             return OPC.GETFIELD0_O__STORE_1;
+                }
+                break;
+            }
+            case OPC.GETFIELD0_I: {
+                switch (second) {
+                    case OPC.RETURN_I:            return OPC.GETFIELD0_I__RETURN_I;
+                }
+                break;
+            }
+            case OPC.LOAD_4: {
+                switch (second) {
+                    case OPC.LOAD_1:              return OPC.LOAD_4__LOAD_1;
+                }
+                break;
+            }
+            case OPC.OBJECT_1: {
+                switch (second) {
+                    case OPC.INVOKESTATIC_I:      return OPC.OBJECT_1__INVOKESTATIC_I;
+                }
+                break;
+            }
+            case OPC.CONST_SHORT: {
+                switch (second) {
+                    case OPC.AND_I:               return OPC.CONST_SHORT__AND_I;
+                }
+                break;
+            }
+            case OPC.CONST_8: {
+                switch (second) {
+                    case OPC.USHR_I:              return OPC.CONST_8__USHR_I;
+                }
+                break;
+            }
+            case OPC.MUL_I: {
+                switch (second) {
+                    case OPC.RETURN_I:            return OPC.MUL_I__RETURN_I;
+                }
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines if a given opcode is a superinstruction.
+     *
+     * @param  opcode  an instruction opcode
+     * @return true if <code>opcode</code> replaces a pair of instructions
+     */
+    public static boolean isFused(int opcode) {
+        switch (opcode) {
+            case OPC.LOADPARM_0__LOAD_2:
+            case OPC.LOADPARM_0__LOAD_3:
+            case OPC.LOADPARM_0__INVOKEVIRTUAL_I:
+            case OPC.LOADPARM_0__IF_EQ_O:
+            case OPC.LOADPARM_0__OBJECT_1:
+            case OPC.LOADPARM_1__GETFIELD0_I:
+            case OPC.LOADPARM_1__LOADPARM_2:
+            case OPC.LOADPARM_1__LOADPARM_0:
+            case OPC.LOAD_3__ALOAD_I:
+            case OPC.LOAD_3__IF_CMPGT_I:
+            case OPC.LOAD_3__INVOKEVIRTUAL_I:
+            case OPC.LOAD_3__LOAD_4:
+            case OPC.LOAD_2__ALOAD_I:
+            case OPC.LOAD_2__LOAD_3:
+            case OPC.LOAD_2__LOAD_1:
+            case OPC.LOAD_2__LOADPARM_0:
+            case OPC.STORE_1__LOAD_1:
+            case OPC.STORE_1__GOTO:
+            case OPC.STORE_1__LOADPARM_1:
+            case OPC.LOAD_1__IF_CMPGE_I:
+            case OPC.LOAD_1__IF_CMPLE_I:
+            case OPC.LOAD_1__ARRAYLENGTH:
+            case OPC.LOAD_1__STOREPARM:
+            case OPC.LOAD_1__LOAD_4:
+            case OPC.LOAD_1__LOAD_2:
+            case OPC.GETFIELD0_O__STORE_1:
+            case OPC.GETFIELD0_I__RETURN_I:
+            case OPC.LOAD_4__LOAD_1:
+            case OPC.OBJECT_1__INVOKESTATIC_I:
+            case OPC.CONST_SHORT__AND_I:
+            case OPC.CONST_8__USHR_I:
+            case OPC.MUL_I__RETURN_I:
+                return true;
+        }
+        return false;
+    }
+}
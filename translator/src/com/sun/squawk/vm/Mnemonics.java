@@ -75,27 +75,12 @@ public final class Mnemonics {
         "const_8",
         "const_9",
         "const_10",
-        "const_11",
-        "const_12",
-        "const_13",
-        "const_14",
-        "const_15",
         "object_0",
         "object_1",
         "object_2",
         "object_3",
         "object_4",
         "object_5",
-        "object_6",
-        "object_7",
-        "object_8",
-        "object_9",
-        "object_10",
-        "object_11",
-        "object_12",
-        "object_13",
-        "object_14",
-        "object_15",
         "load_0",
         "load_1",
         "load_2",
@@ -105,13 +90,6 @@ public final class Mnemonics {
         "load_6",
         "load_7",
         "load_8",
-        "load_9",
-        "load_10",
-        "load_11",
-        "load_12",
-        "load_13",
-        "load_14",
-        "load_15",
         "store_0",
         "store_1",
         "store_2",
@@ -121,21 +99,11 @@ public final class Mnemonics {
         "store_6",
         "store_7",
         "store_8",
-        "store_9",
-        "store_10",
-        "store_11",
-        "store_12",
-        "store_13",
-        "store_14",
-        "store_15",
         "loadparm_0",
         "loadparm_1",
         "loadparm_2",
         "loadparm_3",
         "loadparm_4",
-        "loadparm_5",
-        "loadparm_6",
-        "loadparm_7",
         "wide_m1",
         "wide_0",
         "wide_1",
@@ -320,6 +288,38 @@ public final class Mnemonics {
         "lookup_b",
         "lookup_s",
         "pause",
+        "loadparm_0__load_2",
+        "loadparm_1__getfield0_i",
+        "loadparm_0__load_3",
+        "load_3__aload_i",
+        "load_2__aload_i",
+        "store_1__load_1",
+        "load_1__if_cmpge_i",
+        "getfield0_o__store_1",
+        "load_1__if_cmple_i",
+        "loadparm_0__invokevirtual_i",
+        "load_2__load_3",
+        "load_3__if_cmpgt_i",
+        "load_1__arraylength",
+        "loadparm_0__if_eq_o",
+        "load_1__storeparm",
+        "load_1__load_4",
+        "getfield0_i__return_i",
+        "load_4__load_1",
+        "loadparm_0__object_1",
+        "load_3__invokevirtual_i",
+        "object_1__invokestatic_i",
+        "const_short__and_i",
+        "load_2__load_1",
+        "const_8__ushr_i",
+        "store_1__goto",
+        "loadparm_1__loadparm_2",
+        "store_1__loadparm_1",
+        "load_2__loadparm_0",
+        "mul_i__return_i",
+        "loadparm_1__loadparm_0",
+        "load_1__load_2",
+        "load_3__load_4",
         "object_wide",
         "load_wide",
         "load_i2_wide",
@@ -73,27 +73,12 @@ public final class OperandStackEffect {
         /* CONST_8 */                   ":I",
         /* CONST_9 */                   ":I",
         /* CONST_10 */                  ":I",
-        /* CONST_11 */                  ":I",
-        /* CONST_12 */                  ":I",
-        /* CONST_13 */                  ":I",
-        /* CONST_14 */                  ":I",
-        /* CONST_15 */                  ":I",
         /* OBJECT_0 */                  ":O",
         /* OBJECT_1 */                  ":O",
         /* OBJECT_2 */                  ":O",
         /* OBJECT_3 */                  ":O",
         /* OBJECT_4 */                  ":O",
         /* OBJECT_5 */                  ":O",
-        /* OBJECT_6 */                  ":O",
-        /* OBJECT_7 */                  ":O",
-        /* OBJECT_8 */                  ":O",
-        /* OBJECT_9 */                  ":O",
-        /* OBJECT_10 */                 ":O",
-        /* OBJECT_11 */                 ":O",
-        /* OBJECT_12 */                 ":O",
-        /* OBJECT_13 */                 ":O",
-        /* OBJECT_14 */                 ":O",
-        /* OBJECT_15 */                 ":O",
         /* LOAD_0 */                    ":W",
         /* LOAD_1 */                    ":W",
         /* LOAD_2 */                    ":W",
@@ -103,13 +88,6 @@ public final class OperandStackEffect {
         /* LOAD_6 */                    ":W",
         /* LOAD_7 */                    ":W",
         /* LOAD_8 */                    ":W",
-        /* LOAD_9 */                    ":W",
-        /* LOAD_10 */                   ":W",
-        /* LOAD_11 */                   ":W",
-        /* LOAD_12 */                   ":W",
-        /* LOAD_13 */                   ":W",
-        /* LOAD_14 */                   ":W",
-        /* LOAD_15 */                   ":W",
         /* STORE_0 */                   "W:",
         /* STORE_1 */                   "W:",
         /* STORE_2 */                   "W:",
@@ -119,21 +97,11 @@ public final class OperandStackEffect {
         /* STORE_6 */                   "W:",
         /* STORE_7 */                   "W:",
         /* STORE_8 */                   "W:",
-        /* STORE_9 */                   "W:",
-        /* STORE_10 */                  "W:",
-        /* STORE_11 */                  "W:",
-        /* STORE_12 */                  "W:",
-        /* STORE_13 */                  "W:",
-        /* STORE_14 */                  "W:",
-        /* STORE_15 */                  "W:",
         /* LOADPARM_0 */                ":W",
         /* LOADPARM_1 */                ":W",
         /* LOADPARM_2 */                ":W",
         /* LOADPARM_3 */                ":W",
         /* LOADPARM_4 */                ":W",
-        /* LOADPARM_5 */                ":W",
-        /* LOADPARM_6 */                ":W",
-        /* LOADPARM_7 */                ":W",
         /* WIDE_M1 */                   ":",
         /* WIDE_0 */                    ":",
         /* WIDE_1 */                    ":",
@@ -318,6 +286,38 @@ public final class OperandStackEffect {
         /* LOOKUP_B */                  "IO:I",
         /* LOOKUP_S */                  "IO:I",
         /* PAUSE */                     ":",
+        /* LOADPARM_0__LOAD_2 */        ":WW",
+        /* LOADPARM_1__GETFIELD0_I */   ":WI",
+        /* LOADPARM_0__LOAD_3 */        ":WW",
+        /* LOAD_3__ALOAD_I */           "O:I",
+        /* LOAD_2__ALOAD_I */           "O:I",
+        /* STORE_1__LOAD_1 */           "W:W",
+        /* LOAD_1__IF_CMPGE_I */        "I:",
+        /* GETFIELD0_O__STORE_1 */      ":",
+        /* LOAD_1__IF_CMPLE_I */        "I:",
+        /* LOADPARM_0__INVOKEVIRTUAL_I */"*:I",
+        /* LOAD_2__LOAD_3 */            ":WW",
+        /* LOAD_3__IF_CMPGT_I */        "I:",
+        /* LOAD_1__ARRAYLENGTH */       ":I",
+        /* LOADPARM_0__IF_EQ_O */       ":",
+        /* LOAD_1__STOREPARM */         ":",
+        /* LOAD_1__LOAD_4 */            ":WW",
+        /* GETFIELD0_I__RETURN_I */     ":",
+        /* LOAD_4__LOAD_1 */            ":WW",
+        /* LOADPARM_0__OBJECT_1 */      ":WO",
+        /* LOAD_3__INVOKEVIRTUAL_I */   "*:I",
+        /* OBJECT_1__INVOKESTATIC_I */  "*:I",
+        /* CONST_SHORT__AND_I */        "I:I",
+        /* LOAD_2__LOAD_1 */            ":WW",
+        /* CONST_8__USHR_I */           "I:I",
+        /* STORE_1__GOTO */             "W:",
+        /* LOADPARM_1__LOADPARM_2 */    ":WW",
+        /* STORE_1__LOADPARM_1 */       "W:W",
+        /* LOAD_2__LOADPARM_0 */        ":WW",
+        /* MUL_I__RETURN_I */           "II:",
+        /* LOADPARM_1__LOADPARM_0 */    ":WW",
+        /* LOAD_1__LOAD_2 */            ":WW",
+        /* LOAD_3__LOAD_4 */            ":WW",
         /* OBJECT_WIDE */               ":O",
         /* LOAD_WIDE */                 ":W",
         /* LOAD_I2_WIDE */              ":L",
@@ -496,6 +496,10 @@ TaskExecutor* createTaskExecutor(char* name, int priority, int stacksize) {
         return NULL;
     }
     te->runQ = NULL;
+    te->runQTail = NULL;
+    te->queueLength = 0;
+    te->maxQueueLength = 0;
+    te->tasksRun = 0;
     te->monitor = SimpleMonitorCreate();
     te->status = TASK_EXECUTOR_STATUS_STARTING;
 
@@ -578,6 +578,10 @@ TaskExecutor* createTaskExecutor(char* name, int priority, int stacksize) {
     }
     
     te->runQ = NULL;
+    te->runQTail = NULL;
+    te->queueLength = 0;
+    te->maxQueueLength = 0;
+    te->tasksRun = 0;
     te->monitor = SimpleMonitorCreate();
     if (te->monitor == NULL) {
         te->status = EVENT_REQUEST_STATUS_ERROR;
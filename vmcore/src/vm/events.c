@@ -9,6 +9,41 @@ extern int squawk_cioRequestor(void);
 #define IS_BOUND_EVENT(type) (squawk_event_type(type) == BOUND_EVENT)
 #define EVENT_NUMBER (squawk_cioRequestor()+1)
 
+/*
+ * Events are posted by interrupt handlers, signal handlers and callbacks into a
+ * single-producer/single-consumer ring. squawk_post_event only writes the head and
+ * the VM only writes the tail when it checks for events, so neither side takes a
+ * lock or disables interrupts. Posts must not be made from more than one context
+ * at a time (e.g. from nested interrupts of different priorities).
+ *
+ * The capacity can be set with -DEVENT_RING_SIZE=n and must be a power of 2.
+ */
+#ifndef EVENT_RING_SIZE
+#define EVENT_RING_SIZE 32
+#endif
+
+typedef char event_ring_size_must_be_a_power_of_2[(EVENT_RING_SIZE & (EVENT_RING_SIZE - 1)) == 0 ? 1 : -1];
+
+#if defined(__GNUC__)
+#define EVENT_BARRIER() __sync_synchronize()
+#else
+#define EVENT_BARRIER()
+#endif
+
+struct postedEvent {
+	int threadNumber;
+	int type;
+	int value;
+};
+typedef struct postedEvent PostedEvent;
+
+static PostedEvent eventRing[EVENT_RING_SIZE];
+static volatile unsigned int eventRingHead; /* written by squawk_post_event only */
+static volatile unsigned int eventRingTail; /* written by the VM only */
+
+volatile unsigned int squawk_events_dropped;
+unsigned int squawk_irq_requests_rejected;
+
 struct irqRequest {
 	int eventNumber;
 	int type;
@@ -18,52 +53,107 @@ struct irqRequest {
 };
 typedef struct irqRequest IrqRequest;
 
-static IrqRequest *irqRequests;
-
 #ifndef IRQREQ_POOL_SIZE
 #define IRQREQ_POOL_SIZE 4
 #endif
 static IrqRequest pool[IRQREQ_POOL_SIZE];
 static IrqRequest* freeList = &pool[0];
 
+/*
+ * The signaled bound requests in the order they were signaled. A request is in
+ * here at most once, so this cannot overflow.
+ */
+static IrqRequest* ready[IRQREQ_POOL_SIZE];
+static int readyHead;
+static int readyCount;
+
+/*
+ * The number of requests waiting for an unbound event, which have to be polled.
+ */
+static int unboundRequests;
+
 /*
  * Initialize memory pool
  */
 void squawk_init_event() {
 	freeList = (IrqRequest*)&pool[0];
 	IrqRequest* prev = freeList;
+	prev->eventNumber = 0;
 	for (int i = 1; i < sizeof(pool) / sizeof(IrqRequest); i++) {
 		IrqRequest* r = &pool[i];
+		r->eventNumber = 0;
 		prev->next = r;
 		prev = r;
 	}
 	prev->next = NULL;
+	readyHead = 0;
+	readyCount = 0;
+	unboundRequests = 0;
+	eventRingTail = eventRingHead;
 }
 
 /*
  * Fire a bound event
  */
 void squawk_post_event(int threadNumber, int type, int value) {
-	if (irqRequests == NULL) {
+	unsigned int head = eventRingHead;
+	if (head - eventRingTail == EVENT_RING_SIZE) {
+		squawk_events_dropped++;
 		return;
 	}
-	IrqRequest* current = irqRequests;
-	while (current != NULL) {
-		int evt;
-		if (current->type == type) {
-				if (current->eventNumber == threadNumber) {
-						current->event = value;
-						current->signaled = true;
-						break;
-				} else if (threadNumber == 0) {
-						current->event = value;
-						current->signaled = true;
-				}
+	PostedEvent* e = &eventRing[head & (EVENT_RING_SIZE - 1)];
+	e->threadNumber = threadNumber;
+	e->type = type;
+	e->value = value;
+	EVENT_BARRIER(); /* publish the event before the head */
+	eventRingHead = head + 1;
+}
+
+static void signalIrqRequest(IrqRequest* r, int value) {
+	r->event = value;
+	if (!r->signaled) {
+		r->signaled = true;
+		ready[(readyHead + readyCount) % IRQREQ_POOL_SIZE] = r;
+		readyCount++;
+	}
+}
+
+/*
+ * Signal the bound requests that a posted event is for: the request of the thread
+ * it was posted to, or every request for its type if it was posted to thread 0.
+ */
+static void dispatchEvent(PostedEvent* e) {
+	for (int i = 0; i < IRQREQ_POOL_SIZE; i++) {
+		IrqRequest* r = &pool[i];
+		if (r->eventNumber != 0 && r->type == e->type && IS_BOUND_EVENT(r->type)) {
+			if (r->eventNumber == e->threadNumber) {
+				signalIrqRequest(r, e->value);
+				break;
+			} else if (e->threadNumber == 0) {
+				signalIrqRequest(r, e->value);
+			}
 		}
-		current = current->next;
 	}
 }
 
+/*
+ * Move the events posted since the last check to the requests waiting for them.
+ */
+static void drainEventRing() {
+	unsigned int tail = eventRingTail;
+	unsigned int head = eventRingHead;
+	if (tail == head) {
+		return;
+	}
+	EVENT_BARRIER(); /* read the events after the head */
+	while (tail != head) {
+		dispatchEvent(&eventRing[tail & (EVENT_RING_SIZE - 1)]);
+		tail++;
+	}
+	EVENT_BARRIER(); /* finish reading the events before they can be overwritten */
+	eventRingTail = tail;
+}
+
 static IrqRequest* allocateIrqRequest() {
 	if (freeList) {
 		IrqRequest* r = freeList;
@@ -74,6 +164,10 @@ static IrqRequest* allocateIrqRequest() {
 }
 
 static void recycleIrqRequest(IrqRequest* r) {
+	if (!IS_BOUND_EVENT(r->type)) {
+		unboundRequests--;
+	}
+	r->eventNumber = 0;
 	r->next = freeList;
 	freeList = r;
 }
@@ -87,8 +181,7 @@ static void recycleIrqRequest(IrqRequest* r) {
 int storeIrqRequest (int type) {
 	IrqRequest* newRequest = allocateIrqRequest();
 	if (newRequest == NULL) {
-		//TODO set up error message for GET_ERROR and handle
-		//one per channel and clean on new requests.
+		squawk_irq_requests_rejected++;
 		return -1;
 	}
 
@@ -96,49 +189,27 @@ int storeIrqRequest (int type) {
 	newRequest->type = type;
 	newRequest->signaled = false;
 	newRequest->event = 0;
-
-	if (irqRequests == NULL) {
-		irqRequests = newRequest;
-		newRequest->eventNumber = EVENT_NUMBER;
-	} else {
-		IrqRequest* current = irqRequests;
-		while (current->next != NULL) {
-			current = current->next;
-		}
-		current->next = newRequest;
-		newRequest->eventNumber = EVENT_NUMBER;
+	newRequest->eventNumber = EVENT_NUMBER;
+	if (!IS_BOUND_EVENT(type)) {
+		unboundRequests++;
 	}
 	return newRequest->eventNumber;
 }
 
 /*
- * Check bound event in a single irq request.  If an event has been signaled, the value will be stored in the 3rd argument.
+ * Find a request for an unbound event that has occurred, or NULL if there is none.
  */
-static int check_bound_event(IrqRequest* request, int clear_flag, int* event) {
-	if (!IS_BOUND_EVENT(request->type)) {
-		return 0;
+static IrqRequest* pollUnboundRequests(int clear_flag, int* evt) {
+	if (unboundRequests == 0) {
+		return NULL;
 	}
-	if (request->signaled) {
-		*event = request->event;
-		if (clear_flag) {
-			request->signaled = false;
+	for (int i = 0; i < IRQREQ_POOL_SIZE; i++) {
+		IrqRequest* r = &pool[i];
+		if (r->eventNumber != 0 && !IS_BOUND_EVENT(r->type) && squawk_check_unbound_event(r->type, clear_flag, evt)) {
+			return r;
 		}
-		return 1;
-	} else {
-		return 0;
-	}
-}
-
-/**
- * Check if an irq bit is set in the status, return 1 if yes
- * Also, clear bit if it is set and clear_flag = 1
- */
-static int check_event(IrqRequest* request, int clear_flag, int *evt) {
-	if (IS_BOUND_EVENT(request->type)) {
-		return check_bound_event(request, clear_flag, evt);
-	} else {
-		return squawk_check_unbound_event(request->type, clear_flag, evt);
 	}
+	return NULL;
 }
 
 /*
@@ -149,33 +220,30 @@ static int check_event(IrqRequest* request, int clear_flag, int *evt) {
  */
 static int getEventPrim(int removeEventFlag) {
 	squawk_update_event();
-	
-	int res = 0;
-	if (irqRequests == NULL) {
-		return 0;
-	}
-	IrqRequest* current = irqRequests;
-	IrqRequest* previous = NULL;
-	while (current != NULL) {
-		int evt;
-		if (check_event(current, removeEventFlag, &evt)) {
-			set_event(evt);
-			res = current->eventNumber;
-			//unchain
-			if (removeEventFlag) {
-				if (previous == NULL) {
-					irqRequests = current->next;
-				} else {
-					previous->next = current->next;
-				}
-				recycleIrqRequest(current);				
-			}
-			break;
-		} else {
-			previous = current;
-			current = current->next;
+	drainEventRing();
+
+	IrqRequest* current;
+	int evt;
+	if (readyCount != 0) {
+		current = ready[readyHead];
+		evt = current->event;
+		if (removeEventFlag) {
+			readyHead = (readyHead + 1) % IRQREQ_POOL_SIZE;
+			readyCount--;
+			current->signaled = false;
+		}
+	} else {
+		current = pollUnboundRequests(removeEventFlag, &evt);
+		if (current == NULL) {
+			return 0;
 		}
 	}
+
+	int res = current->eventNumber;
+	set_event(evt);
+	if (removeEventFlag) {
+		recycleIrqRequest(current);
+	}
 	return res;
 }
 
@@ -28,9 +28,20 @@ extern int squawk_check_unbound_event(int eventType, int clear_flag, int *event)
 
 /*
  * Fire a bound event.   The event must be a bound event.
+ * This may be called from an interrupt or signal handler, but not from more than one at a time.
  */
 extern void squawk_post_event(int threadNumber, int eventType, int value);
 
+/*
+ * The number of events that were dropped because the event ring was full.
+ */
+extern volatile unsigned int squawk_events_dropped;
+
+/*
+ * The number of requests to listen to an event that failed because the request pool was exhausted.
+ */
+extern unsigned int squawk_irq_requests_rejected;
+
 /*
  * Listen to the specified event.
  */
@@ -119,26 +119,70 @@ typedef struct globalsStruct {
     int         _cachedClassHits;
 #endif /* INTERPRETER_STATS */
 
+#if INTERFACE_CACHE_SIZE > 0
+    ByteAddress _interfaceCacheSite [INTERFACE_CACHE_SIZE];  /* The findslot instruction of each cache entry */
+    Address     _interfaceCacheKlass[INTERFACE_CACHE_SIZE];  /* The receiver class of each cache entry */
+    int         _interfaceCacheSlot [INTERFACE_CACHE_SIZE];  /* The resolved virtual slot of each cache entry */
+    int         _interfaceCacheUnloads;                      /* The value of GC.readOnlyObjectMemoryUnloads when the cache was last flushed */
+#endif /* INTERFACE_CACHE_SIZE */
+#ifdef INTERPRETER_STATS
+    int         _interfaceCacheAccesses;
+    int         _interfaceCacheHits;
+#endif /* INTERPRETER_STATS */
+
     Address    *_pendingMonitors;
     int         _pendingMonitorStackPointer;
+    jlong       _sliceStart;                 /* The time (sysTimeMicros) the current thread was switched to */
+    jlong       _sliceDeadline;              /* The time (sysTimeMicros) the current thread's time slice ends */
+    volatile int _sliceExpired;              /* Set by native threads to end the time slice early, cleared by the interpreter */
 #ifdef INTERPRETER_STATS
     int         _pendingMonitorAccesses;
     int         _pendingMonitorHits;
 #endif /* INTERPRETER_STATS */
 
+#if PARALLEL_CONTEXTS
+    struct executionContextStruct *_executionContext; /* The thread running this context, or null for the main thread */
+    struct SimpleMonitor_struct *_threadEventMonitor; /* Signalled by the native threads when they add an event */
+    volatile int _addedEvent;                /* Set by the native threads when they add an event */
+    EventRequest *_eventRequests;            /* The events that have occurred or are being waited for */
+    int         _nextEventNumber;            /* The number of the next event request */
+    NativeTask *_freeNativeTasks;            /* The pool of NativeTasks that can be reused */
+    int         _freeNativeTaskCount;        /* The number of NativeTasks in the pool */
+    volatile int _io_shutting_down;          /* Set when the I/O system is shut down */
+    int         _ioInitialized;              /* Set when the I/O system is initialized */
+    char       *_exceptionClassName;         /* The exception raised by the last I/O operation */
+    jlong       _retValue;                   /* The value to be returned on the next "get result" call */
+    int         _pfd[2];                     /* The pipe used to cancel a select call */
+#endif /* PARALLEL_CONTEXTS */
+
 } Globals;
 
+#if PARALLEL_CONTEXTS
+/**
+ * An execution context that runs on its own OS thread, with its own globals and heap.
+ */
+typedef struct executionContextStruct {
+    Globals     globals;                     /* The globals of the context */
+    pthread_t   thread;                      /* The thread running the context */
+    int         argc;                        /* The number of command line arguments for the context */
+    char      **argv;                        /* The command line arguments for the context */
+    int         exitCode;                    /* The exit code the context stopped with */
+} ExecutionContext;
+#endif /* PARALLEL_CONTEXTS */
+
 
 /*=======================================================================*\
  *                          Truly global globals                         *
 \*=======================================================================*/
 
-Globals *gp;              /* The pointer to the global execution context */
+CONTEXT_LOCAL Globals *gp; /* The pointer to the global execution context */
 Globals userGlobals;      /* The user mode execution context */
 
 #if KERNEL_SQUAWK
 Globals kernelGlobals;    /* The kernel mode execution context */
 #define defineGlobal(x) gp->_##x
+#elif PARALLEL_CONTEXTS
+#define defineGlobal(x) gp->_##x
 #else
 #define defineGlobal(x) userGlobals._##x
 #endif
@@ -172,6 +216,10 @@ boolean     kernelSendNotify;           /* Control whether to notify potential (
 
 boolean     notrap;
 
+#if SUITE_IMAGES
+boolean     saveSuiteImage;             /* If true, a relocated image of the bootstrap suite is written for later runs to map */
+#endif /* SUITE_IMAGES */
+
 /*=======================================================================*\
  *                             Virtual globals                           *
 \*=======================================================================*/
@@ -226,8 +274,20 @@ boolean     notrap;
 #define cachedClassHits                     defineGlobal(cachedClassHits)
 #endif /* INTERPRETER_STATS */
 
+#define interfaceCacheSite                  defineGlobal(interfaceCacheSite)
+#define interfaceCacheKlass                 defineGlobal(interfaceCacheKlass)
+#define interfaceCacheSlot                  defineGlobal(interfaceCacheSlot)
+#define interfaceCacheUnloads               defineGlobal(interfaceCacheUnloads)
+#ifdef INTERPRETER_STATS
+#define interfaceCacheAccesses              defineGlobal(interfaceCacheAccesses)
+#define interfaceCacheHits                  defineGlobal(interfaceCacheHits)
+#endif /* INTERPRETER_STATS */
+
 #define pendingMonitors                     defineGlobal(pendingMonitors)
 #define pendingMonitorStackPointer          defineGlobal(pendingMonitorStackPointer)
+#define sliceStart                          defineGlobal(sliceStart)
+#define sliceDeadline                       defineGlobal(sliceDeadline)
+#define sliceExpired                        defineGlobal(sliceExpired)
 #ifdef INTERPRETER_STATS
 #define pendingMonitorAccesses              defineGlobal(pendingMonitorAccesses)
 #define pendingMonitorHits                  defineGlobal(pendingMonitorHits)
@@ -245,6 +305,21 @@ boolean     notrap;
 
 #define nativeFuncPtr                       defineGlobal(nativeFuncPtr)
 
+#if PARALLEL_CONTEXTS
+#define executionContext                    defineGlobal(executionContext)
+#define threadEventMonitor                  defineGlobal(threadEventMonitor)
+#define addedEvent                          defineGlobal(addedEvent)
+#define eventRequests                       defineGlobal(eventRequests)
+#define nextEventNumber                     defineGlobal(nextEventNumber)
+#define freeNativeTasks                     defineGlobal(freeNativeTasks)
+#define freeNativeTaskCount                 defineGlobal(freeNativeTaskCount)
+#define io_shutting_down                    defineGlobal(io_shutting_down)
+#define ioInitialized                       defineGlobal(ioInitialized)
+#define exceptionClassName                  defineGlobal(exceptionClassName)
+#define retValue                            defineGlobal(retValue)
+#define pfd                                 defineGlobal(pfd)
+#endif /* PARALLEL_CONTEXTS */
+
 #define STREAM_COUNT                        (sizeof(Streams) / sizeof(FILE*))
 
 #if TRACE
@@ -186,12 +186,25 @@ typedef enum {
             TASK_EXECUTOR_STATUS_ERROR
             } TaskExecutorStatus;
 
+/**
+ * WARNING: NativeUnsafe.java has hardcoded offsets for queueLength, maxQueueLength and tasksRun.
+ *          These hardcoded values are validated at startup in IO_initialize().
+ */
 typedef struct TaskExecutor_struct {
+    /* Java code can read these directly via unsafe */
+    int volatile queueLength;    /* the number of tasks on runQ */
+    int volatile maxQueueLength; /* the largest number of tasks ever on runQ */
+    int volatile tasksRun;       /* the number of tasks run */
+
     struct SimpleMonitor_struct* monitor;
     NativeTask* volatile runQ;
+    NativeTask* runQTail;        /* the last task on runQ, valid only when runQ is not NULL */
     volatile TaskExecutorStatus status;
     int te_errno;
     NativeTaskID id;
+#if PARALLEL_CONTEXTS
+    struct globalsStruct* context; /* the execution context that created the TaskExecutor */
+#endif
 } TaskExecutor;
 
 /**